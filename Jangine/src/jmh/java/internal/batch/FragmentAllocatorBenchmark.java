@@ -0,0 +1,207 @@
+package internal.batch;
+
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Churns through meshes of random sizes, which are added and removed in a fixed order,
+ * once with the {@link FragmentAllocator} and once with the position ordered map it replaced.
+ * Every slot holds one live range, which is freed before the slot gets a new one, so the amount of live ranges stays constant.
+ *
+ * @author Tim Kloepper
+ * @version 1.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FragmentAllocatorBenchmark {
+
+
+    // -+- PARAMETERS -+- //
+
+    // FINALS //
+
+    private static final int OPERATION_AMOUNT = 8192;
+    private static final int MAX_SIZE = 64;
+
+    // NON-FINALS //
+
+    @Param({"64", "512"})
+    public int slotAmount;
+
+    private int[] _sizes, _slots;
+    private int[] _positions, _amounts;
+
+    private FragmentAllocator _allocator;
+    private TreeMapAllocator _treeMapAllocator;
+
+
+    // -+- SETUP -+- //
+
+    @Setup
+    public void setup() {
+        Random random;
+
+        random = new Random(25);
+
+        _sizes = new int[OPERATION_AMOUNT];
+        _slots = new int[OPERATION_AMOUNT];
+
+        for (int operation = 0; operation < OPERATION_AMOUNT; operation++) {
+            _sizes[operation] = 1 + random.nextInt(MAX_SIZE);
+            _slots[operation] = random.nextInt(slotAmount);
+        }
+
+        _positions = new int[slotAmount];
+        _amounts = new int[slotAmount];
+
+        // Twice the largest possible amount of live elements, so the allocators fragment, but never run full.
+        _allocator = new FragmentAllocator(slotAmount * MAX_SIZE * 2);
+        _treeMapAllocator = new TreeMapAllocator(slotAmount * MAX_SIZE * 2);
+    }
+
+
+    // -+- BENCHMARKS -+- //
+
+    @Benchmark
+    public int segregatedFit() {
+        int failures;
+
+        _allocator.clear();
+        Arrays.fill(_amounts, 0);
+
+        failures = 0;
+
+        for (int operation = 0; operation < OPERATION_AMOUNT; operation++) {
+            int slot;
+
+            slot = _slots[operation];
+
+            if (_amounts[slot] != 0) _allocator.free(_positions[slot], _amounts[slot]);
+
+            _positions[slot] = _allocator.allocate(_sizes[operation]);
+            _amounts[slot] = _positions[slot] == -1 ? 0 : _sizes[operation];
+
+            if (_positions[slot] == -1) failures++;
+        }
+
+        return failures;
+    }
+    @Benchmark
+    public int treeMap() {
+        int failures;
+
+        _treeMapAllocator.clear();
+        Arrays.fill(_amounts, 0);
+
+        failures = 0;
+
+        for (int operation = 0; operation < OPERATION_AMOUNT; operation++) {
+            int slot;
+
+            slot = _slots[operation];
+
+            if (_amounts[slot] != 0) _treeMapAllocator.free(_positions[slot], _amounts[slot]);
+
+            _positions[slot] = _treeMapAllocator.allocate(_sizes[operation]);
+            _amounts[slot] = _positions[slot] == -1 ? 0 : _sizes[operation];
+
+            if (_positions[slot] == -1) failures++;
+        }
+
+        return failures;
+    }
+
+
+    // -+- CLASSES -+- //
+
+    /**
+     * Works like the allocator before the {@link FragmentAllocator}, keeping the free fragments in a map ordered by position.
+     * Allocating takes the first large enough fragment in position order,
+     * and every added fragment scans the whole map for neighbours, until nothing is merged anymore.
+     *
+     * @author Tim Kloepper
+     */
+    private static class TreeMapAllocator {
+
+
+        TreeMapAllocator(int capacity) {
+            _CAPACITY = capacity;
+            _FRAGMENTS = new TreeMap<>();
+        }
+
+
+        private final int _CAPACITY;
+        private final TreeMap<Integer, Integer> _FRAGMENTS;
+
+
+        void clear() {
+            _FRAGMENTS.clear();
+            _FRAGMENTS.put(0, _CAPACITY);
+        }
+
+        int allocate(int amount) {
+            for (Map.Entry<Integer, Integer> fragment : _FRAGMENTS.entrySet()) {
+                int position, size;
+
+                position = fragment.getKey();
+                size = fragment.getValue();
+
+                if (size < amount) continue;
+
+                _FRAGMENTS.remove(position);
+                if (size > amount) _FRAGMENTS.put(position + amount, size - amount);
+
+                return position;
+            }
+
+            return -1;
+        }
+        void free(int position, int amount) {
+            _FRAGMENTS.put(position, amount);
+
+            while (h_tryMerging());
+        }
+
+        private boolean h_tryMerging() {
+            for (Map.Entry<Integer, Integer> fragment : _FRAGMENTS.entrySet()) {
+                Map.Entry<Integer, Integer> higher;
+
+                higher = _FRAGMENTS.higherEntry(fragment.getKey());
+
+                if (higher == null || fragment.getKey() + fragment.getValue() != higher.getKey()) continue;
+
+                _FRAGMENTS.remove(higher.getKey());
+                _FRAGMENTS.put(fragment.getKey(), fragment.getValue() + higher.getValue());
+
+                return true;
+            }
+
+            return false;
+        }
+
+
+    }
+
+
+}
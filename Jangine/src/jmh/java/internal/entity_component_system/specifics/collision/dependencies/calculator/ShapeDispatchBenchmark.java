@@ -0,0 +1,125 @@
+package internal.entity_component_system.specifics.collision.dependencies.calculator;
+
+
+import internal.entity_component_system.specifics.collision.data.ObjectData;
+import internal.entity_component_system.specifics.hitbox.A_HitboxComponent;
+import internal.entity_component_system.specifics.hitbox.CircleHitboxComponent;
+import internal.entity_component_system.specifics.hitbox.RectangleHitboxComponent;
+import internal.entity_component_system.specifics.position.PositionComponent;
+import org.joml.Vector2d;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Checks a mix of rectangle and circle pairs, once through the shape ids compared by the {@link AABB_Calculator}
+ * and once through a chain of type checks, as the calculator used to find the check for a pair.
+ *
+ * @author Tim Kloepper
+ * @version 1.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ShapeDispatchBenchmark {
+
+
+    // -+- PARAMETERS -+- //
+
+    // FINALS //
+
+    private static final int PAIR_AMOUNT = 4096;
+
+    // NON-FINALS //
+
+    private AABB_Calculator _calculator;
+    private ObjectData[] _objectsA, _objectsB;
+
+
+    // -+- SETUP -+- //
+
+    @Setup
+    public void setup() {
+        Random random;
+
+        random = new Random(16);
+
+        _calculator = new AABB_Calculator();
+        _objectsA = new ObjectData[PAIR_AMOUNT];
+        _objectsB = new ObjectData[PAIR_AMOUNT];
+
+        for (int pair = 0; pair < PAIR_AMOUNT; pair++) {
+            _objectsA[pair] = h_createObject(random);
+            _objectsB[pair] = h_createObject(random);
+        }
+    }
+    private static ObjectData h_createObject(Random random) {
+        A_HitboxComponent hitbox;
+
+        if (random.nextBoolean()) hitbox = new RectangleHitboxComponent(1 + random.nextDouble() * 4, 1 + random.nextDouble() * 4);
+        else hitbox = new CircleHitboxComponent(1 + random.nextDouble() * 2);
+
+        return new ObjectData(hitbox, new PositionComponent(new Vector2d(random.nextDouble() * 8, random.nextDouble() * 8)));
+    }
+
+
+    // -+- BENCHMARKS -+- //
+
+    @Benchmark
+    public int shapeDispatch() {
+        int collisions;
+
+        collisions = 0;
+
+        for (int pair = 0; pair < PAIR_AMOUNT; pair++) {
+            if (_calculator.isCollidingWith(_objectsA[pair], _objectsB[pair])) collisions++;
+        }
+
+        return collisions;
+    }
+    @Benchmark
+    public int instanceofDispatch() {
+        int collisions;
+
+        collisions = 0;
+
+        for (int pair = 0; pair < PAIR_AMOUNT; pair++) {
+            if (h_isColliding(_objectsA[pair], _objectsB[pair])) collisions++;
+        }
+
+        return collisions;
+    }
+
+    private boolean h_isColliding(ObjectData objA, ObjectData objB) {
+        A_HitboxComponent hitboxA, hitboxB;
+        Vector2d positionA, positionB;
+
+        hitboxA = objA.hitboxComponent;
+        hitboxB = objB.hitboxComponent;
+        positionA = objA.positionComponent.position;
+        positionB = objB.positionComponent.position;
+
+        if (hitboxA instanceof RectangleHitboxComponent && hitboxB instanceof RectangleHitboxComponent) return _calculator.h_isColliding((RectangleHitboxComponent) hitboxA, positionA, (RectangleHitboxComponent) hitboxB, positionB);
+        if (hitboxA instanceof RectangleHitboxComponent && hitboxB instanceof CircleHitboxComponent) return _calculator.h_isColliding((RectangleHitboxComponent) hitboxA, positionA, (CircleHitboxComponent) hitboxB, positionB);
+        if (hitboxA instanceof CircleHitboxComponent && hitboxB instanceof RectangleHitboxComponent) return _calculator.h_isColliding((CircleHitboxComponent) hitboxA, positionA, (RectangleHitboxComponent) hitboxB, positionB);
+        if (hitboxA instanceof CircleHitboxComponent && hitboxB instanceof CircleHitboxComponent) return _calculator.h_isColliding((CircleHitboxComponent) hitboxA, positionA, (CircleHitboxComponent) hitboxB, positionB);
+
+        return false;
+    }
+
+
+}
@@ -0,0 +1,97 @@
+package internal.entity_component_system.specifics.motion;
+
+
+import org.joml.Vector2d;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Integrates the same bodies once as pairs of {@link Vector2d} objects, like the position and
+ * velocity components hold them, and once through the parallel arrays of the {@link MotionStorage},
+ * with the scalar loop and with the Vector API.
+ *
+ * @author Tim Kloepper
+ * @version 1.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MotionBenchmark {
+
+
+    // -+- PARAMETERS -+- //
+
+    // NON-FINALS //
+
+    @Param({"1024", "65536"})
+    public int bodyAmount;
+
+    private Vector2d[] _positions, _velocities;
+
+    private MotionStorage _storage;
+
+
+    // -+- SETUP -+- //
+
+    @Setup
+    public void setup() {
+        Random random;
+
+        random = new Random(7);
+
+        _positions = new Vector2d[bodyAmount];
+        _velocities = new Vector2d[bodyAmount];
+        _storage = new MotionStorage(bodyAmount);
+
+        for (int index = 0; index < bodyAmount; index++) {
+            MotionComponent component;
+
+            _positions[index] = new Vector2d(random.nextDouble(), random.nextDouble());
+            _velocities[index] = new Vector2d(random.nextDouble(), random.nextDouble());
+
+            component = new MotionComponent(_positions[index].x, _positions[index].y, _velocities[index].x, _velocities[index].y);
+            _storage.add(component);
+            _storage.activate(component);
+        }
+    }
+
+
+    // -+- BENCHMARKS -+- //
+
+    @Benchmark
+    public Vector2d[] objects() {
+        for (int index = 0; index < bodyAmount; index++) _positions[index].add(_velocities[index]);
+
+        return _positions;
+    }
+    @Benchmark
+    public MotionStorage arrays() {
+        _storage.integrate(false);
+
+        return _storage;
+    }
+    @Benchmark
+    public MotionStorage vectorized() {
+        _storage.integrate(true);
+
+        return _storage;
+    }
+
+
+}
@@ -5,8 +5,12 @@ import internal.rendering.mesh.A_Mesh;
 import internal.rendering.mesh.MeshInfo;
 import internal.rendering.shader.ShaderProgram;
 
+import org.lwjgl.opengl.GL;
+import org.lwjgl.opengl.GLCapabilities;
+
 import javax.naming.SizeLimitExceededException;
-import java.util.Arrays;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Set;
@@ -20,26 +24,80 @@ import static org.lwjgl.opengl.GL15.GL_ELEMENT_ARRAY_BUFFER;
 import static org.lwjgl.opengl.GL15.glBindBuffer;
 import static org.lwjgl.opengl.GL15.glBufferData;
 import static org.lwjgl.opengl.GL15.glBufferSubData;
+import static org.lwjgl.opengl.GL15.glDeleteBuffers;
 import static org.lwjgl.opengl.GL15.glGenBuffers;
+import static org.lwjgl.opengl.GL15.glUnmapBuffer;
+import static org.lwjgl.opengl.GL15.nglBufferSubData;
+import static org.lwjgl.opengl.GL30.GL_MAP_WRITE_BIT;
 import static org.lwjgl.opengl.GL30.glBindVertexArray;
+import static org.lwjgl.opengl.GL30.glDeleteVertexArrays;
 import static org.lwjgl.opengl.GL30.glGenVertexArrays;
-
-
+import static org.lwjgl.opengl.GL30.glMapBufferRange;
+import static org.lwjgl.opengl.GL32.GL_SYNC_FLUSH_COMMANDS_BIT;
+import static org.lwjgl.opengl.GL32.GL_SYNC_GPU_COMMANDS_COMPLETE;
+import static org.lwjgl.opengl.GL32.GL_TIMEOUT_EXPIRED;
+import static org.lwjgl.opengl.GL32.glClientWaitSync;
+import static org.lwjgl.opengl.GL32.glDeleteSync;
+import static org.lwjgl.opengl.GL32.glDrawElementsBaseVertex;
+import static org.lwjgl.opengl.GL32.glFenceSync;
+import static org.lwjgl.opengl.GL44.GL_MAP_COHERENT_BIT;
+import static org.lwjgl.opengl.GL44.GL_MAP_PERSISTENT_BIT;
+import static org.lwjgl.opengl.GL44.glBufferStorage;
+import static org.lwjgl.system.MemoryUtil.memAddress;
+import static org.lwjgl.system.MemoryUtil.memCallocFloat;
+import static org.lwjgl.system.MemoryUtil.memCallocInt;
+import static org.lwjgl.system.MemoryUtil.memCopy;
+import static org.lwjgl.system.MemoryUtil.memFloatBuffer;
+import static org.lwjgl.system.MemoryUtil.memFree;
+import static org.lwjgl.system.MemoryUtil.memSet;
+
+
+/**
+ * Holds the vertices and indices of multiple meshes, which are all drawn with one draw call. <br>
+ * Adding, updating and removing meshes only changes the copy on the cpu side and marks the changed ranges as dirty.
+ * They are uploaded at most once per frame, right before drawing.
+ * The copy lives in native memory, so ranges are uploaded straight from it, without being copied first,
+ * and it needs to be freed with {@link A_Batch#dispose()}.
+ * <p></p>
+ * If the driver supports buffer storage, the vertices are streamed into a persistently mapped buffer,
+ * which is split into one region per buffered frame by a {@link RingAllocator}.
+ * Every frame with changes writes the next region, after waiting for the fence of the last draw reading from it,
+ * and draws from it with a base vertex.
+ * As a region still holds the vertices of the frame, in which it was written last, only the ranges that changed
+ * since then are copied into it. <br>
+ * Otherwise, the vertex buffer is orphaned and the vertices are uploaded with a single call.
+ *
+ * @author Tim Kloepper
+ * @version 1.0
+ */
 public abstract class A_Batch<T extends A_Mesh> {
 
 
     // -+- CREATION -+- //
 
     public A_Batch(ShaderProgram shader, int vertices_amount, int vertex_size, int indices_amount) {
+        GLCapabilities capabilities;
+
         _shader = shader;
 
         _MESH_INFO = new HashMap<>();
 
-        _VERTICES = new float[vertices_amount * vertex_size];
+        _VERTEX_SIZE = vertex_size;
+        _VERTICES = memCallocFloat(vertices_amount * vertex_size);
         _VERTICES_ALLOCATOR = new FragmentAllocator(vertices_amount * vertex_size);
-        _INDICES = new int[indices_amount];
+        _INDICES = memCallocInt(indices_amount);
         _INDICES_ALLOCATOR = new FragmentAllocator(indices_amount);
 
+        _VERTEX_RANGES = new DirtyRangeTracker(DirtyRangeTracker.DEFAULT_MERGE_GAP);
+        _INDEX_RANGES = new DirtyRangeTracker(DirtyRangeTracker.DEFAULT_MERGE_GAP);
+
+        capabilities = GL.getCapabilities();
+        _PERSISTENT = capabilities.OpenGL44 || capabilities.GL_ARB_buffer_storage;
+        _RING = _PERSISTENT ? new RingAllocator(_VERTICES.capacity(), BUFFERED_FRAMES) : null;
+        _REGION_RANGES = _PERSISTENT ? new DirtyRangeTracker[BUFFERED_FRAMES] : null;
+
+        if (_PERSISTENT) for (int region = 0; region < BUFFERED_FRAMES; region++) _REGION_RANGES[region] = new DirtyRangeTracker(DirtyRangeTracker.DEFAULT_MERGE_GAP);
+
         // Needs to be called after initializing the vertices and indices arrays.
         _VAO_ID = h_generateVAO();
         _VBO_ID = h_generateVBO();
@@ -47,6 +105,9 @@ public abstract class A_Batch<T extends A_Mesh> {
 
         p_genVertexAttribPointers();
 
+        // The persistently mapped storage starts out undefined.
+        if (_PERSISTENT) _VERTEX_RANGES.mark(0, _VERTICES.capacity());
+
         glBindVertexArray(0);
         glBindBuffer(GL_ELEMENT_ARRAY_BUFFER, 0);
     }
@@ -65,7 +126,16 @@ public abstract class A_Batch<T extends A_Mesh> {
         id = glGenBuffers();
 
         glBindBuffer(GL_ARRAY_BUFFER, id);
-        glBufferData(GL_ARRAY_BUFFER, _VERTICES, GL_DYNAMIC_DRAW);
+
+        if (!_PERSISTENT) {
+            glBufferData(GL_ARRAY_BUFFER, _VERTICES, GL_DYNAMIC_DRAW);
+
+            return id;
+        }
+
+        // Immutable storage, which stays mapped and coherent for the lifetime of the batch.
+        glBufferStorage(GL_ARRAY_BUFFER, (long) _RING.getCapacity() * Float.BYTES, MAPPING_FLAGS);
+        _mappedAddress = memAddress(glMapBufferRange(GL_ARRAY_BUFFER, 0, (long) _RING.getCapacity() * Float.BYTES, MAPPING_FLAGS));
 
         return id;
     }
@@ -87,22 +157,46 @@ public abstract class A_Batch<T extends A_Mesh> {
 
     // FINALS //
 
+    // The amount of frames, the gpu may still read from the persistently mapped buffer, while the next one is written.
+    public static final int BUFFERED_FRAMES = 3;
+
+    private static final int MAPPING_FLAGS = GL_MAP_WRITE_BIT | GL_MAP_PERSISTENT_BIT | GL_MAP_COHERENT_BIT;
+    // In nanoseconds.
+    private static final long FENCE_TIMEOUT = 1_000_000;
+
     private final HashMap<T, MeshInfo> _MESH_INFO;
 
-    private final float[] _VERTICES;
+    private final int _VERTEX_SIZE;
+    // Both are allocated in native memory and only ever accessed with absolute positions.
+    private final FloatBuffer _VERTICES;
     private final FragmentAllocator _VERTICES_ALLOCATOR;
 
-    private final int[] _INDICES;
+    private final IntBuffer _INDICES;
     private final FragmentAllocator _INDICES_ALLOCATOR;
 
+    // The ranges of both arrays, that changed since the last upload.
+    private final DirtyRangeTracker _VERTEX_RANGES;
+    private final DirtyRangeTracker _INDEX_RANGES;
+
     private final int _VBO_ID;
     private final int _EBO_ID;
     private final int _VAO_ID;
 
+    // Only set if the vertices are streamed through a persistently mapped buffer.
+    private final boolean _PERSISTENT;
+    private final RingAllocator _RING;
+    // The ranges of every region, that changed since the region was written last.
+    private final DirtyRangeTracker[] _REGION_RANGES;
+
     // NON-FINALS //
 
     private ShaderProgram _shader;
 
+    private long _mappedAddress;
+    // The first vertex of the region drawn from.
+    private int _baseVertex;
+
+
 
     // -+- MESH MANAGEMENT -+- //
 
@@ -137,10 +231,10 @@ public abstract class A_Batch<T extends A_Mesh> {
             if (nextFreeIndex == -1) throw new RuntimeException(new SizeLimitExceededException("[BATCH ERROR] : Not enough space for the indices!"));
         }
 
-        // Add to internal arrays.
-        System.arraycopy(vertices, 0, _VERTICES, nextFreeVertex, vertices.length);
+        // Add to internal buffers.
+        _VERTICES.put(nextFreeVertex, vertices);
         for (int index = 0; index < indices.length; index++) {
-            _INDICES[nextFreeIndex + index] = indices[index] + (nextFreeVertex / mesh.getVertexSize());
+            _INDICES.put(nextFreeIndex + index, indices[index] + (nextFreeVertex / mesh.getVertexSize()));
         }
 
         MeshInfo info;
@@ -148,11 +242,9 @@ public abstract class A_Batch<T extends A_Mesh> {
         info = new MeshInfo(mesh);
         info.addedToBatch(nextFreeVertex, nextFreeIndex);
 
-        // Add to buffers.
-        glBindBuffer(GL_ARRAY_BUFFER, _VBO_ID);
-        glBufferSubData(GL_ARRAY_BUFFER, (long) info.vertexPointer * Float.BYTES, mesh.vertices);
-        glBindBuffer(GL_ELEMENT_ARRAY_BUFFER, _EBO_ID);
-        glBufferSubData(GL_ELEMENT_ARRAY_BUFFER, (long) info.indexPointer * Integer.BYTES, Arrays.copyOfRange(_INDICES, info.indexPointer, info.indexPointer + info.indicesAmount));
+        // Uploaded with the next render call.
+        _VERTEX_RANGES.mark(nextFreeVertex, vertices.length);
+        _INDEX_RANGES.mark(nextFreeIndex, indices.length);
 
         // Add to registry for updates.
         _MESH_INFO.put(mesh, info);
@@ -170,14 +262,14 @@ public abstract class A_Batch<T extends A_Mesh> {
 
         if (info == null) return false;
 
-        glBindBuffer(GL_ARRAY_BUFFER, _VBO_ID);
-        glBufferSubData(GL_ARRAY_BUFFER, (long) info.vertexPointer * Float.BYTES, new float[info.verticesAmount * info.vertexSize]);
-        glBindBuffer(GL_ELEMENT_ARRAY_BUFFER, _EBO_ID);
-        glBufferSubData(GL_ELEMENT_ARRAY_BUFFER, (long) info.indexPointer * Integer.BYTES, new int[info.indicesAmount]);
-        glBindBuffer(GL_ELEMENT_ARRAY_BUFFER, 0);
+        memSet(memAddress(_VERTICES, info.vertexPointer), 0, (long) info.verticesAmount * info.vertexSize * Float.BYTES);
+        memSet(memAddress(_INDICES, info.indexPointer), 0, (long) info.indicesAmount * Integer.BYTES);
+
+        _VERTEX_RANGES.mark(info.vertexPointer, info.verticesAmount * info.vertexSize);
+        _INDEX_RANGES.mark(info.indexPointer, info.indicesAmount);
 
-        _VERTICES_ALLOCATOR.addFragment(new FragmentNode(info.vertexPointer, info.verticesAmount * info.vertexSize));
-        _INDICES_ALLOCATOR.addFragment(new FragmentNode(info.indexPointer, info.indicesAmount));
+        _VERTICES_ALLOCATOR.free(info.vertexPointer, info.verticesAmount * info.vertexSize);
+        _INDICES_ALLOCATOR.free(info.indexPointer, info.indicesAmount);
 
         info.removedFromBatch();
         _MESH_INFO.remove(mesh);
@@ -214,19 +306,43 @@ public abstract class A_Batch<T extends A_Mesh> {
             return;
         }
 
-        System.arraycopy(mesh.vertices, 0, _VERTICES, info.vertexPointer, mesh.vertices.length);
+        _VERTICES.put(info.vertexPointer, mesh.vertices);
         for (int index = 0; index < mesh.indices.length; index++) {
-            _INDICES[index + info.indexPointer] = mesh.indices[index] + info.vertexPointer;
+            _INDICES.put(index + info.indexPointer, mesh.indices[index] + info.vertexPointer / info.vertexSize);
         }
 
-        glBindBuffer(GL_ARRAY_BUFFER, _VBO_ID);
-        glBufferSubData(GL_ARRAY_BUFFER, (long) info.vertexPointer * Float.BYTES, mesh.vertices);
-        glBindBuffer(GL_ELEMENT_ARRAY_BUFFER, _EBO_ID);
-        glBufferSubData(GL_ELEMENT_ARRAY_BUFFER, (long) info.indexPointer * Integer.BYTES, Arrays.copyOfRange(_INDICES, info.indexPointer, info.indexPointer + mesh.indices.length));
+        _VERTEX_RANGES.mark(info.vertexPointer, mesh.vertices.length);
+        _INDEX_RANGES.mark(info.indexPointer, mesh.indices.length);
 
         p_onMeshUpdated(mesh);
     }
 
+    /**
+     * Returns a view into the vertices of the mesh inside this batch, through which they can be written directly,
+     * without going through the vertices of the mesh and {@link A_Batch#updateMesh(A_Mesh)}. <br>
+     * The whole range of the mesh gets uploaded with the next render call, so the view needs to be requested again every frame.
+     * The vertices of the mesh itself are not changed and overwrite the view, once the mesh is updated.
+     *
+     * @param mesh The mesh inside this batch
+     *
+     * @return A view of the vertices, which is only valid until the mesh is removed or the batch is flushed
+     *
+     * @author Tim Kloepper
+     */
+    public FloatBuffer getVertexView(T mesh) {
+        MeshInfo info;
+
+        if (mesh == null) throw new IllegalStateException("[BATCH ERROR] : Mesh is null!");
+
+        info = _MESH_INFO.get(mesh);
+
+        if (info == null) throw new IllegalStateException("[BATCH ERROR] : Mesh is not in this batch and can therefore not be written!");
+
+        _VERTEX_RANGES.mark(info.vertexPointer, info.verticesAmount * info.vertexSize);
+
+        return memFloatBuffer(memAddress(_VERTICES, info.vertexPointer), info.verticesAmount * info.vertexSize);
+    }
+
     protected abstract void p_onMeshAdded(T mesh);
     protected abstract void p_onMeshRemoved(T mesh);
     protected abstract void p_onMeshUpdated(T mesh);
@@ -235,26 +351,55 @@ public abstract class A_Batch<T extends A_Mesh> {
     // -+- BUFFER MANAGEMENT -+- //
 
     public void flush() {
-        Arrays.fill(_VERTICES, 0, _VERTICES.length, 0);
-        Arrays.fill(_INDICES, 0, _INDICES.length, 0);
+        memSet(memAddress(_VERTICES), 0, (long) _VERTICES.capacity() * Float.BYTES);
+        memSet(memAddress(_INDICES), 0, (long) _INDICES.capacity() * Integer.BYTES);
 
         _VERTICES_ALLOCATOR.clear();
         _INDICES_ALLOCATOR.clear();
 
-        glBindBuffer(GL_ARRAY_BUFFER, _VBO_ID);
-        glBufferData(GL_ARRAY_BUFFER, _VERTICES, GL_DYNAMIC_DRAW);
-        glBindBuffer(GL_ELEMENT_ARRAY_BUFFER, _EBO_ID);
-        glBufferData(GL_ELEMENT_ARRAY_BUFFER, _INDICES, GL_DYNAMIC_DRAW);
+        // The storage of a persistently mapped buffer is immutable, so the cleared arrays are only uploaded with the next frame.
+        _VERTEX_RANGES.mark(0, _VERTICES.capacity());
+        _INDEX_RANGES.mark(0, _INDICES.capacity());
 
         _MESH_INFO.clear();
 
         p_onFlush();
-
-        glBindBuffer(GL_ELEMENT_ARRAY_BUFFER, 0);
     }
 
     protected abstract void p_onFlush();
 
+    /**
+     * Frees the native memory and all buffers of this batch, which can not be used afterward.
+     * Needs the OpenGL context of the batch to be current.
+     *
+     * @author Tim Kloepper
+     */
+    public void dispose() {
+        if (_PERSISTENT) {
+            glBindBuffer(GL_ARRAY_BUFFER, _VBO_ID);
+            glUnmapBuffer(GL_ARRAY_BUFFER);
+            glBindBuffer(GL_ARRAY_BUFFER, 0);
+
+            for (int region = 0; region < _RING.getRegionAmount(); region++) {
+                long fence;
+
+                _RING.nextRegion();
+
+                fence = _RING.takeFence();
+                if (fence != RingAllocator.NO_FENCE) glDeleteSync(fence);
+            }
+        }
+
+        glDeleteBuffers(_VBO_ID);
+        glDeleteBuffers(_EBO_ID);
+        glDeleteVertexArrays(_VAO_ID);
+
+        memFree(_VERTICES);
+        memFree(_INDICES);
+
+        _MESH_INFO.clear();
+    }
+
     private void _rebuild() {
         HashSet<T> meshes;
 
@@ -269,39 +414,147 @@ public abstract class A_Batch<T extends A_Mesh> {
 
         _INDICES_ALLOCATOR.clear();
 
-        int index;
-
-        Arrays.fill(_INDICES, 0, _INDICES.length, 0);
-        index = 0;
+        memSet(memAddress(_INDICES), 0, (long) _INDICES.capacity() * Integer.BYTES);
 
+        // Allocating every mesh on its own after clearing packs them from the start, but keeps them freeable one by one.
         for (T mesh : _MESH_INFO.keySet()) {
             info = _MESH_INFO.get(mesh);
 
-            info.indexPointer = index;
+            info.indexPointer = _INDICES_ALLOCATOR.allocate(info.indicesAmount);
 
-            for (int indexValue : mesh.indices) {
-                _INDICES[index] = indexValue + info.vertexPointer;
+            for (int index = 0; index < info.indicesAmount; index++) {
+                _INDICES.put(info.indexPointer + index, mesh.indices[index] + info.vertexPointer / info.vertexSize);
+            }
+        }
 
-                index++;
+        _INDEX_RANGES.mark(0, _INDICES.capacity());
+    }
+
+    /**
+     * Uploads the ranges of the vertices and indices, that changed since the last frame.
+     * Neighbouring ranges are merged first, so many changed meshes only need a few uploads.
+     *
+     * @author Tim Kloepper
+     */
+    private void h_upload() {
+        if (!_VERTEX_RANGES.isEmpty()) {
+            if (_PERSISTENT) {
+                _VERTEX_RANGES.clear(h_streamVertices());
+            } else {
+                _VERTEX_RANGES.clear(h_uploadVertexRanges());
             }
         }
 
-        _INDICES_ALLOCATOR.allocate(index);
+        if (!_INDEX_RANGES.isEmpty()) _INDEX_RANGES.clear(h_uploadIndexRanges());
+    }
+    private int h_uploadVertexRanges() {
+        int ranges;
+
+        ranges = _VERTEX_RANGES.merge();
+
+        glBindBuffer(GL_ARRAY_BUFFER, _VBO_ID);
+
+        if (_VERTEX_RANGES.getCoveredAmount() * 2 > _VERTICES.capacity()) {
+            h_orphanVertices();
+
+            return 1;
+        }
+
+        for (int range = 0; range < ranges; range++) {
+            nglBufferSubData(GL_ARRAY_BUFFER, (long) _VERTEX_RANGES.getStart(range) * Float.BYTES, (long) _VERTEX_RANGES.getLength(range) * Float.BYTES, memAddress(_VERTICES, _VERTEX_RANGES.getStart(range)));
+        }
+
+        return ranges;
+    }
+    private int h_uploadIndexRanges() {
+        int ranges;
+
+        ranges = _INDEX_RANGES.merge();
 
         glBindBuffer(GL_ELEMENT_ARRAY_BUFFER, _EBO_ID);
-        glBufferData(GL_ELEMENT_ARRAY_BUFFER, _INDICES, GL_DYNAMIC_DRAW);
+
+        // Uploading everything at once is cheaper, than many uploads covering most of the buffer.
+        if (_INDEX_RANGES.getCoveredAmount() * 2 > _INDICES.capacity()) {
+            glBufferSubData(GL_ELEMENT_ARRAY_BUFFER, 0, _INDICES);
+
+            return 1;
+        }
+
+        for (int range = 0; range < ranges; range++) {
+            nglBufferSubData(GL_ELEMENT_ARRAY_BUFFER, (long) _INDEX_RANGES.getStart(range) * Integer.BYTES, (long) _INDEX_RANGES.getLength(range) * Integer.BYTES, memAddress(_INDICES, _INDEX_RANGES.getStart(range)));
+        }
+
+        return ranges;
+    }
+    private int h_streamVertices() {
+        DirtyRangeTracker regionRanges;
+
+        int offset, ranges;
+
+        ranges = _VERTEX_RANGES.merge();
+
+        // Every region misses the changes of this frame, until it is written the next time.
+        for (DirtyRangeTracker tracker : _REGION_RANGES) {
+            for (int range = 0; range < ranges; range++) tracker.mark(_VERTEX_RANGES.getStart(range), _VERTEX_RANGES.getLength(range));
+        }
+
+        _RING.nextRegion();
+
+        // The gpu might still read from the region, if it was drawn from frames ago.
+        h_waitFence(_RING.takeFence());
+
+        offset = _RING.allocate(_VERTICES.capacity());
+
+        // Replays the changes of all the frames since the region was written last.
+        regionRanges = _REGION_RANGES[_RING.getRegion()];
+        ranges = regionRanges.merge();
+
+        for (int range = 0; range < ranges; range++) {
+            memCopy(memAddress(_VERTICES, regionRanges.getStart(range)), _mappedAddress + (long) (offset + regionRanges.getStart(range)) * Float.BYTES, (long) regionRanges.getLength(range) * Float.BYTES);
+        }
+
+        regionRanges.clear(ranges);
+
+        _baseVertex = offset / _VERTEX_SIZE;
+
+        return ranges;
+    }
+    private void h_orphanVertices() {
+        // Gives the buffer new storage, so the driver does not need to wait for draws still reading the old one.
+        glBufferData(GL_ARRAY_BUFFER, (long) _VERTICES.capacity() * Float.BYTES, GL_DYNAMIC_DRAW);
+        glBufferSubData(GL_ARRAY_BUFFER, 0, _VERTICES);
+    }
+
+    private static void h_waitFence(long fence) {
+        if (fence == RingAllocator.NO_FENCE) return;
+
+        while (glClientWaitSync(fence, GL_SYNC_FLUSH_COMMANDS_BIT, FENCE_TIMEOUT) == GL_TIMEOUT_EXPIRED);
+
+        glDeleteSync(fence);
     }
 
 
     // -+- RENDERING -+- //
 
     public void render(Camera2D camera) {
+        long fence;
+
+        h_upload();
+
         glBindVertexArray(_VAO_ID);
         _shader.use();
 
         p_prepareRendering(camera);
 
-        glDrawElements(GL_TRIANGLES, _INDICES.length, GL_UNSIGNED_INT, 0);
+        if (_PERSISTENT) {
+            glDrawElementsBaseVertex(GL_TRIANGLES, _INDICES.capacity(), GL_UNSIGNED_INT, 0, _baseVertex);
+
+            // Guards the region until the gpu is done drawing from it. A fence of an earlier draw is no longer needed.
+            fence = _RING.setFence(glFenceSync(GL_SYNC_GPU_COMMANDS_COMPLETE, 0));
+            if (fence != RingAllocator.NO_FENCE) glDeleteSync(fence);
+        } else {
+            glDrawElements(GL_TRIANGLES, _INDICES.capacity(), GL_UNSIGNED_INT, 0);
+        }
 
         glBindVertexArray(0);
         glBindBuffer(GL_ARRAY_BUFFER, 0);
@@ -311,6 +564,23 @@ public abstract class A_Batch<T extends A_Mesh> {
     protected abstract void p_prepareRendering(Camera2D camera2D);
 
 
+    // -+- SETTERS -+- //
+
+    /**
+     * Sets the largest amount of unchanged elements between two changed ranges, for which both are uploaded together.
+     *
+     * @param mergeGap The amount of elements
+     *
+     * @author Tim Kloepper
+     */
+    public void setMergeGap(int mergeGap) {
+        _VERTEX_RANGES.setMergeGap(mergeGap);
+        _INDEX_RANGES.setMergeGap(mergeGap);
+
+        if (_PERSISTENT) for (DirtyRangeTracker tracker : _REGION_RANGES) tracker.setMergeGap(mergeGap);
+    }
+
+
     // -+- SHADER MANAGEMENT -+- //
 
     public void setShader(ShaderProgram shader) {
@@ -330,9 +600,26 @@ public abstract class A_Batch<T extends A_Mesh> {
         return _shader;
     }
 
+    /**
+     * Returns the tracker of the changed vertices, which also counts the uploads saved by merging ranges.
+     *
+     * @return The tracker of the vertices
+     *
+     * @author Tim Kloepper
+     */
+    public DirtyRangeTracker getVertexRanges() {
+        return _VERTEX_RANGES;
+    }
+    public DirtyRangeTracker getIndexRanges() {
+        return _INDEX_RANGES;
+    }
+
 
     // -+- CHECKERS -+- //
 
+    public boolean isPersistentlyMapped() {
+        return _PERSISTENT;
+    }
     public boolean contains(T mesh) {
         return _MESH_INFO.containsKey(mesh);
     }
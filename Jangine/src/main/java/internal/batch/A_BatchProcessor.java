@@ -5,6 +5,7 @@ import internal.rendering.camera.Camera2D;
 import internal.rendering.mesh.A_Mesh;
 import internal.rendering.shader.ShaderProgram;
 
+import java.nio.FloatBuffer;
 import java.util.HashMap;
 
 
@@ -153,6 +154,25 @@ public abstract class A_BatchProcessor<T extends A_Mesh> {
 
         return _BATCHES.get(shader).addMesh((T) mesh);
     }
+    /**
+     * Returns a view into the vertices of the mesh inside its batch, as described by {@link A_Batch#getVertexView(A_Mesh)}.
+     *
+     * @param mesh The mesh, whose vertices should be written
+     *
+     * @return The view of the vertices, or {@code null}, if the mesh is not part of any batch in this processor
+     *
+     * @author Tim Kloepper
+     */
+    public FloatBuffer getVertexView(A_Mesh mesh) {
+        if (mesh == null) throw new IllegalArgumentException("[BATCH PROCESSOR ERROR]: Mesh can not be null!");
+
+        ShaderProgram shader;
+
+        shader = _SHADER_PER_MESH.get((T) mesh);
+        if (shader == null) return null;
+
+        return _BATCHES.get(shader).getVertexView((T) mesh);
+    }
 
 
     // -+- BATCH MANAGEMENT -+- //
@@ -169,6 +189,20 @@ public abstract class A_BatchProcessor<T extends A_Mesh> {
      */
     protected abstract A_Batch<T> p_createBatch(ShaderProgram shader);
 
+    /**
+     * Disposes all batches, which frees their native memory and buffers.
+     *
+     * @author Tim Kloepper
+     */
+    public void dispose() {
+        for (A_Batch<T> batch : _BATCHES.values()) {
+            batch.dispose();
+        }
+
+        _BATCHES.clear();
+        _SHADER_PER_MESH.clear();
+    }
+
 
     // -+- GETTERS -+- //
 
@@ -6,6 +6,7 @@ import internal.rendering.mesh.A_Mesh;
 import internal.rendering.shader.ShaderProgram;
 import internal.resource.ResourceManager;
 
+import java.nio.FloatBuffer;
 import java.util.HashMap;
 
 
@@ -60,6 +61,17 @@ public class BatchSystem {
             processor.update(_CAMERA);
         }
     }
+    /**
+     * Disposes all batches of all processors, after which the system is empty.
+     * Needs the OpenGL context, the batches were created with, to be current.
+     *
+     * @author Tim Kloepper
+     */
+    public void dispose() {
+        for (A_BatchProcessor<? extends A_Mesh> processor : _PROCESSORS.values()) {
+            processor.dispose();
+        }
+    }
 
 
     // -+- PROCESSOR MANAGEMENT -+- //
@@ -187,6 +199,27 @@ public class BatchSystem {
 
         return processor.updateMesh(mesh, shader);
     }
+    /**
+     * Returns a view into the vertices of the mesh inside its batch, through which they can be written for the next
+     * {@link BatchSystem#update()}, without changing the mesh itself.
+     *
+     * @param mesh The {@link A_Mesh} object, whose vertices should be written.
+     *             The mesh can not be null.
+     *
+     * @return The view of the vertices, or {@code null}, if the mesh is not part of this system
+     *
+     * @author Tim Kloepper
+     */
+    public FloatBuffer getVertexView(A_Mesh mesh) {
+        if (mesh == null) throw new IllegalArgumentException("[BATCH SYSTEM ERROR] : The mesh can not be null!");
+
+        A_BatchProcessor<? extends A_Mesh> processor;
+
+        processor = _PROCESSORS.get(mesh.getClass());
+        if (processor == null) return null;
+
+        return processor.getVertexView(mesh);
+    }
 
 
     // -+- GETTERS -+- //
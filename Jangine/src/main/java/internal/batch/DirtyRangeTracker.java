@@ -0,0 +1,213 @@
+package internal.batch;
+
+
+import java.util.Arrays;
+
+
+/**
+ * Collects the ranges of an array, that changed during a frame, so only these need to be uploaded. <br>
+ * Before uploading, overlapping and adjacent ranges are merged, as well as ranges,
+ * that are at most the merge gap apart, because one larger upload is cheaper than many small ones.
+ * Ranges are measured in elements of the tracked array.
+ * <p></p>
+ * Counts the marked ranges and the resulting uploads, which shows how many uploads got saved by merging.
+ *
+ * @author Tim Kloepper
+ * @version 1.0
+ */
+public class DirtyRangeTracker {
+
+
+    // -+- CREATION -+- //
+
+    public DirtyRangeTracker(int mergeGap) {
+        setMergeGap(mergeGap);
+
+        _ranges = new long[INITIAL_CAPACITY];
+        _rangeAmount = 0;
+        _merged = true;
+
+        _markedAmount = 0;
+        _uploadAmount = 0;
+    }
+
+
+    // -+- PARAMETERS -+- //
+
+    // FINALS //
+
+    public static final int DEFAULT_MERGE_GAP = 64;
+
+    private static final int INITIAL_CAPACITY = 32;
+
+    // NON-FINALS //
+
+    // Every range is packed with its start in the upper and its end in the lower half, so sorting sorts by start.
+    private long[] _ranges;
+    private int _rangeAmount;
+    private boolean _merged;
+
+    private int _mergeGap;
+
+    private long _markedAmount;
+    private long _uploadAmount;
+
+
+    // -+- RANGE MANAGEMENT -+- //
+
+    /**
+     * Marks a range as changed.
+     *
+     * @param start The first changed element
+     * @param length The amount of changed elements
+     *
+     * @author Tim Kloepper
+     */
+    public void mark(int start, int length) {
+        if (start < 0 || length < 0) throw new IllegalArgumentException("[DIRTY RANGE TRACKER ERROR] : Range can not be negative!");
+        if (length == 0) return;
+
+        if (_rangeAmount == _ranges.length) _ranges = Arrays.copyOf(_ranges, _rangeAmount * 2);
+
+        _ranges[_rangeAmount++] = ((long) start << 32) | (start + length);
+        _merged = false;
+
+        _markedAmount++;
+    }
+    /**
+     * Merges all ranges, which overlap, touch or are at most the merge gap apart.
+     * Afterward, the ranges are sorted by their start.
+     *
+     * @return The amount of merged ranges, each of which needs one upload
+     *
+     * @author Tim Kloepper
+     */
+    public int merge() {
+        int write;
+
+        if (_merged) return _rangeAmount;
+
+        Arrays.sort(_ranges, 0, _rangeAmount);
+
+        write = 0;
+
+        for (int read = 1; read < _rangeAmount; read++) {
+            int start;
+
+            start = h_getStart(_ranges[read]);
+
+            if (start - h_getEnd(_ranges[write]) > _mergeGap) {
+                _ranges[++write] = _ranges[read];
+
+                continue;
+            }
+
+            if (h_getEnd(_ranges[read]) > h_getEnd(_ranges[write])) _ranges[write] = (_ranges[write] & 0xFFFFFFFF00000000L) | h_getEnd(_ranges[read]);
+        }
+
+        _rangeAmount = Math.min(_rangeAmount, write + 1);
+        _merged = true;
+
+        return _rangeAmount;
+    }
+    /**
+     * Removes all ranges, after they got uploaded, and counts the uploads.
+     *
+     * @param uploads The amount of uploads, which were needed for the ranges
+     *
+     * @author Tim Kloepper
+     */
+    public void clear(int uploads) {
+        _rangeAmount = 0;
+        _merged = true;
+
+        _uploadAmount += uploads;
+    }
+    public void resetCounters() {
+        _markedAmount = 0;
+        _uploadAmount = 0;
+    }
+
+    private static int h_getStart(long range) {
+        return (int) (range >>> 32);
+    }
+    private static int h_getEnd(long range) {
+        return (int) range;
+    }
+
+
+    // -+- SETTERS -+- //
+
+    /**
+     * Sets the largest amount of clean elements between two ranges, for which both are still merged.
+     *
+     * @param mergeGap The amount of elements, or zero to only merge overlapping and adjacent ranges
+     *
+     * @author Tim Kloepper
+     */
+    public void setMergeGap(int mergeGap) {
+        if (mergeGap < 0) throw new IllegalArgumentException("[DIRTY RANGE TRACKER ERROR] : Merge gap can not be negative!");
+
+        _mergeGap = mergeGap;
+        _merged = _rangeAmount == 0;
+    }
+
+
+    // -+- GETTERS -+- //
+
+    public int getRangeAmount() {
+        return _rangeAmount;
+    }
+    public int getStart(int range) {
+        return h_getStart(_ranges[range]);
+    }
+    public int getEnd(int range) {
+        return h_getEnd(_ranges[range]);
+    }
+    public int getLength(int range) {
+        return getEnd(range) - getStart(range);
+    }
+    /**
+     * Returns the amount of elements covered by all ranges, which is only meaningful after merging.
+     *
+     * @return The amount of elements
+     *
+     * @author Tim Kloepper
+     */
+    public int getCoveredAmount() {
+        int covered;
+
+        covered = 0;
+        for (int range = 0; range < _rangeAmount; range++) covered += getLength(range);
+
+        return covered;
+    }
+    public int getMergeGap() {
+        return _mergeGap;
+    }
+    public long getMarkedAmount() {
+        return _markedAmount;
+    }
+    public long getUploadAmount() {
+        return _uploadAmount;
+    }
+    /**
+     * Returns the amount of uploads, that were saved, compared to uploading every marked range on its own.
+     *
+     * @return The amount of saved uploads since the counters were last reset
+     *
+     * @author Tim Kloepper
+     */
+    public long getSavedUploadAmount() {
+        return _markedAmount - _uploadAmount;
+    }
+
+
+    // -+- CHECKERS -+- //
+
+    public boolean isEmpty() {
+        return _rangeAmount == 0;
+    }
+
+
+}
@@ -1,25 +1,77 @@
 package internal.batch;
 
 
-import java.util.HashSet;
-import java.util.Map;
-import java.util.TreeMap;
-
-
+import java.util.Arrays;
+
+
+/**
+ * Hands out ranges of a fixed amount of elements and takes them back, once they are no longer used. <br>
+ * Implemented as a two level segregated fit allocator. Free fragments are kept in lists,
+ * sorted by size classes, where the first level is the power of two of the size
+ * and the second level splits every power of two into linear steps.
+ * Two bitmaps mark the lists containing fragments, so a fitting list is found with a few bit operations,
+ * which makes allocating and freeing constant time, no matter how many fragments there are.
+ * <p></p>
+ * Every range, free or used, knows its physical neighbours, so freed ranges are merged with free neighbours immediately.
+ * Used ranges are found by their position through an open addressing table.
+ * <p></p>
+ * Ranges are no longer handed out as fragment objects, but as plain positions.
+ * A range is freed with {@link FragmentAllocator#free(int, int)}, by the position returned when allocating it
+ * and the exact amount that was requested. Empty ranges are never tracked, so freeing them does nothing.
+ * Freeing with an unknown position or a wrong amount throws and leaves the allocator unchanged.
+ *
+ * @author Tim Kloepper
+ * @version 1.0
+ */
 public class FragmentAllocator {
 
 
     // -+- CREATION -+- //
 
-    public FragmentAllocator(int initialSize) {
-        _POSITION_TREE = new TreeMap<>();
+    public FragmentAllocator(int capacity) {
+        if (capacity < 0) throw new IllegalArgumentException("[FRAGMENT ALLOCATOR ERROR] : Capacity can not be negative!");
+
+        _CAPACITY = capacity;
+
+        _HEADS = new int[FIRST_LEVEL_COUNT * SECOND_LEVEL_COUNT];
+        _SECOND_LEVEL_BITMAPS = new int[FIRST_LEVEL_COUNT];
 
-        _root = new FragmentNode(0, initialSize);
+        _positions = new int[INITIAL_CAPACITY];
+        _sizes = new int[INITIAL_CAPACITY];
+        _states = new byte[INITIAL_CAPACITY];
+        _previousPhysical = new int[INITIAL_CAPACITY];
+        _nextPhysical = new int[INITIAL_CAPACITY];
+        _previousFree = new int[INITIAL_CAPACITY];
+        _nextFree = new int[INITIAL_CAPACITY];
+
+        _keys = new int[INITIAL_TABLE_CAPACITY];
+        _slots = new int[INITIAL_TABLE_CAPACITY];
+
+        clear();
     }
 
+    /**
+     * Frees everything, so the whole capacity is one free fragment again.
+     *
+     * @author Tim Kloepper
+     */
     public void clear() {
-        _root = null;
-        _POSITION_TREE.clear();
+        Arrays.fill(_HEADS, -1);
+        Arrays.fill(_SECOND_LEVEL_BITMAPS, 0);
+        _firstLevelBitmap = 0;
+
+        Arrays.fill(_slots, -1);
+        _usedAmount = 0;
+
+        _blockAmount = 0;
+        _unused = -1;
+
+        _freeAmount = 0;
+        _fragmentAmount = 0;
+
+        if (_CAPACITY == 0) return;
+
+        h_insertFree(h_createBlock(0, _CAPACITY, -1, -1));
     }
 
 
@@ -27,121 +79,407 @@ public class FragmentAllocator {
 
     // FINALS //
 
-    private final TreeMap<Integer, FragmentNode> _POSITION_TREE;
+    private static final int SECOND_LEVEL_BITS = 4;
+    private static final int SECOND_LEVEL_COUNT = 1 << SECOND_LEVEL_BITS;
+    // Sizes below this are all kept inside the first list of the first level, one step per size.
+    private static final int SMALL_SIZE = SECOND_LEVEL_COUNT;
+    private static final int FIRST_LEVEL_COUNT = Integer.SIZE - SECOND_LEVEL_BITS + 1;
+
+    private static final int INITIAL_CAPACITY = 32;
+    private static final int INITIAL_TABLE_CAPACITY = 64;
+
+    private static final byte UNUSED = 0, FREE = 1, USED = 2;
+
+    private final int _CAPACITY;
+
+    // The first free block of every list, -1 marks empty lists.
+    private final int[] _HEADS;
+    private final int[] _SECOND_LEVEL_BITMAPS;
 
     // NON-FINALS //
 
-    private FragmentNode _root;
+    private int _firstLevelBitmap;
+
+    // The data of every block, indexed by the block. Unused blocks are chained through their next free block.
+    private int[] _positions, _sizes;
+    private byte[] _states;
+    private int[] _previousPhysical, _nextPhysical;
+    private int[] _previousFree, _nextFree;
+    private int _blockAmount;
+    private int _unused;
+
+    // Open addressing table, mapping the position of every used block onto the block, -1 marks empty slots.
+    private int[] _keys;
+    private int[] _slots;
+    private int _usedAmount;
+
+    private int _freeAmount;
+    private int _fragmentAmount;
+
+
+    // -+- MEMORY MANAGEMENT -+- //
+
+    /**
+     * Allocates a range of elements.
+     *
+     * @param amount The amount of elements
+     *
+     * @return The position of the range, or {@code -1} if there is no large enough fragment
+     *
+     * @author Tim Kloepper
+     */
+    public int allocate(int amount) {
+        int block, remainder;
+
+        if (amount < 0) throw new IllegalArgumentException("[FRAGMENT ALLOCATOR ERROR] : Amount can not be negative!");
+        // Nothing is written into an empty range, so it does not need to be tracked.
+        if (amount == 0) return 0;
+
+        block = h_findFree(amount);
+        if (block == -1) return -1;
 
+        h_removeFree(block);
 
-    // -+- FRAGMENT MANAGEMENT -+- //
+        remainder = _sizes[block] - amount;
 
-    public void addFragment(FragmentNode fragment) {
-        if (fragment == null) throw new IllegalArgumentException("[FRAGMENT ALLOCATOR ERROR] : Fragment cannot be null!");
-        if (fragment.size <= 1) return;
-        if (fragment.position < 0) return;
+        if (remainder > 0) {
+            int split;
 
-        _POSITION_TREE.put(fragment.position, fragment);
+            split = h_createBlock(_positions[block] + amount, remainder, block, _nextPhysical[block]);
 
-        if (_root == null) _root = fragment;
-        else _root.addNode(fragment);
+            if (_nextPhysical[block] != -1) _previousPhysical[_nextPhysical[block]] = split;
+            _nextPhysical[block] = split;
+            _sizes[block] = amount;
 
-        h_tryMerging();
+            h_insertFree(split);
+        }
+
+        // Only marked as used afterward, as growing the table inserts all used blocks.
+        h_insertUsed(block);
+        _states[block] = USED;
+
+        return _positions[block];
     }
-    public void rmvFragment(FragmentNode fragment) {
-        if (fragment == null) throw new IllegalArgumentException("[FRAGMENT ALLOCATOR ERROR] : Fragment cannot be null!");
-        if (_root == null) return;
+    /**
+     * Frees a range, which was allocated before, and merges it with its free neighbours.
+     *
+     * @param position The position returned by {@link FragmentAllocator#allocate(int)}
+     * @param amount The amount of elements, that was allocated
+     *
+     * @throws IllegalArgumentException If no range is allocated at the position or its amount differs
+     *
+     * @author Tim Kloepper
+     */
+    public void free(int position, int amount) {
+        int slot, block, neighbour;
+
+        if (amount == 0) return;
+
+        slot = h_findUsed(position);
+
+        if (slot == -1) throw new IllegalArgumentException("[FRAGMENT ALLOCATOR ERROR] : There is no range allocated at that position!");
 
-        _POSITION_TREE.remove(fragment.position);
+        block = _slots[slot];
 
-        if (_root == fragment) {
-            HashSet<FragmentNode> rootChildren;
+        // Only removed after validating, so a wrong amount does not leave a range behind, that can never be freed.
+        if (_sizes[block] != amount) throw new IllegalArgumentException("[FRAGMENT ALLOCATOR ERROR] : Amount does not match the allocated range!");
 
-            rootChildren = _root.getChildren();
-            _root.clearChildren();
+        h_removeUsed(slot);
 
-            _root = null;
+        neighbour = _previousPhysical[block];
+        if (neighbour != -1 && _states[neighbour] == FREE) {
+            h_removeFree(neighbour);
 
-            rootChildren.forEach(this::addFragment);
+            _sizes[neighbour] += _sizes[block];
+            h_unlinkPhysical(block);
 
-            return;
+            block = neighbour;
         }
 
-        _root.rmvNode(fragment);
+        neighbour = _nextPhysical[block];
+        if (neighbour != -1 && _states[neighbour] == FREE) {
+            h_removeFree(neighbour);
+
+            _sizes[block] += _sizes[neighbour];
+            h_unlinkPhysical(neighbour);
+        }
+
+        h_insertFree(block);
     }
 
-    private void h_tryMerging() {
-        for (FragmentNode node : _POSITION_TREE.values()) {
-            FragmentNode lower, higher;
-            Map.Entry<Integer, FragmentNode> entry;
 
-            lower = null;
-            higher = null;
+    // -+- BLOCK MANAGEMENT -+- //
+
+    private int h_createBlock(int position, int size, int previous, int next) {
+        int block;
+
+        if (_unused != -1) {
+            block = _unused;
+            _unused = _nextFree[block];
+        } else {
+            if (_blockAmount == _positions.length) h_growBlocks();
+
+            block = _blockAmount++;
+        }
+
+        _positions[block] = position;
+        _sizes[block] = size;
+        _previousPhysical[block] = previous;
+        _nextPhysical[block] = next;
+
+        return block;
+    }
+    private void h_unlinkPhysical(int block) {
+        if (_previousPhysical[block] != -1) _nextPhysical[_previousPhysical[block]] = _nextPhysical[block];
+        if (_nextPhysical[block] != -1) _previousPhysical[_nextPhysical[block]] = _previousPhysical[block];
+
+        _states[block] = UNUSED;
+        _nextFree[block] = _unused;
+        _unused = block;
+    }
+    private void h_growBlocks() {
+        int capacity;
+
+        capacity = _positions.length * 2;
+
+        _positions = Arrays.copyOf(_positions, capacity);
+        _sizes = Arrays.copyOf(_sizes, capacity);
+        _states = Arrays.copyOf(_states, capacity);
+        _previousPhysical = Arrays.copyOf(_previousPhysical, capacity);
+        _nextPhysical = Arrays.copyOf(_nextPhysical, capacity);
+        _previousFree = Arrays.copyOf(_previousFree, capacity);
+        _nextFree = Arrays.copyOf(_nextFree, capacity);
+    }
 
-            entry = _POSITION_TREE.lowerEntry(node.position);
-            if (entry != null) lower = entry.getValue();
-            entry = _POSITION_TREE.higherEntry(node.position);
-            if (entry != null) higher = entry.getValue();
 
-            if (lower != null) {
-                if (lower.isConnectedWith(node)) {
-                    rmvFragment(lower);
-                    rmvFragment(node);
+    // -+- FREE LIST MANAGEMENT -+- //
 
-                    node.merge(lower);
+    private int h_findFree(int amount) {
+        int list, firstLevel, secondLevel, bitmap;
 
-                    addFragment(node);
+        // Rounding the size up to the next list guarantees, that every block of the found list is large enough.
+        list = h_getList(h_roundUp(amount));
+        firstLevel = list / SECOND_LEVEL_COUNT;
+        secondLevel = list % SECOND_LEVEL_COUNT;
 
-                    return;
-                }
-            }
-            if (higher != null) {
-                if (higher.isConnectedWith(node)) {
-                    rmvFragment(higher);
-                    rmvFragment(node);
+        bitmap = firstLevel < FIRST_LEVEL_COUNT ? _SECOND_LEVEL_BITMAPS[firstLevel] & (-1 << secondLevel) : 0;
 
-                    node.merge(higher);
+        if (bitmap == 0) {
+            bitmap = firstLevel + 1 < Integer.SIZE ? _firstLevelBitmap & (-1 << (firstLevel + 1)) : 0;
 
-                    addFragment(node);
+            // Blocks inside the list of the exact size class might still be large enough.
+            if (bitmap == 0) return h_searchList(h_getList(amount), amount);
 
-                    return;
-                }
-            }
+            firstLevel = Integer.numberOfTrailingZeros(bitmap);
+            bitmap = _SECOND_LEVEL_BITMAPS[firstLevel];
         }
+
+        return _HEADS[firstLevel * SECOND_LEVEL_COUNT + Integer.numberOfTrailingZeros(bitmap)];
     }
+    private int h_searchList(int list, int amount) {
+        int block;
 
+        block = _HEADS[list];
 
-    // -+- MEMORY MANAGEMENT -+- //
+        while (block != -1 && _sizes[block] < amount) block = _nextFree[block];
 
-    public int allocate(int amount) {
-        FragmentNode currentNode;
+        return block;
+    }
+    private void h_insertFree(int block) {
+        int list, head;
+
+        list = h_getList(_sizes[block]);
+        head = _HEADS[list];
 
-        currentNode = _root;
+        _states[block] = FREE;
+        _previousFree[block] = -1;
+        _nextFree[block] = head;
 
-        while (currentNode != null) {
-            if (currentNode.canAllocate(amount)) {
-                if (currentNode.lower != null) {
-                    if (currentNode.lower.canAllocate(amount)) {
-                        currentNode = currentNode.lower;
-                    }
-                }
+        if (head != -1) _previousFree[head] = block;
+        _HEADS[list] = block;
 
-                rmvFragment(currentNode);
+        _SECOND_LEVEL_BITMAPS[list / SECOND_LEVEL_COUNT] |= 1 << (list % SECOND_LEVEL_COUNT);
+        _firstLevelBitmap |= 1 << (list / SECOND_LEVEL_COUNT);
 
-                int result;
+        _freeAmount += _sizes[block];
+        _fragmentAmount++;
+    }
+    private void h_removeFree(int block) {
+        int list;
+
+        list = h_getList(_sizes[block]);
+
+        if (_previousFree[block] != -1) _nextFree[_previousFree[block]] = _nextFree[block];
+        else _HEADS[list] = _nextFree[block];
+        if (_nextFree[block] != -1) _previousFree[_nextFree[block]] = _previousFree[block];
+
+        if (_HEADS[list] == -1) {
+            _SECOND_LEVEL_BITMAPS[list / SECOND_LEVEL_COUNT] &= ~(1 << (list % SECOND_LEVEL_COUNT));
+            if (_SECOND_LEVEL_BITMAPS[list / SECOND_LEVEL_COUNT] == 0) _firstLevelBitmap &= ~(1 << (list / SECOND_LEVEL_COUNT));
+        }
+
+        _freeAmount -= _sizes[block];
+        _fragmentAmount--;
+    }
+
+    /**
+     * Returns the list of the size class, which contains the size.
+     *
+     * @param size The size, larger than zero
+     *
+     * @return The index of the list, being the first level times {@link FragmentAllocator#SECOND_LEVEL_COUNT} plus the second level
+     *
+     * @author Tim Kloepper
+     */
+    private static int h_getList(int size) {
+        int log;
+
+        if (size < SMALL_SIZE) return size;
+
+        log = 31 - Integer.numberOfLeadingZeros(size);
+
+        return (log - SECOND_LEVEL_BITS + 1) * SECOND_LEVEL_COUNT + ((size >>> (log - SECOND_LEVEL_BITS)) ^ SECOND_LEVEL_COUNT);
+    }
+    private static int h_roundUp(int size) {
+        long rounded;
+
+        if (size < SMALL_SIZE) return size;
 
-                result = currentNode.allocate(amount);
+        rounded = size + (1L << (31 - Integer.numberOfLeadingZeros(size) - SECOND_LEVEL_BITS)) - 1;
+
+        return (int) Math.min(rounded, Integer.MAX_VALUE);
+    }
+
+
+    // -+- TABLE MANAGEMENT -+- //
+
+    private void h_insertUsed(int block) {
+        int mask, slot;
+
+        // Keep the table at most half full, so probe sequences stay short.
+        if ((_usedAmount + 1) * 2 > _keys.length) h_growTable();
+
+        mask = _keys.length - 1;
+        slot = h_hash(_positions[block]) & mask;
+
+        while (_slots[slot] != -1) slot = (slot + 1) & mask;
+
+        _keys[slot] = _positions[block];
+        _slots[slot] = block;
+
+        _usedAmount++;
+    }
+    /**
+     * Finds the slot of the used block at a position.
+     *
+     * @param position The position of the block
+     *
+     * @return The slot, or {@code -1} if no used block starts at the position
+     *
+     * @author Tim Kloepper
+     */
+    private int h_findUsed(int position) {
+        int mask, slot;
+
+        mask = _keys.length - 1;
+        slot = h_hash(position) & mask;
+
+        while (_slots[slot] != -1 && _keys[slot] != position) slot = (slot + 1) & mask;
+
+        return _slots[slot] == -1 ? -1 : slot;
+    }
+    private void h_removeUsed(int slot) {
+        int mask;
 
-                addFragment(currentNode);
+        mask = _keys.length - 1;
 
-                return result;
-            }
+        // Moves following entries back, so no probe sequence is broken by the removal.
+        for (int next = (slot + 1) & mask; _slots[next] != -1; next = (next + 1) & mask) {
+            int home;
 
-            currentNode = currentNode.higher;
+            home = h_hash(_keys[next]) & mask;
+            if (((next - home) & mask) < ((next - slot) & mask)) continue;
+
+            _keys[slot] = _keys[next];
+            _slots[slot] = _slots[next];
+            slot = next;
+        }
+
+        _slots[slot] = -1;
+        _usedAmount--;
+    }
+    private void h_growTable() {
+        int mask;
+
+        _keys = new int[_keys.length * 2];
+        _slots = new int[_slots.length * 2];
+        Arrays.fill(_slots, -1);
+
+        mask = _keys.length - 1;
+
+        for (int block = 0; block < _blockAmount; block++) {
+            int slot;
+
+            if (_states[block] != USED) continue;
+
+            slot = h_hash(_positions[block]) & mask;
+            while (_slots[slot] != -1) slot = (slot + 1) & mask;
+
+            _keys[slot] = _positions[block];
+            _slots[slot] = block;
         }
+    }
+
+    private static int h_hash(int key) {
+        key *= 0x9E3779B9;
 
-        return -1;
+        return key ^ (key >>> 16);
+    }
+
+
+    // -+- GETTERS -+- //
+
+    public int getCapacity() {
+        return _CAPACITY;
+    }
+    public int getFreeAmount() {
+        return _freeAmount;
+    }
+    public int getFragmentAmount() {
+        return _fragmentAmount;
+    }
+    /**
+     * Returns the size of the largest free fragment, which is the largest amount, that can currently be allocated.
+     *
+     * @return The size of the largest fragment
+     *
+     * @author Tim Kloepper
+     */
+    public int getLargestFragment() {
+        int firstLevel, list, largest;
+
+        if (_firstLevelBitmap == 0) return 0;
+
+        firstLevel = 31 - Integer.numberOfLeadingZeros(_firstLevelBitmap);
+        list = firstLevel * SECOND_LEVEL_COUNT + 31 - Integer.numberOfLeadingZeros(_SECOND_LEVEL_BITMAPS[firstLevel]);
+
+        largest = 0;
+        for (int block = _HEADS[list]; block != -1; block = _nextFree[block]) largest = Math.max(largest, _sizes[block]);
+
+        return largest;
+    }
+    /**
+     * Returns how scattered the free elements are, as the share of free elements outside the largest fragment.
+     *
+     * @return Zero, if all free elements are in one fragment, up to almost one, if they are scattered across many small ones
+     *
+     * @author Tim Kloepper
+     */
+    public double getFragmentation() {
+        if (_freeAmount == 0) return 0;
+
+        return 1 - (double) getLargestFragment() / _freeAmount;
     }
 
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,151 @@
+package internal.batch;
+
+
+import java.util.Arrays;
+
+
+/**
+ * Splits a buffer into a fixed amount of equally sized regions, which are written one after another, one per frame. <br>
+ * While the GPU still reads from the regions of the last frames, the CPU writes the next one,
+ * so neither has to wait for the other, as long as there are enough regions.
+ * Every region remembers a fence, which is set after the last draw reading from it,
+ * and has to be waited on, before the region is written again.
+ * <p></p>
+ * This class only does the bookkeeping and does not call OpenGL, the fences are plain handles.
+ *
+ * @author Tim Kloepper
+ * @version 1.0
+ */
+public class RingAllocator {
+
+
+    // -+- CREATION -+- //
+
+    public RingAllocator(int regionSize, int regionAmount) {
+        if (regionSize <= 0) throw new IllegalArgumentException("[RING ALLOCATOR ERROR] : Region size has to be positive!");
+        if (regionAmount <= 0) throw new IllegalArgumentException("[RING ALLOCATOR ERROR] : At least one region is required!");
+
+        _REGION_SIZE = regionSize;
+        _REGION_AMOUNT = regionAmount;
+
+        _FENCES = new long[regionAmount];
+        Arrays.fill(_FENCES, NO_FENCE);
+
+        _region = regionAmount - 1;
+        _used = regionSize;
+    }
+
+
+    // -+- PARAMETERS -+- //
+
+    // FINALS //
+
+    public static final long NO_FENCE = 0;
+
+    private final int _REGION_SIZE;
+    private final int _REGION_AMOUNT;
+
+    private final long[] _FENCES;
+
+    // NON-FINALS //
+
+    private int _region;
+    // The amount of the current region, that is already allocated.
+    private int _used;
+
+
+    // -+- ALLOCATION -+- //
+
+    /**
+     * Moves on to the next region, which empties it.
+     * Its fence needs to be waited on, before anything is written into it.
+     *
+     * @return The index of the new current region
+     *
+     * @author Tim Kloepper
+     */
+    public int nextRegion() {
+        _region = (_region + 1) % _REGION_AMOUNT;
+        _used = 0;
+
+        return _region;
+    }
+    /**
+     * Allocates space inside the current region.
+     *
+     * @param size The amount of space
+     *
+     * @return The offset of the space from the start of the whole buffer, or {@code -1} if the region is full
+     *
+     * @author Tim Kloepper
+     */
+    public int allocate(int size) {
+        int offset;
+
+        if (size < 0) throw new IllegalArgumentException("[RING ALLOCATOR ERROR] : Size can not be negative!");
+        if (_used + size > _REGION_SIZE) return -1;
+
+        offset = _region * _REGION_SIZE + _used;
+        _used += size;
+
+        return offset;
+    }
+
+
+    // -+- FENCE MANAGEMENT -+- //
+
+    /**
+     * Replaces the fence of the current region.
+     *
+     * @param fence The new fence
+     *
+     * @return The replaced fence, which is no longer needed, or {@link RingAllocator#NO_FENCE}
+     *
+     * @author Tim Kloepper
+     */
+    public long setFence(long fence) {
+        long previous;
+
+        previous = _FENCES[_region];
+        _FENCES[_region] = fence;
+
+        return previous;
+    }
+    /**
+     * Removes the fence of the current region, after it got waited on.
+     *
+     * @return The removed fence, or {@link RingAllocator#NO_FENCE}
+     *
+     * @author Tim Kloepper
+     */
+    public long takeFence() {
+        return setFence(NO_FENCE);
+    }
+
+
+    // -+- GETTERS -+- //
+
+    public int getRegion() {
+        return _region;
+    }
+    public int getRegionSize() {
+        return _REGION_SIZE;
+    }
+    public int getRegionAmount() {
+        return _REGION_AMOUNT;
+    }
+    public int getRegionOffset() {
+        return _region * _REGION_SIZE;
+    }
+    public int getUsed() {
+        return _used;
+    }
+    public long getFence() {
+        return _FENCES[_region];
+    }
+    public int getCapacity() {
+        return _REGION_SIZE * _REGION_AMOUNT;
+    }
+
+
+}
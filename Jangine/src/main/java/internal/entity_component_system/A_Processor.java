@@ -1,11 +1,19 @@
 package internal.entity_component_system;
 
 
+import internal.entity_component_system.archetype.Archetype;
+import internal.entity_component_system.archetype.ArchetypeStorage;
+import internal.entity_component_system.archetype.Chunk;
 import internal.rendering.container.A_Scene;
 
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
-import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Consumer;
 
 
 public abstract class A_Processor<T extends A_Component> {
@@ -16,8 +24,21 @@ public abstract class A_Processor<T extends A_Component> {
     public A_Processor() {
         super();
 
-        _components = new HashMap<>();
-        _PREV_ACTIVATION_STATES = new HashMap<>();
+        _VALID_COMPONENTS = new ComponentView<>();
+        _CHANGED_COMPONENTS = new ComponentView<>();
+        _PARALLEL_TASK = new ParallelTask<>();
+
+        _column = -1;
+
+        _incrementalValidation = false;
+        _validatedVersion = -1;
+
+        _parallelIteration = false;
+        _grainSize = DEFAULT_GRAIN_SIZE;
+
+        _changeTracking = false;
+        _lastRunTick = 0;
+        _changedSince = 0;
     }
 
     protected abstract void p_init(System system, A_Scene scene);
@@ -30,17 +51,133 @@ public abstract class A_Processor<T extends A_Component> {
 
     // FINALS //
 
-    protected final HashMap<Integer, T> _components;
-    protected final HashMap<T, Boolean> _PREV_ACTIVATION_STATES;
+    public static final int DEFAULT_GRAIN_SIZE = 2048;
+
+    private final ComponentView<T> _VALID_COMPONENTS;
+    // The valid components, that changed since the previous update.
+    private final ComponentView<T> _CHANGED_COMPONENTS;
+    // Reused by every call of p_parallelFor, together with its range tasks.
+    private final ParallelTask<T> _PARALLEL_TASK;
+
+    // NON-FINALS //
+
+    // The storage of the owning system and the column of this processor inside of it.
+    private ArchetypeStorage _storage;
+    private int _column;
+
+    private boolean _incrementalValidation;
+    // The version of the storage, the cached validity bits were computed for.
+    private int _validatedVersion;
+
+    private boolean _parallelIteration;
+    private int _grainSize;
+
+    private boolean _changeTracking;
+    // The tick of the storage at the start of the current or last update and of the one before.
+    private int _lastRunTick;
+    private int _changedSince;
+
+
+    // -+- STORAGE MANAGEMENT -+- //
+
+    /**
+     * Is called by the system, upon adding this processor.
+     * From there on, all components of this processor live inside the specified column
+     * of the storage.
+     *
+     * @param storage The storage of the system
+     * @param column The column, that got reserved for this processor
+     *
+     * @author Tim Kloepper
+     */
+    protected final void p_attachStorage(ArchetypeStorage storage, int column) {
+        _storage = storage;
+        _column = column;
+
+        _lastRunTick = 0;
+    }
+    /**
+     * Is called by the system, upon removing this processor.
+     *
+     * @author Tim Kloepper
+     */
+    protected final void p_detachStorage() {
+        _storage = null;
+        _column = -1;
+
+        _validatedVersion = -1;
+    }
+
+    /**
+     * Enables or disables the splitting of {@link A_Processor#p_parallelFor} into ranges,
+     * that run on multiple threads.
+     *
+     * @param value Whether parallel iteration should be used
+     *
+     * @author Tim Kloepper
+     */
+    protected final void p_setParallelIteration(boolean value) {
+        _parallelIteration = value;
+    }
+    /**
+     * Sets the maximum amount of components processed by a single task of
+     * {@link A_Processor#p_parallelFor}. Sets of at most this size are never split.
+     *
+     * @param grainSize The grain size, which needs to be at least one
+     *
+     * @author Tim Kloepper
+     */
+    protected final void p_setGrainSize(int grainSize) {
+        if (grainSize < 1) throw new IllegalArgumentException("[PROCESSOR ERROR] : Grain size needs to be at least one!");
+
+        _grainSize = grainSize;
+    }
+
+    /**
+     * Enables or disables incremental validation. <br>
+     * With it enabled, {@link A_Processor#p_isComponentValid(A_Component)} is only called again,
+     * after the components of the system changed, instead of every frame.
+     * This is only correct, if the validity of a component solely depends on which components
+     * exist, which is the case for all processors shipped with Jangine.
+     *
+     * @param value Whether validation should be incremental
+     *
+     * @author Tim Kloepper
+     */
+    protected final void p_setIncrementalValidation(boolean value) {
+        _incrementalValidation = value;
+        _validatedVersion = -1;
+    }
+    /**
+     * Enables or disables the collection of changed components into
+     * {@link A_Processor#p_getChangedComponents()}, which is skipped by default,
+     * as most processors handle all of their components every update anyway.
+     *
+     * @param value Whether changed components should be collected
+     *
+     * @author Tim Kloepper
+     */
+    protected final void p_setChangeTracking(boolean value) {
+        _changeTracking = value;
+        _CHANGED_COMPONENTS.clear();
+    }
 
 
     // -+- UPDATE LOOP -+- //
 
     /**
      * The update method that is always the same and called by the system.
-     * It creates a list of valid components and pushes them,
+     * It collects the valid and active components into a reusable view and pushes them,
      * together with the system itself and the owning scene to the internal
      * update method.
+     * <p></p>
+     * Activation changes are found by comparing the activation bits of the last update
+     * with the current ones, a word of 64 components at a time.
+     * No objects are allocated, as long as the amount of valid components does not grow
+     * beyond what the view already held.
+     * <p></p>
+     * If change tracking is enabled, valid components, that got added or marked as changed since the previous update,
+     * are additionally collected into {@link A_Processor#p_getChangedComponents()}.
      *
      * @param system System that manages this processor
      * @param scene OldScene that owns the specified system
@@ -48,29 +185,162 @@ public abstract class A_Processor<T extends A_Component> {
      * @author Tim Kloepper
      */
     protected final void p_update(System system, A_Scene scene) {
-        HashSet<T> validComponents;
+        if (_storage == null) return;
 
-        validComponents = new HashSet<>();
+        List<Archetype> archetypes;
+        boolean revalidate;
 
-        for (T component : _components.values()) {
-            if (!p_isComponentValid(component)) continue;
+        _VALID_COMPONENTS.clear();
+        if (_changeTracking) _CHANGED_COMPONENTS.clear();
 
-            _PREV_ACTIVATION_STATES.put(component, component.active);
+        _changedSince = _lastRunTick;
+        _lastRunTick = _storage.getTick();
 
-            if (!component.active) {
-                if (_PREV_ACTIVATION_STATES.get(component)) p_onComponentDeactivated(component);
+        archetypes = _storage.getArchetypesWith(_column);
+        revalidate = !_incrementalValidation || _validatedVersion != _storage.getVersion();
 
-                continue;
-            }
-            if (_PREV_ACTIVATION_STATES.get(component)) p_onComponentActivated(component);
+        for (int archetypeIndex = 0; archetypeIndex < archetypes.size(); archetypeIndex++) {
+            Archetype archetype;
+            int slot;
 
-            validComponents.add(component);
+            archetype = archetypes.get(archetypeIndex);
+            slot = archetype.getSlot(_column);
+
+            for (int chunkIndex = 0; chunkIndex < archetype.getChunkAmount(); chunkIndex++) {
+                h_updateChunk(archetype.getChunk(chunkIndex), slot, revalidate);
+            }
         }
 
-        p_internalUpdate(validComponents, system, scene);
+        _validatedVersion = _storage.getVersion();
+
+        p_internalUpdate(_VALID_COMPONENTS, system, scene);
+    }
+    private void h_updateChunk(Chunk chunk, int slot, boolean revalidate) {
+        A_Component[] components;
+        long[] activationWords, validityWords;
+        int[] changeTicks;
+
+        components = chunk.COLUMNS[slot];
+        activationWords = chunk.ACTIVATION_WORDS[slot];
+        validityWords = chunk.VALIDITY_WORDS[slot];
+        changeTicks = _changeTracking ? chunk.CHANGE_TICKS[slot] : null;
+
+        for (int word = 0, base = 0; base < chunk.size; word++, base += Long.SIZE) {
+            int end;
+            long valid, active, changed;
+
+            end = Math.min(Long.SIZE, chunk.size - base);
+
+            valid = 0;
+            active = 0;
+
+            for (int bit = 0; bit < end; bit++) {
+                T component;
+
+                component = h_cast(components[base + bit]);
+
+                if (revalidate && p_isComponentValid(component)) valid |= 1L << bit;
+                if (component.active) active |= 1L << bit;
+            }
+
+            if (revalidate) validityWords[word] = valid;
+            else valid = validityWords[word];
+
+            // Only valid components take part in activation changes.
+            changed = (active ^ activationWords[word]) & valid;
+            activationWords[word] ^= changed;
+
+            while (changed != 0) {
+                int bit;
+                T component;
+
+                bit = Long.numberOfTrailingZeros(changed);
+                changed &= changed - 1;
+
+                component = h_cast(components[base + bit]);
+
+                if (component.active) p_onComponentActivated(component);
+                else p_onComponentDeactivated(component);
+            }
+
+            active &= valid;
+
+            while (active != 0) {
+                int bit;
+
+                bit = Long.numberOfTrailingZeros(active);
+                active &= active - 1;
+
+                _VALID_COMPONENTS.add(h_cast(components[base + bit]));
+                if (changeTicks != null && changeTicks[base + bit] >= _changedSince) _CHANGED_COMPONENTS.add(h_cast(components[base + bit]));
+            }
+        }
     }
     protected abstract void p_internalUpdate(Collection<T> validComponents, System system, A_Scene scene);
 
+    /**
+     * Returns the valid and active components, that got added or marked as changed
+     * since the previous update of this processor. <br>
+     * Just like the valid components, the returned collection is only valid during
+     * {@link A_Processor#p_internalUpdate} and requires change tracking to be enabled.
+     *
+     * @return The changed components
+     *
+     * @see A_Processor#p_setChangeTracking(boolean)
+     *
+     * @author Tim Kloepper
+     */
+    protected final Collection<T> p_getChangedComponents() {
+        if (!_changeTracking) throw new IllegalStateException("[PROCESSOR ERROR] : Change tracking is disabled!");
+
+        return _CHANGED_COMPONENTS;
+    }
+    /**
+     * Returns the tick of the previous update of this processor.
+     * Components with at least this change tick changed since then. <br>
+     * Changes made at that very tick, for example by this processor itself, are therefore reported once more,
+     * which is preferred over missing changes made by other processors of the same stage.
+     *
+     * @return The tick of the previous update
+     *
+     * @author Tim Kloepper
+     */
+    protected final int p_getChangedSince() {
+        return _changedSince;
+    }
+
+    /**
+     * Runs the action for every one of the specified components.
+     * If parallel iteration is enabled and there are more components than the grain size,
+     * the components are split into ranges of at most the grain size, which are processed
+     * on a {@link ForkJoinPool}. Otherwise, or if the collection is not the view passed to
+     * {@link A_Processor#p_internalUpdate}, the components are processed one after another
+     * on the calling thread.
+     * <p></p>
+     * In parallel, the action must only touch data belonging to the entity of the component
+     * it gets called with.
+     * The tasks are reused by every call, so only growing the amount of ranges allocates,
+     * but the method must not be called again from inside the action.
+     *
+     * @param components The components, usually the valid components of the internal update
+     * @param action The action that is to be run for every component
+     *
+     * @author Tim Kloepper
+     */
+    protected final void p_parallelFor(Collection<T> components, Consumer<? super T> action) {
+        if (!_parallelIteration || components.size() <= _grainSize || !(components instanceof ComponentView)) {
+            for (T component : components) action.accept(component);
+
+            return;
+        }
+
+        _PARALLEL_TASK.prepare((ComponentView<T>) components, action, _grainSize);
+
+        // Inside a pool, e.g. when the scheduler runs this processor, the task can be forked right away.
+        if (ForkJoinTask.inForkJoinPool()) _PARALLEL_TASK.invoke();
+        else ForkJoinPool.commonPool().invoke(_PARALLEL_TASK);
+    }
+
 
     // -+- COMPONENT MANAGEMENT -+- //
 
@@ -90,16 +360,29 @@ public abstract class A_Processor<T extends A_Component> {
      * @return success
      */
     public boolean addComponent(int entityId, T component, boolean overwrite) {
+        if (_storage == null) return false;
         if (!p_isComponentValid(component)) return false;
-        if (_components.containsKey(entityId) && !overwrite) return false;
+        if (_storage.has(entityId, _column) && !overwrite) return false;
 
-        _components.put(entityId, component);
-        _PREV_ACTIVATION_STATES.put(component, component.active);
+        T replacedComponent;
+
+        replacedComponent = h_cast(_storage.set(entityId, _column, component));
+        if (replacedComponent != null && replacedComponent != component) p_onComponentRemoved(replacedComponent);
 
         p_onComponentAdded(component);
 
         return true;
     }
+    /**
+     * Adds a component, of which the system already knows, that its class is processed by this processor.
+     *
+     * @see A_Processor#addComponent(int, A_Component, boolean)
+     *
+     * @author Tim Kloepper
+     */
+    boolean addProcessedComponent(int entityId, A_Component component, boolean overwrite) {
+        return addComponent(entityId, h_cast(component), overwrite);
+    }
     /**
      * Removes a component from the processor,
      * based on the entity id.
@@ -111,20 +394,36 @@ public abstract class A_Processor<T extends A_Component> {
      * @author Tim Kloepper
      */
     public T rmvComponent(int entityId) {
-        if (!_components.containsKey(entityId)) return null;
+        if (_storage == null) return null;
 
         T removedComponent;
 
-        removedComponent = _components.remove(entityId);
+        removedComponent = h_cast(_storage.rmv(entityId, _column));
         if (removedComponent == null) return null;
 
-        _PREV_ACTIVATION_STATES.remove(removedComponent);
-
         p_onComponentRemoved(removedComponent);
 
         return removedComponent;
     }
 
+    /**
+     * Marks the component of the specified entity as changed,
+     * so processors depending on it can pick up the change during their next update. <br>
+     * Needs to be called after changing the data of a component,
+     * as the change can not be detected otherwise.
+     *
+     * @param entityId The entity whose component changed
+     *
+     * @return Whether this processor holds a component for that entity
+     *
+     * @author Tim Kloepper
+     */
+    public boolean markChanged(int entityId) {
+        if (_storage == null) return false;
+
+        return _storage.markChanged(entityId, _column);
+    }
+
     /**
      * A way to define custom checks for the systems,
      * to make sure, components that are passed to the internal update
@@ -138,6 +437,21 @@ public abstract class A_Processor<T extends A_Component> {
      */
     protected abstract boolean p_isComponentValid(T component);
 
+    /**
+     * Casts a component of the column of this processor.
+     * The column only ever holds components, that got added through {@link A_Processor#addComponent}, so they are of {@code T}.
+     *
+     * @param component A component of the column of this processor, or {@code null}
+     *
+     * @return The same component
+     *
+     * @author Tim Kloepper
+     */
+    @SuppressWarnings("unchecked")
+    private T h_cast(A_Component component) {
+        return (T) component;
+    }
+
     protected abstract void p_onComponentAdded(T component);
     protected abstract void p_onComponentRemoved(T component);
 
@@ -171,16 +485,169 @@ public abstract class A_Processor<T extends A_Component> {
      */
     protected abstract Collection<Class<? extends A_Component>> p_getRequiredComponentClasses();
 
+    /**
+     * Returns the component classes this processor reads during its update.
+     * Together with {@link A_Processor#p_getWrittenComponentClasses()}, this is used by the
+     * {@link ProcessorScheduler} to find out, which processors can run at the same time. <br>
+     * By default, these are the required component classes.
+     *
+     * @return the classes of the components this processor reads.
+     *
+     * @author Tim Kloepper
+     */
+    protected Collection<? extends Class<? extends A_Component>> p_getReadComponentClasses() {
+        return p_getRequiredComponentClasses();
+    }
+    /**
+     * Returns the component classes this processor writes during its update. <br>
+     * By default, these are the processed component classes.
+     *
+     * @return the classes of the components this processor writes.
+     *
+     * @author Tim Kloepper
+     */
+    protected Collection<? extends Class<? extends A_Component>> p_getWrittenComponentClasses() {
+        return p_getProcessedComponentClasses();
+    }
+    /**
+     * Returns whether this processor has to be updated on the thread calling {@link System#update()},
+     * for example because it talks to OpenGL. <br>
+     * By default, this is {@code false}.
+     *
+     * @return Whether this processor is bound to the main thread
+     *
+     * @author Tim Kloepper
+     */
+    protected boolean p_requiresMainThread() {
+        return false;
+    }
+
     public T getComponent(int entityId) {
-        return _components.get(entityId);
+        if (_storage == null) return null;
+
+        return h_cast(_storage.get(entityId, _column));
+    }
+
+    /**
+     * Returns the column of the system's storage, which holds the components of this processor.
+     *
+     * @return The column of this processor, or {@code -1} if this processor is not part of a system
+     *
+     * @author Tim Kloepper
+     */
+    public int getColumn() {
+        return _column;
     }
 
 
     // -+- CHECKERS -+- //
 
     public boolean hasEntity(int entityId) {
-        return _components.containsKey(entityId);
+        if (_storage == null) return false;
+
+        return _storage.has(entityId, _column);
     }
 
 
-}
\ No newline at end of file
+    // -+- CLASSES -+- //
+
+    // Tasks only live for the call they run in and are never serialized.
+    @SuppressWarnings("serial")
+    private static class ParallelTask<T extends A_Component> extends RecursiveAction {
+
+
+        // -+- CREATION -+- //
+
+        @SuppressWarnings("unchecked")
+        ParallelTask() {
+            _ranges = (RangeTask<T>[]) new RangeTask<?>[0];
+            _rangeAmount = 0;
+        }
+
+        /**
+         * Splits the components into ranges of at most the grain size, reusing the range tasks of earlier calls.
+         *
+         * @author Tim Kloepper
+         */
+        void prepare(ComponentView<T> components, Consumer<? super T> action, int grainSize) {
+            reinitialize();
+
+            _rangeAmount = (components.size() + grainSize - 1) / grainSize;
+
+            if (_rangeAmount > _ranges.length) {
+                int previous;
+
+                previous = _ranges.length;
+                _ranges = Arrays.copyOf(_ranges, _rangeAmount);
+
+                for (int range = previous; range < _rangeAmount; range++) _ranges[range] = new RangeTask<>();
+            }
+
+            for (int range = 0; range < _rangeAmount; range++) {
+                _ranges[range].prepare(components, action, range * grainSize, Math.min((range + 1) * grainSize, components.size()));
+            }
+        }
+
+
+        // -+- PARAMETERS -+- //
+
+        // NON-FINALS //
+
+        private RangeTask<T>[] _ranges;
+        private int _rangeAmount;
+
+
+        // -+- EXECUTION -+- //
+
+        @Override
+        protected void compute() {
+            // The first range runs on this thread, while the others can be stolen.
+            for (int range = 1; range < _rangeAmount; range++) _ranges[range].fork();
+
+            _ranges[0].compute();
+
+            for (int range = _rangeAmount - 1; range > 0; range--) _ranges[range].join();
+        }
+
+
+    }
+
+    // Tasks only live for the call they run in and are never serialized.
+    @SuppressWarnings("serial")
+    private static class RangeTask<T extends A_Component> extends RecursiveAction {
+
+
+        // -+- CREATION -+- //
+
+        void prepare(ComponentView<T> components, Consumer<? super T> action, int from, int to) {
+            reinitialize();
+
+            _components = components;
+            _action = action;
+
+            _from = from;
+            _to = to;
+        }
+
+
+        // -+- PARAMETERS -+- //
+
+        // NON-FINALS //
+
+        private ComponentView<T> _components;
+        private Consumer<? super T> _action;
+
+        private int _from, _to;
+
+
+        // -+- EXECUTION -+- //
+
+        @Override
+        protected void compute() {
+            for (int index = _from; index < _to; index++) _action.accept(_components.get(index));
+        }
+
+
+    }
+
+}
@@ -0,0 +1,202 @@
+package internal.entity_component_system;
+
+
+import java.util.Arrays;
+
+
+/**
+ * Records structural changes of a {@link System}, which are applied later, in the order they got recorded,
+ * once the system reaches its sync point at the end of {@link System#update()}. <br>
+ * This allows processors to spawn and despawn entities or add and remove components during their update,
+ * even while they run in parallel, where changing the system directly is not allowed.
+ * <p></p>
+ * Spawned entities get their handle right away, so components can be recorded for them,
+ * but they only become part of the system once the buffer is applied. <br>
+ * Recording is synchronized, so the buffer can be shared by all processors of a stage.
+ * Spawning reserves handles from the {@link EntityAllocator} of the system while holding the lock of this buffer,
+ * which the system also holds for its own allocations, see {@link EntityAllocator}.
+ *
+ * @author Tim Kloepper
+ * @version 1.0
+ */
+public class CommandBuffer {
+
+
+    // -+- CREATION -+- //
+
+    public CommandBuffer(System system, EntityAllocator entities) {
+        _SYSTEM = system;
+        _ENTITIES = entities;
+
+        _operations = new int[INITIAL_CAPACITY];
+        _targets = new int[INITIAL_CAPACITY];
+        _arguments = new Object[INITIAL_CAPACITY];
+
+        _size = 0;
+    }
+
+
+    // -+- PARAMETERS -+- //
+
+    // FINALS //
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    private static final int SPAWN = 0;
+    private static final int SPAWN_PROTOTYPE = 1;
+    private static final int DESPAWN = 2;
+    private static final int ADD = 3;
+    private static final int RMV = 4;
+
+    private final System _SYSTEM;
+    private final EntityAllocator _ENTITIES;
+
+    // NON-FINALS //
+
+    // One command per index, split into primitive arrays to not create an object per command.
+    private int[] _operations;
+    private int[] _targets;
+    private Object[] _arguments;
+
+    private int _size;
+
+
+    // -+- RECORDING -+- //
+
+    /**
+     * Reserves a new entity, which gets added to the system, once this buffer is applied.
+     *
+     * @return The handle of the new entity
+     *
+     * @author Tim Kloepper
+     */
+    public synchronized int spawn() {
+        int entity;
+
+        entity = _ENTITIES.allocate();
+
+        h_record(SPAWN, entity, null);
+
+        return entity;
+    }
+    /**
+     * Reserves the specified amount of entities, which are created from the prototype,
+     * once this buffer is applied.
+     *
+     * @param count The amount of entities that are to be spawned
+     * @param prototype The prototype creating the components of every entity
+     *
+     * @return The handles of the new entities, in the order of their spawn index
+     *
+     * @author Tim Kloepper
+     */
+    public synchronized int[] spawn(int count, I_EntityPrototype prototype) {
+        if (count < 0) throw new IllegalArgumentException("[COMMAND BUFFER ERROR] : Count can not be negative!");
+
+        int[] entities;
+
+        entities = new int[count];
+        for (int index = 0; index < count; index++) entities[index] = _ENTITIES.allocate();
+
+        h_record(SPAWN_PROTOTYPE, -1, new PrototypeSpawn(entities, prototype));
+
+        return entities;
+    }
+    public synchronized void despawn(int entity) {
+        h_record(DESPAWN, entity, null);
+    }
+
+    public synchronized void add(int entity, A_Component component) {
+        h_record(ADD, entity, component);
+    }
+    public synchronized void rmv(int entity, Class<? extends A_Component> componentClass) {
+        h_record(RMV, entity, componentClass);
+    }
+
+    private void h_record(int operation, int target, Object argument) {
+        if (_size == _operations.length) {
+            _operations = Arrays.copyOf(_operations, _size * 2);
+            _targets = Arrays.copyOf(_targets, _size * 2);
+            _arguments = Arrays.copyOf(_arguments, _size * 2);
+        }
+
+        _operations[_size] = operation;
+        _targets[_size] = target;
+        _arguments[_size] = argument;
+
+        _size++;
+    }
+
+
+    // -+- APPLICATION -+- //
+
+    /**
+     * Applies all recorded commands in the order they got recorded and empties the buffer.
+     * Commands, that are recorded while applying, for example by callbacks, are applied as well. <br>
+     * Commands targeting entities, that got removed in the meantime, are skipped.
+     * Is called by the system at its sync point.
+     *
+     * @author Tim Kloepper
+     */
+    public synchronized void apply() {
+        for (int index = 0; index < _size; index++) {
+            int target;
+            Object argument;
+
+            target = _targets[index];
+            argument = _arguments[index];
+
+            _arguments[index] = null;
+
+            switch (_operations[index]) {
+                case SPAWN -> _SYSTEM.addReservedEntity(target);
+                case SPAWN_PROTOTYPE -> _SYSTEM.addReservedEntities(((PrototypeSpawn) argument).ENTITIES, ((PrototypeSpawn) argument).PROTOTYPE);
+                case DESPAWN -> _SYSTEM.rmvEntity(target);
+                case ADD -> _SYSTEM.addComponentToEntity(target, (A_Component) argument, false);
+                case RMV -> _SYSTEM.rmvComponentFromEntity(target, ((Class<?>) argument).asSubclass(A_Component.class));
+            }
+        }
+
+        _size = 0;
+    }
+
+
+    // -+- GETTERS -+- //
+
+    public synchronized int getSize() {
+        return _size;
+    }
+
+
+    // -+- CHECKERS -+- //
+
+    public synchronized boolean isEmpty() {
+        return _size == 0;
+    }
+
+
+    // -+- CLASSES -+- //
+
+    private static class PrototypeSpawn {
+
+
+        // -+- CREATION -+- //
+
+        PrototypeSpawn(int[] entities, I_EntityPrototype prototype) {
+            ENTITIES = entities;
+            PROTOTYPE = prototype;
+        }
+
+
+        // -+- PARAMETERS -+- //
+
+        // FINALS //
+
+        final int[] ENTITIES;
+        final I_EntityPrototype PROTOTYPE;
+
+
+    }
+
+
+}
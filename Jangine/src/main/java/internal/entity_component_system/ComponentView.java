@@ -0,0 +1,151 @@
+package internal.entity_component_system;
+
+
+import java.util.AbstractCollection;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+
+/**
+ * A dense, reusable list of components, which a processor refills every frame
+ * and hands to {@link A_Processor#p_internalUpdate}. <br>
+ * The backing array only grows and the iterator is reused, so iterating the view
+ * does not allocate in a steady state. <br>
+ * The view is only valid during the update it got passed to and must not be kept.
+ *
+ * @param <T> The class of the components inside this view
+ *
+ * @author Tim Kloepper
+ * @version 1.0
+ */
+public class ComponentView<T extends A_Component> extends AbstractCollection<T> {
+
+
+    // -+- CREATION -+- //
+
+    public ComponentView() {
+        _components = new A_Component[INITIAL_CAPACITY];
+        _size = 0;
+
+        _ITERATOR = new ViewIterator();
+    }
+
+
+    // -+- PARAMETERS -+- //
+
+    // FINALS //
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    private final ViewIterator _ITERATOR;
+
+    // NON-FINALS //
+
+    private A_Component[] _components;
+    private int _size;
+
+
+    // -+- CONTENT MANAGEMENT -+- //
+
+    /**
+     * Empties the view without releasing the backing array.
+     * References stay inside the array until they get overwritten.
+     *
+     * @author Tim Kloepper
+     */
+    @Override
+    public void clear() {
+        _size = 0;
+
+        _ITERATOR.inUse = false;
+    }
+    @Override
+    public boolean add(T component) {
+        if (_size == _components.length) _components = Arrays.copyOf(_components, _components.length * 2);
+
+        _components[_size++] = component;
+
+        return true;
+    }
+
+
+    // -+- GETTERS -+- //
+
+    public T get(int index) {
+        if (index < 0 || index >= _size) throw new IndexOutOfBoundsException("[COMPONENT VIEW ERROR] : Index " + index + " is out of bounds!");
+
+        return h_get(index);
+    }
+
+    // Only components of T are ever added, the array is just not generic.
+    @SuppressWarnings("unchecked")
+    private T h_get(int index) {
+        return (T) _components[index];
+    }
+
+    @Override
+    public int size() {
+        return _size;
+    }
+
+    /**
+     * Returns the shared iterator of this view.
+     * Only if the shared one is still in use, a new iterator is created,
+     * so nested iterations stay correct.
+     *
+     * @return An iterator over this view
+     *
+     * @author Tim Kloepper
+     */
+    @Override
+    public Iterator<T> iterator() {
+        if (_ITERATOR.inUse) return new ViewIterator().reset();
+
+        return _ITERATOR.reset();
+    }
+
+
+    // -+- CLASSES -+- //
+
+    private class ViewIterator implements Iterator<T> {
+
+
+        // -+- PARAMETERS -+- //
+
+        // NON-FINALS //
+
+        private int _index;
+
+        boolean inUse;
+
+
+        // -+- ITERATION -+- //
+
+        ViewIterator reset() {
+            _index = 0;
+            inUse = _size > 0;
+
+            return this;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (_index < _size) return true;
+
+            inUse = false;
+
+            return false;
+        }
+        @Override
+        public T next() {
+            if (_index >= _size) throw new NoSuchElementException();
+
+            return h_get(_index++);
+        }
+
+
+    }
+
+
+}
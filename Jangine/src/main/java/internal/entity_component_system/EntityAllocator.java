@@ -0,0 +1,191 @@
+package internal.entity_component_system;
+
+
+import java.util.Arrays;
+
+
+/**
+ * Hands out entity handles for a {@link System}. <br>
+ * A handle packs the index of the entity into its lower {@link EntityAllocator#INDEX_BITS} bits
+ * and a generation into the {@link EntityAllocator#GENERATION_BITS} bits above. The sign bit always stays
+ * clear, so handles are never negative and {@code -1} can keep meaning "no entity".
+ * <p></p>
+ * Freed indices are pushed onto a plain int stack and reused first. Every time an index gets freed,
+ * its generation is increased, so old handles to that index no longer count as alive,
+ * even after the index got handed out again.
+ * Generations do not wrap around, as that would bring the oldest handles back to life.
+ * Instead, an index is retired for good, once it was freed with the last generation,
+ * so it costs a new index every {@code 2^GENERATION_BITS} reuses.
+ * <p></p>
+ * This class is not thread safe. A {@link System} shares its allocator with its {@link CommandBuffer},
+ * which reserves handles from any thread while holding its own lock.
+ * The system therefore allocates and frees handles only while holding that lock as well.
+ *
+ * @author Tim Kloepper
+ * @version 1.0
+ */
+public class EntityAllocator {
+
+
+    // -+- CREATION -+- //
+
+    public EntityAllocator() {
+        _generations = new int[INITIAL_CAPACITY];
+        _alive = new boolean[INITIAL_CAPACITY];
+        _freeIndices = new int[INITIAL_CAPACITY];
+
+        _freeAmount = 0;
+        _nextIndex = 0;
+        _aliveAmount = 0;
+        _retiredAmount = 0;
+    }
+
+
+    // -+- PARAMETERS -+- //
+
+    // FINALS //
+
+    public static final int INDEX_BITS = 23;
+    public static final int GENERATION_BITS = 8;
+
+    public static final int MAX_ENTITIES = 1 << INDEX_BITS;
+
+    private static final int INDEX_MASK = MAX_ENTITIES - 1;
+    private static final int GENERATION_MASK = (1 << GENERATION_BITS) - 1;
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    // NON-FINALS //
+
+    private int[] _generations;
+    private boolean[] _alive;
+
+    // Stack of freed indices, the top is at _freeAmount - 1.
+    private int[] _freeIndices;
+    private int _freeAmount;
+
+    private int _nextIndex;
+    private int _aliveAmount;
+    // Indices, whose generations are used up, which are never handed out again.
+    private int _retiredAmount;
+
+
+    // -+- ALLOCATION -+- //
+
+    /**
+     * Returns a new handle, reusing the most recently freed index, if there is one.
+     *
+     * @return The handle of the new entity
+     *
+     * @author Tim Kloepper
+     */
+    public int allocate() {
+        int index;
+
+        if (_freeAmount > 0) index = _freeIndices[--_freeAmount];
+        else {
+            if (_nextIndex == MAX_ENTITIES) throw new IllegalStateException("[ENTITY ALLOCATOR ERROR] : All " + MAX_ENTITIES + " entity indices are alive or retired!");
+
+            index = _nextIndex++;
+            h_ensureCapacity(index);
+        }
+
+        _alive[index] = true;
+        _aliveAmount++;
+
+        return pack(index, _generations[index]);
+    }
+    /**
+     * Frees the handle, making it and every other handle to its index stale.
+     * If the index has no generation left, it is retired instead of being reused.
+     *
+     * @param handle The handle that is to be freed
+     *
+     * @return Whether the handle was alive
+     *
+     * @author Tim Kloepper
+     */
+    public boolean free(int handle) {
+        if (!isAlive(handle)) return false;
+
+        int index;
+
+        index = indexOf(handle);
+
+        _alive[index] = false;
+        _aliveAmount--;
+
+        if (_generations[index] == GENERATION_MASK) {
+            _retiredAmount++;
+
+            return true;
+        }
+
+        _generations[index]++;
+
+        if (_freeAmount == _freeIndices.length) _freeIndices = Arrays.copyOf(_freeIndices, _freeIndices.length * 2);
+        _freeIndices[_freeAmount++] = index;
+
+        return true;
+    }
+
+    private void h_ensureCapacity(int index) {
+        if (index < _generations.length) return;
+
+        int newLength;
+
+        newLength = Math.min(_generations.length * 2, MAX_ENTITIES);
+
+        _generations = Arrays.copyOf(_generations, newLength);
+        _alive = Arrays.copyOf(_alive, newLength);
+    }
+
+
+    // -+- HANDLES -+- //
+
+    public static int pack(int index, int generation) {
+        return ((generation & GENERATION_MASK) << INDEX_BITS) | (index & INDEX_MASK);
+    }
+    public static int indexOf(int handle) {
+        return handle & INDEX_MASK;
+    }
+    public static int generationOf(int handle) {
+        return (handle >>> INDEX_BITS) & GENERATION_MASK;
+    }
+
+
+    // -+- GETTERS -+- //
+
+    public int getAliveAmount() {
+        return _aliveAmount;
+    }
+    public int getRetiredAmount() {
+        return _retiredAmount;
+    }
+
+
+    // -+- CHECKERS -+- //
+
+    /**
+     * Returns whether the handle belongs to an entity, that is currently alive.
+     * Handles of removed entities stay dead, even after their index got reused.
+     *
+     * @param handle The handle that is to be checked
+     *
+     * @return Whether the handle is alive
+     *
+     * @author Tim Kloepper
+     */
+    public boolean isAlive(int handle) {
+        int index;
+
+        if (handle < 0) return false;
+
+        index = indexOf(handle);
+        if (index >= _nextIndex) return false;
+
+        return _alive[index] && _generations[index] == generationOf(handle);
+    }
+
+
+}
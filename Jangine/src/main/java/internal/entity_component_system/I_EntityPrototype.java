@@ -0,0 +1,38 @@
+package internal.entity_component_system;
+
+
+/**
+ * Describes an entity, of which many copies can be spawned at once,
+ * using {@link System#spawn(int, I_EntityPrototype)} or {@link CommandBuffer#spawn(int, I_EntityPrototype)}. <br>
+ * As every component can only belong to one entity, the prototype creates new components for every copy.
+ *
+ * @author Tim Kloepper
+ * @version 1.0
+ */
+public interface I_EntityPrototype {
+
+
+    /**
+     * Returns the amount of components every copy holds.
+     * Must not change between calls.
+     *
+     * @return The amount of components per entity
+     *
+     * @author Tim Kloepper
+     */
+    int getComponentAmount();
+
+    /**
+     * Creates the components of one copy and writes them into the specified array.
+     * The components are added to the entity in the order of the array,
+     * so components, that other components require, should come first.
+     *
+     * @param spawnIndex The index of the copy inside the current spawn, starting at zero
+     * @param components The array, that is to be filled with {@link I_EntityPrototype#getComponentAmount()} new components
+     *
+     * @author Tim Kloepper
+     */
+    void createComponents(int spawnIndex, A_Component[] components);
+
+
+}
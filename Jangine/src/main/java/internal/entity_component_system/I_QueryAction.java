@@ -0,0 +1,26 @@
+package internal.entity_component_system;
+
+
+/**
+ * Is called by {@link Query#forEach(I_QueryAction)} for every entity matching the query.
+ *
+ * @author Tim Kloepper
+ * @version 1.0
+ */
+public interface I_QueryAction {
+
+
+    /**
+     * Is called for one matching entity.
+     * The array holds the components of the entity, in the order of the classes the query got created with.
+     * It is reused for every entity, so neither the array nor its content should be kept.
+     *
+     * @param entity The handle of the entity
+     * @param components The components of the entity
+     *
+     * @author Tim Kloepper
+     */
+    void accept(int entity, A_Component[] components);
+
+
+}
@@ -0,0 +1,293 @@
+package internal.entity_component_system;
+
+
+import internal.rendering.container.A_Scene;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+
+/**
+ * Orders the processors of a {@link System} into stages, based on the component classes
+ * every processor reads and writes. <br>
+ * A processor is put into a later stage than every processor added before it,
+ * that writes what it reads or writes, or reads what it writes.
+ * Processors inside the same stage therefore never conflict and can run at the same time.
+ * <p></p>
+ * The order of the stages only depends on the order the processors got added in,
+ * so the execution order is the same every frame, no matter if the stages run
+ * sequentially or in parallel.
+ *
+ * @author Tim Kloepper
+ * @version 1.0
+ */
+public class ProcessorScheduler {
+
+
+    // -+- CREATION -+- //
+
+    public ProcessorScheduler() {
+        _STAGES = new ArrayList<>();
+        _STAGE_TASKS = new ArrayList<>();
+
+        _pool = ForkJoinPool.commonPool();
+
+        _dirty = true;
+        _runningParallel = false;
+    }
+
+
+    // -+- PARAMETERS -+- //
+
+    // FINALS //
+
+    private final ArrayList<ArrayList<A_Processor<?>>> _STAGES;
+    // One reusable task per processor, indexed like the stages.
+    private final ArrayList<ArrayList<ProcessorTask>> _STAGE_TASKS;
+
+    // NON-FINALS //
+
+    private ForkJoinPool _pool;
+
+    private boolean _dirty;
+    private volatile boolean _runningParallel;
+
+
+    // -+- SCHEDULE MANAGEMENT -+- //
+
+    /**
+     * Marks the schedule as outdated, so it gets rebuilt before the next run.
+     * Is called by the system, whenever a processor gets added or removed.
+     *
+     * @author Tim Kloepper
+     */
+    public void invalidate() {
+        _dirty = true;
+    }
+
+    private void h_rebuild(System system) {
+        ArrayList<A_Processor<?>> processors;
+        long[] readMasks, writeMasks;
+        int[] levels;
+
+        processors = new ArrayList<>();
+        for (A_Processor<?> processor : system.getProcessors()) processors.add(processor);
+
+        readMasks = new long[processors.size()];
+        writeMasks = new long[processors.size()];
+        levels = new int[processors.size()];
+
+        for (int index = 0; index < processors.size(); index++) {
+            readMasks[index] = h_toColumnMask(system, processors.get(index).p_getReadComponentClasses());
+            writeMasks[index] = h_toColumnMask(system, processors.get(index).p_getWrittenComponentClasses());
+        }
+
+        // Longest path through the dependency graph, whose edges only point from earlier to later processors.
+        for (int later = 0; later < processors.size(); later++) {
+            for (int earlier = 0; earlier < later; earlier++) {
+                boolean conflict;
+
+                conflict = (writeMasks[earlier] & (readMasks[later] | writeMasks[later])) != 0
+                        || (readMasks[earlier] & writeMasks[later]) != 0;
+
+                if (conflict) levels[later] = Math.max(levels[later], levels[earlier] + 1);
+            }
+        }
+
+        _STAGES.clear();
+        _STAGE_TASKS.clear();
+
+        for (int index = 0; index < processors.size(); index++) {
+            while (_STAGES.size() <= levels[index]) {
+                _STAGES.add(new ArrayList<>());
+                _STAGE_TASKS.add(new ArrayList<>());
+            }
+
+            _STAGES.get(levels[index]).add(processors.get(index));
+            _STAGE_TASKS.get(levels[index]).add(new ProcessorTask(processors.get(index)));
+        }
+
+        _dirty = false;
+    }
+    private long h_toColumnMask(System system, Collection<? extends Class<? extends A_Component>> componentClasses) {
+        long mask;
+
+        mask = 0;
+
+        for (Class<? extends A_Component> componentClass : componentClasses) {
+            A_Processor<?> processor;
+
+            processor = system.getProcessorOf(componentClass);
+            if (processor == null || processor.getColumn() == -1) continue;
+
+            mask |= 1L << processor.getColumn();
+        }
+
+        return mask;
+    }
+
+
+    // -+- UPDATE LOOP -+- //
+
+    /**
+     * Updates every processor of the system, one stage after another.
+     * If {@code parallel} is {@code true}, the processors of a stage are run on the pool,
+     * except for processors requiring the main thread, which run on the calling thread.
+     *
+     * @param system The system the processors belong to
+     * @param scene The scene that owns the system
+     * @param parallel Whether the processors of a stage should run at the same time
+     *
+     * @author Tim Kloepper
+     */
+    public void run(System system, A_Scene scene, boolean parallel) {
+        if (_dirty) h_rebuild(system);
+
+        for (int stageIndex = 0; stageIndex < _STAGES.size(); stageIndex++) {
+            ArrayList<A_Processor<?>> stage;
+
+            stage = _STAGES.get(stageIndex);
+
+            // Changes of earlier stages have to be older than the run of this one, to be seen by it.
+            system.getStorage().advanceTick();
+
+            if (!parallel || stage.size() == 1) {
+                for (int index = 0; index < stage.size(); index++) {
+                    stage.get(index).p_update(system, scene);
+                }
+            } else {
+                h_runParallel(_STAGE_TASKS.get(stageIndex), system, scene);
+            }
+        }
+
+        // Changes made after the last stage, for example by the command buffer, are seen in the next update.
+        system.getStorage().advanceTick();
+    }
+    private void h_runParallel(ArrayList<ProcessorTask> tasks, System system, A_Scene scene) {
+        _runningParallel = true;
+
+        for (int index = 0; index < tasks.size(); index++) {
+            ProcessorTask task;
+
+            task = tasks.get(index);
+            if (task.PROCESSOR.p_requiresMainThread()) continue;
+
+            task.reinitialize();
+            task.prepare(system, scene);
+            _pool.execute(task);
+        }
+
+        try {
+            // Processors bound to the main thread run here, while the pool works on the rest.
+            for (int index = 0; index < tasks.size(); index++) {
+                ProcessorTask task;
+
+                task = tasks.get(index);
+                if (!task.PROCESSOR.p_requiresMainThread()) continue;
+
+                task.PROCESSOR.p_update(system, scene);
+            }
+        } finally {
+            for (int index = 0; index < tasks.size(); index++) {
+                ProcessorTask task;
+
+                task = tasks.get(index);
+                if (task.PROCESSOR.p_requiresMainThread()) continue;
+
+                task.join();
+            }
+
+            _runningParallel = false;
+        }
+    }
+
+
+    // -+- SETTERS -+- //
+
+    public void setPool(ForkJoinPool pool) {
+        if (pool == null) throw new IllegalArgumentException("[PROCESSOR SCHEDULER ERROR] : Pool can not be null!");
+
+        _pool = pool;
+    }
+
+
+    // -+- GETTERS -+- //
+
+    /**
+     * Returns the stages of the current schedule.
+     * Every processor inside a stage can run at the same time as the others inside it.
+     *
+     * @param system The system the schedule is built for
+     *
+     * @return The stages, in the order they are run in
+     *
+     * @author Tim Kloepper
+     */
+    public List<? extends List<A_Processor<?>>> getStages(System system) {
+        if (_dirty) h_rebuild(system);
+
+        return _STAGES;
+    }
+
+
+    // -+- CHECKERS -+- //
+
+    /**
+     * Returns whether a stage is currently being run in parallel.
+     * During that time, the structure of the storage must not change.
+     *
+     * @return Whether processors are currently running in parallel
+     *
+     * @author Tim Kloepper
+     */
+    public boolean isRunningParallel() {
+        return _runningParallel;
+    }
+
+
+    // -+- CLASSES -+- //
+
+    // Tasks only live for the update they run in and are never serialized.
+    @SuppressWarnings("serial")
+    private static class ProcessorTask extends RecursiveAction {
+
+
+        // -+- CREATION -+- //
+
+        ProcessorTask(A_Processor<?> processor) {
+            PROCESSOR = processor;
+        }
+
+        void prepare(System system, A_Scene scene) {
+            _system = system;
+            _scene = scene;
+        }
+
+
+        // -+- PARAMETERS -+- //
+
+        // FINALS //
+
+        final A_Processor<?> PROCESSOR;
+
+        // NON-FINALS //
+
+        private System _system;
+        private A_Scene _scene;
+
+
+        // -+- EXECUTION -+- //
+
+        @Override
+        protected void compute() {
+            PROCESSOR.p_update(_system, _scene);
+        }
+
+
+    }
+
+
+}
@@ -0,0 +1,236 @@
+package internal.entity_component_system;
+
+
+import internal.entity_component_system.archetype.Archetype;
+import internal.entity_component_system.archetype.Chunk;
+
+import java.util.ArrayList;
+import java.util.List;
+
+
+/**
+ * Iterates all entities of a {@link System}, that hold a component of every one of the specified classes. <br>
+ * The query keeps a list of the archetypes matching it. As archetypes are never removed, only archetypes created
+ * since the last iteration are checked, so a join costs a linear scan over dense chunks,
+ * instead of one lookup per entity and component class.
+ * <p></p>
+ * Queries are created by {@link System#createQuery(Class[])}, which also invalidates them,
+ * once the processors of the system change.
+ *
+ * @author Tim Kloepper
+ * @version 1.0
+ */
+public class Query {
+
+
+    // -+- CREATION -+- //
+
+    Query(System system, Class<? extends A_Component>[] componentClasses) {
+        if (componentClasses.length == 0) throw new IllegalArgumentException("[QUERY ERROR] : A query needs at least one component class!");
+
+        _SYSTEM = system;
+        _CLASSES = List.of(componentClasses);
+
+        _COLUMNS = new int[componentClasses.length];
+        _SLOTS = new int[componentClasses.length];
+        _ROW = new A_Component[componentClasses.length];
+
+        _MATCHES = new ArrayList<>();
+
+        _dirty = true;
+    }
+
+
+    // -+- PARAMETERS -+- //
+
+    // FINALS //
+
+    private final System _SYSTEM;
+    private final List<Class<? extends A_Component>> _CLASSES;
+
+    private final int[] _COLUMNS;
+    // Reused while iterating, holds the slots of the columns inside the current archetype.
+    private final int[] _SLOTS;
+    private final A_Component[] _ROW;
+
+    private final ArrayList<Archetype> _MATCHES;
+
+    // NON-FINALS //
+
+    private long _mask;
+    private boolean _resolved;
+    private int _scannedArchetypes;
+
+    private boolean _dirty;
+
+
+    // -+- CACHE MANAGEMENT -+- //
+
+    /**
+     * Marks the resolved columns as outdated, so they get resolved again before the next iteration.
+     * Is called by the system, whenever a processor gets added or removed.
+     *
+     * @author Tim Kloepper
+     */
+    void invalidate() {
+        _dirty = true;
+    }
+
+    private void h_refresh() {
+        if (_dirty) h_resolve();
+        if (!_resolved) return;
+
+        List<Archetype> archetypes;
+
+        archetypes = _SYSTEM.getStorage().getArchetypes();
+
+        for (; _scannedArchetypes < archetypes.size(); _scannedArchetypes++) {
+            Archetype archetype;
+
+            archetype = archetypes.get(_scannedArchetypes);
+            if ((archetype.SIGNATURE & _mask) != _mask) continue;
+
+            _MATCHES.add(archetype);
+        }
+    }
+    private void h_resolve() {
+        _MATCHES.clear();
+        _scannedArchetypes = 0;
+        _mask = 0;
+        _resolved = true;
+
+        for (int index = 0; index < _COLUMNS.length; index++) {
+            A_Processor<?> processor;
+
+            processor = _SYSTEM.getProcessorOf(_CLASSES.get(index));
+
+            // Without a processor, no entity can hold such a component.
+            if (processor == null || processor.getColumn() == -1) {
+                _resolved = false;
+
+                break;
+            }
+
+            _COLUMNS[index] = processor.getColumn();
+            _mask |= 1L << _COLUMNS[index];
+        }
+
+        _dirty = false;
+    }
+
+
+    // -+- ITERATION -+- //
+
+    /**
+     * Calls the action for every entity matching this query, chunk by chunk. <br>
+     * The activation state of the components is not checked, so the action needs to do that, if it matters.
+     * The structure of the system must not change during the iteration,
+     * so structural changes should be recorded into the {@link CommandBuffer}.
+     * <p></p>
+     * A query can not be iterated by multiple threads at once or nested inside its own iteration.
+     *
+     * @param action The action that is to be called for every matching entity
+     *
+     * @author Tim Kloepper
+     */
+    public void forEach(I_QueryAction action) {
+        h_refresh();
+        if (!_resolved) return;
+
+        for (int archetypeIndex = 0; archetypeIndex < _MATCHES.size(); archetypeIndex++) {
+            Archetype archetype;
+
+            archetype = _MATCHES.get(archetypeIndex);
+            if (archetype.getSize() == 0) continue;
+
+            for (int index = 0; index < _COLUMNS.length; index++) _SLOTS[index] = archetype.getSlot(_COLUMNS[index]);
+
+            for (int chunkIndex = 0; chunkIndex < archetype.getChunkAmount(); chunkIndex++) {
+                Chunk chunk;
+
+                chunk = archetype.getChunk(chunkIndex);
+
+                for (int row = 0; row < chunk.size; row++) {
+                    for (int index = 0; index < _SLOTS.length; index++) _ROW[index] = chunk.COLUMNS[_SLOTS[index]][row];
+
+                    action.accept(chunk.ENTITIES[row], _ROW);
+                }
+            }
+        }
+
+        // Drop the references, so removed components can be collected.
+        for (int index = 0; index < _ROW.length; index++) _ROW[index] = null;
+    }
+    /**
+     * Calls the action for every entity matching this query,
+     * of which at least one of the components changed at or after the specified tick. <br>
+     * Apart from that, this behaves just like {@link Query#forEach(I_QueryAction)}.
+     *
+     * @param sinceTick The tick, at or after which components need to have changed
+     * @param action The action that is to be called for every changed entity
+     *
+     * @author Tim Kloepper
+     */
+    public void forEachChanged(int sinceTick, I_QueryAction action) {
+        h_refresh();
+        if (!_resolved) return;
+
+        for (int archetypeIndex = 0; archetypeIndex < _MATCHES.size(); archetypeIndex++) {
+            Archetype archetype;
+
+            archetype = _MATCHES.get(archetypeIndex);
+            if (archetype.getSize() == 0) continue;
+
+            for (int index = 0; index < _COLUMNS.length; index++) _SLOTS[index] = archetype.getSlot(_COLUMNS[index]);
+
+            for (int chunkIndex = 0; chunkIndex < archetype.getChunkAmount(); chunkIndex++) {
+                Chunk chunk;
+
+                chunk = archetype.getChunk(chunkIndex);
+
+                for (int row = 0; row < chunk.size; row++) {
+                    boolean changed;
+
+                    changed = false;
+                    for (int index = 0; index < _SLOTS.length && !changed; index++) changed = chunk.CHANGE_TICKS[_SLOTS[index]][row] >= sinceTick;
+
+                    if (!changed) continue;
+
+                    for (int index = 0; index < _SLOTS.length; index++) _ROW[index] = chunk.COLUMNS[_SLOTS[index]][row];
+
+                    action.accept(chunk.ENTITIES[row], _ROW);
+                }
+            }
+        }
+
+        for (int index = 0; index < _ROW.length; index++) _ROW[index] = null;
+    }
+
+
+    // -+- GETTERS -+- //
+
+    /**
+     * Returns the amount of entities currently matching this query.
+     *
+     * @return The amount of matching entities
+     *
+     * @author Tim Kloepper
+     */
+    public int getSize() {
+        int size;
+
+        h_refresh();
+        if (!_resolved) return 0;
+
+        size = 0;
+        for (int index = 0; index < _MATCHES.size(); index++) size += _MATCHES.get(index).getSize();
+
+        return size;
+    }
+
+    public List<Class<? extends A_Component>> getComponentClasses() {
+        return _CLASSES;
+    }
+
+
+}
@@ -1,13 +1,17 @@
 package internal.entity_component_system;
 
 
+import internal.entity_component_system.archetype.Archetype;
+import internal.entity_component_system.archetype.ArchetypeStorage;
 import internal.entity_component_system.events.ProcessorAddedEvent;
 import internal.entity_component_system.events.ProcessorRemovedEvent;
+import internal.events.EventMaster;
 import internal.rendering.container.A_Scene;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
-import java.util.HashSet;
+import java.util.List;
 
 
 public class System {
@@ -16,12 +20,31 @@ public class System {
     // -+- CREATION -+- //
 
     public System(A_Scene scene) {
+        this(scene, scene.SYSTEMS.EVENT_HANDLER);
+    }
+    /**
+     * Creates a system, that pushes its notifications, like {@link ProcessorAddedEvent}, to the specified event handler,
+     * instead of the one of the scene.
+     *
+     * @param scene The scene owning this system, which is passed on to the processors
+     * @param eventHandler The event handler receiving the notifications of this system
+     *
+     * @author Tim Kloepper
+     */
+    public System(A_Scene scene, EventMaster eventHandler) {
+        if (eventHandler == null) throw new IllegalArgumentException("[SYSTEM ERROR] : Event handler can not be null!");
+
         _processorsPerComponent = new HashMap<>();
+        _PROCESSORS = new ArrayList<>();
+        _STORAGE = new ArchetypeStorage();
+        _SCHEDULER = new ProcessorScheduler();
         _SCENE = scene;
-        _activeEntities = new HashSet<>();
-        _freeEntityIds = new HashSet<>();
+        _EVENT_HANDLER = eventHandler;
+        _ENTITIES = new EntityAllocator();
+        _COMMANDS = new CommandBuffer(this, _ENTITIES);
+        _QUERIES = new ArrayList<>();
 
-        _nextEntity = 0;
+        _parallel = false;
     }
 
 
@@ -30,13 +53,19 @@ public class System {
     // FINALS //
 
     private final HashMap<Class<? extends A_Component>, A_Processor> _processorsPerComponent;
+    // Every processor exactly once, in the order they got added.
+    private final ArrayList<A_Processor> _PROCESSORS;
+    private final ArchetypeStorage _STORAGE;
+    private final ProcessorScheduler _SCHEDULER;
     private final A_Scene _SCENE;
-    private final HashSet<Integer> _activeEntities;
-    private final HashSet<Integer> _freeEntityIds;
+    private final EventMaster _EVENT_HANDLER;
+    private final EntityAllocator _ENTITIES;
+    private final CommandBuffer _COMMANDS;
+    private final ArrayList<Query> _QUERIES;
 
     // NON-FINALS //
 
-    private int _nextEntity;
+    private boolean _parallel;
 
 
     // -+- UPDATE LOOP -+- //
@@ -45,13 +74,34 @@ public class System {
      * Is called every frame by the owning scene.
      * Updates all processors that this system owns,
      * by calling their update method.
+     * The order is determined by the {@link ProcessorScheduler},
+     * which, if this system is set to be parallel, also runs processors
+     * without conflicting component access at the same time.
+     * <p></p>
+     * Afterward, the {@link CommandBuffer} of this system is applied,
+     * which is the sync point for all structural changes recorded during the update.
      *
      * @author Tim Kloepper
      */
     public void update() {
-        for (A_Processor processor : _processorsPerComponent.values()) {
-            processor.p_update(this, _SCENE);
-        }
+        _SCHEDULER.run(this, _SCENE, _parallel);
+
+        _COMMANDS.apply();
+    }
+
+    /**
+     * Sets whether processors, which do not read or write the same components,
+     * are updated at the same time on a {@link java.util.concurrent.ForkJoinPool}. <br>
+     * While processors run in parallel, entities, components and processors can not
+     * be added or removed. Event callbacks, that are triggered by processors, are called
+     * from the worker threads.
+     *
+     * @param value Whether processors should be updated in parallel
+     *
+     * @author Tim Kloepper
+     */
+    public void setParallel(boolean value) {
+        _parallel = value;
     }
 
 
@@ -72,6 +122,8 @@ public class System {
      * @author Tim Kloepper
      */
     public boolean addProcessor(A_Processor processor) {
+        h_checkStructuralChange();
+
         if (processor.p_getProcessedComponentClasses().isEmpty()) return false;
         if (!_meetsRequirementsOf(processor)) return false;
 
@@ -81,10 +133,20 @@ public class System {
             if (_processorsPerComponent.containsKey(componentClass)) return false;
         }
 
+        int column;
+
+        column = _STORAGE.addColumn();
+        if (column == -1) return false;
+
         for (Object componentClass : processor.p_getProcessedComponentClasses()) {
             _processorsPerComponent.put((Class<? extends A_Component>) componentClass, processor);
         }
 
+        _PROCESSORS.add(processor);
+        processor.p_attachStorage(_STORAGE, column);
+        _SCHEDULER.invalidate();
+        h_invalidateQueries();
+
         HashMap<Class<? extends A_Component>, A_Processor> requirements;
 
         requirements = new HashMap<>();
@@ -103,6 +165,10 @@ public class System {
      * Removes a processor from the system.
      * The function returns false, if the processor
      * was not part of this system.
+     * <p></p>
+     * Every component of the processor is removed through {@link A_Processor#rmvComponent(int)} first,
+     * so the processor can clean up, what it keeps per component.
+     * Afterward, the processor gets killed, while it is still attached to the storage.
      *
      * @param processor The processor that is to be removed
      *
@@ -111,7 +177,9 @@ public class System {
      * @author Tim Kloepper
      */
     public boolean rmvProcessor(A_Processor processor) {
-        if (!_processorsPerComponent.containsValue(processor)) return false;
+        h_checkStructuralChange();
+
+        if (!_PROCESSORS.contains(processor)) return false;
 
         for (Object componentClass : processor.p_getProcessedComponentClasses()) {
             if (_processorsPerComponent.get(componentClass) != processor) continue;
@@ -119,12 +187,41 @@ public class System {
             _processorsPerComponent.remove(componentClass);
         }
 
+        _PROCESSORS.remove(processor);
+        _SCHEDULER.invalidate();
+
+        h_rmvComponentsOf(processor);
+
         processor.p_kill(this, _SCENE);
 
+        // The column is empty by now, so freeing it does not strip any component.
+        _STORAGE.rmvColumn(processor.getColumn());
+        processor.p_detachStorage();
+        h_invalidateQueries();
+
         _onProcessorRemoved(processor);
 
         return true;
     }
+    private void h_rmvComponentsOf(A_Processor<?> processor) {
+        List<Archetype> archetypes;
+
+        archetypes = _STORAGE.getArchetypesWith(processor.getColumn());
+
+        // Every removal moves the entity into an archetype without the column, so the archetypes only shrink.
+        for (int index = 0; index < archetypes.size(); index++) {
+            Archetype archetype;
+
+            archetype = archetypes.get(index);
+
+            while (archetype.getSize() > 0) {
+                A_Component component;
+
+                component = processor.rmvComponent(archetype.getEntity(archetype.getSize() - 1));
+                component.owningEntity = -1;
+            }
+        }
+    }
 
     /**
      * Gets called when a processor got added.
@@ -135,7 +232,7 @@ public class System {
      * @author Tim Kloepper
      */
     private void _onProcessorAdded(A_Processor processor) {
-        _SCENE.SYSTEMS.EVENT_HANDLER.push(new ProcessorAddedEvent(processor));
+        _EVENT_HANDLER.push(new ProcessorAddedEvent(processor));
     }
     /**
      * Gets called, when a processor got removed.
@@ -146,34 +243,161 @@ public class System {
      * @author Tim Kloepper
      */
     private void _onProcessorRemoved(A_Processor processor) {
-        _SCENE.SYSTEMS.EVENT_HANDLER.push(new ProcessorRemovedEvent(processor));
+        _EVENT_HANDLER.push(new ProcessorRemovedEvent(processor));
+    }
+
+
+    // -+- QUERY MANAGEMENT -+- //
+
+    /**
+     * Creates a query over all entities, holding a component of every one of the specified classes.
+     * The query is kept up to date by this system, until it gets removed with {@link System#rmvQuery(Query)}.
+     *
+     * @param componentClasses The component classes every matching entity needs to hold
+     *
+     * @return The new query
+     *
+     * @author Tim Kloepper
+     */
+    // The array is only read and copied by the query, so it can not be polluted.
+    @SafeVarargs
+    @SuppressWarnings("varargs")
+    public final Query createQuery(Class<? extends A_Component>... componentClasses) {
+        Query query;
+
+        query = new Query(this, componentClasses);
+
+        _QUERIES.add(query);
+
+        return query;
+    }
+    public boolean rmvQuery(Query query) {
+        return _QUERIES.remove(query);
+    }
+
+    private void h_invalidateQueries() {
+        for (int index = 0; index < _QUERIES.size(); index++) _QUERIES.get(index).invalidate();
     }
 
 
     // -+- ENTITY MANAGEMENT -+- //
 
+    /**
+     * Creates a new entity and returns its handle. <br>
+     * The handle contains a generation, so once the entity got removed,
+     * the handle stays invalid, even if its index gets reused by a later entity.
+     *
+     * @return The handle of the new entity
+     *
+     * @author Tim Kloepper
+     */
     public int addEntity() {
+        h_checkStructuralChange();
+
         int id;
 
-        if (!_freeEntityIds.isEmpty()) {
-            id = _freeEntityIds.iterator().next();
-        } else {
-            id = _nextEntity++;
+        // The command buffer reserves handles from other threads under its lock, see EntityAllocator.
+        synchronized (_COMMANDS) {
+            id = _ENTITIES.allocate();
         }
 
-        _activeEntities.add(id);
+        _STORAGE.addEntity(id);
 
         return id;
     }
+    /**
+     * Spawns the specified amount of entities at once, creating their components from the prototype. <br>
+     * The processors for the components are only looked up once per position inside the prototype,
+     * as long as the classes of the created components stay the same.
+     *
+     * @param count The amount of entities that are to be spawned
+     * @param prototype The prototype creating the components of every entity
+     *
+     * @return The handles of the new entities, in the order of their spawn index
+     *
+     * @author Tim Kloepper
+     */
+    public int[] spawn(int count, I_EntityPrototype prototype) {
+        h_checkStructuralChange();
+
+        if (count < 0) throw new IllegalArgumentException("[SYSTEM ERROR] : Count can not be negative!");
+
+        int[] ids;
+
+        ids = new int[count];
+        synchronized (_COMMANDS) {
+            for (int index = 0; index < count; index++) ids[index] = _ENTITIES.allocate();
+        }
+
+        addReservedEntities(ids, prototype);
+
+        return ids;
+    }
+    /**
+     * Adds an entity, whose handle already got allocated by the {@link CommandBuffer}.
+     *
+     * @param id The reserved handle
+     *
+     * @author Tim Kloepper
+     */
+    void addReservedEntity(int id) {
+        if (!_ENTITIES.isAlive(id)) return;
+
+        _STORAGE.addEntity(id);
+    }
+    void addReservedEntities(int[] ids, I_EntityPrototype prototype) {
+        A_Component[] components;
+        Class<?>[] componentClasses;
+        A_Processor<?>[] processors;
+
+        components = new A_Component[prototype.getComponentAmount()];
+        componentClasses = new Class<?>[components.length];
+        processors = new A_Processor<?>[components.length];
+
+        for (int spawnIndex = 0; spawnIndex < ids.length; spawnIndex++) {
+            int id;
+
+            id = ids[spawnIndex];
+            if (!_ENTITIES.isAlive(id)) continue;
+
+            _STORAGE.addEntity(id);
+
+            prototype.createComponents(spawnIndex, components);
+
+            for (int index = 0; index < components.length; index++) {
+                A_Component component;
+
+                component = components[index];
+                components[index] = null;
+
+                if (component == null || component.owningEntity != -1) continue;
+
+                if (component.getClass() != componentClasses[index]) {
+                    componentClasses[index] = component.getClass();
+                    processors[index] = _processorsPerComponent.get(componentClasses[index]);
+                }
+
+                if (processors[index] == null) continue;
+
+                component.owningEntity = id;
+
+                if (!processors[index].addProcessedComponent(id, component, false)) component.owningEntity = -1;
+            }
+        }
+    }
     public boolean rmvEntity(int id) {
-        if (!_activeEntities.contains(id)) {return false;}
+        h_checkStructuralChange();
 
-        for (A_Processor<?> processor : _processorsPerComponent.values()) {
+        if (!_ENTITIES.isAlive(id)) {return false;}
+
+        for (A_Processor<?> processor : _PROCESSORS) {
             processor.rmvComponent(id);
         }
 
-        _activeEntities.remove(id);
-        _freeEntityIds.add(id);
+        _STORAGE.rmvEntity(id);
+        synchronized (_COMMANDS) {
+            _ENTITIES.free(id);
+        }
 
         return true;
     }
@@ -200,7 +424,10 @@ public class System {
         Class<? extends A_Component> componentClass;
         A_Processor processor;
 
-        if (!_activeEntities.contains(id)) return false;
+        h_checkStructuralChange();
+
+        // Entities reserved by the command buffer are alive, but not part of the storage until it is applied.
+        if (!_STORAGE.hasEntity(id)) return false;
         if (component.owningEntity != -1) return false;
 
         componentClass = component.getClass();
@@ -210,7 +437,11 @@ public class System {
 
         component.owningEntity = id;
 
-        return processor.addComponent(id, component, overwrite);
+        if (processor.addComponent(id, component, overwrite)) return true;
+
+        component.owningEntity = -1;
+
+        return false;
     }
     /**
      * Removes a component from the specified entity.
@@ -229,6 +460,8 @@ public class System {
     public boolean rmvComponentFromEntity(int id, Class<? extends A_Component> componentClass) {
         A_Processor processor;
 
+        h_checkStructuralChange();
+
         processor = _processorsPerComponent.get(componentClass);
         if (processor == null) return false;
 
@@ -260,15 +493,41 @@ public class System {
         return _processorsPerComponent.get(componentClass);
     }
     /**
-     * Returns all processors that are currently in this system.
-     * Is just a wrapper for {@link HashMap#values()}.
+     * Returns all processors that are currently in this system,
+     * in the order they got added.
      *
      * @return All processors that are currently in this system.
      *
      * @author Tim Kloepper
      */
     public Collection<A_Processor> getProcessors() {
-        return _processorsPerComponent.values();
+        return _PROCESSORS;
+    }
+    /**
+     * Returns the storage, holding the components of all processors of this system.
+     *
+     * @return The storage of this system
+     *
+     * @author Tim Kloepper
+     */
+    public ArchetypeStorage getStorage() {
+        return _STORAGE;
+    }
+    /**
+     * Returns the command buffer of this system, that records structural changes,
+     * which are applied at the end of {@link System#update()}. <br>
+     * This is the only way of spawning and despawning entities or adding and removing components,
+     * while processors run in parallel.
+     *
+     * @return The command buffer of this system
+     *
+     * @author Tim Kloepper
+     */
+    public CommandBuffer getCommands() {
+        return _COMMANDS;
+    }
+    public ProcessorScheduler getScheduler() {
+        return _SCHEDULER;
     }
 
     /**
@@ -296,9 +555,32 @@ public class System {
         return true;
     }
 
+    /**
+     * Returns whether the handle belongs to an entity of this system, that was not removed yet.
+     *
+     * @param id The handle of the entity
+     *
+     * @return Whether the entity is alive
+     *
+     * @author Tim Kloepper
+     */
+    public boolean isAlive(int id) {
+        synchronized (_COMMANDS) {
+            return _ENTITIES.isAlive(id);
+        }
+    }
+
     public boolean isProcessing(Class<? extends A_Component> componentClass) {
         return _processorsPerComponent.containsKey(componentClass);
     }
 
+    public boolean isParallel() {
+        return _parallel;
+    }
+
+    private void h_checkStructuralChange() {
+        if (_SCHEDULER.isRunningParallel()) throw new IllegalStateException("[SYSTEM ERROR] : Entities, components and processors can not be added or removed while processors run in parallel, use the command buffer instead!");
+    }
+
 
 }
\ No newline at end of file
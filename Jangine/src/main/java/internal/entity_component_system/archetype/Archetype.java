@@ -0,0 +1,232 @@
+package internal.entity_component_system.archetype;
+
+
+import internal.entity_component_system.A_Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+
+/**
+ * Groups all entities that hold exactly the same set of columns. <br>
+ * The rows of an archetype are packed into {@link Chunk}s, without any holes in between,
+ * as removals move the last row into the freed one.
+ *
+ * @author Tim Kloepper
+ * @version 1.0
+ */
+public class Archetype {
+
+
+    // -+- CREATION -+- //
+
+    public Archetype(int id, long signature) {
+        ID = id;
+        SIGNATURE = signature;
+
+        _SLOTS = new int[ArchetypeStorage.MAX_COLUMNS];
+        _SLOT_AMOUNT = Long.bitCount(signature);
+
+        Arrays.fill(_SLOTS, -1);
+
+        int slot;
+
+        slot = 0;
+
+        for (int column = 0; column < ArchetypeStorage.MAX_COLUMNS; column++) {
+            if ((signature & (1L << column)) == 0) continue;
+
+            _SLOTS[column] = slot++;
+        }
+
+        _CHUNKS = new ArrayList<>();
+
+        p_ADD_EDGES = new int[ArchetypeStorage.MAX_COLUMNS];
+        p_RMV_EDGES = new int[ArchetypeStorage.MAX_COLUMNS];
+
+        Arrays.fill(p_ADD_EDGES, -1);
+        Arrays.fill(p_RMV_EDGES, -1);
+
+        _size = 0;
+    }
+
+
+    // -+- PARAMETERS -+- //
+
+    // FINALS //
+
+    public final int ID;
+    public final long SIGNATURE;
+
+    private final int[] _SLOTS;
+    private final int _SLOT_AMOUNT;
+
+    private final ArrayList<Chunk> _CHUNKS;
+
+    // Cached transitions to the archetypes with one column more or less, indexed by column.
+    protected final int[] p_ADD_EDGES;
+    protected final int[] p_RMV_EDGES;
+
+    // NON-FINALS //
+
+    private int _size;
+
+
+    // -+- ROW MANAGEMENT -+- //
+
+    /**
+     * Appends a row for the specified entity.
+     * All components of the new row are {@code null}.
+     *
+     * @param entity The entity the row belongs to
+     *
+     * @return The row of the entity inside this archetype
+     *
+     * @author Tim Kloepper
+     */
+    public int addRow(int entity) {
+        Chunk chunk;
+
+        if (_size == _CHUNKS.size() << Chunk.CAPACITY_SHIFT) _CHUNKS.add(new Chunk(_SLOT_AMOUNT));
+
+        chunk = _CHUNKS.get(_size >> Chunk.CAPACITY_SHIFT);
+        chunk.ENTITIES[chunk.size] = entity;
+        chunk.size++;
+
+        return _size++;
+    }
+    /**
+     * Removes a row by moving the last row into its place.
+     *
+     * @param row The row that is to be removed
+     *
+     * @return The entity that got moved into the specified row,
+     * or {@code -1} if the removed row was the last one
+     *
+     * @author Tim Kloepper
+     */
+    public int rmvRow(int row) {
+        if (row < 0 || row >= _size) throw new IndexOutOfBoundsException("[ARCHETYPE ERROR] : Row " + row + " does not exist!");
+
+        int lastRow;
+        Chunk chunk, lastChunk;
+        int index, lastIndex;
+        int movedEntity;
+
+        lastRow = _size - 1;
+
+        chunk = _CHUNKS.get(row >> Chunk.CAPACITY_SHIFT);
+        lastChunk = _CHUNKS.get(lastRow >> Chunk.CAPACITY_SHIFT);
+        index = row & Chunk.ROW_MASK;
+        lastIndex = lastRow & Chunk.ROW_MASK;
+
+        movedEntity = -1;
+
+        if (row != lastRow) {
+            movedEntity = lastChunk.ENTITIES[lastIndex];
+
+            chunk.ENTITIES[index] = movedEntity;
+
+            for (int slot = 0; slot < _SLOT_AMOUNT; slot++) {
+                chunk.COLUMNS[slot][index] = lastChunk.COLUMNS[slot][lastIndex];
+                chunk.setActivationState(slot, index, lastChunk.getActivationState(slot, lastIndex));
+                chunk.CHANGE_TICKS[slot][index] = lastChunk.CHANGE_TICKS[slot][lastIndex];
+            }
+        }
+
+        // Clear references, so removed components can be collected.
+        for (int slot = 0; slot < _SLOT_AMOUNT; slot++) {
+            lastChunk.COLUMNS[slot][lastIndex] = null;
+        }
+
+        lastChunk.size--;
+        _size--;
+
+        return movedEntity;
+    }
+
+
+    // -+- COMPONENT MANAGEMENT -+- //
+
+    public A_Component get(int row, int column) {
+        int slot;
+
+        slot = _SLOTS[column];
+        if (slot == -1) return null;
+
+        return _CHUNKS.get(row >> Chunk.CAPACITY_SHIFT).COLUMNS[slot][row & Chunk.ROW_MASK];
+    }
+    public void set(int row, int column, A_Component component, boolean activationState) {
+        int slot;
+        Chunk chunk;
+
+        slot = _SLOTS[column];
+        if (slot == -1) throw new IllegalArgumentException("[ARCHETYPE ERROR] : Column " + column + " is not part of this archetype!");
+
+        chunk = _CHUNKS.get(row >> Chunk.CAPACITY_SHIFT);
+        chunk.COLUMNS[slot][row & Chunk.ROW_MASK] = component;
+        chunk.setActivationState(slot, row & Chunk.ROW_MASK, activationState);
+    }
+
+    public boolean getActivationState(int row, int column) {
+        return _CHUNKS.get(row >> Chunk.CAPACITY_SHIFT).getActivationState(_SLOTS[column], row & Chunk.ROW_MASK);
+    }
+
+    public int getChangeTick(int row, int column) {
+        return _CHUNKS.get(row >> Chunk.CAPACITY_SHIFT).CHANGE_TICKS[_SLOTS[column]][row & Chunk.ROW_MASK];
+    }
+    public void setChangeTick(int row, int column, int tick) {
+        _CHUNKS.get(row >> Chunk.CAPACITY_SHIFT).CHANGE_TICKS[_SLOTS[column]][row & Chunk.ROW_MASK] = tick;
+    }
+
+
+    // -+- GETTERS -+- //
+
+    /**
+     * Returns the index of the arrays inside every {@link Chunk},
+     * that holds the components of the specified column.
+     *
+     * @param column The column of the storage
+     *
+     * @return The slot of the column, or {@code -1} if this archetype does not contain that column
+     *
+     * @author Tim Kloepper
+     */
+    public int getSlot(int column) {
+        return _SLOTS[column];
+    }
+    public int getSlotAmount() {
+        return _SLOT_AMOUNT;
+    }
+
+    public Chunk getChunk(int index) {
+        return _CHUNKS.get(index);
+    }
+    /**
+     * Returns the amount of chunks, which currently hold at least one row.
+     *
+     * @return The amount of used chunks
+     *
+     * @author Tim Kloepper
+     */
+    public int getChunkAmount() {
+        return (_size + Chunk.CAPACITY - 1) >> Chunk.CAPACITY_SHIFT;
+    }
+
+    public int getEntity(int row) {
+        return _CHUNKS.get(row >> Chunk.CAPACITY_SHIFT).ENTITIES[row & Chunk.ROW_MASK];
+    }
+
+    public int getSize() {
+        return _size;
+    }
+
+
+    // -+- CHECKERS -+- //
+
+    public boolean hasColumn(int column) {
+        return (SIGNATURE & (1L << column)) != 0;
+    }
+
+
+}
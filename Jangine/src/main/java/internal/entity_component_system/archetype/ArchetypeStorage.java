@@ -0,0 +1,495 @@
+package internal.entity_component_system.archetype;
+
+
+import internal.entity_component_system.A_Component;
+import internal.entity_component_system.EntityAllocator;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+
+
+/**
+ * Stores the components of all entities of a {@link internal.entity_component_system.System},
+ * grouped into {@link Archetype}s by the set of columns an entity holds. <br>
+ * Every processor owns exactly one column, so every entity can hold at most one component
+ * per processor, just like before. <br>
+ * Entities are handles of an {@link EntityAllocator}. Their index part is used as the index into
+ * primitive arrays, which keeps lookups free of boxing and hashing, while the full handle is stored
+ * and compared, so stale handles of reused indices are not mistaken for the current entity.
+ *
+ * @author Tim Kloepper
+ * @version 1.0
+ */
+public class ArchetypeStorage {
+
+
+    // -+- CREATION -+- //
+
+    public ArchetypeStorage() {
+        _ARCHETYPES = new ArrayList<>();
+        _ARCHETYPES_PER_SIGNATURE = new HashMap<>();
+        _ARCHETYPES_PER_COLUMN = new ArrayList<>(MAX_COLUMNS);
+
+        for (int column = 0; column < MAX_COLUMNS; column++) {
+            _ARCHETYPES_PER_COLUMN.add(new ArrayList<>());
+        }
+
+        _archetypeOfEntity = new int[INITIAL_ENTITY_CAPACITY];
+        _rowOfEntity = new int[INITIAL_ENTITY_CAPACITY];
+        _handleOfEntity = new int[INITIAL_ENTITY_CAPACITY];
+
+        Arrays.fill(_archetypeOfEntity, -1);
+
+        _usedColumns = 0;
+        _version = 0;
+        _tick = 1;
+
+        // The archetype of all entities without components.
+        h_createArchetype(0);
+    }
+
+
+    // -+- PARAMETERS -+- //
+
+    // FINALS //
+
+    public static final int MAX_COLUMNS = Long.SIZE;
+
+    private static final int INITIAL_ENTITY_CAPACITY = 64;
+
+    private final ArrayList<Archetype> _ARCHETYPES;
+    private final HashMap<Long, Archetype> _ARCHETYPES_PER_SIGNATURE;
+    private final ArrayList<ArrayList<Archetype>> _ARCHETYPES_PER_COLUMN;
+
+    // NON-FINALS //
+
+    private int[] _archetypeOfEntity;
+    private int[] _rowOfEntity;
+    // The full handle currently living at every index.
+    private int[] _handleOfEntity;
+
+    private long _usedColumns;
+    // Is increased upon every change of which component is stored where.
+    private int _version;
+    // Is increased by the scheduler before every stage, components remember the tick they last changed at.
+    private int _tick;
+
+
+    // -+- COLUMN MANAGEMENT -+- //
+
+    /**
+     * Reserves a free column.
+     *
+     * @return The reserved column, or {@code -1} if all {@link ArchetypeStorage#MAX_COLUMNS} columns are in use
+     *
+     * @author Tim Kloepper
+     */
+    public int addColumn() {
+        int column;
+
+        if (_usedColumns == -1L) return -1;
+
+        column = Long.numberOfTrailingZeros(~_usedColumns);
+        _usedColumns |= 1L << column;
+        _version++;
+
+        return column;
+    }
+    /**
+     * Frees a column and strips its components from every entity holding one.
+     * The {@link A_Component#owningEntity} of the stripped components is reset.
+     *
+     * @param column The column that is to be freed
+     *
+     * @author Tim Kloepper
+     */
+    public void rmvColumn(int column) {
+        h_checkColumn(column);
+
+        Archetype archetype;
+
+        // Iterate over a copy, as moving entities can create new archetypes.
+        for (Archetype holder : new ArrayList<>(_ARCHETYPES_PER_COLUMN.get(column))) {
+            while (holder.getSize() > 0) {
+                int index;
+
+                index = EntityAllocator.indexOf(holder.getEntity(holder.getSize() - 1));
+
+                holder.get(holder.getSize() - 1, column).owningEntity = -1;
+
+                archetype = h_getRmvTransition(holder, column);
+                h_move(index, holder, archetype);
+            }
+        }
+
+        _usedColumns &= ~(1L << column);
+        _version++;
+    }
+
+
+    // -+- ENTITY MANAGEMENT -+- //
+
+    public void addEntity(int entity) {
+        if (entity < 0) throw new IllegalArgumentException("[ARCHETYPE STORAGE ERROR] : Entity can not be negative!");
+
+        int index;
+
+        index = EntityAllocator.indexOf(entity);
+
+        h_ensureEntityCapacity(index);
+
+        if (_archetypeOfEntity[index] != -1) {
+            if (_handleOfEntity[index] == entity) return;
+
+            throw new IllegalArgumentException("[ARCHETYPE STORAGE ERROR] : Index of entity " + entity + " is still used by entity " + _handleOfEntity[index] + "!");
+        }
+
+        Archetype empty;
+
+        empty = _ARCHETYPES.get(0);
+
+        _archetypeOfEntity[index] = empty.ID;
+        _rowOfEntity[index] = empty.addRow(entity);
+        _handleOfEntity[index] = entity;
+
+        _version++;
+    }
+    public boolean rmvEntity(int entity) {
+        if (!hasEntity(entity)) return false;
+
+        int index;
+
+        index = EntityAllocator.indexOf(entity);
+
+        h_rmvRow(_ARCHETYPES.get(_archetypeOfEntity[index]), _rowOfEntity[index]);
+
+        _archetypeOfEntity[index] = -1;
+        _version++;
+
+        return true;
+    }
+
+
+    // -+- COMPONENT MANAGEMENT -+- //
+
+    /**
+     * Puts the component into the specified column of the entity,
+     * moving the entity into another archetype, if it did not hold a component in that column yet.
+     *
+     * @param entity The entity the component belongs to
+     * @param column The column the component is to be stored in
+     * @param component The component that is to be stored
+     *
+     * @return The component that got replaced, or {@code null} if the column was empty
+     *
+     * @author Tim Kloepper
+     */
+    public A_Component set(int entity, int column, A_Component component) {
+        h_checkColumn(column);
+        if (!hasEntity(entity)) throw new IllegalArgumentException("[ARCHETYPE STORAGE ERROR] : Entity " + entity + " is not part of this storage!");
+
+        int index;
+        Archetype current;
+        A_Component previous;
+
+        index = EntityAllocator.indexOf(entity);
+        current = _ARCHETYPES.get(_archetypeOfEntity[index]);
+        previous = null;
+
+        if (current.hasColumn(column)) previous = current.get(_rowOfEntity[index], column);
+        else {
+            Archetype target;
+
+            target = h_getAddTransition(current, column);
+            h_move(index, current, target);
+
+            current = target;
+        }
+
+        current.set(_rowOfEntity[index], column, component, component.active);
+        current.setChangeTick(_rowOfEntity[index], column, _tick);
+        _version++;
+
+        return previous;
+    }
+    /**
+     * Removes the component from the specified column of the entity,
+     * moving the entity into the archetype without that column.
+     *
+     * @param entity The entity the component belongs to
+     * @param column The column the component is stored in
+     *
+     * @return The removed component, or {@code null} if the column was empty
+     *
+     * @author Tim Kloepper
+     */
+    public A_Component rmv(int entity, int column) {
+        h_checkColumn(column);
+        if (!hasEntity(entity)) return null;
+
+        int index;
+        Archetype current;
+        A_Component removed;
+
+        index = EntityAllocator.indexOf(entity);
+        current = _ARCHETYPES.get(_archetypeOfEntity[index]);
+        if (!current.hasColumn(column)) return null;
+
+        removed = current.get(_rowOfEntity[index], column);
+
+        h_move(index, current, h_getRmvTransition(current, column));
+        _version++;
+
+        return removed;
+    }
+
+
+    // -+- CHANGE TRACKING -+- //
+
+    /**
+     * Marks the component in the specified column of the entity as changed at the current tick.
+     * Components are also marked, whenever they get stored.
+     *
+     * @param entity The entity the component belongs to
+     * @param column The column the component is stored in
+     *
+     * @return Whether the entity holds a component in that column
+     *
+     * @author Tim Kloepper
+     */
+    public boolean markChanged(int entity, int column) {
+        if (!has(entity, column)) return false;
+
+        int index;
+
+        index = EntityAllocator.indexOf(entity);
+
+        _ARCHETYPES.get(_archetypeOfEntity[index]).setChangeTick(_rowOfEntity[index], column, _tick);
+
+        return true;
+    }
+    /**
+     * Returns the tick, at which the component in the specified column of the entity was last changed.
+     *
+     * @param entity The entity the component belongs to
+     * @param column The column the component is stored in
+     *
+     * @return The tick of the last change, or {@code -1} if the entity holds no component in that column
+     *
+     * @author Tim Kloepper
+     */
+    public int getChangeTick(int entity, int column) {
+        if (!has(entity, column)) return -1;
+
+        int index;
+
+        index = EntityAllocator.indexOf(entity);
+
+        return _ARCHETYPES.get(_archetypeOfEntity[index]).getChangeTick(_rowOfEntity[index], column);
+    }
+
+    /**
+     * Starts a new tick. Changes made from now on are newer than everything that happened before.
+     * Is called by the {@link internal.entity_component_system.ProcessorScheduler} before every stage
+     * and after the last one.
+     *
+     * @author Tim Kloepper
+     */
+    public void advanceTick() {
+        _tick++;
+    }
+
+
+    // -+- ARCHETYPE MANAGEMENT -+- //
+
+    private Archetype h_getAddTransition(Archetype from, int column) {
+        int edge;
+
+        edge = from.p_ADD_EDGES[column];
+        if (edge != -1) return _ARCHETYPES.get(edge);
+
+        Archetype target;
+
+        target = h_getOrCreateArchetype(from.SIGNATURE | (1L << column));
+
+        from.p_ADD_EDGES[column] = target.ID;
+        target.p_RMV_EDGES[column] = from.ID;
+
+        return target;
+    }
+    private Archetype h_getRmvTransition(Archetype from, int column) {
+        int edge;
+
+        edge = from.p_RMV_EDGES[column];
+        if (edge != -1) return _ARCHETYPES.get(edge);
+
+        Archetype target;
+
+        target = h_getOrCreateArchetype(from.SIGNATURE & ~(1L << column));
+
+        from.p_RMV_EDGES[column] = target.ID;
+        target.p_ADD_EDGES[column] = from.ID;
+
+        return target;
+    }
+
+    private Archetype h_getOrCreateArchetype(long signature) {
+        Archetype archetype;
+
+        archetype = _ARCHETYPES_PER_SIGNATURE.get(signature);
+        if (archetype != null) return archetype;
+
+        return h_createArchetype(signature);
+    }
+    private Archetype h_createArchetype(long signature) {
+        Archetype archetype;
+
+        archetype = new Archetype(_ARCHETYPES.size(), signature);
+
+        _ARCHETYPES.add(archetype);
+        _ARCHETYPES_PER_SIGNATURE.put(signature, archetype);
+
+        for (int column = 0; column < MAX_COLUMNS; column++) {
+            if (!archetype.hasColumn(column)) continue;
+
+            _ARCHETYPES_PER_COLUMN.get(column).add(archetype);
+        }
+
+        return archetype;
+    }
+
+    /**
+     * Moves an entity from one archetype into another,
+     * carrying over every component of the columns both archetypes share.
+     *
+     * @param index The index part of the handle of the entity
+     *
+     * @author Tim Kloepper
+     */
+    private void h_move(int index, Archetype from, Archetype to) {
+        int oldRow, newRow;
+
+        oldRow = _rowOfEntity[index];
+        newRow = to.addRow(_handleOfEntity[index]);
+
+        for (int column = 0; column < MAX_COLUMNS; column++) {
+            if (!from.hasColumn(column) || !to.hasColumn(column)) continue;
+
+            to.set(newRow, column, from.get(oldRow, column), from.getActivationState(oldRow, column));
+            to.setChangeTick(newRow, column, from.getChangeTick(oldRow, column));
+        }
+
+        h_rmvRow(from, oldRow);
+
+        _archetypeOfEntity[index] = to.ID;
+        _rowOfEntity[index] = newRow;
+    }
+    private void h_rmvRow(Archetype archetype, int row) {
+        int movedEntity;
+
+        movedEntity = archetype.rmvRow(row);
+        if (movedEntity != -1) _rowOfEntity[EntityAllocator.indexOf(movedEntity)] = row;
+    }
+
+    private void h_ensureEntityCapacity(int index) {
+        if (index < _archetypeOfEntity.length) return;
+
+        int oldLength, newLength;
+
+        oldLength = _archetypeOfEntity.length;
+        newLength = Math.max(oldLength * 2, index + 1);
+
+        _archetypeOfEntity = Arrays.copyOf(_archetypeOfEntity, newLength);
+        _rowOfEntity = Arrays.copyOf(_rowOfEntity, newLength);
+        _handleOfEntity = Arrays.copyOf(_handleOfEntity, newLength);
+
+        Arrays.fill(_archetypeOfEntity, oldLength, newLength, -1);
+    }
+
+
+    // -+- GETTERS -+- //
+
+    public A_Component get(int entity, int column) {
+        if (!hasEntity(entity)) return null;
+
+        int index;
+
+        index = EntityAllocator.indexOf(entity);
+
+        return _ARCHETYPES.get(_archetypeOfEntity[index]).get(_rowOfEntity[index], column);
+    }
+
+    public Archetype getArchetypeOf(int entity) {
+        if (!hasEntity(entity)) return null;
+
+        return _ARCHETYPES.get(_archetypeOfEntity[EntityAllocator.indexOf(entity)]);
+    }
+    public int getRowOf(int entity) {
+        if (!hasEntity(entity)) return -1;
+
+        return _rowOfEntity[EntityAllocator.indexOf(entity)];
+    }
+
+    /**
+     * Returns all archetypes, that contain the specified column.
+     * The returned list grows, whenever a new fitting archetype gets created,
+     * so it can be kept and iterated every frame.
+     *
+     * @param column The column the archetypes should contain
+     *
+     * @return All archetypes containing the column
+     *
+     * @author Tim Kloepper
+     */
+    public List<Archetype> getArchetypesWith(int column) {
+        h_checkColumn(column);
+
+        return _ARCHETYPES_PER_COLUMN.get(column);
+    }
+    public List<Archetype> getArchetypes() {
+        return _ARCHETYPES;
+    }
+
+    /**
+     * Returns a counter, which changes whenever a component gets stored, replaced or removed,
+     * an entity gets added or removed, or a column gets reserved or freed. <br>
+     * Comparing it with an older value tells, whether any cached information about the
+     * layout of the storage is still correct.
+     *
+     * @return The current version of the storage
+     *
+     * @author Tim Kloepper
+     */
+    public int getVersion() {
+        return _version;
+    }
+    public int getTick() {
+        return _tick;
+    }
+
+
+    // -+- CHECKERS -+- //
+
+    public boolean hasEntity(int entity) {
+        int index;
+
+        if (entity < 0) return false;
+
+        index = EntityAllocator.indexOf(entity);
+
+        return index < _archetypeOfEntity.length && _archetypeOfEntity[index] != -1 && _handleOfEntity[index] == entity;
+    }
+    public boolean has(int entity, int column) {
+        if (!hasEntity(entity)) return false;
+
+        return _ARCHETYPES.get(_archetypeOfEntity[EntityAllocator.indexOf(entity)]).hasColumn(column);
+    }
+
+    private void h_checkColumn(int column) {
+        if (column < 0 || column >= MAX_COLUMNS) throw new IllegalArgumentException("[ARCHETYPE STORAGE ERROR] : Column " + column + " is out of range!");
+    }
+
+
+}
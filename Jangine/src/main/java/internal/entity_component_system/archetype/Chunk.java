@@ -0,0 +1,85 @@
+package internal.entity_component_system.archetype;
+
+
+import internal.entity_component_system.A_Component;
+
+
+/**
+ * A fixed size block of rows inside an {@link Archetype}. <br>
+ * Every slot of the archetype owns one dense array in here, so iterating a column
+ * of a chunk walks a contiguous array instead of hopping through hash buckets.
+ *
+ * @author Tim Kloepper
+ * @version 1.0
+ */
+public class Chunk {
+
+
+    // -+- CREATION -+- //
+
+    public Chunk(int slotAmount) {
+        ENTITIES = new int[CAPACITY];
+        COLUMNS = new A_Component[slotAmount][CAPACITY];
+        ACTIVATION_WORDS = new long[slotAmount][WORDS];
+        VALIDITY_WORDS = new long[slotAmount][WORDS];
+        CHANGE_TICKS = new int[slotAmount][CAPACITY];
+
+        size = 0;
+    }
+
+
+    // -+- PARAMETERS -+- //
+
+    // FINALS //
+
+    public static final int CAPACITY_SHIFT = 8;
+    public static final int CAPACITY = 1 << CAPACITY_SHIFT;
+    public static final int ROW_MASK = CAPACITY - 1;
+    public static final int WORDS = CAPACITY / Long.SIZE;
+
+    public final int[] ENTITIES;
+    /**
+     * The components of this chunk, indexed by {@code [slot][row]}.
+     */
+    public final A_Component[][] COLUMNS;
+    /**
+     * The activation state every component had during the last processor update,
+     * as one bit per row, indexed by {@code [slot][row / 64]}.
+     */
+    public final long[][] ACTIVATION_WORDS;
+    /**
+     * The cached result of the validity check of every component, as one bit per row,
+     * indexed by {@code [slot][row / 64]}. <br>
+     * Is only used by processors with incremental validation.
+     */
+    public final long[][] VALIDITY_WORDS;
+    /**
+     * The tick of the storage, at which every component was last added or marked as changed,
+     * indexed by {@code [slot][row]}.
+     */
+    public final int[][] CHANGE_TICKS;
+
+    // NON-FINALS //
+
+    public int size;
+
+
+    // -+- BIT MANAGEMENT -+- //
+
+    public boolean getActivationState(int slot, int row) {
+        return (ACTIVATION_WORDS[slot][row >> 6] & (1L << row)) != 0;
+    }
+    public void setActivationState(int slot, int row, boolean value) {
+        if (value) ACTIVATION_WORDS[slot][row >> 6] |= 1L << row;
+        else ACTIVATION_WORDS[slot][row >> 6] &= ~(1L << row);
+    }
+
+
+    // -+- CHECKERS -+- //
+
+    public boolean isFull() {
+        return size == CAPACITY;
+    }
+
+
+}
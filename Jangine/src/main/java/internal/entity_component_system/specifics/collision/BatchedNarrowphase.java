@@ -0,0 +1,233 @@
+package internal.entity_component_system.specifics.collision;
+
+
+import internal.entity_component_system.specifics.collision.data.A_CollisionData;
+import internal.entity_component_system.specifics.collision.data.ObjectData;
+import internal.entity_component_system.specifics.collision.dependencies.spatial_partitioner.BoundsCalculator;
+import internal.entity_component_system.specifics.collision.dependencies.spatial_partitioner.I_PairConsumer;
+import internal.entity_component_system.specifics.hitbox.HitboxShapes;
+
+import java.util.Arrays;
+
+
+/**
+ * Tests candidate pairs in bulk, instead of one after another through the collision calculator. <br>
+ * Objects are packed once per batch, when they first appear in a pair, so objects without any candidate pair cost nothing.
+ * Every added pair copies the packed bounds of both objects into arrays indexed by the pair,
+ * so the overlap of every pair is computed by one tight loop over primitive arrays, which reads all of them in order
+ * and can be vectorized, instead of following indices or references.
+ * <p></p>
+ * For two rectangles, the overlap already is the exact result of the {@link internal.entity_component_system.specifics.collision.dependencies.calculator.AABB_Calculator}.
+ * Pairs of other shapes only use it to skip pairs, whose bounds do not touch,
+ * before the calculator is asked.
+ *
+ * @author Tim Kloepper
+ * @version 1.0
+ */
+public class BatchedNarrowphase implements I_PairConsumer {
+
+
+    // -+- CREATION -+- //
+
+    public BatchedNarrowphase() {
+        _BOUNDS = new double[BoundsCalculator.SIZE];
+
+        _objects = new ObjectData[INITIAL_CAPACITY];
+        _bounds = new double[INITIAL_CAPACITY * BoundsCalculator.SIZE];
+        _objectAmount = 0;
+
+        _pairsA = new int[INITIAL_CAPACITY];
+        _pairsB = new int[INITIAL_CAPACITY];
+        _minXA = new double[INITIAL_CAPACITY];
+        _minYA = new double[INITIAL_CAPACITY];
+        _maxXA = new double[INITIAL_CAPACITY];
+        _maxYA = new double[INITIAL_CAPACITY];
+        _minXB = new double[INITIAL_CAPACITY];
+        _minYB = new double[INITIAL_CAPACITY];
+        _maxXB = new double[INITIAL_CAPACITY];
+        _maxYB = new double[INITIAL_CAPACITY];
+        _exact = new boolean[INITIAL_CAPACITY];
+        _overlapsX = new double[INITIAL_CAPACITY];
+        _overlapsY = new double[INITIAL_CAPACITY];
+        _pairAmount = 0;
+    }
+
+
+    // -+- PARAMETERS -+- //
+
+    // FINALS //
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    private final double[] _BOUNDS;
+
+    // NON-FINALS //
+
+    // Indexed by the batch index of every packed object, the bounds in the order of the BoundsCalculator.
+    private ObjectData[] _objects;
+    private double[] _bounds;
+    private int _objectAmount;
+
+    // Indexed by the pair.
+    private int[] _pairsA, _pairsB;
+    private double[] _minXA, _minYA, _maxXA, _maxYA;
+    private double[] _minXB, _minYB, _maxXB, _maxYB;
+    private boolean[] _exact;
+    private double[] _overlapsX, _overlapsY;
+    private int _pairAmount;
+
+
+    // -+- PREPARATION -+- //
+
+    /**
+     * Adds a pair of objects to the batch, packing both, if they are not part of an earlier pair of this batch.
+     * Packed objects must not move, until the batch is cleared.
+     *
+     * @param a The first object of the pair
+     * @param b The second object of the pair
+     *
+     * @author Tim Kloepper
+     */
+    @Override
+    public void accept(ObjectData a, ObjectData b) {
+        int offsetA, offsetB;
+
+        if (a.batchIndex == ObjectData.NOT_BATCHED) h_pack(a);
+        if (b.batchIndex == ObjectData.NOT_BATCHED) h_pack(b);
+
+        if (_pairAmount == _pairsA.length) h_growPairs();
+
+        offsetA = a.batchIndex * BoundsCalculator.SIZE;
+        offsetB = b.batchIndex * BoundsCalculator.SIZE;
+
+        _pairsA[_pairAmount] = a.batchIndex;
+        _pairsB[_pairAmount] = b.batchIndex;
+
+        _minXA[_pairAmount] = _bounds[offsetA + BoundsCalculator.MIN_X];
+        _minYA[_pairAmount] = _bounds[offsetA + BoundsCalculator.MIN_Y];
+        _maxXA[_pairAmount] = _bounds[offsetA + BoundsCalculator.MAX_X];
+        _maxYA[_pairAmount] = _bounds[offsetA + BoundsCalculator.MAX_Y];
+        _minXB[_pairAmount] = _bounds[offsetB + BoundsCalculator.MIN_X];
+        _minYB[_pairAmount] = _bounds[offsetB + BoundsCalculator.MIN_Y];
+        _maxXB[_pairAmount] = _bounds[offsetB + BoundsCalculator.MAX_X];
+        _maxYB[_pairAmount] = _bounds[offsetB + BoundsCalculator.MAX_Y];
+
+        _exact[_pairAmount] = a.hitboxComponent.SHAPE == HitboxShapes.RECTANGLE && b.hitboxComponent.SHAPE == HitboxShapes.RECTANGLE;
+
+        _pairAmount++;
+    }
+    private void h_pack(ObjectData object) {
+        if (_objectAmount == _objects.length) {
+            _objects = Arrays.copyOf(_objects, _objectAmount * 2);
+            _bounds = Arrays.copyOf(_bounds, _objectAmount * 2 * BoundsCalculator.SIZE);
+        }
+
+        // The overlap is taken at the current positions, even if the object is swept.
+        BoundsCalculator.calculateAt(object, object.positionComponent.position.x, object.positionComponent.position.y, _bounds, _objectAmount * BoundsCalculator.SIZE);
+
+        _objects[_objectAmount] = object;
+
+        object.batchIndex = _objectAmount++;
+    }
+
+    /**
+     * Removes all pairs and unpacks all objects, so the next batch packs them at their new positions.
+     *
+     * @author Tim Kloepper
+     */
+    public void clear() {
+        for (int index = 0; index < _objectAmount; index++) {
+            _objects[index].batchIndex = ObjectData.NOT_BATCHED;
+            _objects[index] = null;
+        }
+
+        _objectAmount = 0;
+        _pairAmount = 0;
+    }
+    private void h_growPairs() {
+        int capacity;
+
+        capacity = _pairAmount * 2;
+
+        _pairsA = Arrays.copyOf(_pairsA, capacity);
+        _pairsB = Arrays.copyOf(_pairsB, capacity);
+        _minXA = Arrays.copyOf(_minXA, capacity);
+        _minYA = Arrays.copyOf(_minYA, capacity);
+        _maxXA = Arrays.copyOf(_maxXA, capacity);
+        _maxYA = Arrays.copyOf(_maxYA, capacity);
+        _minXB = Arrays.copyOf(_minXB, capacity);
+        _minYB = Arrays.copyOf(_minYB, capacity);
+        _maxXB = Arrays.copyOf(_maxXB, capacity);
+        _maxYB = Arrays.copyOf(_maxYB, capacity);
+        _exact = Arrays.copyOf(_exact, capacity);
+        _overlapsX = Arrays.copyOf(_overlapsX, capacity);
+        _overlapsY = Arrays.copyOf(_overlapsY, capacity);
+    }
+
+
+    // -+- TESTING -+- //
+
+    /**
+     * Computes the overlap of the bounds of every pair along both axes, where a negative overlap is a gap.
+     *
+     * @author Tim Kloepper
+     */
+    public void run() {
+        for (int pair = 0; pair < _pairAmount; pair++) {
+            _overlapsX[pair] = Math.min(_maxXA[pair], _maxXB[pair]) - Math.max(_minXA[pair], _minXB[pair]);
+            _overlapsY[pair] = Math.min(_maxYA[pair], _maxYB[pair]) - Math.max(_minYA[pair], _minYB[pair]);
+        }
+    }
+
+
+    // -+- GETTERS -+- //
+
+    public int getPairAmount() {
+        return _pairAmount;
+    }
+    public int getObjectAmount() {
+        return _objectAmount;
+    }
+    public ObjectData getObjectA(int pair) {
+        return _objects[_pairsA[pair]];
+    }
+    public ObjectData getObjectB(int pair) {
+        return _objects[_pairsB[pair]];
+    }
+    /**
+     * Returns the axis of the collision of two rectangles, as the {@link internal.entity_component_system.specifics.collision.dependencies.calculator.AABB_Calculator} would.
+     *
+     * @param pair The index of the pair
+     *
+     * @return The collision axis
+     *
+     * @author Tim Kloepper
+     */
+    public A_CollisionData.COLLISION_AXIS getCollisionAxis(int pair) {
+        return _overlapsX[pair] > _overlapsY[pair] ? A_CollisionData.COLLISION_AXIS.X : A_CollisionData.COLLISION_AXIS.Y;
+    }
+
+
+    // -+- CHECKERS -+- //
+
+    /**
+     * Returns whether the overlap of the pair already is the exact result, which is the case for two rectangles.
+     *
+     * @param pair The index of the pair
+     *
+     * @return Whether both objects are rectangles
+     *
+     * @author Tim Kloepper
+     */
+    public boolean isExact(int pair) {
+        return _exact[pair];
+    }
+    public boolean isOverlapping(int pair) {
+        return _overlapsX[pair] > 0 && _overlapsY[pair] > 0;
+    }
+    public boolean isTouching(int pair) {
+        return _overlapsX[pair] >= 0 && _overlapsY[pair] >= 0;
+    }
+
+
+}
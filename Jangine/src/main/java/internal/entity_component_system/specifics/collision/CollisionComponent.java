@@ -4,4 +4,43 @@ package internal.entity_component_system.specifics.collision;
 import internal.entity_component_system.A_Component;
 
 
-public class CollisionComponent extends A_Component {}
\ No newline at end of file
+/**
+ * Marks an entity as taking part in collision checks. <br>
+ * Two objects are only checked against each other, if the category of each one is part of the mask of the other.
+ * This is filtered by the spatial partitioner, before any narrow phase check is done.
+ *
+ * @author Tim Kloepper
+ * @version 1.0
+ */
+public class CollisionComponent extends A_Component {
+
+
+    // -+- CREATION -+- //
+
+    public CollisionComponent() {
+        this(DEFAULT_CATEGORY, ALL_CATEGORIES);
+    }
+    public CollisionComponent(int category, int mask) {
+        super();
+
+        this.category = category;
+        this.mask = mask;
+    }
+
+
+    // -+- PARAMETERS -+- //
+
+    // FINALS //
+
+    public static final int DEFAULT_CATEGORY = 1;
+    public static final int ALL_CATEGORIES = -1;
+
+    // NON-FINALS //
+
+    // The bits of the layers this object belongs to.
+    public int category;
+    // The bits of the layers this object collides with.
+    public int mask;
+
+
+}
@@ -8,8 +8,13 @@ import internal.entity_component_system.events.ProcessorAddedEvent;
 import internal.entity_component_system.events.ProcessorRemovedEvent;
 import internal.entity_component_system.specifics.collision.data.A_CollisionData;
 import internal.entity_component_system.specifics.collision.data.ObjectData;
+import internal.entity_component_system.specifics.collision.dependencies.calculator.AABB_Calculator;
 import internal.entity_component_system.specifics.collision.dependencies.calculator.I_CollisionCalculator;
+import internal.entity_component_system.specifics.collision.dependencies.spatial_partitioner.I_PairConsumer;
 import internal.entity_component_system.specifics.collision.dependencies.spatial_partitioner.I_SpatialPartitioner;
+import internal.entity_component_system.specifics.collision.dependencies.spatial_partitioner.SweepAndPrune;
+import internal.entity_component_system.specifics.collision.events.CollisionEndedEvent;
+import internal.entity_component_system.specifics.collision.events.CollisionStayEvent;
 import internal.entity_component_system.specifics.collision.events.ContainerCollisionEvent;
 import internal.entity_component_system.specifics.collision.events.ObjectCollisionEvent;
 import internal.entity_component_system.specifics.hitbox.HitboxProcessor;
@@ -24,9 +29,9 @@ import internal.events.implementations.Event;
 import internal.rendering.container.A_Scene;
 import internal.rendering.container.A_Container;
 
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
 
 
@@ -35,11 +40,51 @@ public class CollisionProcessor extends A_Processor<CollisionComponent> {
 
     // -+- CREATION -+- //
 
+    /**
+     * Creates a collision processor using a {@link SweepAndPrune} broadphase,
+     * which is not bound to any area and computes all candidate pairs once per update.
+     *
+     * @param collisionCalculator The calculator checking the candidates for actual collisions
+     *
+     * @author Tim Kloepper
+     */
+    public CollisionProcessor(I_CollisionCalculator collisionCalculator) {
+        this(new SweepAndPrune(), collisionCalculator);
+    }
+    /**
+     * Creates a collision processor using the specified broadphase,
+     * for example a {@link SweepAndPrune}, a quad tree or a dynamic AABB tree.
+     *
+     * @param spatialPartitioner The broadphase finding the candidates of every object
+     * @param collisionCalculator The calculator checking the candidates for actual collisions
+     *
+     * @author Tim Kloepper
+     */
     public CollisionProcessor(I_SpatialPartitioner spatialPartitioner, I_CollisionCalculator collisionCalculator) {
         _SPATIAL_PARTITIONER = spatialPartitioner;
         _COLLISION_CALCULATOR = collisionCalculator;
 
         _OBJECTS = new HashMap<>();
+        _CONTACTS = new ContactManager();
+        _SWEPT = new SweptCollision();
+        _BATCH = new BatchedNarrowphase();
+        _CHECK_PAIR = this::h_checkPair;
+        _COLLECT_PAIR = this::h_collectPair;
+        _EXACT_BATCH = collisionCalculator instanceof AABB_Calculator;
+
+        _collidingA = new ObjectData[INITIAL_CAPACITY];
+        _collidingB = new ObjectData[INITIAL_CAPACITY];
+        _collisionAxes = new A_CollisionData.COLLISION_AXIS[INITIAL_CAPACITY];
+        _timesOfImpact = new double[INITIAL_CAPACITY];
+        _collisionAmount = 0;
+
+        _continuous = false;
+        _batched = false;
+
+        _update = 0;
+
+        // Needs a position and a hitbox, both of which only change with the storage.
+        p_setIncrementalValidation(true);
     }
 
     @Override
@@ -72,7 +117,16 @@ public class CollisionProcessor extends A_Processor<CollisionComponent> {
     private final I_SpatialPartitioner _SPATIAL_PARTITIONER;
     private final I_CollisionCalculator _COLLISION_CALCULATOR;
 
+    private static final int INITIAL_CAPACITY = 64;
+
     private final HashMap<CollisionComponent, ObjectData> _OBJECTS;
+    private final ContactManager _CONTACTS;
+    private final SweptCollision _SWEPT;
+    private final BatchedNarrowphase _BATCH;
+    private final I_PairConsumer _CHECK_PAIR;
+    private final I_PairConsumer _COLLECT_PAIR;
+    // Whether the batch may decide pairs of rectangles on its own, as it matches the calculator.
+    private final boolean _EXACT_BATCH;
 
     // NON-FINALS //
 
@@ -82,6 +136,18 @@ public class CollisionProcessor extends A_Processor<CollisionComponent> {
     private ActiveEventPort _processorAddedPort;
     private ActiveEventPort _processorRemovedPort;
 
+    // The collisions found while enumerating the candidate pairs, which are pushed afterward,
+    // so callbacks removing objects can not change the partitioner during the enumeration.
+    private ObjectData[] _collidingA, _collidingB;
+    private A_CollisionData.COLLISION_AXIS[] _collisionAxes;
+    private double[] _timesOfImpact;
+    private int _collisionAmount;
+
+    private boolean _continuous;
+    private boolean _batched;
+
+    private int _update;
+
 
     // -+- UPDATE LOOP -+- //
 
@@ -89,24 +155,43 @@ public class CollisionProcessor extends A_Processor<CollisionComponent> {
     protected void p_internalUpdate(Collection<CollisionComponent> validComponents, System system, A_Scene scene) {
         if (_positionProcessor == null || _hitboxProcessor == null) return;
 
-        HashMap<Integer, HashSet<ObjectData>> pairs;
-
-        A_HitboxComponent hitboxComponent;
-        PositionComponent positionComponent;
         ObjectData objectData;
 
-        _SPATIAL_PARTITIONER.update(scene);
-
-        pairs = new HashMap<>();
+        _update++;
 
         for (CollisionComponent component : validComponents) {
             objectData = _OBJECTS.get(component);
 
             if (objectData == null) continue;
 
+            objectData.validUpdate = _update;
+            objectData.category = component.category;
+            objectData.mask = component.mask;
+            objectData.swept = _continuous;
+
             h_checkAgainstContainer(objectData, scene, scene.SYSTEMS.EVENT_HANDLER);
-            h_checkAgainstObjects(objectData, _SPATIAL_PARTITIONER.getCollidingObjects(objectData), pairs, scene.SYSTEMS.EVENT_HANDLER);
         }
+
+        // Updated after the filter bits got copied, as partitioners may filter their pairs during the update.
+        _SPATIAL_PARTITIONER.update(scene);
+
+        if (_batched) h_runBatch();
+        else _SPATIAL_PARTITIONER.forEachCandidatePair(_CHECK_PAIR);
+
+        _CONTACTS.beginUpdate();
+
+        for (int index = 0; index < _collisionAmount; index++) {
+            _CONTACTS.touch(_collidingA[index], _collidingB[index], _collisionAxes[index], h_getTimeOfImpact(index), scene.SYSTEMS.EVENT_HANDLER);
+
+            _collidingA[index] = null;
+            _collidingB[index] = null;
+        }
+
+        _collisionAmount = 0;
+
+        _CONTACTS.finishUpdate(scene.SYSTEMS.EVENT_HANDLER);
+
+        if (_continuous) h_storePreviousPositions();
     }
 
     private void h_checkAgainstContainer(ObjectData object, A_Container container, EventMaster eventHandler) {
@@ -114,25 +199,105 @@ public class CollisionProcessor extends A_Processor<CollisionComponent> {
             eventHandler.push(new ContainerCollisionEvent(_COLLISION_CALCULATOR.getCollisionAxis(object, container), object, container));
         }
     }
-    private void h_checkAgainstObjects(ObjectData object, Collection<ObjectData> objects, HashMap<Integer, HashSet<ObjectData>> pairs, EventMaster eventHandler) {
-        A_CollisionData.COLLISION_AXIS collisionAxis;
+    /**
+     * Checks a candidate pair of the partitioner, which is only done if at least one of both is valid and active.
+     *
+     * @param object The first object of the pair
+     * @param objectB The second object of the pair
+     *
+     * @author Tim Kloepper
+     */
+    private void h_checkPair(ObjectData object, ObjectData objectB) {
+        if (object.validUpdate != _update && objectB.validUpdate != _update) return;
+
+        if (_COLLISION_CALCULATOR.isCollidingWith(object, objectB)) h_addCollision(object, objectB, _COLLISION_CALCULATOR.getCollisionAxis(object, objectB));
+        else h_addSweptCollision(object, objectB);
+    }
+    private void h_collectPair(ObjectData object, ObjectData objectB) {
+        if (object.validUpdate != _update && objectB.validUpdate != _update) return;
 
-        pairs.put(object.hitboxComponent.owningEntity, new HashSet<>());
+        _BATCH.accept(object, objectB);
+    }
+    /**
+     * Collects all candidate pairs into the batch, computes their overlaps at once
+     * and only asks the calculator for pairs, the batch can not decide on its own.
+     * Only objects inside the pairs get packed, so objects without candidates are never touched.
+     *
+     * @author Tim Kloepper
+     */
+    private void h_runBatch() {
+        _SPATIAL_PARTITIONER.forEachCandidatePair(_COLLECT_PAIR);
+        _BATCH.run();
+
+        for (int pair = 0; pair < _BATCH.getPairAmount(); pair++) {
+            ObjectData object, objectB;
+
+            object = _BATCH.getObjectA(pair);
+            objectB = _BATCH.getObjectB(pair);
+
+            if (_EXACT_BATCH && _BATCH.isExact(pair)) {
+                if (_BATCH.isOverlapping(pair)) h_addCollision(object, objectB, _BATCH.getCollisionAxis(pair));
+                else h_addSweptCollision(object, objectB);
+
+                continue;
+            }
+
+            if (_BATCH.isTouching(pair) && _COLLISION_CALCULATOR.isCollidingWith(object, objectB)) h_addCollision(object, objectB, _COLLISION_CALCULATOR.getCollisionAxis(object, objectB));
+            else h_addSweptCollision(object, objectB);
+        }
 
-        for (ObjectData objectB : objects) {
-            if (pairs.containsKey(objectB.hitboxComponent.owningEntity)) continue;
-            if (!_COLLISION_CALCULATOR.isCollidingWith(object, objectB)) continue;
+        _BATCH.clear();
+    }
+    private void h_addSweptCollision(ObjectData object, ObjectData objectB) {
+        // Both may have passed each other during this update.
+        if (!_continuous || !_SWEPT.test(object, objectB)) return;
 
-            pairs.get(object.hitboxComponent.owningEntity).add(objectB);
+        h_addCollision(object, objectB, _SWEPT.getAxis(), _SWEPT.getTimeOfImpact());
+    }
+    private void h_addCollision(ObjectData object, ObjectData objectB, A_CollisionData.COLLISION_AXIS collisionAxis) {
+        // Only beginning contacts need to know, when both objects first touched, so the time is tested once the contacts get touched.
+        h_addCollision(object, objectB, collisionAxis, SweptCollision.NO_IMPACT);
+    }
+    private void h_addCollision(ObjectData object, ObjectData objectB, A_CollisionData.COLLISION_AXIS collisionAxis, double timeOfImpact) {
+        if (_collisionAmount == _collidingA.length) {
+            _collidingA = Arrays.copyOf(_collidingA, _collisionAmount * 2);
+            _collidingB = Arrays.copyOf(_collidingB, _collisionAmount * 2);
+            _collisionAxes = Arrays.copyOf(_collisionAxes, _collisionAmount * 2);
+            _timesOfImpact = Arrays.copyOf(_timesOfImpact, _collisionAmount * 2);
+        }
 
-            collisionAxis = _COLLISION_CALCULATOR.getCollisionAxis(object, objectB);
+        _collidingA[_collisionAmount] = object;
+        _collidingB[_collisionAmount] = objectB;
+        _collisionAxes[_collisionAmount] = collisionAxis;
+        _timesOfImpact[_collisionAmount] = timeOfImpact;
 
-            h_pushCollisionEvents(object, objectB, collisionAxis, eventHandler);
-        }
+        _collisionAmount++;
     }
-    private void h_pushCollisionEvents(ObjectData object, ObjectData collidingObject, A_CollisionData.COLLISION_AXIS collisionAxis, EventMaster eventHandler) {
-        eventHandler.push(new ObjectCollisionEvent(collisionAxis, object, collidingObject));
-        eventHandler.push(new ObjectCollisionEvent(collisionAxis, collidingObject, object));
+
+    /**
+     * Returns the time of impact of the collision. Swept collisions already know it,
+     * while it is only tested for objects overlapping at the end of the update, if their contact begins with this collision.
+     *
+     * @param collision The index of the collision
+     *
+     * @author Tim Kloepper
+     */
+    private double h_getTimeOfImpact(int collision) {
+        ObjectData object, objectB;
+
+        if (_timesOfImpact[collision] != SweptCollision.NO_IMPACT) return _timesOfImpact[collision];
+        if (!_continuous) return 1;
+
+        object = _collidingA[collision];
+        objectB = _collidingB[collision];
+
+        if (_CONTACTS.isInContact(object.hitboxComponent.owningEntity, objectB.hitboxComponent.owningEntity)) return 1;
+
+        return _SWEPT.test(object, objectB) ? _SWEPT.getTimeOfImpact() : 1;
+    }
+
+    private void h_storePreviousPositions() {
+        for (ObjectData objectData : _OBJECTS.values()) objectData.previousPosition.set(objectData.positionComponent.position);
     }
 
 
@@ -150,6 +315,8 @@ public class CollisionProcessor extends A_Processor<CollisionComponent> {
         if (_hitboxProcessor == null || _positionProcessor == null) return;
 
         objectData = new ObjectData(_hitboxProcessor.getComponent(component.owningEntity), _positionProcessor.getComponent(component.owningEntity));
+        objectData.category = component.category;
+        objectData.mask = component.mask;
 
         _SPATIAL_PARTITIONER.addObject(objectData);
         _OBJECTS.put(component, objectData);
@@ -181,8 +348,59 @@ public class CollisionProcessor extends A_Processor<CollisionComponent> {
     }
 
 
+    // -+- SETTERS -+- //
+
+    /**
+     * Sets the amount of updates between two {@link CollisionStayEvent} of the same pair of objects.
+     * By default, only {@link ObjectCollisionEvent} and {@link CollisionEndedEvent} are pushed.
+     *
+     * @param stayInterval The amount of updates, or zero to not push stay events at all
+     *
+     * @author Tim Kloepper
+     */
+    public void setStayInterval(int stayInterval) {
+        _CONTACTS.setStayInterval(stayInterval);
+    }
+
+
+    /**
+     * Enables or disables continuous collision detection. <br>
+     * While enabled, the bounds of every object cover its way since the last update,
+     * so fast objects, that passed each other during a single update, still collide.
+     * The time of impact of such collisions is part of the {@link ObjectCollisionEvent}.
+     *
+     * @param continuous Whether continuous collision detection is to be used
+     *
+     * @author Tim Kloepper
+     */
+    public void setContinuousDetection(boolean continuous) {
+        // The previous positions are not tracked while disabled, so they would cover the way since it got disabled.
+        if (continuous && !_continuous) h_storePreviousPositions();
+
+        _continuous = continuous;
+    }
+
+
+    /**
+     * Enables or disables the batched narrow phase. <br>
+     * While enabled, all candidate pairs are collected first and their bounds are tested by one tight loop
+     * over packed arrays, see {@link BatchedNarrowphase}, which pays off with many pairs.
+     *
+     * @param batched Whether the batched narrow phase is to be used
+     *
+     * @author Tim Kloepper
+     */
+    public void setBatchedNarrowphase(boolean batched) {
+        _batched = batched;
+    }
+
+
     // -+- GETTERS -+- //
 
+    public ContactManager getContacts() {
+        return _CONTACTS;
+    }
+
     @Override
     protected Collection<Class<? extends CollisionComponent>> p_getProcessedComponentClasses() {
         return List.of(CollisionComponent.class);
@@ -193,4 +411,14 @@ public class CollisionProcessor extends A_Processor<CollisionComponent> {
     }
 
 
+    // -+- CHECKERS -+- //
+
+    public boolean isContinuousDetection() {
+        return _continuous;
+    }
+    public boolean isBatchedNarrowphase() {
+        return _batched;
+    }
+
+
 }
\ No newline at end of file
@@ -0,0 +1,324 @@
+package internal.entity_component_system.specifics.collision;
+
+
+import internal.entity_component_system.specifics.collision.data.A_CollisionData;
+import internal.entity_component_system.specifics.collision.data.ObjectData;
+import internal.entity_component_system.specifics.collision.events.CollisionEndedEvent;
+import internal.entity_component_system.specifics.collision.events.CollisionStayEvent;
+import internal.entity_component_system.specifics.collision.events.ObjectCollisionEvent;
+import internal.events.EventMaster;
+
+import java.util.Arrays;
+
+
+/**
+ * Remembers which pairs of objects are colliding, so collision events are only pushed,
+ * once a contact begins or ends, instead of every update for as long as the objects overlap. <br>
+ * Contacts are keyed by the packed entity handles of both objects and kept inside an open addressing table,
+ * which points into dense arrays holding the data of every contact.
+ * <p></p>
+ * Every update, the {@link CollisionProcessor} touches all colliding pairs, before finishing the update,
+ * which ends all contacts, that did not get touched.
+ * Optionally, a {@link CollisionStayEvent} is pushed in a fixed interval, while a contact persists.
+ *
+ * @author Tim Kloepper
+ * @version 1.0
+ */
+public class ContactManager {
+
+
+    // -+- CREATION -+- //
+
+    public ContactManager() {
+        _keys = new long[INITIAL_TABLE_CAPACITY];
+        _slots = new int[INITIAL_TABLE_CAPACITY];
+        Arrays.fill(_slots, -1);
+
+        _contactKeys = new long[INITIAL_CAPACITY];
+        _objectsA = new ObjectData[INITIAL_CAPACITY];
+        _objectsB = new ObjectData[INITIAL_CAPACITY];
+        _axes = new A_CollisionData.COLLISION_AXIS[INITIAL_CAPACITY];
+        _beganUpdates = new int[INITIAL_CAPACITY];
+        _touchedUpdates = new int[INITIAL_CAPACITY];
+        _contactAmount = 0;
+
+        _update = 0;
+        _stayInterval = 0;
+    }
+
+
+    // -+- PARAMETERS -+- //
+
+    // FINALS //
+
+    private static final int INITIAL_CAPACITY = 64;
+    private static final int INITIAL_TABLE_CAPACITY = 128;
+
+    // NON-FINALS //
+
+    // Open addressing table, mapping the packed entity pair onto the index of the contact, -1 marks empty slots.
+    private long[] _keys;
+    private int[] _slots;
+
+    // The data of every contact, indexed by the index of the contact.
+    private long[] _contactKeys;
+    private ObjectData[] _objectsA, _objectsB;
+    private A_CollisionData.COLLISION_AXIS[] _axes;
+    private int[] _beganUpdates;
+    private int[] _touchedUpdates;
+    private int _contactAmount;
+
+    private int _update;
+    private int _stayInterval;
+
+
+    // -+- UPDATE LOOP -+- //
+
+    /**
+     * Starts a new update, after which all colliding pairs need to be touched.
+     *
+     * @author Tim Kloepper
+     */
+    public void beginUpdate() {
+        _update++;
+    }
+    /**
+     * Marks the pair as colliding during the current update.
+     * Pushes an {@link ObjectCollisionEvent}, if the pair did not collide during the last update,
+     * and a {@link CollisionStayEvent}, if the stay interval elapsed since the contact began.
+     *
+     * @param object The first object of the pair
+     * @param collidingObject The second object of the pair
+     * @param collisionAxis The axis, along which both objects collide
+     * @param timeOfImpact The time, at which both objects first touched, as a fraction of the update
+     * @param eventHandler The handler the events are pushed to
+     *
+     * @author Tim Kloepper
+     */
+    public void touch(ObjectData object, ObjectData collidingObject, A_CollisionData.COLLISION_AXIS collisionAxis, double timeOfImpact, EventMaster eventHandler) {
+        long key;
+        int contact;
+
+        key = h_pack(object.hitboxComponent.owningEntity, collidingObject.hitboxComponent.owningEntity);
+        contact = h_find(key);
+
+        if (contact == -1) {
+            h_addContact(key, object, collidingObject, collisionAxis);
+
+            eventHandler.push(new ObjectCollisionEvent(collisionAxis, object, collidingObject, timeOfImpact));
+            eventHandler.push(new ObjectCollisionEvent(collisionAxis, collidingObject, object, timeOfImpact));
+
+            return;
+        }
+
+        // Already touched during this update.
+        if (_touchedUpdates[contact] == _update) return;
+
+        _touchedUpdates[contact] = _update;
+        _axes[contact] = collisionAxis;
+
+        if (_stayInterval <= 0 || (_update - _beganUpdates[contact]) % _stayInterval != 0) return;
+
+        eventHandler.push(new CollisionStayEvent(collisionAxis, _objectsA[contact], _objectsB[contact]));
+        eventHandler.push(new CollisionStayEvent(collisionAxis, _objectsB[contact], _objectsA[contact]));
+    }
+    /**
+     * Ends all contacts, that did not get touched during the current update,
+     * by pushing a {@link CollisionEndedEvent} for each of them.
+     *
+     * @param eventHandler The handler the events are pushed to
+     *
+     * @author Tim Kloepper
+     */
+    public void finishUpdate(EventMaster eventHandler) {
+        int write;
+
+        write = 0;
+
+        for (int read = 0; read < _contactAmount; read++) {
+            if (_touchedUpdates[read] != _update) {
+                eventHandler.push(new CollisionEndedEvent(_axes[read], _objectsA[read], _objectsB[read]));
+                eventHandler.push(new CollisionEndedEvent(_axes[read], _objectsB[read], _objectsA[read]));
+
+                h_remove(_contactKeys[read]);
+
+                continue;
+            }
+
+            if (write != read) {
+                h_moveContact(read, write);
+                h_relink(_contactKeys[write], write);
+            }
+            write++;
+        }
+
+        if (write == _contactAmount) return;
+
+        for (int index = write; index < _contactAmount; index++) {
+            _objectsA[index] = null;
+            _objectsB[index] = null;
+            _axes[index] = null;
+        }
+
+        _contactAmount = write;
+    }
+
+
+    // -+- CONTACT MANAGEMENT -+- //
+
+    private int h_addContact(long key, ObjectData object, ObjectData collidingObject, A_CollisionData.COLLISION_AXIS collisionAxis) {
+        if (_contactAmount == _contactKeys.length) {
+            _contactKeys = Arrays.copyOf(_contactKeys, _contactAmount * 2);
+            _objectsA = Arrays.copyOf(_objectsA, _contactAmount * 2);
+            _objectsB = Arrays.copyOf(_objectsB, _contactAmount * 2);
+            _axes = Arrays.copyOf(_axes, _contactAmount * 2);
+            _beganUpdates = Arrays.copyOf(_beganUpdates, _contactAmount * 2);
+            _touchedUpdates = Arrays.copyOf(_touchedUpdates, _contactAmount * 2);
+        }
+
+        _contactKeys[_contactAmount] = key;
+        _objectsA[_contactAmount] = object;
+        _objectsB[_contactAmount] = collidingObject;
+        _axes[_contactAmount] = collisionAxis;
+        _beganUpdates[_contactAmount] = _update;
+        _touchedUpdates[_contactAmount] = _update;
+
+        h_insert(key, _contactAmount);
+
+        return _contactAmount++;
+    }
+    private void h_moveContact(int from, int to) {
+        _contactKeys[to] = _contactKeys[from];
+        _objectsA[to] = _objectsA[from];
+        _objectsB[to] = _objectsB[from];
+        _axes[to] = _axes[from];
+        _beganUpdates[to] = _beganUpdates[from];
+        _touchedUpdates[to] = _touchedUpdates[from];
+    }
+
+
+    // -+- TABLE MANAGEMENT -+- //
+
+    private int h_find(long key) {
+        // Empty slots hold -1, just as a missing contact.
+        return _slots[h_findSlot(key)];
+    }
+    private int h_findSlot(long key) {
+        int mask, slot;
+
+        mask = _keys.length - 1;
+        slot = h_hash(key) & mask;
+
+        while (_slots[slot] != -1 && _keys[slot] != key) slot = (slot + 1) & mask;
+
+        return slot;
+    }
+    private void h_relink(long key, int contact) {
+        _slots[h_findSlot(key)] = contact;
+    }
+    private void h_remove(long key) {
+        int mask, slot;
+
+        mask = _keys.length - 1;
+        slot = h_findSlot(key);
+
+        if (_slots[slot] == -1) return;
+
+        // Moves following entries back, so no probe sequence is broken by the removal.
+        for (int next = (slot + 1) & mask; _slots[next] != -1; next = (next + 1) & mask) {
+            int home;
+
+            home = h_hash(_keys[next]) & mask;
+            if (((next - home) & mask) < ((next - slot) & mask)) continue;
+
+            _keys[slot] = _keys[next];
+            _slots[slot] = _slots[next];
+            slot = next;
+        }
+
+        _slots[slot] = -1;
+    }
+    private void h_insert(long key, int contact) {
+        int mask, slot;
+
+        // Keep the table at most half full, so probe sequences stay short.
+        if ((_contactAmount + 1) * 2 > _keys.length) {
+            _keys = new long[_keys.length * 2];
+            _slots = new int[_slots.length * 2];
+
+            h_rebuildTable();
+        }
+
+        mask = _keys.length - 1;
+        slot = h_hash(key) & mask;
+
+        while (_slots[slot] != -1) slot = (slot + 1) & mask;
+
+        _keys[slot] = key;
+        _slots[slot] = contact;
+    }
+    private void h_rebuildTable() {
+        int mask;
+
+        Arrays.fill(_slots, -1);
+
+        mask = _keys.length - 1;
+
+        for (int contact = 0; contact < _contactAmount; contact++) {
+            int slot;
+
+            slot = h_hash(_contactKeys[contact]) & mask;
+            while (_slots[slot] != -1) slot = (slot + 1) & mask;
+
+            _keys[slot] = _contactKeys[contact];
+            _slots[slot] = contact;
+        }
+    }
+
+    private static long h_pack(int entityA, int entityB) {
+        // Ordered, so the key does not depend on the order of both entities.
+        if (entityA > entityB) return ((long) entityB << 32) | (entityA & 0xFFFFFFFFL);
+
+        return ((long) entityA << 32) | (entityB & 0xFFFFFFFFL);
+    }
+    private static int h_hash(long key) {
+        key *= 0x9E3779B97F4A7C15L;
+
+        return (int) (key ^ (key >>> 32));
+    }
+
+
+    // -+- SETTERS -+- //
+
+    /**
+     * Sets the amount of updates between two {@link CollisionStayEvent} of the same contact.
+     *
+     * @param stayInterval The amount of updates, or zero to not push stay events at all
+     *
+     * @author Tim Kloepper
+     */
+    public void setStayInterval(int stayInterval) {
+        if (stayInterval < 0) throw new IllegalArgumentException("[CONTACT MANAGER ERROR] : Stay interval can not be negative!");
+
+        _stayInterval = stayInterval;
+    }
+
+
+    // -+- GETTERS -+- //
+
+    public int getStayInterval() {
+        return _stayInterval;
+    }
+    public int getContactAmount() {
+        return _contactAmount;
+    }
+
+
+    // -+- CHECKERS -+- //
+
+    public boolean isInContact(int entityA, int entityB) {
+        return h_find(h_pack(entityA, entityB)) != -1;
+    }
+
+
+}
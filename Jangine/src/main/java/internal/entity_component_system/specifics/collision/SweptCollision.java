@@ -0,0 +1,138 @@
+package internal.entity_component_system.specifics.collision;
+
+
+import internal.entity_component_system.specifics.collision.data.A_CollisionData;
+import internal.entity_component_system.specifics.collision.data.ObjectData;
+import internal.entity_component_system.specifics.collision.dependencies.spatial_partitioner.BoundsCalculator;
+
+
+/**
+ * Finds collisions, that happened between the previous and the current position of two objects,
+ * even if both objects do not overlap at either of these positions, for example because one of them passed the other
+ * during a single update. <br>
+ * Both objects are treated as their bounding boxes, moving in a straight line from their previous to their current position.
+ * The test works on the relative movement of both boxes and computes the time, at which they first touch,
+ * as a fraction of the update.
+ * <p></p>
+ * The results of the last test are kept inside this object, so testing does not allocate,
+ * but one instance can not be used by multiple threads at once.
+ *
+ * @author Tim Kloepper
+ * @version 1.0
+ */
+public class SweptCollision {
+
+
+    // -+- CREATION -+- //
+
+    public SweptCollision() {
+        _BOUNDS_A = new double[BoundsCalculator.SIZE];
+        _BOUNDS_B = new double[BoundsCalculator.SIZE];
+
+        _timeOfImpact = NO_IMPACT;
+        _axis = null;
+    }
+
+
+    // -+- PARAMETERS -+- //
+
+    // FINALS //
+
+    public static final double NO_IMPACT = -1;
+
+    private final double[] _BOUNDS_A, _BOUNDS_B;
+
+    // NON-FINALS //
+
+    private double _timeOfImpact;
+    private A_CollisionData.COLLISION_AXIS _axis;
+
+
+    // -+- TESTING -+- //
+
+    /**
+     * Tests, whether both objects touch, while moving from their previous to their current position.
+     * The time and axis of the impact can be requested afterward.
+     *
+     * @param objA The first object
+     * @param objB The second object
+     *
+     * @return Whether both objects touch during the update
+     *
+     * @author Tim Kloepper
+     */
+    public boolean test(ObjectData objA, ObjectData objB) {
+        double moveX, moveY;
+        double entryX, entryY, exitX, exitY;
+        double entry, exit;
+
+        _timeOfImpact = NO_IMPACT;
+        _axis = null;
+
+        BoundsCalculator.calculateAt(objA, objA.previousPosition.x, objA.previousPosition.y, _BOUNDS_A, 0);
+        BoundsCalculator.calculateAt(objB, objB.previousPosition.x, objB.previousPosition.y, _BOUNDS_B, 0);
+
+        // The movement of A, as seen from B.
+        moveX = (objA.positionComponent.position.x - objA.previousPosition.x) - (objB.positionComponent.position.x - objB.previousPosition.x);
+        moveY = (objA.positionComponent.position.y - objA.previousPosition.y) - (objB.positionComponent.position.y - objB.previousPosition.y);
+
+        if (moveX == 0) {
+            if (_BOUNDS_A[BoundsCalculator.MAX_X] < _BOUNDS_B[BoundsCalculator.MIN_X] || _BOUNDS_A[BoundsCalculator.MIN_X] > _BOUNDS_B[BoundsCalculator.MAX_X]) return false;
+
+            entryX = Double.NEGATIVE_INFINITY;
+            exitX = Double.POSITIVE_INFINITY;
+        } else if (moveX > 0) {
+            entryX = (_BOUNDS_B[BoundsCalculator.MIN_X] - _BOUNDS_A[BoundsCalculator.MAX_X]) / moveX;
+            exitX = (_BOUNDS_B[BoundsCalculator.MAX_X] - _BOUNDS_A[BoundsCalculator.MIN_X]) / moveX;
+        } else {
+            entryX = (_BOUNDS_B[BoundsCalculator.MAX_X] - _BOUNDS_A[BoundsCalculator.MIN_X]) / moveX;
+            exitX = (_BOUNDS_B[BoundsCalculator.MIN_X] - _BOUNDS_A[BoundsCalculator.MAX_X]) / moveX;
+        }
+
+        if (moveY == 0) {
+            if (_BOUNDS_A[BoundsCalculator.MAX_Y] < _BOUNDS_B[BoundsCalculator.MIN_Y] || _BOUNDS_A[BoundsCalculator.MIN_Y] > _BOUNDS_B[BoundsCalculator.MAX_Y]) return false;
+
+            entryY = Double.NEGATIVE_INFINITY;
+            exitY = Double.POSITIVE_INFINITY;
+        } else if (moveY > 0) {
+            entryY = (_BOUNDS_B[BoundsCalculator.MIN_Y] - _BOUNDS_A[BoundsCalculator.MAX_Y]) / moveY;
+            exitY = (_BOUNDS_B[BoundsCalculator.MAX_Y] - _BOUNDS_A[BoundsCalculator.MIN_Y]) / moveY;
+        } else {
+            entryY = (_BOUNDS_B[BoundsCalculator.MAX_Y] - _BOUNDS_A[BoundsCalculator.MIN_Y]) / moveY;
+            exitY = (_BOUNDS_B[BoundsCalculator.MIN_Y] - _BOUNDS_A[BoundsCalculator.MAX_Y]) / moveY;
+        }
+
+        entry = Math.max(entryX, entryY);
+        exit = Math.min(exitX, exitY);
+
+        if (entry > exit || entry > 1 || exit < 0) return false;
+
+        // Already overlapping at the previous positions.
+        _timeOfImpact = Math.max(entry, 0);
+
+        // Entering through the top or bottom means, that the overlap grows along the x axis, as in the AABB_Calculator.
+        _axis = entryY > entryX ? A_CollisionData.COLLISION_AXIS.X : A_CollisionData.COLLISION_AXIS.Y;
+
+        return true;
+    }
+
+
+    // -+- GETTERS -+- //
+
+    /**
+     * Returns the time of the impact found by the last test, as a fraction of the update.
+     *
+     * @return The time between zero, being the previous positions, and one, being the current positions,
+     * or {@link SweptCollision#NO_IMPACT}
+     *
+     * @author Tim Kloepper
+     */
+    public double getTimeOfImpact() {
+        return _timeOfImpact;
+    }
+    public A_CollisionData.COLLISION_AXIS getAxis() {
+        return _axis;
+    }
+
+
+}
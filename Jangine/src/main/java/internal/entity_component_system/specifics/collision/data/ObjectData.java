@@ -3,6 +3,7 @@ package internal.entity_component_system.specifics.collision.data;
 
 import internal.entity_component_system.specifics.hitbox.A_HitboxComponent;
 import internal.entity_component_system.specifics.position.PositionComponent;
+import org.joml.Vector2d;
 
 
 public class ObjectData {
@@ -11,11 +12,40 @@ public class ObjectData {
     public ObjectData(A_HitboxComponent hitboxComponent, PositionComponent positionComponent) {
         this.hitboxComponent = hitboxComponent;
         this.positionComponent = positionComponent;
+
+        previousPosition = new Vector2d(positionComponent.position);
+        swept = false;
+
+        batchIndex = NOT_BATCHED;
+
+        category = 1;
+        mask = -1;
     }
 
 
+    public static final int NOT_BATCHED = -1;
+
     public A_HitboxComponent hitboxComponent;
     public PositionComponent positionComponent;
 
+    // The position at the end of the last update, only kept up to date while continuous collision detection is enabled.
+    public final Vector2d previousPosition;
+    // Whether the bounds of this object cover the way from the previous to the current position.
+    public boolean swept;
+
+    // The last update of the collision processor, in which the collision component was valid and active.
+    public int validUpdate;
+    // The index of this object inside the arrays of the batched narrow phase, or NOT_BATCHED while it is not part of a batch.
+    public int batchIndex;
+
+    // Copied from the collision component by the collision processor, see CollisionComponent.
+    public int category;
+    public int mask;
+
+
+    public boolean canCollideWith(ObjectData other) {
+        return (category & other.mask) != 0 && (other.category & mask) != 0;
+    }
+
 
 }
\ No newline at end of file
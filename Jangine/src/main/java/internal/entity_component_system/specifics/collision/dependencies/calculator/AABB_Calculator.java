@@ -3,45 +3,91 @@ package internal.entity_component_system.specifics.collision.dependencies.calcul
 
 import internal.entity_component_system.specifics.collision.data.A_CollisionData;
 import internal.entity_component_system.specifics.collision.data.ObjectData;
-import internal.entity_component_system.specifics.hitbox.A_HitboxComponent;
 import internal.entity_component_system.specifics.hitbox.CircleHitboxComponent;
+import internal.entity_component_system.specifics.hitbox.HitboxShapes;
 import internal.entity_component_system.specifics.hitbox.RectangleHitboxComponent;
 import internal.rendering.container.A_Container;
 import org.joml.Vector2d;
 
 
+/**
+ * Checks hitboxes by their axis aligned bounds, supporting rectangles and circles. <br>
+ * Rectangles and circles are checked directly by comparing their shape ids, so their checks are fixed,
+ * while the checks for all further shapes are looked up inside a {@link ShapeDispatchTable}, to which handlers for them can be registered.
+ * This keeps the common pairs free of the call through a handler interface, which sees too many implementations to be inlined.
+ *
+ * @author Tim Kloepper
+ * @version 1.0
+ */
 public class AABB_Calculator implements I_CollisionCalculator {
 
 
+    // -+- CREATION -+- //
+
+    public AABB_Calculator() {
+        _DISPATCH = new ShapeDispatchTable(HitboxShapes.RECTANGLE, HitboxShapes.CIRCLE);
+    }
+
+
+    // -+- PARAMETERS -+- //
+
+    // FINALS //
+
+    private final ShapeDispatchTable _DISPATCH;
+
+
     // -+- GETTERS -+- //
 
     @Override
     public A_CollisionData.COLLISION_AXIS getCollisionAxis(ObjectData objA, ObjectData objB) {
-        A_HitboxComponent hitboxA, hitboxB;
-        Vector2d positionA, positionB;
-
-        hitboxA = objA.hitboxComponent;
-        hitboxB = objB.hitboxComponent;
-        positionA = objA.positionComponent.position;
-        positionB = objB.positionComponent.position;
+        I_ShapePairHandler handler;
+        int shapeA, shapeB;
+
+        shapeA = objA.hitboxComponent.SHAPE;
+        shapeB = objB.hitboxComponent.SHAPE;
+
+        if (shapeA == HitboxShapes.RECTANGLE) {
+            if (shapeB == HitboxShapes.RECTANGLE) return h_getCollisionAxis((RectangleHitboxComponent) objA.hitboxComponent, objA.positionComponent.position, (RectangleHitboxComponent) objB.hitboxComponent, objB.positionComponent.position);
+            if (shapeB == HitboxShapes.CIRCLE) return h_getCollisionAxis((RectangleHitboxComponent) objA.hitboxComponent, objA.positionComponent.position, (CircleHitboxComponent) objB.hitboxComponent, objB.positionComponent.position);
+        } else if (shapeA == HitboxShapes.CIRCLE) {
+            if (shapeB == HitboxShapes.RECTANGLE) return h_getCollisionAxis((RectangleHitboxComponent) objB.hitboxComponent, objB.positionComponent.position, (CircleHitboxComponent) objA.hitboxComponent, objA.positionComponent.position);
+            if (shapeB == HitboxShapes.CIRCLE) return h_getCollisionAxis((CircleHitboxComponent) objA.hitboxComponent, objA.positionComponent.position, (CircleHitboxComponent) objB.hitboxComponent, objB.positionComponent.position);
+        }
 
-        if (hitboxA instanceof RectangleHitboxComponent && hitboxB instanceof RectangleHitboxComponent) return h_getCollisionAxis((RectangleHitboxComponent) hitboxA, positionA, (RectangleHitboxComponent) hitboxB, positionB);
-        if (hitboxA instanceof RectangleHitboxComponent && hitboxB instanceof CircleHitboxComponent) return h_getCollisionAxis((RectangleHitboxComponent) hitboxA, positionA, (CircleHitboxComponent) hitboxB, positionB);
-        if (hitboxA instanceof CircleHitboxComponent && hitboxB instanceof RectangleHitboxComponent) return h_getCollisionAxis((CircleHitboxComponent) hitboxA, positionA, (RectangleHitboxComponent) hitboxB, positionB);
-        if (hitboxA instanceof CircleHitboxComponent && hitboxB instanceof CircleHitboxComponent) return h_getCollisionAxis((CircleHitboxComponent) hitboxA, positionA, (CircleHitboxComponent) hitboxB, positionB);
+        handler = _DISPATCH.getHandler(objA.hitboxComponent.SHAPE, objB.hitboxComponent.SHAPE);
+        if (handler == null) return null;
 
-        return null;
+        return handler.getCollisionAxis(objA, objB);
     }
     @Override
     public A_CollisionData.COLLISION_AXIS getCollisionAxis(ObjectData objA, A_Container container) {
-        A_HitboxComponent hitboxA;
+        I_ShapeHandler handler;
+
+        switch (objA.hitboxComponent.SHAPE) {
+            case HitboxShapes.RECTANGLE -> {
+                return h_getCollisionAxis((RectangleHitboxComponent) objA.hitboxComponent, objA.positionComponent.position, container);
+            }
+            case HitboxShapes.CIRCLE -> {
+                return h_getCollisionAxis((CircleHitboxComponent) objA.hitboxComponent, objA.positionComponent.position, container);
+            }
+        }
 
-        hitboxA = objA.hitboxComponent;
+        handler = _DISPATCH.getHandler(objA.hitboxComponent.SHAPE);
+        if (handler == null) return null;
 
-        if (hitboxA instanceof RectangleHitboxComponent) return h_getCollisionAxis((RectangleHitboxComponent) hitboxA, objA.positionComponent.position, container);
-        if (hitboxA instanceof CircleHitboxComponent) return h_getCollisionAxis((CircleHitboxComponent) hitboxA, objA.positionComponent.position, container);
+        return handler.getCollisionAxis(objA, container);
+    }
 
-        return null;
+    /**
+     * Returns the table the checks are looked up in, to which handlers for new shapes can be registered.
+     * Rectangles and circles are fixed inside of it, as they never reach the table, so registering handlers for them fails.
+     *
+     * @return The dispatch table of this calculator
+     *
+     * @author Tim Kloepper
+     */
+    public ShapeDispatchTable getDispatchTable() {
+        return _DISPATCH;
     }
 
     private A_CollisionData.COLLISION_AXIS h_getCollisionAxis(RectangleHitboxComponent objA, Vector2d posA, RectangleHitboxComponent objB, Vector2d posB) {
@@ -80,9 +126,6 @@ public class AABB_Calculator implements I_CollisionCalculator {
 
         return A_CollisionData.COLLISION_AXIS.Y;
     }
-    private A_CollisionData.COLLISION_AXIS h_getCollisionAxis(CircleHitboxComponent objA, Vector2d posA, RectangleHitboxComponent objB, Vector2d posB) {
-        return h_getCollisionAxis(objB, posB, objA, posA);
-    }
     private A_CollisionData.COLLISION_AXIS h_getCollisionAxis(RectangleHitboxComponent obj, Vector2d pos, A_Container container) {
         if (pos.x < container.getPosition().x || pos.x + obj.width > container.getPosition().x + container.getWidth()) return A_CollisionData.COLLISION_AXIS.Y;
 
@@ -99,42 +142,60 @@ public class AABB_Calculator implements I_CollisionCalculator {
 
     @Override
     public boolean isCollidingWith(ObjectData objA, ObjectData objB) {
-        A_HitboxComponent hitboxA, hitboxB;
-        Vector2d positionA, positionB;
-
-        hitboxA = objA.hitboxComponent;
-        hitboxB = objB.hitboxComponent;
-        positionA = objA.positionComponent.position;
-        positionB = objB.positionComponent.position;
+        I_ShapePairHandler handler;
+        int shapeA, shapeB;
+
+        shapeA = objA.hitboxComponent.SHAPE;
+        shapeB = objB.hitboxComponent.SHAPE;
+
+        if (shapeA == HitboxShapes.RECTANGLE) {
+            if (shapeB == HitboxShapes.RECTANGLE) return h_isColliding((RectangleHitboxComponent) objA.hitboxComponent, objA.positionComponent.position, (RectangleHitboxComponent) objB.hitboxComponent, objB.positionComponent.position);
+            if (shapeB == HitboxShapes.CIRCLE) return h_isColliding((RectangleHitboxComponent) objA.hitboxComponent, objA.positionComponent.position, (CircleHitboxComponent) objB.hitboxComponent, objB.positionComponent.position);
+        } else if (shapeA == HitboxShapes.CIRCLE) {
+            if (shapeB == HitboxShapes.RECTANGLE) return h_isColliding((RectangleHitboxComponent) objB.hitboxComponent, objB.positionComponent.position, (CircleHitboxComponent) objA.hitboxComponent, objA.positionComponent.position);
+            if (shapeB == HitboxShapes.CIRCLE) return h_isColliding((CircleHitboxComponent) objA.hitboxComponent, objA.positionComponent.position, (CircleHitboxComponent) objB.hitboxComponent, objB.positionComponent.position);
+        }
 
-        if (hitboxA instanceof RectangleHitboxComponent && hitboxB instanceof RectangleHitboxComponent) return h_isColliding((RectangleHitboxComponent) hitboxA, positionA, (RectangleHitboxComponent) hitboxB, positionB);
-        if (hitboxA instanceof RectangleHitboxComponent && hitboxB instanceof CircleHitboxComponent) return h_isColliding((RectangleHitboxComponent) hitboxA, positionA, (CircleHitboxComponent) hitboxB, positionB);
-        if (hitboxA instanceof CircleHitboxComponent && hitboxB instanceof RectangleHitboxComponent) return h_isColliding((CircleHitboxComponent) hitboxA, positionA, (RectangleHitboxComponent) hitboxB, positionB);
-        if (hitboxA instanceof CircleHitboxComponent && hitboxB instanceof CircleHitboxComponent) return h_isColliding((CircleHitboxComponent) hitboxA, positionA, (CircleHitboxComponent) hitboxB, positionB);
+        handler = _DISPATCH.getHandler(objA.hitboxComponent.SHAPE, objB.hitboxComponent.SHAPE);
+        if (handler == null) return false;
 
-        return false;
+        return handler.isCollidingWith(objA, objB);
     }
     @Override
     public boolean isCollidingWith(ObjectData objA, A_Container container) {
-        A_HitboxComponent hitboxA;
-
-        hitboxA = objA.hitboxComponent;
+        I_ShapeHandler handler;
+
+        switch (objA.hitboxComponent.SHAPE) {
+            case HitboxShapes.RECTANGLE -> {
+                return h_isColliding((RectangleHitboxComponent) objA.hitboxComponent, objA.positionComponent.position, container);
+            }
+            case HitboxShapes.CIRCLE -> {
+                return h_isColliding((CircleHitboxComponent) objA.hitboxComponent, objA.positionComponent.position, container);
+            }
+        }
 
-        if (hitboxA instanceof RectangleHitboxComponent) return h_isColliding((RectangleHitboxComponent) hitboxA, objA.positionComponent.position, container);
-        if (hitboxA instanceof CircleHitboxComponent) return h_isColliding((CircleHitboxComponent) hitboxA, objA.positionComponent.position, container);
+        handler = _DISPATCH.getHandler(objA.hitboxComponent.SHAPE);
+        if (handler == null) return false;
 
-        return false;
+        return handler.isCollidingWith(objA, container);
     }
     @Override
     public boolean isCollidingWith(ObjectData objA, Vector2d position) {
-        A_HitboxComponent hitboxA;
-
-        hitboxA = objA.hitboxComponent;
+        I_ShapeHandler handler;
+
+        switch (objA.hitboxComponent.SHAPE) {
+            case HitboxShapes.RECTANGLE -> {
+                return h_isColliding((RectangleHitboxComponent) objA.hitboxComponent, objA.positionComponent.position, position);
+            }
+            case HitboxShapes.CIRCLE -> {
+                return h_isColliding((CircleHitboxComponent) objA.hitboxComponent, objA.positionComponent.position, position);
+            }
+        }
 
-        if (hitboxA instanceof RectangleHitboxComponent) return h_isColliding((RectangleHitboxComponent) hitboxA, objA.positionComponent.position, position);
-        if (hitboxA instanceof CircleHitboxComponent) return h_isColliding((CircleHitboxComponent) hitboxA, objA.positionComponent.position, position);
+        handler = _DISPATCH.getHandler(objA.hitboxComponent.SHAPE);
+        if (handler == null) return false;
 
-        return false;
+        return handler.isCollidingWith(objA, position);
     }
 
     public boolean h_isColliding(RectangleHitboxComponent objA, Vector2d posA, RectangleHitboxComponent objB, Vector2d posB) {
@@ -146,16 +207,13 @@ public class AABB_Calculator implements I_CollisionCalculator {
         return xOverlap && yOverlap;
     }
     public boolean h_isColliding(RectangleHitboxComponent objA, Vector2d posA, CircleHitboxComponent objB, Vector2d posB) {
-        Vector2d closestPoint;
-
-        closestPoint = new Vector2d(posB);
+        double closestX, closestY;
 
-        if (closestPoint.x > posA.x + objA.width) closestPoint.x = posA.x + objA.width;
-        else if (closestPoint.x < posA.x) closestPoint.x = posA.x;
-        if (closestPoint.y > posA.y + objA.height) closestPoint.y = posA.y + objA.height;
-        else if (closestPoint.y < posA.y) closestPoint.y = posA.y;
+        // Kept in locals, as the check is not always inlined, which would let the closest point escape.
+        closestX = Math.max(posA.x, Math.min(posB.x, posA.x + objA.width));
+        closestY = Math.max(posA.y, Math.min(posB.y, posA.y + objA.height));
 
-        return posB.distance(closestPoint) <= objB.radius;
+        return posB.distance(closestX, closestY) <= objB.radius;
     }
     public boolean h_isColliding(CircleHitboxComponent objA, Vector2d posA, RectangleHitboxComponent objB, Vector2d posB) {
         return h_isColliding(objB, posB, objA, posA);
@@ -194,16 +252,7 @@ public class AABB_Calculator implements I_CollisionCalculator {
         return xOverlap && yOverlap;
     }
     public boolean h_isColliding(CircleHitboxComponent obj, Vector2d pos, Vector2d otherPosition) {
-        Vector2d closestPoint;
-
-        closestPoint = new Vector2d(pos);
-
-        if (closestPoint.x > otherPosition.x) closestPoint.x = otherPosition.x;
-        else if (closestPoint.x < otherPosition.x) closestPoint.x = otherPosition.x;
-        if (closestPoint.y > otherPosition.y) closestPoint.y = otherPosition.y;
-        else if (closestPoint.y < otherPosition.y) closestPoint.y = otherPosition.y;
-
-        return pos.distance(closestPoint) <= obj.radius;
+        return pos.distance(otherPosition) <= obj.radius;
     }
 
 
@@ -0,0 +1,31 @@
+package internal.entity_component_system.specifics.collision.dependencies.calculator;
+
+
+import internal.entity_component_system.specifics.collision.data.A_CollisionData;
+import internal.entity_component_system.specifics.collision.data.ObjectData;
+import internal.rendering.container.A_Container;
+import org.joml.Vector2d;
+
+
+/**
+ * Checks objects of one specific hitbox shape against containers and points.
+ * Registered inside a {@link ShapeDispatchTable}, which only calls it with objects of the shape it got registered for.
+ *
+ * @author Tim Kloepper
+ * @version 1.0
+ */
+public interface I_ShapeHandler {
+
+
+    // -+- GETTERS -+- //
+
+    A_CollisionData.COLLISION_AXIS getCollisionAxis(ObjectData obj, A_Container container);
+
+
+    // -+- CHECKERS -+- //
+
+    boolean isCollidingWith(ObjectData obj, A_Container container);
+    boolean isCollidingWith(ObjectData obj, Vector2d position);
+
+
+}
@@ -0,0 +1,28 @@
+package internal.entity_component_system.specifics.collision.dependencies.calculator;
+
+
+import internal.entity_component_system.specifics.collision.data.A_CollisionData;
+import internal.entity_component_system.specifics.collision.data.ObjectData;
+
+
+/**
+ * Checks two objects of two specific hitbox shapes against each other.
+ * Registered inside a {@link ShapeDispatchTable}, which only calls it with objects of the shapes it got registered for.
+ *
+ * @author Tim Kloepper
+ * @version 1.0
+ */
+public interface I_ShapePairHandler {
+
+
+    // -+- GETTERS -+- //
+
+    A_CollisionData.COLLISION_AXIS getCollisionAxis(ObjectData objA, ObjectData objB);
+
+
+    // -+- CHECKERS -+- //
+
+    boolean isCollidingWith(ObjectData objA, ObjectData objB);
+
+
+}
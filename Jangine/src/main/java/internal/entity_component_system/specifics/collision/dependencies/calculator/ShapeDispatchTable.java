@@ -0,0 +1,157 @@
+package internal.entity_component_system.specifics.collision.dependencies.calculator;
+
+
+import internal.entity_component_system.specifics.collision.data.A_CollisionData;
+import internal.entity_component_system.specifics.collision.data.ObjectData;
+import internal.entity_component_system.specifics.hitbox.HitboxShapes;
+
+import java.util.Arrays;
+
+
+/**
+ * Maps the shape ids of hitboxes onto the handlers checking them, so a collision calculator
+ * finds the check for a pair of shapes with two array accesses, instead of a chain of type checks. <br>
+ * Registering a pair handler for two different shapes also registers it for the swapped order. <br>
+ * Shapes can be fixed on creation, when their checks are built into the calculator owning the table,
+ * so registering a handler, which would never be called, fails instead of being ignored.
+ *
+ * @author Tim Kloepper
+ * @version 1.0
+ */
+public class ShapeDispatchTable {
+
+
+    // -+- CREATION -+- //
+
+    public ShapeDispatchTable(int... fixedShapes) {
+        _FIXED_SHAPES = fixedShapes.clone();
+
+        _pairHandlers = new I_ShapePairHandler[HitboxShapes.getAmount()][HitboxShapes.getAmount()];
+        _shapeHandlers = new I_ShapeHandler[HitboxShapes.getAmount()];
+    }
+
+
+    // -+- PARAMETERS -+- //
+
+    // FINALS //
+
+    private final int[] _FIXED_SHAPES;
+
+    // NON-FINALS //
+
+    // Indexed by the shape of the first object and then by the shape of the second object.
+    private I_ShapePairHandler[][] _pairHandlers;
+    private I_ShapeHandler[] _shapeHandlers;
+
+
+    // -+- REGISTRATION -+- //
+
+    public void register(int shape, I_ShapeHandler handler) {
+        if (isFixed(shape)) throw new IllegalArgumentException("[SHAPE DISPATCH ERROR] : The checks of fixed shapes can not be replaced!");
+
+        h_ensureCapacity(shape);
+
+        _shapeHandlers[shape] = handler;
+    }
+    public void register(int shapeA, int shapeB, I_ShapePairHandler handler) {
+        if (isFixed(shapeA) && isFixed(shapeB)) throw new IllegalArgumentException("[SHAPE DISPATCH ERROR] : The checks of fixed shapes can not be replaced!");
+
+        h_ensureCapacity(Math.max(shapeA, shapeB));
+
+        _pairHandlers[shapeA][shapeB] = handler;
+
+        if (shapeA != shapeB) _pairHandlers[shapeB][shapeA] = new SwappedPairHandler(handler);
+    }
+
+    private void h_ensureCapacity(int shape) {
+        if (shape < 0) throw new IllegalArgumentException("[SHAPE DISPATCH ERROR] : Shape ids can not be negative!");
+        if (shape < _shapeHandlers.length) return;
+
+        int capacity;
+
+        capacity = Math.max(shape + 1, HitboxShapes.getAmount());
+
+        _shapeHandlers = Arrays.copyOf(_shapeHandlers, capacity);
+        _pairHandlers = Arrays.copyOf(_pairHandlers, capacity);
+
+        for (int index = 0; index < capacity; index++) {
+            if (_pairHandlers[index] == null) _pairHandlers[index] = new I_ShapePairHandler[capacity];
+            else _pairHandlers[index] = Arrays.copyOf(_pairHandlers[index], capacity);
+        }
+    }
+
+
+    // -+- GETTERS -+- //
+
+    /**
+     * Returns the handler registered for the pair of shapes.
+     *
+     * @param shapeA The shape of the first object
+     * @param shapeB The shape of the second object
+     *
+     * @return The handler, or {@code null} if no handler got registered for these shapes, as for {@link HitboxShapes#UNKNOWN}
+     *
+     * @author Tim Kloepper
+     */
+    public I_ShapePairHandler getHandler(int shapeA, int shapeB) {
+        if (shapeA < 0 || shapeB < 0 || shapeA >= _pairHandlers.length || shapeB >= _pairHandlers.length) return null;
+
+        return _pairHandlers[shapeA][shapeB];
+    }
+    public I_ShapeHandler getHandler(int shape) {
+        if (shape < 0 || shape >= _shapeHandlers.length) return null;
+
+        return _shapeHandlers[shape];
+    }
+
+
+    // -+- CHECKERS -+- //
+
+    public boolean isFixed(int shape) {
+        for (int fixedShape : _FIXED_SHAPES) {
+            if (fixedShape == shape) return true;
+        }
+
+        return false;
+    }
+
+
+    // -+- CLASSES -+- //
+
+    private static class SwappedPairHandler implements I_ShapePairHandler {
+
+
+        // -+- CREATION -+- //
+
+        SwappedPairHandler(I_ShapePairHandler handler) {
+            _HANDLER = handler;
+        }
+
+
+        // -+- PARAMETERS -+- //
+
+        // FINALS //
+
+        private final I_ShapePairHandler _HANDLER;
+
+
+        // -+- GETTERS -+- //
+
+        @Override
+        public A_CollisionData.COLLISION_AXIS getCollisionAxis(ObjectData objA, ObjectData objB) {
+            return _HANDLER.getCollisionAxis(objB, objA);
+        }
+
+
+        // -+- CHECKERS -+- //
+
+        @Override
+        public boolean isCollidingWith(ObjectData objA, ObjectData objB) {
+            return _HANDLER.isCollidingWith(objB, objA);
+        }
+
+
+    }
+
+
+}
@@ -0,0 +1,133 @@
+package internal.entity_component_system.specifics.collision.dependencies.spatial_partitioner;
+
+
+import internal.entity_component_system.specifics.collision.data.ObjectData;
+import internal.entity_component_system.specifics.hitbox.A_HitboxComponent;
+import internal.entity_component_system.specifics.hitbox.CircleHitboxComponent;
+import internal.entity_component_system.specifics.hitbox.HitboxShapes;
+import internal.entity_component_system.specifics.hitbox.I_HitboxBounds;
+import internal.entity_component_system.specifics.hitbox.RectangleHitboxComponent;
+
+
+/**
+ * Computes the axis aligned bounding boxes of objects, as used by the spatial partitioners. <br>
+ * Rectangles span from their position to their position plus their size,
+ * while circles are centered on their position. All further shapes use the bounds function they got registered with.
+ *
+ * @author Tim Kloepper
+ * @version 1.0
+ */
+public class BoundsCalculator {
+
+
+    // -+- PARAMETERS -+- //
+
+    // FINALS //
+
+    public static final int MIN_X = 0;
+    public static final int MIN_Y = 1;
+    public static final int MAX_X = 2;
+    public static final int MAX_Y = 3;
+
+    public static final int SIZE = 4;
+
+
+    // -+- CALCULATION -+- //
+
+    /**
+     * Writes the bounding box of the object into the specified array,
+     * in the order {@link BoundsCalculator#MIN_X}, {@link BoundsCalculator#MIN_Y},
+     * {@link BoundsCalculator#MAX_X} and {@link BoundsCalculator#MAX_Y}, starting at the offset. <br>
+     * If the object is swept, the box also covers the bounding box at its previous position.
+     *
+     * @param obj The object whose bounds are to be calculated
+     * @param target The array the bounds are written into
+     * @param offset The index of the minimum x value inside the array
+     *
+     * @return Whether the hitbox of the object is known, if not, the bounds collapse onto the position
+     *
+     * @author Tim Kloepper
+     */
+    public static boolean calculate(ObjectData obj, double[] target, int offset) {
+        boolean known;
+        double minX, minY, maxX, maxY;
+
+        if (!obj.swept) return calculateAt(obj, obj.positionComponent.position.x, obj.positionComponent.position.y, target, offset);
+
+        calculateAt(obj, obj.previousPosition.x, obj.previousPosition.y, target, offset);
+
+        minX = target[offset + MIN_X];
+        minY = target[offset + MIN_Y];
+        maxX = target[offset + MAX_X];
+        maxY = target[offset + MAX_Y];
+
+        known = calculateAt(obj, obj.positionComponent.position.x, obj.positionComponent.position.y, target, offset);
+
+        target[offset + MIN_X] = Math.min(minX, target[offset + MIN_X]);
+        target[offset + MIN_Y] = Math.min(minY, target[offset + MIN_Y]);
+        target[offset + MAX_X] = Math.max(maxX, target[offset + MAX_X]);
+        target[offset + MAX_Y] = Math.max(maxY, target[offset + MAX_Y]);
+
+        return known;
+    }
+    /**
+     * Writes the bounding box, the object would have at the specified position, into the specified array.
+     *
+     * @param obj The object whose bounds are to be calculated
+     * @param x The x coordinate of the position
+     * @param y The y coordinate of the position
+     * @param target The array the bounds are written into
+     * @param offset The index of the minimum x value inside the array
+     *
+     * @return Whether the shape of the hitbox is registered, if not, the bounds collapse onto the position
+     *
+     * @author Tim Kloepper
+     */
+    public static boolean calculateAt(ObjectData obj, double x, double y, double[] target, int offset) {
+        I_HitboxBounds<A_HitboxComponent> bounds;
+
+        // The built in shapes are calculated inline, so the common case stays free of the call through the registered function.
+        switch (obj.hitboxComponent.SHAPE) {
+            case HitboxShapes.RECTANGLE -> {
+                RectangleHitboxComponent rectangle;
+
+                rectangle = (RectangleHitboxComponent) obj.hitboxComponent;
+
+                target[offset + MIN_X] = x;
+                target[offset + MIN_Y] = y;
+                target[offset + MAX_X] = x + rectangle.width;
+                target[offset + MAX_Y] = y + rectangle.height;
+
+                return true;
+            }
+            case HitboxShapes.CIRCLE -> {
+                double radius;
+
+                radius = ((CircleHitboxComponent) obj.hitboxComponent).radius;
+
+                target[offset + MIN_X] = x - radius;
+                target[offset + MIN_Y] = y - radius;
+                target[offset + MAX_X] = x + radius;
+                target[offset + MAX_Y] = y + radius;
+
+                return true;
+            }
+        }
+
+        bounds = HitboxShapes.getBounds(obj.hitboxComponent.SHAPE);
+
+        if (bounds != null) {
+            bounds.calculate(obj.hitboxComponent, x, y, target, offset);
+
+            return true;
+        }
+
+        target[offset + MIN_X] = x;
+        target[offset + MIN_Y] = y;
+        target[offset + MAX_X] = x;
+        target[offset + MAX_Y] = y;
+
+        return false;
+    }
+
+}
@@ -0,0 +1,780 @@
+package internal.entity_component_system.specifics.collision.dependencies.spatial_partitioner;
+
+
+import internal.entity_component_system.specifics.collision.data.ObjectData;
+import internal.rendering.container.A_Container;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.List;
+
+
+/**
+ * A bounding volume hierarchy, which stores every object as a leaf with a fattened bounding box,
+ * just like the dynamic tree of Box2D. <br>
+ * During an update, only objects that left their fat box are removed and inserted again,
+ * so slow moving objects cost nothing but a containment check. Every insertion keeps the tree balanced
+ * through rotations, so looking up the colliding objects of an object takes logarithmic time.
+ * <p></p>
+ * The nodes are stored in parallel primitive arrays and reused through a free list.
+ * Unlike the {@link QuadTree}, the tree is not bound to any area.
+ *
+ * @author Tim Kloepper
+ * @version 1.0
+ */
+public class DynamicAABBTree implements I_SpatialPartitioner {
+
+
+    // -+- CREATION -+- //
+
+    public DynamicAABBTree() {
+        this(DEFAULT_MARGIN);
+    }
+    /**
+     * Creates a tree, whose boxes are fattened by the specified margin on every side.
+     * A bigger margin means fewer reinsertions, but more candidates per look up.
+     *
+     * @param margin The margin, which needs to be at least zero
+     *
+     * @author Tim Kloepper
+     */
+    public DynamicAABBTree(double margin) {
+        if (margin < 0) throw new IllegalArgumentException("[DYNAMIC AABB TREE ERROR] : Margin can not be negative!");
+
+        _MARGIN = margin;
+
+        _PROXIES = new IdentityHashMap<>();
+        _RESULT = new ArrayList<>();
+        _BOUNDS = new double[BoundsCalculator.SIZE];
+        _HITS = new QueryHits();
+
+        _root = NULL;
+        _freeNode = NULL;
+        _capacity = 0;
+
+        _minX = new double[0];
+        _minY = new double[0];
+        _maxX = new double[0];
+        _maxY = new double[0];
+        _parent = new int[0];
+        _left = new int[0];
+        _right = new int[0];
+        _height = new int[0];
+        _objects = new ObjectData[0];
+        _tight = new double[0];
+        _leafSlots = new int[0];
+
+        _leaves = new int[INITIAL_CAPACITY];
+        _leafAmount = 0;
+
+        _stack = new int[INITIAL_CAPACITY];
+
+        h_grow();
+    }
+
+
+    // -+- PARAMETERS -+- //
+
+    // FINALS //
+
+    public static final double DEFAULT_MARGIN = 8;
+
+    private static final int NULL = -1;
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final double _MARGIN;
+
+    // Only used when adding and removing objects, to find their leaf.
+    private final IdentityHashMap<ObjectData, Integer> _PROXIES;
+    // Reused for every look up, is only valid until the next one.
+    private final ArrayList<ObjectData> _RESULT;
+    private final double[] _BOUNDS;
+    private final QueryHits _HITS;
+
+    // NON-FINALS //
+
+    // The fat bounding boxes of all nodes.
+    private double[] _minX, _minY, _maxX, _maxY;
+    // For nodes inside the free list, the parent holds the next free node.
+    private int[] _parent;
+    // Leaves have no children.
+    private int[] _left, _right;
+    private int[] _height;
+    private ObjectData[] _objects;
+    // The exact bounding boxes of all leaves as of the last update, four values per node, see BoundsCalculator.
+    private double[] _tight;
+
+    private int _root;
+    private int _freeNode;
+    private int _capacity;
+
+    // All leaves, packed densely, and the index of every leaf inside this array.
+    private int[] _leaves;
+    private int _leafAmount;
+    private int[] _leafSlots;
+
+    private int[] _stack;
+
+
+    // -+- UPDATE LOOP -+- //
+
+    /**
+     * Reinserts every object, that moved out of its fat box.
+     *
+     * @param container The container of the objects, which is not needed by this partitioner
+     *
+     * @author Tim Kloepper
+     */
+    @Override
+    public void update(A_Container container) {
+        for (int index = 0; index < _leafAmount; index++) {
+            int leaf;
+
+            leaf = _leaves[index];
+
+            BoundsCalculator.calculate(_objects[leaf], _BOUNDS, 0);
+            System.arraycopy(_BOUNDS, 0, _tight, leaf * BoundsCalculator.SIZE, BoundsCalculator.SIZE);
+
+            if (h_contains(leaf, _BOUNDS)) continue;
+
+            h_rmvLeaf(leaf);
+            h_setFatBounds(leaf, _BOUNDS);
+            h_insertLeaf(leaf);
+        }
+    }
+
+
+    // -+- ADDITION AND REMOVAL -+- //
+
+    @Override
+    public void addObject(ObjectData obj) {
+        if (obj == null || _PROXIES.containsKey(obj)) return;
+
+        int leaf;
+
+        leaf = h_allocateNode();
+
+        _objects[leaf] = obj;
+        _height[leaf] = 0;
+
+        BoundsCalculator.calculate(obj, _BOUNDS, 0);
+        System.arraycopy(_BOUNDS, 0, _tight, leaf * BoundsCalculator.SIZE, BoundsCalculator.SIZE);
+        h_setFatBounds(leaf, _BOUNDS);
+        h_insertLeaf(leaf);
+
+        if (_leafAmount == _leaves.length) _leaves = Arrays.copyOf(_leaves, _leafAmount * 2);
+        _leaves[_leafAmount] = leaf;
+        _leafSlots[leaf] = _leafAmount;
+        _leafAmount++;
+
+        _PROXIES.put(obj, leaf);
+    }
+    @Override
+    public void rmvObject(ObjectData obj) {
+        if (obj == null) return;
+
+        Integer proxy;
+        int leaf, slot, lastLeaf;
+
+        proxy = _PROXIES.remove(obj);
+        if (proxy == null) return;
+
+        leaf = proxy;
+
+        h_rmvLeaf(leaf);
+
+        // Move the last leaf into the freed slot.
+        slot = _leafSlots[leaf];
+        lastLeaf = _leaves[--_leafAmount];
+        _leaves[slot] = lastLeaf;
+        _leafSlots[lastLeaf] = slot;
+
+        h_freeNode(leaf);
+    }
+
+
+    // -+- TREE MANAGEMENT -+- //
+
+    private void h_insertLeaf(int leaf) {
+        if (_root == NULL) {
+            _root = leaf;
+            _parent[leaf] = NULL;
+
+            return;
+        }
+
+        int sibling, oldParent, newParent;
+
+        sibling = h_findBestSibling(leaf);
+
+        oldParent = _parent[sibling];
+        newParent = h_allocateNode();
+
+        _parent[newParent] = oldParent;
+        _objects[newParent] = null;
+        _height[newParent] = _height[sibling] + 1;
+        h_setUnion(newParent, leaf, sibling);
+
+        if (oldParent != NULL) {
+            if (_left[oldParent] == sibling) _left[oldParent] = newParent;
+            else _right[oldParent] = newParent;
+        } else {
+            _root = newParent;
+        }
+
+        _left[newParent] = sibling;
+        _right[newParent] = leaf;
+        _parent[sibling] = newParent;
+        _parent[leaf] = newParent;
+
+        h_refitUpwards(_parent[leaf]);
+    }
+    /**
+     * Descends the tree, choosing the child which grows the least by adding the leaf,
+     * measured by the perimeter of the boxes.
+     *
+     * @author Tim Kloepper
+     */
+    private int h_findBestSibling(int leaf) {
+        int index;
+
+        index = _root;
+
+        while (_left[index] != NULL) {
+            int left, right;
+            double perimeter, combinedPerimeter;
+            double cost, inheritedCost, leftCost, rightCost;
+
+            left = _left[index];
+            right = _right[index];
+
+            perimeter = h_getPerimeter(index);
+            combinedPerimeter = h_getUnionPerimeter(index, leaf);
+
+            // Cost of creating a new parent for this node and the leaf.
+            cost = 2 * combinedPerimeter;
+            // Minimum cost of pushing the leaf further down the tree.
+            inheritedCost = 2 * (combinedPerimeter - perimeter);
+
+            leftCost = h_getDescendCost(left, leaf) + inheritedCost;
+            rightCost = h_getDescendCost(right, leaf) + inheritedCost;
+
+            if (cost < leftCost && cost < rightCost) break;
+
+            index = leftCost < rightCost ? left : right;
+        }
+
+        return index;
+    }
+    private double h_getDescendCost(int node, int leaf) {
+        if (_left[node] == NULL) return h_getUnionPerimeter(node, leaf);
+
+        return h_getUnionPerimeter(node, leaf) - h_getPerimeter(node);
+    }
+
+    private void h_rmvLeaf(int leaf) {
+        if (leaf == _root) {
+            _root = NULL;
+
+            return;
+        }
+
+        int parent, grandParent, sibling;
+
+        parent = _parent[leaf];
+        grandParent = _parent[parent];
+        sibling = _left[parent] == leaf ? _right[parent] : _left[parent];
+
+        if (grandParent != NULL) {
+            if (_left[grandParent] == parent) _left[grandParent] = sibling;
+            else _right[grandParent] = sibling;
+
+            _parent[sibling] = grandParent;
+            h_freeNode(parent);
+
+            h_refitUpwards(grandParent);
+        } else {
+            _root = sibling;
+            _parent[sibling] = NULL;
+
+            h_freeNode(parent);
+        }
+    }
+
+    private void h_refitUpwards(int index) {
+        while (index != NULL) {
+            index = h_balance(index);
+
+            _height[index] = 1 + Math.max(_height[_left[index]], _height[_right[index]]);
+            h_setUnion(index, _left[index], _right[index]);
+
+            index = _parent[index];
+        }
+    }
+    /**
+     * Rotates the higher child of the node up, if the heights of its children differ by more than one.
+     *
+     * @param a The node that is to be balanced
+     *
+     * @return The node, that now sits at the place of the specified one
+     *
+     * @author Tim Kloepper
+     */
+    private int h_balance(int a) {
+        if (_left[a] == NULL || _height[a] < 2) return a;
+
+        int b, c;
+        int balance;
+
+        b = _left[a];
+        c = _right[a];
+
+        balance = _height[c] - _height[b];
+
+        if (balance > 1) {
+            int f, g;
+
+            f = _left[c];
+            g = _right[c];
+
+            _left[c] = a;
+            _parent[c] = _parent[a];
+            _parent[a] = c;
+
+            h_replaceChild(_parent[c], a, c);
+
+            if (_height[f] > _height[g]) {
+                _right[c] = f;
+                _right[a] = g;
+                _parent[g] = a;
+
+                h_setUnion(a, b, g);
+                h_setUnion(c, a, f);
+
+                _height[a] = 1 + Math.max(_height[b], _height[g]);
+                _height[c] = 1 + Math.max(_height[a], _height[f]);
+            } else {
+                _right[c] = g;
+                _right[a] = f;
+                _parent[f] = a;
+
+                h_setUnion(a, b, f);
+                h_setUnion(c, a, g);
+
+                _height[a] = 1 + Math.max(_height[b], _height[f]);
+                _height[c] = 1 + Math.max(_height[a], _height[g]);
+            }
+
+            return c;
+        }
+        if (balance < -1) {
+            int d, e;
+
+            d = _left[b];
+            e = _right[b];
+
+            _left[b] = a;
+            _parent[b] = _parent[a];
+            _parent[a] = b;
+
+            h_replaceChild(_parent[b], a, b);
+
+            if (_height[d] > _height[e]) {
+                _right[b] = d;
+                _left[a] = e;
+                _parent[e] = a;
+
+                h_setUnion(a, e, c);
+                h_setUnion(b, a, d);
+
+                _height[a] = 1 + Math.max(_height[c], _height[e]);
+                _height[b] = 1 + Math.max(_height[a], _height[d]);
+            } else {
+                _right[b] = e;
+                _left[a] = d;
+                _parent[d] = a;
+
+                h_setUnion(a, d, c);
+                h_setUnion(b, a, e);
+
+                _height[a] = 1 + Math.max(_height[c], _height[d]);
+                _height[b] = 1 + Math.max(_height[a], _height[e]);
+            }
+
+            return b;
+        }
+
+        return a;
+    }
+    private void h_replaceChild(int parent, int oldChild, int newChild) {
+        if (parent == NULL) {
+            _root = newChild;
+
+            return;
+        }
+
+        if (_left[parent] == oldChild) _left[parent] = newChild;
+        else _right[parent] = newChild;
+    }
+
+
+    // -+- NODE MANAGEMENT -+- //
+
+    private int h_allocateNode() {
+        if (_freeNode == NULL) h_grow();
+
+        int node;
+
+        node = _freeNode;
+        _freeNode = _parent[node];
+
+        _parent[node] = NULL;
+        _left[node] = NULL;
+        _right[node] = NULL;
+
+        return node;
+    }
+    private void h_freeNode(int node) {
+        _objects[node] = null;
+        _height[node] = -1;
+
+        _parent[node] = _freeNode;
+        _freeNode = node;
+    }
+    private void h_grow() {
+        int oldCapacity;
+
+        oldCapacity = _capacity;
+        _capacity = Math.max(INITIAL_CAPACITY, oldCapacity * 2);
+
+        _minX = Arrays.copyOf(_minX, _capacity);
+        _minY = Arrays.copyOf(_minY, _capacity);
+        _maxX = Arrays.copyOf(_maxX, _capacity);
+        _maxY = Arrays.copyOf(_maxY, _capacity);
+        _parent = Arrays.copyOf(_parent, _capacity);
+        _left = Arrays.copyOf(_left, _capacity);
+        _right = Arrays.copyOf(_right, _capacity);
+        _height = Arrays.copyOf(_height, _capacity);
+        _objects = Arrays.copyOf(_objects, _capacity);
+        _tight = Arrays.copyOf(_tight, _capacity * BoundsCalculator.SIZE);
+        _leafSlots = Arrays.copyOf(_leafSlots, _capacity);
+
+        // Link the new nodes into the free list, the lowest one first.
+        for (int node = _capacity - 1; node >= oldCapacity; node--) {
+            _height[node] = -1;
+            _parent[node] = _freeNode;
+            _freeNode = node;
+        }
+    }
+
+
+    // -+- BOUNDS MANAGEMENT -+- //
+
+    private void h_setFatBounds(int node, double[] bounds) {
+        _minX[node] = bounds[BoundsCalculator.MIN_X] - _MARGIN;
+        _minY[node] = bounds[BoundsCalculator.MIN_Y] - _MARGIN;
+        _maxX[node] = bounds[BoundsCalculator.MAX_X] + _MARGIN;
+        _maxY[node] = bounds[BoundsCalculator.MAX_Y] + _MARGIN;
+    }
+    private void h_setUnion(int target, int a, int b) {
+        _minX[target] = Math.min(_minX[a], _minX[b]);
+        _minY[target] = Math.min(_minY[a], _minY[b]);
+        _maxX[target] = Math.max(_maxX[a], _maxX[b]);
+        _maxY[target] = Math.max(_maxY[a], _maxY[b]);
+    }
+
+    private double h_getPerimeter(int node) {
+        return 2 * ((_maxX[node] - _minX[node]) + (_maxY[node] - _minY[node]));
+    }
+    private double h_getUnionPerimeter(int a, int b) {
+        double width, height;
+
+        width = Math.max(_maxX[a], _maxX[b]) - Math.min(_minX[a], _minX[b]);
+        height = Math.max(_maxY[a], _maxY[b]) - Math.min(_minY[a], _minY[b]);
+
+        return 2 * (width + height);
+    }
+
+
+    // -+- QUERIES -+- //
+
+    // All queries descend through the fat boxes and only test the exact bounds of the leaves they reach.
+
+    @Override
+    public int queryPoint(double x, double y, Collection<ObjectData> result) {
+        return queryRect(x, y, x, y, result);
+    }
+    @Override
+    public int queryRect(double minX, double minY, double maxX, double maxY, Collection<ObjectData> result) {
+        int amount, stackSize;
+
+        if (_root == NULL) return 0;
+
+        amount = 0;
+
+        _stack[0] = _root;
+        stackSize = 1;
+
+        while (stackSize > 0) {
+            int node;
+
+            node = _stack[--stackSize];
+
+            if (!SpatialQueries.overlaps(minX, minY, maxX, maxY, _minX[node], _minY[node], _maxX[node], _maxY[node])) continue;
+
+            if (_left[node] == NULL) {
+                int offset;
+
+                offset = node * BoundsCalculator.SIZE;
+
+                if (!SpatialQueries.overlaps(minX, minY, maxX, maxY,
+                        _tight[offset + BoundsCalculator.MIN_X], _tight[offset + BoundsCalculator.MIN_Y],
+                        _tight[offset + BoundsCalculator.MAX_X], _tight[offset + BoundsCalculator.MAX_Y])) continue;
+
+                result.add(_objects[node]);
+                amount++;
+
+                continue;
+            }
+
+            if (stackSize + 2 > _stack.length) _stack = Arrays.copyOf(_stack, _stack.length * 2);
+
+            _stack[stackSize++] = _left[node];
+            _stack[stackSize++] = _right[node];
+        }
+
+        return amount;
+    }
+    @Override
+    public int raycast(double originX, double originY, double directionX, double directionY, double maxDistance, List<ObjectData> result) {
+        double length;
+        int stackSize;
+
+        length = Math.sqrt(directionX * directionX + directionY * directionY);
+        if (length == 0) throw new IllegalArgumentException("[DYNAMIC AABB TREE ERROR] : Direction of a ray can not be zero!");
+
+        if (_root == NULL) return 0;
+
+        directionX /= length;
+        directionY /= length;
+
+        _HITS.reset(Integer.MAX_VALUE);
+
+        _stack[0] = _root;
+        stackSize = 1;
+
+        while (stackSize > 0) {
+            int node;
+
+            node = _stack[--stackSize];
+
+            if (SpatialQueries.intersectRay(originX, originY, directionX, directionY, maxDistance,
+                    _minX[node], _minY[node], _maxX[node], _maxY[node]) == SpatialQueries.NO_HIT) continue;
+
+            if (_left[node] == NULL) {
+                int offset;
+                double distance;
+
+                offset = node * BoundsCalculator.SIZE;
+                distance = SpatialQueries.intersectRay(originX, originY, directionX, directionY, maxDistance,
+                        _tight[offset + BoundsCalculator.MIN_X], _tight[offset + BoundsCalculator.MIN_Y],
+                        _tight[offset + BoundsCalculator.MAX_X], _tight[offset + BoundsCalculator.MAX_Y]);
+
+                if (distance != SpatialQueries.NO_HIT) _HITS.add(_objects[node], distance);
+
+                continue;
+            }
+
+            if (stackSize + 2 > _stack.length) _stack = Arrays.copyOf(_stack, _stack.length * 2);
+
+            _stack[stackSize++] = _left[node];
+            _stack[stackSize++] = _right[node];
+        }
+
+        return _HITS.drainInto(result);
+    }
+    /**
+     * Appends the objects with the closest bounding boxes to the point to the result, ordered by their distance. <br>
+     * The closer child of every node is visited first, so subtrees farther away than the found objects are skipped.
+     *
+     * @param x The x coordinate of the point
+     * @param y The y coordinate of the point
+     * @param amount The maximum amount of objects
+     * @param result The list the objects are appended to
+     *
+     * @return The amount of appended objects
+     *
+     * @author Tim Kloepper
+     */
+    @Override
+    public int queryNearest(double x, double y, int amount, List<ObjectData> result) {
+        int stackSize;
+
+        if (amount <= 0 || _root == NULL) return 0;
+
+        _HITS.reset(amount);
+
+        _stack[0] = _root;
+        stackSize = 1;
+
+        while (stackSize > 0) {
+            int node;
+
+            node = _stack[--stackSize];
+
+            if (h_getDistanceSquared(node, x, y) > _HITS.getMaxDistance()) continue;
+
+            if (_left[node] == NULL) {
+                int offset;
+
+                offset = node * BoundsCalculator.SIZE;
+
+                _HITS.add(_objects[node], SpatialQueries.getDistanceSquared(x, y,
+                        _tight[offset + BoundsCalculator.MIN_X], _tight[offset + BoundsCalculator.MIN_Y],
+                        _tight[offset + BoundsCalculator.MAX_X], _tight[offset + BoundsCalculator.MAX_Y]));
+
+                continue;
+            }
+
+            if (stackSize + 2 > _stack.length) _stack = Arrays.copyOf(_stack, _stack.length * 2);
+
+            // The child pushed last is visited first.
+            if (h_getDistanceSquared(_left[node], x, y) < h_getDistanceSquared(_right[node], x, y)) {
+                _stack[stackSize++] = _right[node];
+                _stack[stackSize++] = _left[node];
+            } else {
+                _stack[stackSize++] = _left[node];
+                _stack[stackSize++] = _right[node];
+            }
+        }
+
+        return _HITS.drainInto(result);
+    }
+    private double h_getDistanceSquared(int node, double x, double y) {
+        return SpatialQueries.getDistanceSquared(x, y, _minX[node], _minY[node], _maxX[node], _maxY[node]);
+    }
+
+
+    // -+- GETTERS -+- //
+
+    /**
+     * Returns all objects, whose fat box overlaps the bounding box of the specified object.
+     * The returned collection is reused, so it is only valid until the next call.
+     *
+     * @param obj The object, whose potential collision partners are requested
+     *
+     * @return The potentially colliding objects, without the object itself
+     *
+     * @author Tim Kloepper
+     */
+    @Override
+    public Collection<ObjectData> getCollidingObjects(ObjectData obj) {
+        int stackSize;
+
+        _RESULT.clear();
+
+        if (_root == NULL) return _RESULT;
+
+        BoundsCalculator.calculate(obj, _BOUNDS, 0);
+
+        _stack[0] = _root;
+        stackSize = 1;
+
+        while (stackSize > 0) {
+            int node;
+
+            node = _stack[--stackSize];
+
+            if (!h_overlaps(node, _BOUNDS)) continue;
+
+            if (_left[node] == NULL) {
+                if (_objects[node] != obj && obj.canCollideWith(_objects[node])) _RESULT.add(_objects[node]);
+
+                continue;
+            }
+
+            if (stackSize + 2 > _stack.length) _stack = Arrays.copyOf(_stack, _stack.length * 2);
+
+            _stack[stackSize++] = _left[node];
+            _stack[stackSize++] = _right[node];
+        }
+
+        return _RESULT;
+    }
+
+    /**
+     * Calls the consumer for every pair of objects, of which the bounding box of one overlaps the fat box of the other.
+     * Every leaf walks the tree with its own bounding box and only reports leaves,
+     * that come after it in the list of leaves, so every pair is reported once.
+     *
+     * @param consumer The consumer receiving the candidate pairs
+     *
+     * @author Tim Kloepper
+     */
+    @Override
+    public void forEachCandidatePair(I_PairConsumer consumer) {
+        if (_root == NULL) return;
+
+        for (int index = 0; index < _leafAmount; index++) {
+            int leaf, stackSize;
+
+            leaf = _leaves[index];
+
+            BoundsCalculator.calculate(_objects[leaf], _BOUNDS, 0);
+
+            _stack[0] = _root;
+            stackSize = 1;
+
+            while (stackSize > 0) {
+                int node;
+
+                node = _stack[--stackSize];
+
+                if (!h_overlaps(node, _BOUNDS)) continue;
+
+                if (_left[node] == NULL) {
+                    if (_leafSlots[node] > index && _objects[leaf].canCollideWith(_objects[node])) consumer.accept(_objects[leaf], _objects[node]);
+
+                    continue;
+                }
+
+                if (stackSize + 2 > _stack.length) _stack = Arrays.copyOf(_stack, _stack.length * 2);
+
+                _stack[stackSize++] = _left[node];
+                _stack[stackSize++] = _right[node];
+            }
+        }
+    }
+
+    public int getObjectAmount() {
+        return _leafAmount;
+    }
+    /**
+     * Returns the height of the tree, a single leaf has a height of zero.
+     *
+     * @return The height, or {@code -1} if the tree is empty
+     *
+     * @author Tim Kloepper
+     */
+    public int getHeight() {
+        if (_root == NULL) return -1;
+
+        return _height[_root];
+    }
+
+
+    // -+- CHECKERS -+- //
+
+    private boolean h_contains(int node, double[] bounds) {
+        return _minX[node] <= bounds[BoundsCalculator.MIN_X] && _minY[node] <= bounds[BoundsCalculator.MIN_Y]
+                && _maxX[node] >= bounds[BoundsCalculator.MAX_X] && _maxY[node] >= bounds[BoundsCalculator.MAX_Y];
+    }
+    private boolean h_overlaps(int node, double[] bounds) {
+        return _minX[node] <= bounds[BoundsCalculator.MAX_X] && _maxX[node] >= bounds[BoundsCalculator.MIN_X]
+                && _minY[node] <= bounds[BoundsCalculator.MAX_Y] && _maxY[node] >= bounds[BoundsCalculator.MIN_Y];
+    }
+
+
+}
@@ -0,0 +1,29 @@
+package internal.entity_component_system.specifics.collision.dependencies.spatial_partitioner;
+
+
+import internal.entity_component_system.specifics.collision.data.ObjectData;
+
+
+/**
+ * Is called by {@link I_SpatialPartitioner#forEachCandidatePair(I_PairConsumer)} for every pair of objects,
+ * that might be colliding.
+ *
+ * @author Tim Kloepper
+ * @version 1.0
+ */
+public interface I_PairConsumer {
+
+
+    /**
+     * Is called once for every unordered pair of potentially colliding objects.
+     * The order of the two objects is not specified.
+     *
+     * @param a The first object of the pair
+     * @param b The second object of the pair
+     *
+     * @author Tim Kloepper
+     */
+    void accept(ObjectData a, ObjectData b);
+
+
+}
@@ -5,6 +5,7 @@ import internal.entity_component_system.specifics.collision.data.ObjectData;
 import internal.rendering.container.A_Container;
 
 import java.util.Collection;
+import java.util.List;
 
 
 public interface I_SpatialPartitioner {
@@ -24,6 +25,76 @@ public interface I_SpatialPartitioner {
     // -+- GETTERS -+- //
 
     Collection<ObjectData> getCollidingObjects(ObjectData obj);
+    /**
+     * Calls the consumer exactly once for every unordered pair of objects, that might be colliding,
+     * based on the state of the last update.
+     * Pairs, which can not collide according to {@link ObjectData#canCollideWith(ObjectData)}, are skipped. <br>
+     * Objects must not be added or removed, while the pairs are enumerated.
+     *
+     * @param consumer The consumer receiving the candidate pairs
+     *
+     * @author Tim Kloepper
+     */
+    void forEachCandidatePair(I_PairConsumer consumer);
+
+
+    // -+- QUERIES -+- //
+
+    /**
+     * Adds every object, whose bounding box contains the point, to the result.
+     *
+     * @param x The x coordinate of the point
+     * @param y The y coordinate of the point
+     * @param result The collection the objects are added to
+     *
+     * @return The amount of added objects
+     *
+     * @author Tim Kloepper
+     */
+    int queryPoint(double x, double y, Collection<ObjectData> result);
+    /**
+     * Adds every object, whose bounding box overlaps the rectangle, to the result.
+     *
+     * @param minX The minimum x value of the rectangle
+     * @param minY The minimum y value of the rectangle
+     * @param maxX The maximum x value of the rectangle
+     * @param maxY The maximum y value of the rectangle
+     * @param result The collection the objects are added to
+     *
+     * @return The amount of added objects
+     *
+     * @author Tim Kloepper
+     */
+    int queryRect(double minX, double minY, double maxX, double maxY, Collection<ObjectData> result);
+    /**
+     * Appends every object, whose bounding box is hit by the ray, to the result, ordered by the distance of the hit.
+     * The first appended object is the one blocking the line of sight.
+     *
+     * @param originX The x coordinate of the origin of the ray
+     * @param originY The y coordinate of the origin of the ray
+     * @param directionX The x value of the direction of the ray, which does not need to be normalized
+     * @param directionY The y value of the direction of the ray
+     * @param maxDistance The length of the ray
+     * @param result The list the objects are appended to
+     *
+     * @return The amount of appended objects
+     *
+     * @author Tim Kloepper
+     */
+    int raycast(double originX, double originY, double directionX, double directionY, double maxDistance, List<ObjectData> result);
+    /**
+     * Appends the objects with the closest bounding boxes to the point to the result, ordered by their distance.
+     *
+     * @param x The x coordinate of the point
+     * @param y The y coordinate of the point
+     * @param amount The maximum amount of objects
+     * @param result The list the objects are appended to
+     *
+     * @return The amount of appended objects
+     *
+     * @author Tim Kloepper
+     */
+    int queryNearest(double x, double y, int amount, List<ObjectData> result);
 
 
 }
\ No newline at end of file
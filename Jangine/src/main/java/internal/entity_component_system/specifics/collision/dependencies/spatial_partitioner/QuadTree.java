@@ -2,11 +2,10 @@ package internal.entity_component_system.specifics.collision.dependencies.spatia
 
 
 import internal.entity_component_system.specifics.collision.data.ObjectData;
-import internal.entity_component_system.specifics.hitbox.CircleHitboxComponent;
-import internal.entity_component_system.specifics.hitbox.RectangleHitboxComponent;
 import internal.rendering.container.A_Container;
 import org.joml.Vector2d;
 
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashSet;
 import java.util.List;
@@ -21,6 +20,15 @@ public class QuadTree implements I_SpatialPartitioner {
     public QuadTree(Vector2d position, double width, double height) {
         _OBJECTS = new HashSet<>();
         _LEAFS = new HashSet<>();
+        _VISITED = new HashSet<>();
+        _HITS = new QueryHits();
+        _BOUNDS = new double[BoundsCalculator.SIZE];
+
+        _MIN_X = position.x;
+        _MIN_Y = position.y;
+
+        _leafObjects = new ObjectData[SPLITTING_THRESHOLD * 4];
+        _leafBounds = new double[SPLITTING_THRESHOLD * 4 * BoundsCalculator.SIZE];
 
         _ROOT = new Node(this::onLeafCreated, this::onLeafRemoved, new NodePool(this::onLeafCreated, this::onLeafRemoved));
         _ROOT.init(List.of(), position, width, height);
@@ -32,12 +40,26 @@ public class QuadTree implements I_SpatialPartitioner {
     // FINALS //
 
     public static final int SPLITTING_THRESHOLD = 4;
+    // Overlapping objects share every leaf, so without a lower bound they would keep their node splitting forever.
+    public static final double MIN_NODE_SIZE = 8;
 
     private final HashSet<ObjectData> _OBJECTS;
     private final HashSet<Node> _LEAFS;
 
+    // Reused by the queries, so objects inside multiple leaves are only reported once.
+    private final HashSet<ObjectData> _VISITED;
+    private final QueryHits _HITS;
+    private final double[] _BOUNDS;
+
+    private final double _MIN_X, _MIN_Y;
     private final Node _ROOT;
 
+    // NON-FINALS //
+
+    // Reused by the pair enumeration, holds the objects of the current leaf and their bounds.
+    private ObjectData[] _leafObjects;
+    private double[] _leafBounds;
+
 
     // -+- UPDATE LOOP -+- //
 
@@ -97,6 +119,230 @@ public class QuadTree implements I_SpatialPartitioner {
 
         return result;
     }
+    /**
+     * Calls the consumer for every pair of objects sharing a leaf, whose bounds overlap. <br>
+     * The pairs are enumerated leaf by leaf. A pair sharing multiple leaves is only reported by the leaf holding
+     * the minimum corner of the overlap of both bounds, moved into the area of the tree,
+     * so every pair is reported once, without remembering the reported pairs.
+     *
+     * @param consumer The consumer receiving the candidate pairs
+     *
+     * @author Tim Kloepper
+     */
+    @Override
+    public void forEachCandidatePair(I_PairConsumer consumer) {
+        h_forEachCandidatePair(_ROOT, consumer);
+    }
+    private void h_forEachCandidatePair(Node node, I_PairConsumer consumer) {
+        int size;
+
+        if (!node.isLeaf()) {
+            for (int index = 0; index < 4; index++) h_forEachCandidatePair(node.getChild(index), consumer);
+
+            return;
+        }
+
+        size = h_gatherLeaf(node);
+
+        for (int first = 0; first < size; first++) {
+            int offsetA;
+
+            offsetA = first * BoundsCalculator.SIZE;
+
+            for (int second = first + 1; second < size; second++) {
+                int offsetB;
+                double cornerX, cornerY;
+
+                offsetB = second * BoundsCalculator.SIZE;
+
+                if (!SpatialQueries.overlaps(
+                        _leafBounds[offsetA + BoundsCalculator.MIN_X], _leafBounds[offsetA + BoundsCalculator.MIN_Y],
+                        _leafBounds[offsetA + BoundsCalculator.MAX_X], _leafBounds[offsetA + BoundsCalculator.MAX_Y],
+                        _leafBounds[offsetB + BoundsCalculator.MIN_X], _leafBounds[offsetB + BoundsCalculator.MIN_Y],
+                        _leafBounds[offsetB + BoundsCalculator.MAX_X], _leafBounds[offsetB + BoundsCalculator.MAX_Y])) continue;
+
+                // Objects may reach beyond the tree, while their overlap inside of it is what they share a leaf through.
+                cornerX = Math.max(Math.max(_leafBounds[offsetA + BoundsCalculator.MIN_X], _leafBounds[offsetB + BoundsCalculator.MIN_X]), _MIN_X);
+                cornerY = Math.max(Math.max(_leafBounds[offsetA + BoundsCalculator.MIN_Y], _leafBounds[offsetB + BoundsCalculator.MIN_Y]), _MIN_Y);
+
+                if (!node.containsPoint(cornerX, cornerY)) continue;
+                if (!_leafObjects[first].canCollideWith(_leafObjects[second])) continue;
+
+                consumer.accept(_leafObjects[first], _leafObjects[second]);
+            }
+        }
+
+        // Drop the references, so removed objects can be collected.
+        Arrays.fill(_leafObjects, 0, size, null);
+    }
+    /**
+     * Copies the objects of the leaf, which are still part of the tree, together with their bounds into the reused arrays.
+     *
+     * @return The amount of copied objects
+     *
+     * @author Tim Kloepper
+     */
+    private int h_gatherLeaf(Node leaf) {
+        int size;
+
+        if (leaf.p_OBJECTS.size() > _leafObjects.length) {
+            _leafObjects = new ObjectData[leaf.p_OBJECTS.size() * 2];
+            _leafBounds = new double[_leafObjects.length * BoundsCalculator.SIZE];
+        }
+
+        size = 0;
+
+        for (ObjectData obj : leaf.p_OBJECTS) {
+            // Leaves may still hold objects, that got removed from the tree.
+            if (!_OBJECTS.contains(obj)) continue;
+
+            _leafObjects[size] = obj;
+            BoundsCalculator.calculate(obj, _leafBounds, size * BoundsCalculator.SIZE);
+
+            size++;
+        }
+
+        return size;
+    }
+
+
+
+    // -+- QUERIES -+- //
+
+    // All queries only descend into the nodes they touch and compute the bounds of the objects inside the reached leaves.
+
+    @Override
+    public int queryPoint(double x, double y, Collection<ObjectData> result) {
+        return queryRect(x, y, x, y, result);
+    }
+    @Override
+    public int queryRect(double minX, double minY, double maxX, double maxY, Collection<ObjectData> result) {
+        int amount;
+
+        _VISITED.clear();
+
+        amount = h_queryRect(_ROOT, minX, minY, maxX, maxY, result);
+
+        _VISITED.clear();
+
+        return amount;
+    }
+    private int h_queryRect(Node node, double minX, double minY, double maxX, double maxY, Collection<ObjectData> result) {
+        int amount;
+
+        if (!node.overlaps(minX, minY, maxX, maxY)) return 0;
+
+        amount = 0;
+
+        if (!node.isLeaf()) {
+            for (int index = 0; index < 4; index++) amount += h_queryRect(node.getChild(index), minX, minY, maxX, maxY, result);
+
+            return amount;
+        }
+
+        for (ObjectData obj : node.p_OBJECTS) {
+            if (!h_visit(obj)) continue;
+
+            BoundsCalculator.calculate(obj, _BOUNDS, 0);
+
+            if (!SpatialQueries.overlaps(minX, minY, maxX, maxY,
+                    _BOUNDS[BoundsCalculator.MIN_X], _BOUNDS[BoundsCalculator.MIN_Y],
+                    _BOUNDS[BoundsCalculator.MAX_X], _BOUNDS[BoundsCalculator.MAX_Y])) continue;
+
+            result.add(obj);
+            amount++;
+        }
+
+        return amount;
+    }
+    @Override
+    public int raycast(double originX, double originY, double directionX, double directionY, double maxDistance, List<ObjectData> result) {
+        double length;
+
+        length = Math.sqrt(directionX * directionX + directionY * directionY);
+        if (length == 0) throw new IllegalArgumentException("[QUAD TREE ERROR] : Direction of a ray can not be zero!");
+
+        _VISITED.clear();
+        _HITS.reset(Integer.MAX_VALUE);
+
+        h_raycast(_ROOT, originX, originY, directionX / length, directionY / length, maxDistance);
+
+        _VISITED.clear();
+
+        return _HITS.drainInto(result);
+    }
+    private void h_raycast(Node node, double originX, double originY, double directionX, double directionY, double maxDistance) {
+        if (node.intersectRay(originX, originY, directionX, directionY, maxDistance) == SpatialQueries.NO_HIT) return;
+
+        if (!node.isLeaf()) {
+            for (int index = 0; index < 4; index++) h_raycast(node.getChild(index), originX, originY, directionX, directionY, maxDistance);
+
+            return;
+        }
+
+        for (ObjectData obj : node.p_OBJECTS) {
+            double distance;
+
+            if (!h_visit(obj)) continue;
+
+            BoundsCalculator.calculate(obj, _BOUNDS, 0);
+
+            distance = SpatialQueries.intersectRay(originX, originY, directionX, directionY, maxDistance,
+                    _BOUNDS[BoundsCalculator.MIN_X], _BOUNDS[BoundsCalculator.MIN_Y],
+                    _BOUNDS[BoundsCalculator.MAX_X], _BOUNDS[BoundsCalculator.MAX_Y]);
+
+            if (distance != SpatialQueries.NO_HIT) _HITS.add(obj, distance);
+        }
+    }
+    /**
+     * Appends the objects with the closest bounding boxes to the point to the result, ordered by their distance. <br>
+     * Nodes farther away than the farthest object found are skipped, objects outside the area of the tree are not found.
+     *
+     * @param x The x coordinate of the point
+     * @param y The y coordinate of the point
+     * @param amount The maximum amount of objects
+     * @param result The list the objects are appended to
+     *
+     * @return The amount of appended objects
+     *
+     * @author Tim Kloepper
+     */
+    @Override
+    public int queryNearest(double x, double y, int amount, List<ObjectData> result) {
+        if (amount <= 0) return 0;
+
+        _VISITED.clear();
+        _HITS.reset(amount);
+
+        h_queryNearest(_ROOT, x, y);
+
+        _VISITED.clear();
+
+        return _HITS.drainInto(result);
+    }
+    private void h_queryNearest(Node node, double x, double y) {
+        if (node.getDistanceSquared(x, y) > _HITS.getMaxDistance()) return;
+
+        if (!node.isLeaf()) {
+            for (int index = 0; index < 4; index++) h_queryNearest(node.getChild(index), x, y);
+
+            return;
+        }
+
+        for (ObjectData obj : node.p_OBJECTS) {
+            if (!h_visit(obj)) continue;
+
+            BoundsCalculator.calculate(obj, _BOUNDS, 0);
+
+            _HITS.add(obj, SpatialQueries.getDistanceSquared(x, y,
+                    _BOUNDS[BoundsCalculator.MIN_X], _BOUNDS[BoundsCalculator.MIN_Y],
+                    _BOUNDS[BoundsCalculator.MAX_X], _BOUNDS[BoundsCalculator.MAX_Y]));
+        }
+    }
+    private boolean h_visit(ObjectData obj) {
+        // Leaves may still hold objects, that got removed from the tree.
+        return _OBJECTS.contains(obj) && _VISITED.add(obj);
+    }
 
 
 }
@@ -112,6 +358,7 @@ class Node {
         _ADD_OBJECTS = new HashSet<>();
         _RMV_OBJECTS = new HashSet<>();
         _NODES = new Node[4];
+        _BOUNDS = new double[BoundsCalculator.SIZE];
 
         _LEAF_CREATED_CALLBACK = leafCreatedCallback;
         _LEAF_REMOVED_CALLBACK = leafRemovedCallback;
@@ -147,6 +394,7 @@ class Node {
     private final HashSet<ObjectData> _ADD_OBJECTS;
     private final HashSet<ObjectData> _RMV_OBJECTS;
     private final Node[] _NODES;
+    private final double[] _BOUNDS;
 
     private final NodePool _POOL;
 
@@ -194,8 +442,20 @@ class Node {
         p_OBJECTS.addAll(_ADD_OBJECTS);
         p_OBJECTS.removeAll(_RMV_OBJECTS);
 
-        if (_isLeaf) _tryToCreateChildren();
-        else _tryToRemoveChildren();
+        // Otherwise objects, that once left this node, would be removed again, whenever they come back.
+        _ADD_OBJECTS.clear();
+        _RMV_OBJECTS.clear();
+
+        if (!_isLeaf) {
+            // The children apply their changes first, so they get merged with the objects they hold after this update.
+            for (Node child : _NODES) child.p_applyChanges();
+
+            _tryToRemoveChildren();
+
+            return;
+        }
+
+        _tryToCreateChildren();
 
         if (_NODES[0] == null) return;
         for (Node child : _NODES) child.p_applyChanges();
@@ -212,6 +472,8 @@ class Node {
         halvedWidth = _width / 2;
         halvedHeight = _height / 2;
 
+        if (halvedWidth < QuadTree.MIN_NODE_SIZE || halvedHeight < QuadTree.MIN_NODE_SIZE) return;
+
         _NODES[0] = _POOL.request(p_OBJECTS, new Vector2d(_position), halvedWidth, halvedHeight);
         _NODES[1] = _POOL.request(p_OBJECTS, new Vector2d(_position.x, _position.y + halvedHeight), halvedWidth, halvedHeight);
         _NODES[2] = _POOL.request(p_OBJECTS, new Vector2d(_position.x + halvedWidth, _position.y), halvedWidth, halvedHeight);
@@ -221,7 +483,12 @@ class Node {
     }
     private void _tryToRemoveChildren() {
         if (_isLeaf) return;
-        if (!_NODES[0]._isLeaf) return;
+
+        for (Node child : _NODES) {
+            if (!child._isLeaf) return;
+        }
+
+        p_OBJECTS.clear();
 
         for (Node child : _NODES) {
             p_OBJECTS.addAll(child.p_OBJECTS);
@@ -273,29 +540,52 @@ class Node {
 
         _RMV_OBJECTS.add(obj);
     }
+    // Pooled nodes must not keep changes, which were queued before they were given back.
+    protected void p_clear() {
+        p_OBJECTS.clear();
+        _ADD_OBJECTS.clear();
+        _RMV_OBJECTS.clear();
+    }
+
+
+    // -+- GETTERS -+- //
+
+    public Node getChild(int index) {
+        return _NODES[index];
+    }
+    public double getDistanceSquared(double x, double y) {
+        return SpatialQueries.getDistanceSquared(x, y, _position.x, _position.y, _position.x + _width, _position.y + _height);
+    }
+    public double intersectRay(double originX, double originY, double directionX, double directionY, double maxDistance) {
+        return SpatialQueries.intersectRay(originX, originY, directionX, directionY, maxDistance,
+                _position.x, _position.y, _position.x + _width, _position.y + _height);
+    }
 
 
     // -+- CHECKERS -+- //
 
+    /**
+     * Checks whether the point lies inside of this node, including its minimum edges, but not its maximum edges,
+     * so every point inside the tree lies inside of exactly one leaf.
+     *
+     * @author Tim Kloepper
+     */
+    public boolean containsPoint(double x, double y) {
+        return x >= _position.x && x < _position.x + _width && y >= _position.y && y < _position.y + _height;
+    }
+    public boolean overlaps(double minX, double minY, double maxX, double maxY) {
+        return SpatialQueries.overlaps(minX, minY, maxX, maxY, _position.x, _position.y, _position.x + _width, _position.y + _height);
+    }
     public boolean isLeaf() {
         return _isLeaf;
     }
 
     public boolean containsPos(ObjectData obj) {
-        boolean xOverlap, yOverlap;
-
-        xOverlap = false;
-        yOverlap = false;
-
-        if (obj.hitboxComponent instanceof RectangleHitboxComponent) {
-            xOverlap = obj.positionComponent.position.x < _position.x + _width && obj.positionComponent.position.x + ((RectangleHitboxComponent) obj.hitboxComponent).width > _position.x;
-            yOverlap = obj.positionComponent.position.y < _position.y + _height && obj.positionComponent.position.y + ((RectangleHitboxComponent) obj.hitboxComponent).height > _position.y;
-        } else if (obj.hitboxComponent instanceof CircleHitboxComponent) {
-            xOverlap = obj.positionComponent.position.x - ((CircleHitboxComponent) obj.hitboxComponent).radius < _position.x + _width && obj.positionComponent.position.x + ((CircleHitboxComponent) obj.hitboxComponent).radius > _position.x;
-            yOverlap = obj.positionComponent.position.y - ((CircleHitboxComponent) obj.hitboxComponent).radius < _position.y + _height && obj.positionComponent.position.y + ((CircleHitboxComponent) obj.hitboxComponent).radius > _position.y;
-        }
+        // Swept objects cover their whole way, so they share a leaf with everything they passed during the update.
+        BoundsCalculator.calculate(obj, _BOUNDS, 0);
 
-        return xOverlap && yOverlap;
+        return _BOUNDS[BoundsCalculator.MIN_X] < _position.x + _width && _BOUNDS[BoundsCalculator.MAX_X] > _position.x
+                && _BOUNDS[BoundsCalculator.MIN_Y] < _position.y + _height && _BOUNDS[BoundsCalculator.MAX_Y] > _position.y;
     }
     public boolean containsRef(int entity) {
         for (ObjectData objectData : p_OBJECTS) {
@@ -348,7 +638,7 @@ class NodePool {
         return node;
     }
     public void giveBack(Node node) {
-        node.p_OBJECTS.clear();
+        node.p_clear();
 
         _NODES.add(node);
     }
@@ -0,0 +1,129 @@
+package internal.entity_component_system.specifics.collision.dependencies.spatial_partitioner;
+
+
+import internal.entity_component_system.specifics.collision.data.ObjectData;
+
+import java.util.Arrays;
+import java.util.List;
+
+
+/**
+ * Collects the hits of a ray or nearest neighbour query, sorted by their distance.
+ * Optionally, only the closest hits up to a limit are kept. <br>
+ * Reused by the partitioners, so queries do not allocate.
+ *
+ * @author Tim Kloepper
+ * @version 1.0
+ */
+class QueryHits {
+
+
+    // -+- CREATION -+- //
+
+    QueryHits() {
+        _objects = new ObjectData[INITIAL_CAPACITY];
+        _distances = new double[INITIAL_CAPACITY];
+
+        _size = 0;
+        _limit = Integer.MAX_VALUE;
+    }
+
+
+    // -+- PARAMETERS -+- //
+
+    // FINALS //
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    // NON-FINALS //
+
+    private ObjectData[] _objects;
+    private double[] _distances;
+
+    private int _size;
+    private int _limit;
+
+
+    // -+- MANAGEMENT -+- //
+
+    void reset(int limit) {
+        _size = 0;
+        _limit = limit;
+    }
+    /**
+     * Inserts the hit at its place by distance, dropping the farthest hit, if the limit is reached.
+     *
+     * @param object The object that got hit
+     * @param distance The distance of the hit, or any value growing with it
+     *
+     * @author Tim Kloepper
+     */
+    void add(ObjectData object, double distance) {
+        int index;
+
+        if (_size == _limit) {
+            if (distance >= _distances[_size - 1]) return;
+
+            _size--;
+        }
+
+        if (_size == _objects.length) {
+            _objects = Arrays.copyOf(_objects, _size * 2);
+            _distances = Arrays.copyOf(_distances, _size * 2);
+        }
+
+        // Hits mostly arrive in no particular order, but are few, so an insertion is cheap.
+        index = _size;
+        while (index > 0 && _distances[index - 1] > distance) {
+            _objects[index] = _objects[index - 1];
+            _distances[index] = _distances[index - 1];
+            index--;
+        }
+
+        _objects[index] = object;
+        _distances[index] = distance;
+
+        _size++;
+    }
+    /**
+     * Appends all hits in order of their distance to the list and empties this collection.
+     *
+     * @param result The list the hits are appended to
+     *
+     * @return The amount of appended hits
+     *
+     * @author Tim Kloepper
+     */
+    int drainInto(List<ObjectData> result) {
+        int amount;
+
+        amount = _size;
+
+        for (int index = 0; index < _size; index++) {
+            result.add(_objects[index]);
+            _objects[index] = null;
+        }
+
+        _size = 0;
+
+        return amount;
+    }
+
+
+    // -+- GETTERS -+- //
+
+    /**
+     * Returns the distance a new hit has to stay below, to be kept.
+     *
+     * @return The distance of the farthest hit, if the limit is reached, otherwise infinity
+     *
+     * @author Tim Kloepper
+     */
+    double getMaxDistance() {
+        if (_size < _limit) return Double.POSITIVE_INFINITY;
+
+        return _distances[_size - 1];
+    }
+
+
+}
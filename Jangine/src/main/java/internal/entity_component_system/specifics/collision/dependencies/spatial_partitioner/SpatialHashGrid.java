@@ -0,0 +1,735 @@
+package internal.entity_component_system.specifics.collision.dependencies.spatial_partitioner;
+
+
+import internal.entity_component_system.specifics.collision.data.ObjectData;
+import internal.rendering.container.A_Container;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.List;
+
+
+/**
+ * A uniform grid of square cells, which only exist while objects overlap them. <br>
+ * The coordinates of a cell are packed into a long key, which is looked up inside an open addressing table,
+ * so the grid is not bound to any area. Every cell holds the dense indices of its objects inside an int array.
+ * <p></p>
+ * The grid is rebuilt with one pass over all objects per update, reusing the table and the cell arrays,
+ * which makes it a good fit for many objects of similar size.
+ * The cell size should be about the size of the typical object, as larger objects are written into every cell they overlap.
+ * Cell coordinates are clamped to {@link SpatialHashGrid#CELL_LIMIT}, so objects farther out share the outermost cells,
+ * which keeps the results correct, but turns the look ups around them into linear scans.
+ *
+ * @author Tim Kloepper
+ * @version 1.0
+ */
+public class SpatialHashGrid implements I_SpatialPartitioner {
+
+
+    // -+- CREATION -+- //
+
+    public SpatialHashGrid(double cellSize) {
+        if (cellSize <= 0) throw new IllegalArgumentException("[SPATIAL HASH GRID ERROR] : Cell size has to be positive!");
+
+        _CELL_SIZE = cellSize;
+        _INDICES = new IdentityHashMap<>();
+        _RESULT = new ArrayList<>();
+        _EMPTY = List.of();
+        _HITS = new QueryHits();
+
+        _objects = new ObjectData[INITIAL_CAPACITY];
+        _bounds = new double[INITIAL_CAPACITY * BoundsCalculator.SIZE];
+        _stamps = new int[INITIAL_CAPACITY];
+        _size = 0;
+
+        _keys = new long[INITIAL_TABLE_CAPACITY];
+        _slots = new int[INITIAL_TABLE_CAPACITY];
+        Arrays.fill(_slots, -1);
+
+        _cells = new int[INITIAL_CAPACITY][];
+        _cellKeys = new long[INITIAL_CAPACITY];
+        _cellSizes = new int[INITIAL_CAPACITY];
+        _cellAmount = 0;
+
+        _stamp = 0;
+        _dirty = false;
+    }
+
+
+    // -+- PARAMETERS -+- //
+
+    // FINALS //
+
+    // Keeps the cell coordinates, and the distances between them, away from the overflow of an int.
+    public static final int CELL_LIMIT = 1 << 29;
+
+    private static final int INITIAL_CAPACITY = 64;
+    private static final int INITIAL_TABLE_CAPACITY = 128;
+    private static final int INITIAL_CELL_CAPACITY = 4;
+
+    private final double _CELL_SIZE;
+
+    // Only used when adding and removing objects and for look ups.
+    private final IdentityHashMap<ObjectData, Integer> _INDICES;
+    private final ArrayList<ObjectData> _RESULT;
+    private final List<ObjectData> _EMPTY;
+    private final QueryHits _HITS;
+
+    // NON-FINALS //
+
+    // Every object has a dense index, which also is its index inside the other object arrays.
+    private ObjectData[] _objects;
+    private double[] _bounds;
+    // The last look up that saw an object, so objects sharing multiple cells are only reported once.
+    private int[] _stamps;
+    private int _size;
+
+    // Open addressing table, mapping the packed cell coordinates onto the index of the cell, -1 marks empty slots.
+    private long[] _keys;
+    private int[] _slots;
+
+    // The dense object indices of every cell. The arrays are kept between updates and only their sizes get reset.
+    private int[][] _cells;
+    private long[] _cellKeys;
+    private int[] _cellSizes;
+    private int _cellAmount;
+    // The range of all occupied cells, which bounds the walks of the queries.
+    private int _minCellX, _minCellY, _maxCellX, _maxCellY;
+
+    private int _stamp;
+    private boolean _dirty;
+
+
+    // -+- UPDATE LOOP -+- //
+
+    /**
+     * Rebuilds the grid, by writing every object into all cells its bounds overlap.
+     *
+     * @param container The container of the objects, which is not needed by this partitioner
+     *
+     * @author Tim Kloepper
+     */
+    @Override
+    public void update(A_Container container) {
+        h_clear();
+        _dirty = false;
+
+        _minCellX = Integer.MAX_VALUE;
+        _minCellY = Integer.MAX_VALUE;
+        _maxCellX = Integer.MIN_VALUE;
+        _maxCellY = Integer.MIN_VALUE;
+
+        for (int index = 0; index < _size; index++) {
+            int offset;
+            int minCellX, minCellY, maxCellX, maxCellY;
+
+            offset = index * BoundsCalculator.SIZE;
+
+            BoundsCalculator.calculate(_objects[index], _bounds, offset);
+
+            minCellX = h_toCell(_bounds[offset + BoundsCalculator.MIN_X]);
+            minCellY = h_toCell(_bounds[offset + BoundsCalculator.MIN_Y]);
+            maxCellX = h_toCell(_bounds[offset + BoundsCalculator.MAX_X]);
+            maxCellY = h_toCell(_bounds[offset + BoundsCalculator.MAX_Y]);
+
+            _minCellX = Math.min(_minCellX, minCellX);
+            _minCellY = Math.min(_minCellY, minCellY);
+            _maxCellX = Math.max(_maxCellX, maxCellX);
+            _maxCellY = Math.max(_maxCellY, maxCellY);
+
+            for (int cellX = minCellX; cellX <= maxCellX; cellX++) {
+                for (int cellY = minCellY; cellY <= maxCellY; cellY++) h_insert(h_getOrCreateCell(h_pack(cellX, cellY)), index);
+            }
+        }
+    }
+
+    /**
+     * Empties all cells and the table, without releasing any of their arrays.
+     *
+     * @author Tim Kloepper
+     */
+    private void h_clear() {
+        // The table is kept at most half full, so clearing it is linear in the amount of cells at the peak.
+        if (_cellAmount > 0) Arrays.fill(_slots, -1);
+
+        for (int cell = 0; cell < _cellAmount; cell++) _cellSizes[cell] = 0;
+
+        _cellAmount = 0;
+    }
+    private void h_insert(int cell, int index) {
+        int[] objects;
+
+        objects = _cells[cell];
+
+        if (_cellSizes[cell] == objects.length) {
+            objects = Arrays.copyOf(objects, objects.length * 2);
+            _cells[cell] = objects;
+        }
+
+        objects[_cellSizes[cell]++] = index;
+    }
+
+
+    // -+- CELL MANAGEMENT -+- //
+
+    private int h_getOrCreateCell(long key) {
+        int mask, slot;
+
+        // Keep the table at most half full, so probe sequences stay short.
+        if ((_cellAmount + 1) * 2 > _keys.length) h_growTable();
+
+        mask = _keys.length - 1;
+        slot = h_hash(key) & mask;
+
+        while (_slots[slot] != -1) {
+            if (_keys[slot] == key) return _slots[slot];
+
+            slot = (slot + 1) & mask;
+        }
+
+        if (_cellAmount == _cells.length) {
+            _cells = Arrays.copyOf(_cells, _cellAmount * 2);
+            _cellKeys = Arrays.copyOf(_cellKeys, _cellAmount * 2);
+            _cellSizes = Arrays.copyOf(_cellSizes, _cellAmount * 2);
+        }
+        if (_cells[_cellAmount] == null) _cells[_cellAmount] = new int[INITIAL_CELL_CAPACITY];
+
+        _keys[slot] = key;
+        _slots[slot] = _cellAmount;
+        _cellKeys[_cellAmount] = key;
+
+        return _cellAmount++;
+    }
+    private int h_findCell(long key) {
+        int mask, slot;
+
+        mask = _keys.length - 1;
+        slot = h_hash(key) & mask;
+
+        while (_slots[slot] != -1) {
+            if (_keys[slot] == key) return _slots[slot];
+
+            slot = (slot + 1) & mask;
+        }
+
+        return -1;
+    }
+    private void h_growTable() {
+        long[] keys;
+        int[] slots;
+        int mask;
+
+        keys = _keys;
+        slots = _slots;
+
+        _keys = new long[keys.length * 2];
+        _slots = new int[keys.length * 2];
+        Arrays.fill(_slots, -1);
+
+        mask = _keys.length - 1;
+
+        for (int index = 0; index < keys.length; index++) {
+            int slot;
+
+            if (slots[index] == -1) continue;
+
+            slot = h_hash(keys[index]) & mask;
+            while (_slots[slot] != -1) slot = (slot + 1) & mask;
+
+            _keys[slot] = keys[index];
+            _slots[slot] = slots[index];
+        }
+    }
+
+    private int h_toCell(double coordinate) {
+        return (int) Math.max(-CELL_LIMIT, Math.min(CELL_LIMIT, Math.floor(coordinate / _CELL_SIZE)));
+    }
+    // The outermost cells reach on to infinity, as they hold everything beyond the limit.
+    private double h_getLowerEdge(int cell) {
+        return cell == -CELL_LIMIT ? Double.NEGATIVE_INFINITY : cell * _CELL_SIZE;
+    }
+    private double h_getUpperEdge(int cell) {
+        return cell == CELL_LIMIT ? Double.POSITIVE_INFINITY : (cell + 1) * _CELL_SIZE;
+    }
+    private static long h_pack(int cellX, int cellY) {
+        return ((long) cellX << 32) | (cellY & 0xFFFFFFFFL);
+    }
+    private static int h_hash(long key) {
+        key *= 0x9E3779B97F4A7C15L;
+
+        return (int) (key ^ (key >>> 32));
+    }
+
+
+    // -+- ADDITION AND REMOVAL -+- //
+
+    @Override
+    public void addObject(ObjectData obj) {
+        if (obj == null || _INDICES.containsKey(obj)) return;
+
+        if (_size == _objects.length) {
+            _objects = Arrays.copyOf(_objects, _size * 2);
+            _bounds = Arrays.copyOf(_bounds, _size * 2 * BoundsCalculator.SIZE);
+            _stamps = Arrays.copyOf(_stamps, _size * 2);
+        }
+
+        _objects[_size] = obj;
+        _stamps[_size] = 0;
+
+        // Only written into the cells with the next update.
+        BoundsCalculator.calculate(obj, _bounds, _size * BoundsCalculator.SIZE);
+
+        _INDICES.put(obj, _size);
+        _size++;
+    }
+    /**
+     * Removes the object, by moving the last object into its dense index.
+     * The cells are outdated afterward, so the next look up rebuilds the grid, if no update happened in the meantime.
+     *
+     * @param obj The object that is to be removed
+     *
+     * @author Tim Kloepper
+     */
+    @Override
+    public void rmvObject(ObjectData obj) {
+        if (obj == null) return;
+
+        Integer removed;
+        int index, last;
+
+        removed = _INDICES.remove(obj);
+        if (removed == null) return;
+
+        index = removed;
+        last = _size - 1;
+
+        if (index != last) {
+            _objects[index] = _objects[last];
+            _stamps[index] = _stamps[last];
+            System.arraycopy(_bounds, last * BoundsCalculator.SIZE, _bounds, index * BoundsCalculator.SIZE, BoundsCalculator.SIZE);
+
+            _INDICES.put(_objects[index], index);
+        }
+
+        _objects[last] = null;
+        _size--;
+
+        // The cells still hold the old indices.
+        _dirty = true;
+    }
+
+
+    // -+- QUERIES -+- //
+
+    // All queries work on the cells of the last update, so objects added since then are not found.
+
+    @Override
+    public int queryPoint(double x, double y, Collection<ObjectData> result) {
+        int cell, amount;
+        int[] objects;
+
+        if (_dirty) update(null);
+
+        cell = h_findCell(h_pack(h_toCell(x), h_toCell(y)));
+        if (cell == -1) return 0;
+
+        objects = _cells[cell];
+        amount = 0;
+
+        for (int position = 0; position < _cellSizes[cell]; position++) {
+            int offset;
+
+            offset = objects[position] * BoundsCalculator.SIZE;
+
+            if (!SpatialQueries.containsPoint(x, y,
+                    _bounds[offset + BoundsCalculator.MIN_X], _bounds[offset + BoundsCalculator.MIN_Y],
+                    _bounds[offset + BoundsCalculator.MAX_X], _bounds[offset + BoundsCalculator.MAX_Y])) continue;
+
+            result.add(_objects[objects[position]]);
+            amount++;
+        }
+
+        return amount;
+    }
+    /**
+     * Adds every object, whose bounding box overlaps the rectangle, to the result. <br>
+     * Only the occupied cells inside the rectangle are visited, unless there are more of them than objects,
+     * in which case all objects are tested directly.
+     *
+     * @param minX The minimum x value of the rectangle
+     * @param minY The minimum y value of the rectangle
+     * @param maxX The maximum x value of the rectangle
+     * @param maxY The maximum y value of the rectangle
+     * @param result The collection the objects are added to
+     *
+     * @return The amount of added objects
+     *
+     * @author Tim Kloepper
+     */
+    @Override
+    public int queryRect(double minX, double minY, double maxX, double maxY, Collection<ObjectData> result) {
+        int minCellX, minCellY, maxCellX, maxCellY;
+        int amount;
+
+        if (_dirty) update(null);
+        if (_cellAmount == 0) return 0;
+
+        minCellX = Math.max(h_toCell(minX), _minCellX);
+        minCellY = Math.max(h_toCell(minY), _minCellY);
+        maxCellX = Math.min(h_toCell(maxX), _maxCellX);
+        maxCellY = Math.min(h_toCell(maxY), _maxCellY);
+
+        if (minCellX > maxCellX || minCellY > maxCellY) return 0;
+
+        amount = 0;
+
+        if ((long) (maxCellX - minCellX + 1) * (maxCellY - minCellY + 1) > _size) {
+            for (int index = 0; index < _size; index++) {
+                if (!h_isOverlapping(index * BoundsCalculator.SIZE, minX, minY, maxX, maxY)) continue;
+
+                result.add(_objects[index]);
+                amount++;
+            }
+
+            return amount;
+        }
+
+        _stamp++;
+
+        for (int cellX = minCellX; cellX <= maxCellX; cellX++) {
+            for (int cellY = minCellY; cellY <= maxCellY; cellY++) {
+                int cell;
+                int[] objects;
+
+                cell = h_findCell(h_pack(cellX, cellY));
+                if (cell == -1) continue;
+
+                objects = _cells[cell];
+
+                for (int position = 0; position < _cellSizes[cell]; position++) {
+                    int other;
+
+                    other = objects[position];
+                    if (_stamps[other] == _stamp) continue;
+
+                    _stamps[other] = _stamp;
+
+                    if (!h_isOverlapping(other * BoundsCalculator.SIZE, minX, minY, maxX, maxY)) continue;
+
+                    result.add(_objects[other]);
+                    amount++;
+                }
+            }
+        }
+
+        return amount;
+    }
+    /**
+     * Appends every object, whose bounding box is hit by the ray, to the result, ordered by the distance of the hit. <br>
+     * The ray walks from cell to cell, starting where it enters the occupied cells
+     * and stopping at its end or once it left the occupied cells.
+     *
+     * @param originX The x coordinate of the origin of the ray
+     * @param originY The y coordinate of the origin of the ray
+     * @param directionX The x value of the direction of the ray, which does not need to be normalized
+     * @param directionY The y value of the direction of the ray
+     * @param maxDistance The length of the ray
+     * @param result The list the objects are appended to
+     *
+     * @return The amount of appended objects
+     *
+     * @author Tim Kloepper
+     */
+    @Override
+    public int raycast(double originX, double originY, double directionX, double directionY, double maxDistance, List<ObjectData> result) {
+        double length, distance;
+        int cellX, cellY, stepX, stepY;
+        double nextX, nextY, deltaX, deltaY;
+
+        length = Math.sqrt(directionX * directionX + directionY * directionY);
+        if (length == 0) throw new IllegalArgumentException("[SPATIAL HASH GRID ERROR] : Direction of a ray can not be zero!");
+
+        if (_dirty) update(null);
+        if (_cellAmount == 0) return 0;
+
+        directionX /= length;
+        directionY /= length;
+
+        distance = SpatialQueries.intersectRay(originX, originY, directionX, directionY, maxDistance,
+                h_getLowerEdge(_minCellX), h_getLowerEdge(_minCellY), h_getUpperEdge(_maxCellX), h_getUpperEdge(_maxCellY));
+        if (distance == SpatialQueries.NO_HIT) return 0;
+
+        cellX = h_toCell(originX + directionX * distance);
+        cellY = h_toCell(originY + directionY * distance);
+
+        stepX = (int) Math.signum(directionX);
+        stepY = (int) Math.signum(directionY);
+
+        // The distances along the ray, at which it crosses the next cell border of each axis.
+        nextX = stepX == 0 ? Double.POSITIVE_INFINITY : ((cellX + (stepX > 0 ? 1 : 0)) * _CELL_SIZE - originX) / directionX;
+        nextY = stepY == 0 ? Double.POSITIVE_INFINITY : ((cellY + (stepY > 0 ? 1 : 0)) * _CELL_SIZE - originY) / directionY;
+        deltaX = stepX == 0 ? Double.POSITIVE_INFINITY : _CELL_SIZE / Math.abs(directionX);
+        deltaY = stepY == 0 ? Double.POSITIVE_INFINITY : _CELL_SIZE / Math.abs(directionY);
+
+        _HITS.reset(Integer.MAX_VALUE);
+        _stamp++;
+
+        while (distance <= maxDistance) {
+            if ((cellX > _maxCellX && stepX >= 0) || (cellX < _minCellX && stepX <= 0)) break;
+            if ((cellY > _maxCellY && stepY >= 0) || (cellY < _minCellY && stepY <= 0)) break;
+
+            h_raycastCell(h_findCell(h_pack(cellX, cellY)), originX, originY, directionX, directionY, maxDistance);
+
+            if (nextX < nextY) {
+                distance = nextX;
+                nextX += deltaX;
+                cellX += stepX;
+            } else {
+                distance = nextY;
+                nextY += deltaY;
+                cellY += stepY;
+            }
+        }
+
+        return _HITS.drainInto(result);
+    }
+    private void h_raycastCell(int cell, double originX, double originY, double directionX, double directionY, double maxDistance) {
+        int[] objects;
+
+        if (cell == -1) return;
+
+        objects = _cells[cell];
+
+        for (int position = 0; position < _cellSizes[cell]; position++) {
+            int other, offset;
+            double distance;
+
+            other = objects[position];
+            if (_stamps[other] == _stamp) continue;
+
+            _stamps[other] = _stamp;
+
+            offset = other * BoundsCalculator.SIZE;
+            distance = SpatialQueries.intersectRay(originX, originY, directionX, directionY, maxDistance,
+                    _bounds[offset + BoundsCalculator.MIN_X], _bounds[offset + BoundsCalculator.MIN_Y],
+                    _bounds[offset + BoundsCalculator.MAX_X], _bounds[offset + BoundsCalculator.MAX_Y]);
+
+            if (distance != SpatialQueries.NO_HIT) _HITS.add(_objects[other], distance);
+        }
+    }
+    /**
+     * Appends the objects with the closest bounding boxes to the point to the result, ordered by their distance. <br>
+     * The cells are searched in growing rings around the cell of the point,
+     * until no unvisited cell can be closer than the farthest object found.
+     *
+     * @param x The x coordinate of the point
+     * @param y The y coordinate of the point
+     * @param amount The maximum amount of objects
+     * @param result The list the objects are appended to
+     *
+     * @return The amount of appended objects
+     *
+     * @author Tim Kloepper
+     */
+    @Override
+    public int queryNearest(double x, double y, int amount, List<ObjectData> result) {
+        int centerX, centerY;
+        int ring, lastRing;
+
+        if (amount <= 0) return 0;
+
+        if (_dirty) update(null);
+        if (_cellAmount == 0) return 0;
+
+        centerX = h_toCell(x);
+        centerY = h_toCell(y);
+
+        // Rings closer than the occupied cells are empty and rings beyond all of them do not need to be searched.
+        ring = Math.max(Math.max(0, Math.max(_minCellX - centerX, centerX - _maxCellX)), Math.max(_minCellY - centerY, centerY - _maxCellY));
+        lastRing = Math.max(Math.max(centerX - _minCellX, _maxCellX - centerX), Math.max(centerY - _minCellY, _maxCellY - centerY));
+
+        _HITS.reset(amount);
+        _stamp++;
+
+        for (; ring <= lastRing; ring++) {
+            double reach;
+
+            // Every cell of this ring is at least this far away from the point.
+            reach = Math.max(0, ring - 1) * _CELL_SIZE;
+            if (reach * reach > _HITS.getMaxDistance()) break;
+
+            for (int cellX = Math.max(centerX - ring, _minCellX); cellX <= Math.min(centerX + ring, _maxCellX); cellX++) {
+                // Only the left and right column cover the whole height of the ring.
+                if (cellX == centerX - ring || cellX == centerX + ring) {
+                    for (int cellY = Math.max(centerY - ring, _minCellY); cellY <= Math.min(centerY + ring, _maxCellY); cellY++) {
+                        h_queryNearestCell(h_findCell(h_pack(cellX, cellY)), x, y);
+                    }
+
+                    continue;
+                }
+
+                if (centerY - ring >= _minCellY) h_queryNearestCell(h_findCell(h_pack(cellX, centerY - ring)), x, y);
+                if (centerY + ring <= _maxCellY) h_queryNearestCell(h_findCell(h_pack(cellX, centerY + ring)), x, y);
+            }
+        }
+
+        return _HITS.drainInto(result);
+    }
+    private void h_queryNearestCell(int cell, double x, double y) {
+        int[] objects;
+
+        if (cell == -1) return;
+
+        objects = _cells[cell];
+
+        for (int position = 0; position < _cellSizes[cell]; position++) {
+            int other, offset;
+
+            other = objects[position];
+            if (_stamps[other] == _stamp) continue;
+
+            _stamps[other] = _stamp;
+
+            offset = other * BoundsCalculator.SIZE;
+
+            _HITS.add(_objects[other], SpatialQueries.getDistanceSquared(x, y,
+                    _bounds[offset + BoundsCalculator.MIN_X], _bounds[offset + BoundsCalculator.MIN_Y],
+                    _bounds[offset + BoundsCalculator.MAX_X], _bounds[offset + BoundsCalculator.MAX_Y]));
+        }
+    }
+
+
+    // -+- GETTERS -+- //
+
+    /**
+     * Returns the objects sharing a cell with the specified object, whose bounds overlap its bounds.
+     * The returned collection is owned by this partitioner and only valid until the next look up.
+     *
+     * @param obj The object, whose potential collision partners are requested
+     *
+     * @return The potentially colliding objects, without the object itself
+     *
+     * @author Tim Kloepper
+     */
+    @Override
+    public Collection<ObjectData> getCollidingObjects(ObjectData obj) {
+        Integer found;
+        int index, offset;
+        int minCellX, minCellY, maxCellX, maxCellY;
+
+        found = _INDICES.get(obj);
+        if (found == null) return _EMPTY;
+
+        if (_dirty) update(null);
+
+        index = found;
+        offset = index * BoundsCalculator.SIZE;
+
+        _RESULT.clear();
+
+        // The stamp wraps after about four billion look ups, which only could cause a stale object to be skipped.
+        _stamp++;
+        _stamps[index] = _stamp;
+
+        minCellX = h_toCell(_bounds[offset + BoundsCalculator.MIN_X]);
+        minCellY = h_toCell(_bounds[offset + BoundsCalculator.MIN_Y]);
+        maxCellX = h_toCell(_bounds[offset + BoundsCalculator.MAX_X]);
+        maxCellY = h_toCell(_bounds[offset + BoundsCalculator.MAX_Y]);
+
+        for (int cellX = minCellX; cellX <= maxCellX; cellX++) {
+            for (int cellY = minCellY; cellY <= maxCellY; cellY++) {
+                int cell;
+                int[] objects;
+
+                cell = h_findCell(h_pack(cellX, cellY));
+                if (cell == -1) continue;
+
+                objects = _cells[cell];
+
+                for (int position = 0; position < _cellSizes[cell]; position++) {
+                    int other;
+
+                    other = objects[position];
+                    if (_stamps[other] == _stamp) continue;
+
+                    _stamps[other] = _stamp;
+
+                    if (!obj.canCollideWith(_objects[other])) continue;
+                    if (h_isOverlapping(offset, other * BoundsCalculator.SIZE)) _RESULT.add(_objects[other]);
+                }
+            }
+        }
+
+        return _RESULT;
+    }
+    /**
+     * Calls the consumer for every pair of objects sharing a cell, whose bounds overlap. <br>
+     * A pair sharing multiple cells is only reported by the cell holding the minimum corner of the overlap of both bounds,
+     * so every pair is reported once, without remembering the reported pairs.
+     *
+     * @param consumer The consumer receiving the candidate pairs
+     *
+     * @author Tim Kloepper
+     */
+    @Override
+    public void forEachCandidatePair(I_PairConsumer consumer) {
+        if (_dirty) update(null);
+
+        for (int cell = 0; cell < _cellAmount; cell++) {
+            int[] objects;
+            int size;
+
+            objects = _cells[cell];
+            size = _cellSizes[cell];
+
+            for (int first = 0; first < size; first++) {
+                int offsetA;
+
+                offsetA = objects[first] * BoundsCalculator.SIZE;
+
+                for (int second = first + 1; second < size; second++) {
+                    int offsetB;
+                    double cornerX, cornerY;
+
+                    offsetB = objects[second] * BoundsCalculator.SIZE;
+
+                    if (!h_isOverlapping(offsetA, offsetB)) continue;
+
+                    cornerX = Math.max(_bounds[offsetA + BoundsCalculator.MIN_X], _bounds[offsetB + BoundsCalculator.MIN_X]);
+                    cornerY = Math.max(_bounds[offsetA + BoundsCalculator.MIN_Y], _bounds[offsetB + BoundsCalculator.MIN_Y]);
+
+                    if (h_pack(h_toCell(cornerX), h_toCell(cornerY)) != _cellKeys[cell]) continue;
+                    if (!_objects[objects[first]].canCollideWith(_objects[objects[second]])) continue;
+
+                    consumer.accept(_objects[objects[first]], _objects[objects[second]]);
+                }
+            }
+        }
+    }
+    private boolean h_isOverlapping(int offsetA, int offsetB) {
+        if (_bounds[offsetA + BoundsCalculator.MAX_X] < _bounds[offsetB + BoundsCalculator.MIN_X]) return false;
+        if (_bounds[offsetB + BoundsCalculator.MAX_X] < _bounds[offsetA + BoundsCalculator.MIN_X]) return false;
+        if (_bounds[offsetA + BoundsCalculator.MAX_Y] < _bounds[offsetB + BoundsCalculator.MIN_Y]) return false;
+
+        return _bounds[offsetB + BoundsCalculator.MAX_Y] >= _bounds[offsetA + BoundsCalculator.MIN_Y];
+    }
+    private boolean h_isOverlapping(int offset, double minX, double minY, double maxX, double maxY) {
+        return SpatialQueries.overlaps(minX, minY, maxX, maxY,
+                _bounds[offset + BoundsCalculator.MIN_X], _bounds[offset + BoundsCalculator.MIN_Y],
+                _bounds[offset + BoundsCalculator.MAX_X], _bounds[offset + BoundsCalculator.MAX_Y]);
+    }
+
+    public double getCellSize() {
+        return _CELL_SIZE;
+    }
+    public int getObjectAmount() {
+        return _size;
+    }
+    public int getCellAmount() {
+        return _cellAmount;
+    }
+
+
+}
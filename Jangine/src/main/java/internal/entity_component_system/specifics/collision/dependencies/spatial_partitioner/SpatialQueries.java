@@ -0,0 +1,110 @@
+package internal.entity_component_system.specifics.collision.dependencies.spatial_partitioner;
+
+
+/**
+ * Holds the geometry shared by the queries of all spatial partitioners,
+ * which test rays and points against axis aligned boxes.
+ *
+ * @author Tim Kloepper
+ * @version 1.0
+ */
+public class SpatialQueries {
+
+
+    // -+- PARAMETERS -+- //
+
+    // FINALS //
+
+    public static final double NO_HIT = -1;
+
+
+    // -+- CALCULATION -+- //
+
+    /**
+     * Returns the distance along the ray, at which it enters the box.
+     *
+     * @param originX The x coordinate of the origin of the ray
+     * @param originY The y coordinate of the origin of the ray
+     * @param directionX The x value of the normalized direction of the ray
+     * @param directionY The y value of the normalized direction of the ray
+     * @param maxDistance The length of the ray
+     * @param minX The minimum x value of the box
+     * @param minY The minimum y value of the box
+     * @param maxX The maximum x value of the box
+     * @param maxY The maximum y value of the box
+     *
+     * @return The distance, zero if the origin lies inside the box, or {@link SpatialQueries#NO_HIT}
+     *
+     * @author Tim Kloepper
+     */
+    public static double intersectRay(double originX, double originY, double directionX, double directionY, double maxDistance,
+                                      double minX, double minY, double maxX, double maxY) {
+        double entry, exit;
+
+        entry = 0;
+        exit = maxDistance;
+
+        // A ray parallel to an axis only hits, if its origin lies between both sides.
+        if (directionX == 0) {
+            if (originX < minX || originX > maxX) return NO_HIT;
+        } else {
+            double first, second;
+
+            first = (minX - originX) / directionX;
+            second = (maxX - originX) / directionX;
+
+            entry = Math.max(entry, Math.min(first, second));
+            exit = Math.min(exit, Math.max(first, second));
+        }
+
+        if (directionY == 0) {
+            if (originY < minY || originY > maxY) return NO_HIT;
+        } else {
+            double first, second;
+
+            first = (minY - originY) / directionY;
+            second = (maxY - originY) / directionY;
+
+            entry = Math.max(entry, Math.min(first, second));
+            exit = Math.min(exit, Math.max(first, second));
+        }
+
+        if (entry > exit) return NO_HIT;
+
+        return entry;
+    }
+    /**
+     * Returns the squared distance between the point and the closest point of the box.
+     *
+     * @param x The x coordinate of the point
+     * @param y The y coordinate of the point
+     * @param minX The minimum x value of the box
+     * @param minY The minimum y value of the box
+     * @param maxX The maximum x value of the box
+     * @param maxY The maximum y value of the box
+     *
+     * @return The squared distance, zero if the point lies inside the box
+     *
+     * @author Tim Kloepper
+     */
+    public static double getDistanceSquared(double x, double y, double minX, double minY, double maxX, double maxY) {
+        double distanceX, distanceY;
+
+        distanceX = Math.max(Math.max(minX - x, 0), x - maxX);
+        distanceY = Math.max(Math.max(minY - y, 0), y - maxY);
+
+        return distanceX * distanceX + distanceY * distanceY;
+    }
+
+
+    // -+- CHECKERS -+- //
+
+    public static boolean containsPoint(double x, double y, double minX, double minY, double maxX, double maxY) {
+        return x >= minX && x <= maxX && y >= minY && y <= maxY;
+    }
+    public static boolean overlaps(double minX, double minY, double maxX, double maxY, double otherMinX, double otherMinY, double otherMaxX, double otherMaxY) {
+        return minX <= otherMaxX && maxX >= otherMinX && minY <= otherMaxY && maxY >= otherMinY;
+    }
+
+
+}
@@ -0,0 +1,405 @@
+package internal.entity_component_system.specifics.collision.dependencies.spatial_partitioner;
+
+
+import internal.entity_component_system.specifics.collision.data.ObjectData;
+import internal.rendering.container.A_Container;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+
+
+/**
+ * A sort and sweep broadphase, which keeps all objects sorted by the left edge of their bounding box. <br>
+ * As objects barely move between frames, the order is repaired with an insertion sort, which is close to linear
+ * for almost sorted input. Afterward, a single sweep along the x axis finds every pair of overlapping boxes,
+ * so the pairs are computed once per update instead of once per look up.
+ * The candidates of single objects are only gathered from these pairs, once they are requested.
+ * <p></p>
+ * The partitioner is not bound to any area, which makes it a good fit for wide levels.
+ *
+ * @author Tim Kloepper
+ * @version 1.0
+ */
+public class SweepAndPrune implements I_SpatialPartitioner {
+
+
+    // -+- CREATION -+- //
+
+    public SweepAndPrune() {
+        _INDICES = new IdentityHashMap<>();
+        _EMPTY = List.of();
+        _HITS = new QueryHits();
+        _CANDIDATES = new ArrayList<>(INITIAL_CAPACITY);
+
+        _objects = new ObjectData[INITIAL_CAPACITY];
+        _bounds = new double[INITIAL_CAPACITY * BoundsCalculator.SIZE];
+        _order = new int[INITIAL_CAPACITY];
+
+        _pairs = new ObjectData[INITIAL_CAPACITY * 2];
+        _pairAmount = 0;
+
+        _size = 0;
+        _candidatesGathered = true;
+        _sorted = true;
+        _removedSinceUpdate = false;
+    }
+
+
+    // -+- PARAMETERS -+- //
+
+    // FINALS //
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    // Only used when adding and removing objects and for look ups.
+    private final IdentityHashMap<ObjectData, Integer> _INDICES;
+    private final List<ObjectData> _EMPTY;
+    private final QueryHits _HITS;
+    // The candidates of every object by its dense index, which get cleared, but not released, when they are gathered.
+    private final ArrayList<ArrayList<ObjectData>> _CANDIDATES;
+
+    // NON-FINALS //
+
+    // Every object has a dense index, which also is its index inside the other arrays.
+    private ObjectData[] _objects;
+    // The bounds of every object, as four values per object, see BoundsCalculator.
+    private double[] _bounds;
+
+    // The dense indices, sorted by the minimum x value of their bounds.
+    private int[] _order;
+
+    // The overlapping pairs of the last update, two objects per pair.
+    private ObjectData[] _pairs;
+    private int _pairAmount;
+
+    private int _size;
+    private boolean _candidatesGathered;
+    private boolean _sorted;
+    // Whether the pairs of the last update may hold objects, which got removed since then.
+    private boolean _removedSinceUpdate;
+
+
+    // -+- UPDATE LOOP -+- //
+
+    /**
+     * Recomputes the bounds of all objects, restores the order and sweeps for overlapping pairs.
+     *
+     * @param container The container of the objects, which is not needed by this partitioner
+     *
+     * @author Tim Kloepper
+     */
+    @Override
+    public void update(A_Container container) {
+        for (int index = 0; index < _size; index++) BoundsCalculator.calculate(_objects[index], _bounds, index * BoundsCalculator.SIZE);
+
+        h_sort();
+        h_sweep();
+
+        _sorted = true;
+        _removedSinceUpdate = false;
+
+        _candidatesGathered = false;
+    }
+
+    /**
+     * Insertion sort over the order, which only does a few swaps,
+     * if the objects did not move much since the last update.
+     *
+     * @author Tim Kloepper
+     */
+    private void h_sort() {
+        for (int index = 1; index < _size; index++) {
+            int current;
+            double key;
+            int position;
+
+            current = _order[index];
+            key = _bounds[current * BoundsCalculator.SIZE + BoundsCalculator.MIN_X];
+            position = index - 1;
+
+            while (position >= 0 && _bounds[_order[position] * BoundsCalculator.SIZE + BoundsCalculator.MIN_X] > key) {
+                _order[position + 1] = _order[position];
+                position--;
+            }
+
+            _order[position + 1] = current;
+        }
+    }
+    private void h_sweep() {
+        // Drop the references of the last update.
+        Arrays.fill(_pairs, 0, _pairAmount * 2, null);
+        _pairAmount = 0;
+
+        for (int index = 0; index < _size; index++) {
+            int a, offsetA;
+            double maxX;
+
+            a = _order[index];
+            offsetA = a * BoundsCalculator.SIZE;
+            maxX = _bounds[offsetA + BoundsCalculator.MAX_X];
+
+            // Every following object starts further right, so the sweep can stop at the first one starting behind this one.
+            for (int next = index + 1; next < _size; next++) {
+                int b, offsetB;
+
+                b = _order[next];
+                offsetB = b * BoundsCalculator.SIZE;
+
+                if (_bounds[offsetB + BoundsCalculator.MIN_X] > maxX) break;
+
+                if (_bounds[offsetB + BoundsCalculator.MIN_Y] > _bounds[offsetA + BoundsCalculator.MAX_Y]) continue;
+                if (_bounds[offsetB + BoundsCalculator.MAX_Y] < _bounds[offsetA + BoundsCalculator.MIN_Y]) continue;
+                if (!_objects[a].canCollideWith(_objects[b])) continue;
+
+                h_addPair(_objects[a], _objects[b]);
+            }
+        }
+    }
+    private void h_addPair(ObjectData a, ObjectData b) {
+        if (_pairAmount * 2 == _pairs.length) _pairs = Arrays.copyOf(_pairs, _pairs.length * 2);
+
+        _pairs[_pairAmount * 2] = a;
+        _pairs[_pairAmount * 2 + 1] = b;
+
+        _pairAmount++;
+    }
+    private void h_gatherCandidates() {
+        for (int index = 0; index < _size; index++) _CANDIDATES.get(index).clear();
+
+        for (int pair = 0; pair < _pairAmount; pair++) {
+            Integer a, b;
+
+            a = _INDICES.get(_pairs[pair * 2]);
+            b = _INDICES.get(_pairs[pair * 2 + 1]);
+
+            // One of both got removed since the last update.
+            if (a == null || b == null) continue;
+
+            _CANDIDATES.get(a).add(_pairs[pair * 2 + 1]);
+            _CANDIDATES.get(b).add(_pairs[pair * 2]);
+        }
+
+        _candidatesGathered = true;
+    }
+
+
+    // -+- ADDITION AND REMOVAL -+- //
+
+    @Override
+    public void addObject(ObjectData obj) {
+        if (obj == null || _INDICES.containsKey(obj)) return;
+
+        if (_size == _objects.length) h_grow();
+
+        _objects[_size] = obj;
+        if (_CANDIDATES.size() == _size) _CANDIDATES.add(new ArrayList<>());
+        _CANDIDATES.get(_size).clear();
+
+        BoundsCalculator.calculate(obj, _bounds, _size * BoundsCalculator.SIZE);
+
+        // Appended at the end, the next insertion sort moves it to its place.
+        _order[_size] = _size;
+
+        _INDICES.put(obj, _size);
+        _size++;
+
+        _sorted = false;
+    }
+    @Override
+    public void rmvObject(ObjectData obj) {
+        if (obj == null) return;
+
+        Integer removed;
+        int index, last;
+
+        removed = _INDICES.remove(obj);
+        if (removed == null) return;
+
+        index = removed;
+        last = _size - 1;
+
+        h_rmvFromOrder(index, last);
+
+        // Move the last object into the freed index.
+        if (index != last) {
+            _objects[index] = _objects[last];
+            System.arraycopy(_bounds, last * BoundsCalculator.SIZE, _bounds, index * BoundsCalculator.SIZE, BoundsCalculator.SIZE);
+
+            // Swap the lists, so both stay reusable.
+            Collections.swap(_CANDIDATES, index, last);
+
+            _INDICES.put(_objects[index], index);
+        }
+
+        _objects[last] = null;
+        _CANDIDATES.get(last).clear();
+
+        _size--;
+        _removedSinceUpdate = true;
+    }
+    private void h_rmvFromOrder(int index, int last) {
+        int write;
+
+        write = 0;
+
+        for (int read = 0; read < _size; read++) {
+            int current;
+
+            current = _order[read];
+            if (current == index) continue;
+
+            // The last object takes over the removed index.
+            _order[write++] = current == last ? index : current;
+        }
+    }
+
+    private void h_grow() {
+        int capacity;
+
+        capacity = _objects.length * 2;
+
+        _objects = Arrays.copyOf(_objects, capacity);
+        _bounds = Arrays.copyOf(_bounds, capacity * BoundsCalculator.SIZE);
+        _order = Arrays.copyOf(_order, capacity);
+    }
+
+
+    // -+- QUERIES -+- //
+
+    // All queries work on the bounds of the last update, or of the addition, for objects added since then.
+
+    @Override
+    public int queryPoint(double x, double y, Collection<ObjectData> result) {
+        return queryRect(x, y, x, y, result);
+    }
+    @Override
+    public int queryRect(double minX, double minY, double maxX, double maxY, Collection<ObjectData> result) {
+        int amount;
+
+        amount = 0;
+
+        // Objects added since the last update are not sorted yet, so the early exit is only taken after an update.
+        for (int index = 0; index < _size; index++) {
+            int offset;
+
+            offset = _order[index] * BoundsCalculator.SIZE;
+
+            if (_bounds[offset + BoundsCalculator.MIN_X] > maxX) {
+                if (!_sorted) continue;
+
+                break;
+            }
+
+            if (!SpatialQueries.overlaps(minX, minY, maxX, maxY,
+                    _bounds[offset + BoundsCalculator.MIN_X], _bounds[offset + BoundsCalculator.MIN_Y],
+                    _bounds[offset + BoundsCalculator.MAX_X], _bounds[offset + BoundsCalculator.MAX_Y])) continue;
+
+            result.add(_objects[_order[index]]);
+            amount++;
+        }
+
+        return amount;
+    }
+    @Override
+    public int raycast(double originX, double originY, double directionX, double directionY, double maxDistance, List<ObjectData> result) {
+        double length;
+
+        length = Math.sqrt(directionX * directionX + directionY * directionY);
+        if (length == 0) throw new IllegalArgumentException("[SWEEP AND PRUNE ERROR] : Direction of a ray can not be zero!");
+
+        directionX /= length;
+        directionY /= length;
+
+        _HITS.reset(Integer.MAX_VALUE);
+
+        for (int index = 0; index < _size; index++) {
+            int offset;
+            double distance;
+
+            offset = index * BoundsCalculator.SIZE;
+            distance = SpatialQueries.intersectRay(originX, originY, directionX, directionY, maxDistance,
+                    _bounds[offset + BoundsCalculator.MIN_X], _bounds[offset + BoundsCalculator.MIN_Y],
+                    _bounds[offset + BoundsCalculator.MAX_X], _bounds[offset + BoundsCalculator.MAX_Y]);
+
+            if (distance != SpatialQueries.NO_HIT) _HITS.add(_objects[index], distance);
+        }
+
+        return _HITS.drainInto(result);
+    }
+    @Override
+    public int queryNearest(double x, double y, int amount, List<ObjectData> result) {
+        if (amount <= 0) return 0;
+
+        _HITS.reset(amount);
+
+        for (int index = 0; index < _size; index++) {
+            int offset;
+
+            offset = index * BoundsCalculator.SIZE;
+
+            _HITS.add(_objects[index], SpatialQueries.getDistanceSquared(x, y,
+                    _bounds[offset + BoundsCalculator.MIN_X], _bounds[offset + BoundsCalculator.MIN_Y],
+                    _bounds[offset + BoundsCalculator.MAX_X], _bounds[offset + BoundsCalculator.MAX_Y]));
+        }
+
+        return _HITS.drainInto(result);
+    }
+
+
+    // -+- GETTERS -+- //
+
+    /**
+     * Returns the objects, whose bounds overlapped the bounds of the specified object during the last update.
+     * The first look up after an update gathers the candidates of all objects from the pairs.
+     * The returned collection is owned by this partitioner and only valid until the next update.
+     *
+     * @param obj The object, whose potential collision partners are requested
+     *
+     * @return The potentially colliding objects, without the object itself
+     *
+     * @author Tim Kloepper
+     */
+    @Override
+    public Collection<ObjectData> getCollidingObjects(ObjectData obj) {
+        Integer index;
+
+        index = _INDICES.get(obj);
+        if (index == null) return _EMPTY;
+
+        if (!_candidatesGathered) h_gatherCandidates();
+
+        return _CANDIDATES.get(index);
+    }
+    /**
+     * Calls the consumer for every pair of objects, whose bounds overlapped during the last update.
+     * Pairs with objects, that got removed since the last update, are skipped,
+     * which costs a look up per pair until the next update.
+     *
+     * @param consumer The consumer receiving the candidate pairs
+     *
+     * @author Tim Kloepper
+     */
+    @Override
+    public void forEachCandidatePair(I_PairConsumer consumer) {
+        for (int pair = 0; pair < _pairAmount; pair++) {
+            ObjectData a, b;
+
+            a = _pairs[pair * 2];
+            b = _pairs[pair * 2 + 1];
+
+            if (_removedSinceUpdate && !(_INDICES.containsKey(a) && _INDICES.containsKey(b))) continue;
+
+            consumer.accept(a, b);
+        }
+    }
+
+    public int getObjectAmount() {
+        return _size;
+    }
+
+
+}
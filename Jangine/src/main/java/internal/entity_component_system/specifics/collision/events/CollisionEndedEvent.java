@@ -0,0 +1,35 @@
+package internal.entity_component_system.specifics.collision.events;
+
+
+import internal.entity_component_system.specifics.collision.data.A_CollisionData;
+import internal.entity_component_system.specifics.collision.data.ObjectData;
+
+
+/**
+ * Is pushed once, when two objects stop colliding or one of them stops being checked, for example because it got removed.
+ * It is pushed for both orders of the objects.
+ * The collision axis is the last axis, along which both objects collided.
+ *
+ * @author Tim Kloepper
+ * @version 1.0
+ */
+public class CollisionEndedEvent extends A_CollisionEvent {
+
+
+    // -+- CREATION -+- //
+
+    public CollisionEndedEvent(A_CollisionData.COLLISION_AXIS collisionAxis, ObjectData object, ObjectData collidingObject) {
+        super(collisionAxis, object);
+
+        this.collidingObject = collidingObject;
+    }
+
+
+    // -+- PARAMETERS -+- //
+
+    // FINALS //
+
+    public final ObjectData collidingObject;
+
+
+}
\ No newline at end of file
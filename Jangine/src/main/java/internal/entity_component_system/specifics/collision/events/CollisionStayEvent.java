@@ -0,0 +1,34 @@
+package internal.entity_component_system.specifics.collision.events;
+
+
+import internal.entity_component_system.specifics.collision.data.A_CollisionData;
+import internal.entity_component_system.specifics.collision.data.ObjectData;
+
+
+/**
+ * Is pushed in a fixed interval, while two objects keep colliding, for both orders of the objects.
+ * It is only pushed, if the interval got enabled on the collision processor.
+ *
+ * @author Tim Kloepper
+ * @version 1.0
+ */
+public class CollisionStayEvent extends A_CollisionEvent {
+
+
+    // -+- CREATION -+- //
+
+    public CollisionStayEvent(A_CollisionData.COLLISION_AXIS collisionAxis, ObjectData object, ObjectData collidingObject) {
+        super(collisionAxis, object);
+
+        this.collidingObject = collidingObject;
+    }
+
+
+    // -+- PARAMETERS -+- //
+
+    // FINALS //
+
+    public final ObjectData collidingObject;
+
+
+}
\ No newline at end of file
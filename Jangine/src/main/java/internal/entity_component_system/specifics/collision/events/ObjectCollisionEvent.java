@@ -5,15 +5,37 @@ import internal.entity_component_system.specifics.collision.data.A_CollisionData
 import internal.entity_component_system.specifics.collision.data.ObjectData;
 
 
+/**
+ * Is pushed once, when two objects start colliding, for both orders of the objects.
+ * With continuous collision detection, the time of impact tells, when during the update both objects first touched. <br>
+ * Persisting and ending contacts push {@link CollisionStayEvent} and {@link CollisionEndedEvent}, which are no subclasses of this event,
+ * so listeners of this event only receive new collisions.
+ *
+ * @author Tim Kloepper
+ * @version 1.0
+ */
 public class ObjectCollisionEvent extends A_CollisionEvent {
 
 
     // -+- CREATION -+- //
 
     public ObjectCollisionEvent(A_CollisionData.COLLISION_AXIS collisionAxis, ObjectData object, ObjectData collidingObject) {
+        this(collisionAxis, object, collidingObject, 1);
+    }
+    /**
+     * @param collisionAxis The axis, along which both objects collide
+     * @param object The object receiving this event
+     * @param collidingObject The object, the receiving object collides with
+     * @param timeOfImpact The time, at which both objects first touched, as a fraction of the update,
+     *                     where one means, that the time is not known or both objects touched at the end of the update
+     *
+     * @author Tim Kloepper
+     */
+    public ObjectCollisionEvent(A_CollisionData.COLLISION_AXIS collisionAxis, ObjectData object, ObjectData collidingObject, double timeOfImpact) {
         super(collisionAxis, object);
 
         this.collidingObject = collidingObject;
+        this.timeOfImpact = timeOfImpact;
     }
 
 
@@ -22,6 +44,7 @@ public class ObjectCollisionEvent extends A_CollisionEvent {
     // FINALS //
 
     public final ObjectData collidingObject;
+    public final double timeOfImpact;
 
 
 }
\ No newline at end of file
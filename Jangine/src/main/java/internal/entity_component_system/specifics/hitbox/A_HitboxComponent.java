@@ -4,4 +4,28 @@ package internal.entity_component_system.specifics.hitbox;
 import internal.entity_component_system.A_Component;
 
 
-public abstract class A_HitboxComponent extends A_Component {}
\ No newline at end of file
+public abstract class A_HitboxComponent extends A_Component {
+
+
+    // -+- CREATION -+- //
+
+    /**
+     * The shape id of the hitbox is derived from its class, which therefore has to be registered in {@link HitboxShapes} beforehand.
+     *
+     * @author Tim Kloepper
+     */
+    public A_HitboxComponent() {
+        super();
+
+        SHAPE = HitboxShapes.getShape(getClass());
+    }
+
+
+    // -+- PARAMETERS -+- //
+
+    // FINALS //
+
+    public final int SHAPE;
+
+
+}
@@ -6,6 +6,7 @@ import internal.entity_component_system.A_Processor;
 import internal.entity_component_system.System;
 import internal.rendering.container.A_Scene;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
@@ -67,7 +68,13 @@ public class HitboxProcessor extends A_Processor<A_HitboxComponent> {
 
     @Override
     protected Collection<Class<? extends A_HitboxComponent>> p_getProcessedComponentClasses() {
-        return List.of(A_HitboxComponent.class, RectangleHitboxComponent.class, CircleHitboxComponent.class);
+        ArrayList<Class<? extends A_HitboxComponent>> classes;
+
+        classes = new ArrayList<>();
+        classes.add(A_HitboxComponent.class);
+        classes.addAll(HitboxShapes.getClasses());
+
+        return classes;
     }
     @Override
     protected Collection<Class<? extends A_Component>> p_getRequiredComponentClasses() {
@@ -0,0 +1,134 @@
+package internal.entity_component_system.specifics.hitbox;
+
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+
+/**
+ * Hands out the shape ids of all hitbox classes. <br>
+ * Every hitbox carries the id of its shape, so collision calculators can look up the check for a pair of shapes
+ * inside a table, instead of going through chains of type checks.
+ * <p></p>
+ * New shapes are registered once, together with the function computing their bounds, before the first hitbox of the shape
+ * gets created and before the {@link HitboxProcessor} gets added, which then also processes components of the registered class.
+ * The id of a hitbox is derived from its class, subclasses of a registered class share its id,
+ * while hitboxes of unregistered classes get {@link HitboxShapes#UNKNOWN}.
+ *
+ * @author Tim Kloepper
+ * @version 1.0
+ */
+public class HitboxShapes {
+
+
+    // -+- PARAMETERS -+- //
+
+    // FINALS //
+
+    public static final int UNKNOWN = -1;
+    public static final int RECTANGLE = 0;
+    public static final int CIRCLE = 1;
+
+    private static final ArrayList<Class<? extends A_HitboxComponent>> _CLASSES = new ArrayList<>();
+
+    // NON-FINALS //
+
+    // Replaced on every registration, so the bounds can be read without locking.
+    private static volatile I_HitboxBounds<?>[] _bounds = new I_HitboxBounds<?>[0];
+
+
+    // -+- REGISTRATION -+- //
+
+    static {
+        register(RectangleHitboxComponent.class, (rectangle, x, y, target, offset) -> {
+            target[offset] = x;
+            target[offset + 1] = y;
+            target[offset + 2] = x + rectangle.width;
+            target[offset + 3] = y + rectangle.height;
+        });
+        register(CircleHitboxComponent.class, (circle, x, y, target, offset) -> {
+            target[offset] = x - circle.radius;
+            target[offset + 1] = y - circle.radius;
+            target[offset + 2] = x + circle.radius;
+            target[offset + 3] = y + circle.radius;
+        });
+    }
+
+    /**
+     * Registers a new hitbox class and returns its shape id, which all its instances and the instances of its subclasses carry.
+     *
+     * @param hitboxClass The class of the new shape
+     * @param bounds The function computing the bounding box of a hitbox of the new shape
+     *
+     * @return The id of the new shape
+     *
+     * @author Tim Kloepper
+     */
+    public static synchronized <T extends A_HitboxComponent> int register(Class<T> hitboxClass, I_HitboxBounds<? super T> bounds) {
+        I_HitboxBounds<?>[] allBounds;
+
+        if (bounds == null) throw new IllegalArgumentException("[HITBOX ERROR] : " + hitboxClass.getSimpleName() + " needs a bounds function!");
+        if (_CLASSES.contains(hitboxClass)) throw new IllegalArgumentException("[HITBOX ERROR] : " + hitboxClass.getSimpleName() + " is already registered!");
+
+        _CLASSES.add(hitboxClass);
+
+        allBounds = Arrays.copyOf(_bounds, _CLASSES.size());
+        allBounds[_CLASSES.size() - 1] = bounds;
+
+        _bounds = allBounds;
+
+        return _CLASSES.size() - 1;
+    }
+
+
+    // -+- GETTERS -+- //
+
+    /**
+     * Returns the shape id of the hitbox class, which is the id of the closest registered class in its hierarchy.
+     *
+     * @param hitboxClass The class of the hitbox
+     *
+     * @return The id of the shape, or {@link HitboxShapes#UNKNOWN} if neither the class nor any of its super classes got registered
+     *
+     * @author Tim Kloepper
+     */
+    public static synchronized int getShape(Class<?> hitboxClass) {
+        for (Class<?> current = hitboxClass; current != null; current = current.getSuperclass()) {
+            int shape;
+
+            shape = _CLASSES.indexOf(current);
+            if (shape != UNKNOWN) return shape;
+        }
+
+        return UNKNOWN;
+    }
+    /**
+     * Returns the function computing the bounding box of a hitbox of the shape.
+     *
+     * @param shape The id of the shape
+     *
+     * @return The bounds function, or {@code null} if the shape is {@link HitboxShapes#UNKNOWN}
+     *
+     * @author Tim Kloepper
+     */
+    @SuppressWarnings("unchecked")
+    public static I_HitboxBounds<A_HitboxComponent> getBounds(int shape) {
+        I_HitboxBounds<?>[] bounds;
+
+        bounds = _bounds;
+        if (shape < 0 || shape >= bounds.length) return null;
+
+        // Every hitbox carrying the id is an instance of the class the function got registered with.
+        return (I_HitboxBounds<A_HitboxComponent>) bounds[shape];
+    }
+
+    public static synchronized int getAmount() {
+        return _CLASSES.size();
+    }
+    public static synchronized List<Class<? extends A_HitboxComponent>> getClasses() {
+        return List.copyOf(_CLASSES);
+    }
+
+
+}
@@ -0,0 +1,33 @@
+package internal.entity_component_system.specifics.hitbox;
+
+
+/**
+ * Computes the axis aligned bounding box of a hitbox shape, as registered together with the shape in {@link HitboxShapes}.
+ *
+ * @param <T> The hitbox class of the shape
+ *
+ * @author Tim Kloepper
+ * @version 1.0
+ */
+@FunctionalInterface
+public interface I_HitboxBounds<T extends A_HitboxComponent> {
+
+
+    // -+- CALCULATION -+- //
+
+    /**
+     * Writes the bounding box, the hitbox would have at the specified position, into the specified array,
+     * in the order minimum x, minimum y, maximum x and maximum y, starting at the offset.
+     *
+     * @param hitbox The hitbox whose bounds are to be calculated
+     * @param x The x coordinate of the position
+     * @param y The y coordinate of the position
+     * @param target The array the bounds are written into
+     * @param offset The index of the minimum x value inside the array
+     *
+     * @author Tim Kloepper
+     */
+    void calculate(T hitbox, double x, double y, double[] target, int offset);
+
+
+}
@@ -0,0 +1,110 @@
+package internal.entity_component_system.specifics.motion;
+
+
+import internal.entity_component_system.A_Component;
+
+
+/**
+ * A position together with a velocity, whose values are not held by the component itself,
+ * but by the parallel arrays of the {@link MotionProcessor}, as long as the component is added to it. <br>
+ * Meant for large amounts of simply moving entities, as opposed to the
+ * {@link internal.entity_component_system.specifics.position.PositionComponent} and
+ * {@link internal.entity_component_system.specifics.velocity.VelocityComponent}, which stay
+ * the source of truth for everything reading their {@code Vector2d} fields.
+ * <p></p>
+ * All values are read and written through the accessors, which either go to the arrays
+ * of the processor, or to the component, while it is not added.
+ *
+ * @author Tim Kloepper
+ * @version 1.0
+ */
+public class MotionComponent extends A_Component {
+
+
+    // -+- CREATION -+- //
+
+    public MotionComponent(double x, double y, double velocityX, double velocityY) {
+        super();
+
+        _x = x;
+        _y = y;
+        _velocityX = velocityX;
+        _velocityY = velocityY;
+
+        _storage = null;
+        _slot = -1;
+    }
+
+
+    // -+- PARAMETERS -+- //
+
+    // NON-FINALS //
+
+    // Only used while the component is not part of a storage.
+    private double _x, _y, _velocityX, _velocityY;
+
+    // The storage holding the values of this component and the dense slot inside of it.
+    private MotionStorage _storage;
+    private int _slot;
+
+
+    // -+- STORAGE MANAGEMENT -+- //
+
+    void attach(MotionStorage storage, int slot) {
+        _storage = storage;
+        _slot = slot;
+    }
+    void detach(double x, double y, double velocityX, double velocityY) {
+        _x = x;
+        _y = y;
+        _velocityX = velocityX;
+        _velocityY = velocityY;
+
+        _storage = null;
+        _slot = -1;
+    }
+    void move(int slot) {
+        _slot = slot;
+    }
+
+
+    // -+- SETTERS -+- //
+
+    public void setPosition(double x, double y) {
+        if (_storage == null) {
+            _x = x;
+            _y = y;
+        } else _storage.setPosition(_slot, x, y);
+    }
+    public void setVelocity(double velocityX, double velocityY) {
+        if (_storage == null) {
+            _velocityX = velocityX;
+            _velocityY = velocityY;
+        } else _storage.setVelocity(_slot, velocityX, velocityY);
+    }
+
+
+    // -+- GETTERS -+- //
+
+    public double getX() {
+        return _storage == null ? _x : _storage.getX(_slot);
+    }
+    public double getY() {
+        return _storage == null ? _y : _storage.getY(_slot);
+    }
+    public double getVelocityX() {
+        return _storage == null ? _velocityX : _storage.getVelocityX(_slot);
+    }
+    public double getVelocityY() {
+        return _storage == null ? _velocityY : _storage.getVelocityY(_slot);
+    }
+
+    MotionStorage getStorage() {
+        return _storage;
+    }
+    int getSlot() {
+        return _slot;
+    }
+
+
+}
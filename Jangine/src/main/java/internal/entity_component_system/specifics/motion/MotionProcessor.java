@@ -0,0 +1,157 @@
+package internal.entity_component_system.specifics.motion;
+
+
+import internal.entity_component_system.A_Component;
+import internal.entity_component_system.A_Processor;
+import internal.entity_component_system.System;
+import internal.rendering.container.A_Scene;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+
+
+/**
+ * Moves every active {@link MotionComponent} by its velocity each update. <br>
+ * The values of the components live in the parallel arrays of a {@link MotionStorage},
+ * so the integration does not touch the components at all. As the arrays live outside
+ * of the archetype storage, the integration does not mark the components as changed.
+ * <p></p>
+ * Optionally, the integration uses the Vector API, see {@link MotionProcessor#setVectorized(boolean)}.
+ *
+ * @author Tim Kloepper
+ * @version 1.0
+ */
+public class MotionProcessor extends A_Processor<MotionComponent> {
+
+
+    // -+- CREATION -+- //
+
+    public MotionProcessor() {
+        super();
+
+        // Motion components do not depend on any other component.
+        p_setIncrementalValidation(true);
+
+        _STORAGE = new MotionStorage(INITIAL_CAPACITY);
+
+        _vectorized = false;
+    }
+
+    @Override
+    protected void p_init(System system, A_Scene scene) {
+
+    }
+    @Override
+    protected void p_kill(System system, A_Scene scene) {
+
+    }
+
+    @Override
+    protected void p_receiveRequiredProcessors(HashMap<Class<? extends A_Component>, A_Processor<?>> requiredProcessors) {
+
+    }
+
+
+    // -+- PARAMETERS -+- //
+
+    // FINALS //
+
+    public static final int INITIAL_CAPACITY = 256;
+
+    // Whether the JVM got started with the incubating Vector API, e.g. through --add-modules jdk.incubator.vector.
+    public static final boolean VECTOR_API_AVAILABLE = ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent();
+
+    private final MotionStorage _STORAGE;
+
+    // NON-FINALS //
+
+    private boolean _vectorized;
+
+
+    // -+- UPDATE LOOP -+- //
+
+    @Override
+    protected void p_internalUpdate(Collection<MotionComponent> validComponents, System system, A_Scene scene) {
+        _STORAGE.integrate(_vectorized);
+    }
+
+
+    // -+- COMPONENT MANAGEMENT -+- //
+
+    @Override
+    protected boolean p_isComponentValid(MotionComponent component) {
+        return true;
+    }
+
+    @Override
+    protected void p_onComponentAdded(MotionComponent component) {
+        _STORAGE.add(component);
+
+        // The storage starts with the activation state of the component, so no activation follows.
+        if (component.active) _STORAGE.activate(component);
+    }
+    @Override
+    protected void p_onComponentRemoved(MotionComponent component) {
+        _STORAGE.remove(component);
+    }
+
+    @Override
+    protected void p_onComponentActivated(MotionComponent component) {
+        _STORAGE.activate(component);
+    }
+    @Override
+    protected void p_onComponentDeactivated(MotionComponent component) {
+        _STORAGE.deactivate(component);
+    }
+
+
+    // -+- SETTERS -+- //
+
+    /**
+     * Enables or disables the integration through the Vector API.
+     * Without the {@code jdk.incubator.vector} module, the scalar loop keeps being used.
+     *
+     * @param value Whether the Vector API should be used
+     *
+     * @return Whether the Vector API is used from now on
+     *
+     * @author Tim Kloepper
+     */
+    public boolean setVectorized(boolean value) {
+        _vectorized = value && VECTOR_API_AVAILABLE;
+
+        return _vectorized;
+    }
+
+
+    // -+- GETTERS -+- //
+
+    public boolean isVectorized() {
+        return _vectorized;
+    }
+
+    MotionStorage getStorage() {
+        return _STORAGE;
+    }
+
+    @Override
+    protected Collection<Class<? extends MotionComponent>> p_getProcessedComponentClasses() {
+        return List.of(MotionComponent.class);
+    }
+    @Override
+    protected Collection<Class<? extends A_Component>> p_getRequiredComponentClasses() {
+        return List.of();
+    }
+
+    @Override
+    protected Collection<? extends Class<? extends A_Component>> p_getReadComponentClasses() {
+        return List.of(MotionComponent.class);
+    }
+    @Override
+    protected Collection<? extends Class<? extends A_Component>> p_getWrittenComponentClasses() {
+        return List.of(MotionComponent.class);
+    }
+
+
+}
@@ -0,0 +1,214 @@
+package internal.entity_component_system.specifics.motion;
+
+
+import java.util.Arrays;
+
+
+/**
+ * Structure of arrays storage of {@link MotionComponent}s. <br>
+ * Positions and velocities are held in parallel {@code double} arrays, indexed by a dense slot.
+ * Active components occupy the slots before {@link MotionStorage#getActiveAmount()}, so the
+ * integration is a single loop over primitive arrays, which the JIT can vectorize.
+ * Removing a component moves the last component of its range into its slot.
+ *
+ * @author Tim Kloepper
+ * @version 1.0
+ */
+final class MotionStorage {
+
+
+    // -+- CREATION -+- //
+
+    MotionStorage(int capacity) {
+        if (capacity < 1) throw new IllegalArgumentException("[MOTION ERROR] : Capacity needs to be at least one!");
+
+        _x = new double[capacity];
+        _y = new double[capacity];
+        _velocityX = new double[capacity];
+        _velocityY = new double[capacity];
+        _components = new MotionComponent[capacity];
+
+        _size = 0;
+        _activeAmount = 0;
+    }
+
+
+    // -+- PARAMETERS -+- //
+
+    // NON-FINALS //
+
+    private double[] _x, _y, _velocityX, _velocityY;
+    private MotionComponent[] _components;
+
+    private int _size;
+    private int _activeAmount;
+
+
+    // -+- COMPONENT MANAGEMENT -+- //
+
+    /**
+     * Moves the values of the component into the arrays. The component starts out inactive,
+     * until {@link MotionStorage#activate(MotionComponent)} is called for it.
+     *
+     * @param component The component that is to be added
+     *
+     * @author Tim Kloepper
+     */
+    void add(MotionComponent component) {
+        if (component.getStorage() == this) return;
+        if (component.getStorage() != null) throw new IllegalStateException("[MOTION ERROR] : Component is already part of another storage!");
+
+        if (_size == _components.length) h_grow();
+
+        _x[_size] = component.getX();
+        _y[_size] = component.getY();
+        _velocityX[_size] = component.getVelocityX();
+        _velocityY[_size] = component.getVelocityY();
+        _components[_size] = component;
+
+        component.attach(this, _size);
+
+        _size++;
+    }
+    /**
+     * Moves the values of the component back into it and fills the freed slot.
+     *
+     * @param component The component that is to be removed
+     *
+     * @author Tim Kloepper
+     */
+    void remove(MotionComponent component) {
+        if (component.getStorage() != this) return;
+
+        int slot;
+
+        deactivate(component);
+
+        slot = component.getSlot();
+        component.detach(_x[slot], _y[slot], _velocityX[slot], _velocityY[slot]);
+
+        _size--;
+        h_move(_size, slot);
+        _components[_size] = null;
+    }
+
+    void activate(MotionComponent component) {
+        if (component.getStorage() != this || component.getSlot() < _activeAmount) return;
+
+        h_swap(component.getSlot(), _activeAmount);
+        _activeAmount++;
+    }
+    void deactivate(MotionComponent component) {
+        if (component.getStorage() != this || component.getSlot() >= _activeAmount) return;
+
+        _activeAmount--;
+        h_swap(component.getSlot(), _activeAmount);
+    }
+
+    private void h_swap(int slotA, int slotB) {
+        MotionComponent component;
+        double x, y, velocityX, velocityY;
+
+        if (slotA == slotB) return;
+
+        component = _components[slotA];
+        x = _x[slotA];
+        y = _y[slotA];
+        velocityX = _velocityX[slotA];
+        velocityY = _velocityY[slotA];
+
+        h_move(slotB, slotA);
+        h_set(slotB, component, x, y, velocityX, velocityY);
+    }
+    private void h_move(int from, int to) {
+        if (from == to) return;
+
+        h_set(to, _components[from], _x[from], _y[from], _velocityX[from], _velocityY[from]);
+    }
+    private void h_set(int slot, MotionComponent component, double x, double y, double velocityX, double velocityY) {
+        _x[slot] = x;
+        _y[slot] = y;
+        _velocityX[slot] = velocityX;
+        _velocityY[slot] = velocityY;
+        _components[slot] = component;
+
+        component.move(slot);
+    }
+    private void h_grow() {
+        int capacity;
+
+        capacity = _components.length * 2;
+
+        _x = Arrays.copyOf(_x, capacity);
+        _y = Arrays.copyOf(_y, capacity);
+        _velocityX = Arrays.copyOf(_velocityX, capacity);
+        _velocityY = Arrays.copyOf(_velocityY, capacity);
+        _components = Arrays.copyOf(_components, capacity);
+    }
+
+
+    // -+- INTEGRATION -+- //
+
+    /**
+     * Adds the velocity of every active component onto its position.
+     *
+     * @param vectorized Whether the Vector API should be used, which requires the {@code jdk.incubator.vector} module
+     *
+     * @author Tim Kloepper
+     */
+    void integrate(boolean vectorized) {
+        if (vectorized) {
+            VectorizedMotion.add(_x, _velocityX, _activeAmount);
+            VectorizedMotion.add(_y, _velocityY, _activeAmount);
+
+            return;
+        }
+
+        h_add(_x, _velocityX, _activeAmount);
+        h_add(_y, _velocityY, _activeAmount);
+    }
+    private static void h_add(double[] positions, double[] velocities, int length) {
+        for (int index = 0; index < length; index++) positions[index] += velocities[index];
+    }
+
+
+    // -+- SETTERS -+- //
+
+    void setPosition(int slot, double x, double y) {
+        _x[slot] = x;
+        _y[slot] = y;
+    }
+    void setVelocity(int slot, double velocityX, double velocityY) {
+        _velocityX[slot] = velocityX;
+        _velocityY[slot] = velocityY;
+    }
+
+
+    // -+- GETTERS -+- //
+
+    double getX(int slot) {
+        return _x[slot];
+    }
+    double getY(int slot) {
+        return _y[slot];
+    }
+    double getVelocityX(int slot) {
+        return _velocityX[slot];
+    }
+    double getVelocityY(int slot) {
+        return _velocityY[slot];
+    }
+
+    MotionComponent getComponent(int slot) {
+        return _components[slot];
+    }
+
+    int getSize() {
+        return _size;
+    }
+    int getActiveAmount() {
+        return _activeAmount;
+    }
+
+
+}
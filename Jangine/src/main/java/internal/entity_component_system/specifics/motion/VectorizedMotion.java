@@ -0,0 +1,43 @@
+package internal.entity_component_system.specifics.motion;
+
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorSpecies;
+
+
+/**
+ * The integration of the {@link MotionStorage} through the Vector API. <br>
+ * Only gets loaded, if {@link MotionProcessor#setVectorized(boolean)} got enabled
+ * while the {@code jdk.incubator.vector} module is present, so the engine runs without it.
+ *
+ * @author Tim Kloepper
+ * @version 1.0
+ */
+final class VectorizedMotion {
+
+
+    // -+- PARAMETERS -+- //
+
+    // FINALS //
+
+    private static final VectorSpecies<Double> _SPECIES = DoubleVector.SPECIES_PREFERRED;
+
+
+    // -+- INTEGRATION -+- //
+
+    static void add(double[] positions, double[] velocities, int length) {
+        int bound, index;
+
+        bound = _SPECIES.loopBound(length);
+
+        for (index = 0; index < bound; index += _SPECIES.length()) {
+            DoubleVector.fromArray(_SPECIES, positions, index)
+                    .add(DoubleVector.fromArray(_SPECIES, velocities, index))
+                    .intoArray(positions, index);
+        }
+
+        for (; index < length; index++) positions[index] += velocities[index];
+    }
+
+
+}
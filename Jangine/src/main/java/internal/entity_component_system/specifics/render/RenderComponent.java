@@ -29,5 +29,17 @@ public class RenderComponent extends A_Component {
     public A_Mesh renderMesh;
     public String shaderPath;
 
+    // Only used by the render processor on the simulation thread while pipelined.
+    // The entry drawn for the mesh, the mesh it got copied from and the vertices and indices last published in a snapshot.
+    RenderEntry entry;
+    A_Mesh publishedMesh;
+    float[] publishedVertices;
+    int[] publishedIndices;
+    int vertexVersion;
+
+    // Only used by the render processor. The positions of the last two updates, between which rendering interpolates.
+    double previousX, previousY, currentX, currentY;
+    boolean positionRecorded;
+
 
 }
\ No newline at end of file
@@ -0,0 +1,47 @@
+package internal.entity_component_system.specifics.render;
+
+
+import internal.rendering.mesh.A_Mesh;
+
+
+/**
+ * The copy of the mesh of one render component, which the rendering thread draws instead of the mesh itself, while pipelined. <br>
+ * Created by the simulation thread, which only hands it over inside of {@link RenderSnapshot}s afterward,
+ * so only the rendering thread ever reads or changes its fields and the vertices of the copy.
+ *
+ * @author Tim Kloepper
+ * @version 1.0
+ */
+class RenderEntry {
+
+
+    // -+- CREATION -+- //
+
+    RenderEntry(A_Mesh mesh) {
+        this.mesh = mesh.copy();
+
+        version = -1;
+        stamp = 0;
+        applied = false;
+        shaderPath = null;
+    }
+
+
+    // -+- PARAMETERS -+- //
+
+    // FINALS //
+
+    final A_Mesh mesh;
+
+    // NON-FINALS //
+
+    // The version of the vertices last copied into the mesh.
+    int version;
+    // The last application of a snapshot, which contained this entry.
+    int stamp;
+    // Whether the mesh is inside the batch system, and with which shader.
+    boolean applied;
+    String shaderPath;
+
+
+}
@@ -4,6 +4,8 @@ package internal.entity_component_system.specifics.render;
 import internal.batch.BatchSystem;
 import internal.entity_component_system.A_Component;
 import internal.entity_component_system.A_Processor;
+import internal.entity_component_system.I_QueryAction;
+import internal.entity_component_system.Query;
 import internal.entity_component_system.System;
 import internal.entity_component_system.events.ProcessorAddedEvent;
 import internal.entity_component_system.events.ProcessorRemovedEvent;
@@ -13,29 +15,106 @@ import internal.events.EventFilter;
 import internal.events.I_Event;
 import internal.events.implementations.ActiveEventPort;
 import internal.events.implementations.Event;
+import internal.main.Engine;
+import internal.rendering.camera.Camera2D;
 import internal.rendering.container.A_Scene;
 import internal.rendering.mesh.A_Mesh;
-import org.joml.Vector2d;
+import internal.util.TripleBuffer;
 
+import java.nio.FloatBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Objects;
+
+
+/**
+ * Keeps the meshes of all render components inside a {@link BatchSystem} and draws them. <br>
+ * If the {@link Engine} is pipelined, the system is updated on the simulation thread, which must not touch OpenGL.
+ * The processor then only writes a {@link RenderSnapshot} every update and publishes it through a {@link TripleBuffer}.
+ * The rendering thread takes the latest snapshot with {@link RenderProcessor#render()}
+ * and brings the batch system up to date with it, before drawing.
+ * It draws copies of the meshes, which only it touches, and never reads the meshes of the components themselves.
+ * <p></p>
+ * While rendering is deferred, {@link RenderProcessor#render()} places moving meshes between their positions
+ * at the last two updates, by the interpolation alpha of the {@link Engine},
+ * so a simulation running at a lower rate than the display still moves smoothly.
+ * Only the vertices inside the batches are placed there, while the meshes of the components stay at their last update.
+ *
+ * @author Tim Kloepper
+ * @version 1.0
+ */
+public class RenderProcessor extends A_Processor<RenderComponent> {
 
 
-public class RenderProcessor extends A_Processor<RenderComponent> {
+    public RenderProcessor() {
+        super();
+
+        // Validity only depends on the existence of a position component.
+        p_setIncrementalValidation(true);
+
+        // Only meshes, whose component changed, are uploaded again.
+        p_setChangeTracking(true);
+
+        _UPDATE_POSITION = this::h_updatePosition;
+
+        _SNAPSHOTS = new TripleBuffer<>(RenderSnapshot::new);
+        _APPLIED = new ArrayList<>();
+        _INTERPOLATED = new ArrayList<>();
+
+        _pipelined = false;
+        _deferRendering = false;
+        _changeTracking = false;
+        _interpolating = true;
+        _applyStamp = 0;
+
+        _killed = false;
+        _disposed = false;
+    }
 
 
     // -+- PARAMETERS -+- //
 
     // FINALS //
 
+    private final I_QueryAction _UPDATE_POSITION;
+
     private BatchSystem _system;
 
+    // Only used while pipelined. Every entry inside the batch system, only touched by the rendering thread.
+    private final TripleBuffer<RenderSnapshot> _SNAPSHOTS;
+    private final ArrayList<RenderEntry> _APPLIED;
+    // Only used while not pipelined. The components, which moved during the last update.
+    // Their vertices inside the batch system are rewritten by every render, which their meshes are not.
+    private final ArrayList<RenderComponent> _INTERPOLATED;
+
     // NON-FINALS //
 
     private ActiveEventPort _port;
     private PositionProcessor _positionProcessor;
 
+    // While pipelined, the batch system draws with its own camera, which follows the one of the latest snapshot.
+    // Otherwise, it draws with the camera of the scene.
+    private Camera2D _camera;
+
+    // Whether the batches are only drawn by render(), instead of at the end of every update.
+    private boolean _deferRendering;
+    private boolean _pipelined;
+    // Whether only meshes of rows marked as changed are uploaded, instead of all of them.
+    private boolean _changeTracking;
+    // Whether deferred rendering interpolates between the positions of the last two updates.
+    private boolean _interpolating;
+    private int _applyStamp;
+
+    // Set by the simulation thread while pipelined, after which the next render disposes the batch system.
+    private volatile boolean _killed;
+    private boolean _disposed;
+
+    // Joins every render component with the position of its entity.
+    private Query _positionQuery;
+
 
     @Override
     protected void p_init(System system, A_Scene scene) {
@@ -44,12 +123,28 @@ public class RenderProcessor extends A_Processor<RenderComponent> {
         _port.addCallback(this::onSystemAdded);
         _port.addCallback(this::onSystemRemoved);
 
-        _system = new BatchSystem(scene.getCamera());
+        // Read here, as the engine may not exist yet, when the processor is created.
+        _pipelined = Engine.get().isPipelined();
+        _deferRendering |= _pipelined;
+
+        _camera = _pipelined ? new Camera2D((int) scene.getWidth(), (int) scene.getHeight()) : scene.getCamera();
+
+        _system = new BatchSystem(_camera);
+
+        _positionQuery = system.createQuery(RenderComponent.class, PositionComponent.class);
     }
     @Override
     protected void p_kill(System system, A_Scene scene) {
         scene.SYSTEMS.EVENT_HANDLER.deregister(_port);
         _port = null;
+
+        system.rmvQuery(_positionQuery);
+        _positionQuery = null;
+
+        // The batches keep their vertices in native memory. While pipelined, this is not the thread owning the context,
+        // so the rendering thread disposes them on its next render.
+        if (_pipelined) _killed = true;
+        else _system.dispose();
     }
 
 
@@ -61,31 +156,297 @@ public class RenderProcessor extends A_Processor<RenderComponent> {
 
     @Override
     protected void p_internalUpdate(Collection<RenderComponent> validComponents, System system, A_Scene scene) {
+        if (_pipelined) {
+            h_writeSnapshot(validComponents, scene);
+
+            return;
+        }
+
+        if (_changeTracking) h_updateChanged();
+        else h_updateAll(validComponents);
+
+        if (_deferRendering) return;
+
+        _system.update();
+    }
+    /**
+     * Draws all batches. Only needed with deferred rendering, where the system may update at a fixed rate,
+     * while the scene renders once per frame. <br>
+     * While pipelined, the latest snapshot is applied to the batch system first,
+     * and the batch system gets disposed, once the processor got removed.
+     *
+     * @author Tim Kloepper
+     */
+    public void render() {
+        double alpha;
+
+        if (_killed) {
+            if (!_disposed) _system.dispose();
+
+            _disposed = true;
+
+            return;
+        }
+
+        alpha = _interpolating ? Engine.get().getInterpolationAlpha() : 1;
+
+        if (_pipelined) h_applySnapshot(_SNAPSHOTS.acquire(), alpha);
+        else h_interpolate(alpha);
+
+        _system.update();
+    }
+    private void h_updateAll(Collection<RenderComponent> validComponents) {
+        // Every mesh is placed at its current position below anyway.
+        _INTERPOLATED.clear();
+
         for (RenderComponent component : validComponents) {
-            if (component.positionDependent) h_updatePosition(component.renderMesh, _positionProcessor.getComponent(component.owningEntity).position);
+            if (component.positionDependent) h_placeMesh(component, _positionProcessor.getComponent(component.owningEntity));
 
             _system.updateMesh(component.renderMesh, component.shaderPath);
         }
+    }
+    private void h_updateChanged() {
+        // Meshes, which moved during the last update, may stand still now, without being part of the changed rows,
+        // while their vertices inside the batch system still lie where the last render placed them.
+        for (RenderComponent component : _INTERPOLATED) _system.updateMesh(component.renderMesh);
 
-        _system.update();
+        _INTERPOLATED.clear();
+
+        // Only meshes, whose component or position changed since the last frame, are uploaded again.
+        _positionQuery.forEachChanged(p_getChangedSince(), _UPDATE_POSITION);
+
+        for (RenderComponent component : p_getChangedComponents()) {
+            // Entities with a position were already handled by the query.
+            if (_positionProcessor != null && _positionProcessor.hasEntity(component.owningEntity)) continue;
+
+            _system.updateMesh(component.renderMesh, component.shaderPath);
+        }
+    }
+
+
+    // -+- INTERPOLATION -+- //
+
+    /**
+     * Records the position of the component for this update and moves its mesh there.
+     * With interpolating deferred rendering, moving components are kept, so the next renders can place them in between.
+     *
+     * @param component The position dependent component
+     * @param position The position of its entity
+     *
+     * @author Tim Kloepper
+     */
+    private void h_placeMesh(RenderComponent component, PositionComponent position) {
+        if (h_recordPosition(component, position) && _deferRendering && _interpolating) _INTERPOLATED.add(component);
+
+        h_updatePosition(component.renderMesh, component.currentX, component.currentY);
+    }
+    /**
+     * Moves the position of the current update of the component into the previous one and records its new position.
+     *
+     * @param component The position dependent component
+     * @param position The position of its entity
+     *
+     * @return Whether the component moved since the last update
+     *
+     * @author Tim Kloepper
+     */
+    private boolean h_recordPosition(RenderComponent component, PositionComponent position) {
+        // Components, which were just added or activated, appear at their position, instead of sliding into it.
+        if (component.positionRecorded) {
+            component.previousX = component.currentX;
+            component.previousY = component.currentY;
+        } else {
+            component.previousX = position.position.x;
+            component.previousY = position.position.y;
+        }
+
+        component.currentX = position.position.x;
+        component.currentY = position.position.y;
+        component.positionRecorded = true;
+
+        return component.previousX != component.currentX || component.previousY != component.currentY;
+    }
+    /**
+     * Writes the vertices of every moving mesh, placed between its positions of the last two updates, into the batch system.
+     * The meshes themselves stay at their current position, so the simulation never sees an interpolated one
+     * and the next update only needs to upload what it changed.
+     *
+     * @param alpha How far the meshes are placed from their previous towards their current position
+     *
+     * @author Tim Kloepper
+     */
+    private void h_interpolate(double alpha) {
+        for (RenderComponent component : _INTERPOLATED) {
+            FloatBuffer view;
+            float[] vertices;
+            double xDist, yDist;
+
+            // Removed or deactivated since the last update.
+            view = _system.getVertexView(component.renderMesh);
+            if (view == null) continue;
+
+            vertices = component.renderMesh.vertices;
+
+            xDist = (component.previousX - component.currentX) * (1 - alpha);
+            yDist = (component.previousY - component.currentY) * (1 - alpha);
+
+            for (int index = 1; index < vertices.length; index += 5) {
+                view.put(index - 1, (float) (vertices[index - 1] + xDist));
+                view.put(index, (float) (vertices[index] + yDist));
+            }
+        }
     }
 
-    private void h_updatePosition(A_Mesh mesh, Vector2d to) {
-        Vector2d origin;
 
-        origin = new Vector2d(mesh.vertices[0], mesh.vertices[1]);
+    // -+- SNAPSHOT MANAGEMENT -+- //
 
+    private void h_writeSnapshot(Collection<RenderComponent> validComponents, A_Scene scene) {
+        RenderSnapshot snapshot;
+
+        snapshot = _SNAPSHOTS.getWriteBuffer();
+        snapshot.clear();
+
+        for (RenderComponent component : validComponents) {
+            if (!component.active) continue;
+
+            h_publishMesh(component);
+
+            if (!component.positionDependent) {
+                snapshot.add(component.entry, component.shaderPath, component.vertexVersion, component.publishedVertices);
+
+                continue;
+            }
+
+            h_recordPosition(component, _positionProcessor.getComponent(component.owningEntity));
+
+            snapshot.add(component.entry, component.shaderPath, component.vertexVersion, component.publishedVertices,
+                    component.previousX, component.previousY, component.currentX, component.currentY);
+        }
+
+        snapshot.setCamera(scene.getCamera());
+
+        _SNAPSHOTS.publish();
+    }
+    /**
+     * Detects changes of the mesh of the component since the last snapshot.
+     * Changed vertices raise the version of the mesh, while a different mesh or different indices
+     * need a new copy for the rendering thread.
+     *
+     * @param component The component, whose mesh is published
+     *
+     * @author Tim Kloepper
+     */
+    private void h_publishMesh(RenderComponent component) {
+        A_Mesh mesh;
+
+        mesh = component.renderMesh;
+
+        if (component.publishedMesh != mesh || component.publishedVertices.length != mesh.vertices.length || !Arrays.equals(component.publishedIndices, mesh.indices)) {
+            component.entry = new RenderEntry(mesh);
+            component.publishedMesh = mesh;
+            component.publishedVertices = mesh.vertices.clone();
+            component.publishedIndices = mesh.indices.clone();
+            component.vertexVersion++;
+
+            return;
+        }
+
+        if (Arrays.equals(component.publishedVertices, mesh.vertices)) return;
+
+        java.lang.System.arraycopy(mesh.vertices, 0, component.publishedVertices, 0, mesh.vertices.length);
+        component.vertexVersion++;
+    }
+    /**
+     * Adds the entries new to the snapshot, moves and uploads the ones that changed
+     * and removes the ones missing from it. Only the copied meshes of the entries are changed.
+     *
+     * @param snapshot The latest snapshot
+     * @param alpha How far the meshes are placed from their previous towards their current position
+     *
+     * @author Tim Kloepper
+     */
+    private void h_applySnapshot(RenderSnapshot snapshot, double alpha) {
+        _applyStamp++;
+
+        for (int index = 0; index < snapshot.getSize(); index++) {
+            RenderEntry entry;
+            String shaderPath;
+            double x, y;
+            boolean changed, moved;
+
+            entry = snapshot.getEntry(index);
+            shaderPath = snapshot.getShaderPath(index);
+
+            changed = entry.version != snapshot.getVersion(index);
+
+            if (changed) {
+                snapshot.copyVertices(index, entry.mesh.vertices);
+                entry.version = snapshot.getVersion(index);
+            }
+
+            x = snapshot.getPreviousX(index) + (snapshot.getX(index) - snapshot.getPreviousX(index)) * alpha;
+            y = snapshot.getPreviousY(index) + (snapshot.getY(index) - snapshot.getPreviousY(index)) * alpha;
+
+            // Copied vertices lie where the mesh of the component lies, so they are moved, even if the position stayed the same.
+            moved = snapshot.isPositionDependent(index) && h_updatePosition(entry.mesh, x, y);
+
+            if (!entry.applied) {
+                _system.addMesh(entry.mesh, shaderPath);
+                _APPLIED.add(entry);
+
+                entry.applied = true;
+                entry.shaderPath = shaderPath;
+            } else if (!Objects.equals(entry.shaderPath, shaderPath)) {
+                _system.updateMesh(entry.mesh, shaderPath);
+
+                entry.shaderPath = shaderPath;
+            } else if (changed || moved) {
+                _system.updateMesh(entry.mesh);
+            }
+
+            entry.stamp = _applyStamp;
+        }
+
+        for (int index = _APPLIED.size() - 1; index >= 0; index--) {
+            RenderEntry entry, last;
+
+            entry = _APPLIED.get(index);
+            if (entry.stamp == _applyStamp) continue;
+
+            _system.rmvMesh(entry.mesh);
+            entry.applied = false;
+
+            last = _APPLIED.remove(_APPLIED.size() - 1);
+            if (last != entry) _APPLIED.set(index, last);
+        }
+
+        _camera.set(snapshot.getCamera());
+    }
+
+    private void h_updatePosition(int entity, A_Component[] components) {
+        RenderComponent component;
+
+        component = (RenderComponent) components[0];
+        if (!component.active) return;
+
+        if (component.positionDependent) h_placeMesh(component, (PositionComponent) components[1]);
+
+        _system.updateMesh(component.renderMesh, component.shaderPath);
+    }
+    private boolean h_updatePosition(A_Mesh mesh, double x, double y) {
         double xDist, yDist;
 
-        xDist = to.x - origin.x;
-        yDist = to.y - origin.y;
+        xDist = x - mesh.vertices[0];
+        yDist = y - mesh.vertices[1];
 
-        if (xDist == 0 && yDist == 0) return;
+        if (xDist == 0 && yDist == 0) return false;
 
         for (int index = 1; index < mesh.vertices.length; index += 5) {
             mesh.vertices[index - 1] += xDist;
             mesh.vertices[index] += yDist;
         }
+
+        return true;
     }
 
 
@@ -103,19 +464,39 @@ public class RenderProcessor extends A_Processor<RenderComponent> {
 
     @Override
     protected void p_onComponentActivated(RenderComponent component) {
+        component.positionRecorded = false;
+
+        // The position might have changed while the component was inactive, without the mesh following it.
+        // While pipelined, the next snapshot carries the mesh to the rendering thread.
+        if (_pipelined) return;
+
+        if (component.positionDependent && _positionProcessor != null && _positionProcessor.hasEntity(component.owningEntity)) {
+            PositionComponent position;
+
+            position = _positionProcessor.getComponent(component.owningEntity);
+
+            h_updatePosition(component.renderMesh, position.position.x, position.position.y);
+        }
+
         _system.addMesh(component.renderMesh, component.shaderPath);
     }
     @Override
     protected void p_onComponentDeactivated(RenderComponent component) {
+        if (_pipelined) return;
+
         _system.rmvMesh(component.renderMesh);
     }
 
     @Override
     protected void p_onComponentAdded(RenderComponent component) {
+        if (_pipelined) return;
+
         _system.addMesh(component.renderMesh, component.shaderPath);
     }
     @Override
     protected void p_onComponentRemoved(RenderComponent component) {
+        if (_pipelined) return;
+
         _system.rmvMesh(component.renderMesh);
     }
 
@@ -145,9 +526,66 @@ public class RenderProcessor extends A_Processor<RenderComponent> {
         return List.of(PositionComponent.class);
     }
 
+    // Uploads meshes and renders, which requires the OpenGL context of the main thread, unless pipelined.
+    @Override
+    protected boolean p_requiresMainThread() {
+        return !_pipelined;
+    }
+
     public BatchSystem getBatchSystem() {
         return _system;
     }
 
+    /**
+     * Sets whether the batches are only drawn by {@link RenderProcessor#render()}, instead of every update.
+     * While the {@link Engine} is pipelined, rendering is always deferred.
+     *
+     * @param value Whether rendering is deferred
+     *
+     * @author Tim Kloepper
+     */
+    public void setDeferredRendering(boolean value) {
+        _deferRendering = value || _pipelined;
+    }
+    /**
+     * Sets whether only the meshes of render components or positions, that were marked as changed, are uploaded every update.
+     * Disabled by default, in which case every mesh is uploaded every update. <br>
+     * Only enable this, if everything writing to {@link PositionComponent#position} or {@link RenderComponent#renderMesh}
+     * also calls {@link A_Processor#markChanged(int)} on the processor of the component,
+     * as the {@link internal.entity_component_system.specifics.velocity.VelocityProcessor} does.
+     * Otherwise, those meshes freeze on screen.
+     *
+     * @param value Whether only changed meshes are uploaded
+     *
+     * @author Tim Kloepper
+     */
+    public void setChangeTracking(boolean value) {
+        _changeTracking = value;
+    }
+    /**
+     * Sets whether deferred rendering places moving meshes between their positions of the last two updates,
+     * by the interpolation alpha of the {@link Engine}. Enabled by default.
+     * Interpolating draws everything up to one update late, but without the judder of a simulation slower than the display.
+     *
+     * @param value Whether rendering interpolates
+     *
+     * @author Tim Kloepper
+     */
+    public void setInterpolation(boolean value) {
+        _interpolating = value;
+    }
+    public boolean isChangeTracking() {
+        return _changeTracking;
+    }
+    public boolean isInterpolating() {
+        return _interpolating;
+    }
+    public boolean isDeferredRendering() {
+        return _deferRendering;
+    }
+    public boolean isPipelined() {
+        return _pipelined;
+    }
+
 
 }
\ No newline at end of file
@@ -0,0 +1,174 @@
+package internal.entity_component_system.specifics.render;
+
+
+import internal.rendering.camera.Camera2D;
+
+import java.util.Arrays;
+
+
+/**
+ * The complete render state of a scene at the end of one update of its system,
+ * which is every mesh to draw with its shader, position and vertices, and the camera. <br>
+ * Meshes depending on a position also carry their position of the update before, so rendering can interpolate between both.
+ * Written by the simulation thread and read by the rendering thread, after being handed over through a
+ * {@link internal.util.TripleBuffer}, so it never gets changed while it is read.
+ * <p></p>
+ * The snapshot holds its own copy of the vertices of every mesh, as the rendering thread must not read meshes,
+ * which the simulation may change at any time. As the rendering thread may skip snapshots, every snapshot holds all vertices,
+ * while the version of every mesh tells, whether its vertices changed since they were last applied.
+ *
+ * @author Tim Kloepper
+ * @version 1.0
+ */
+public class RenderSnapshot {
+
+
+    // -+- CREATION -+- //
+
+    public RenderSnapshot() {
+        _entries = new RenderEntry[INITIAL_CAPACITY];
+        _shaderPaths = new String[INITIAL_CAPACITY];
+        _positions = new double[INITIAL_CAPACITY * 2];
+        _previousPositions = new double[INITIAL_CAPACITY * 2];
+        _versions = new int[INITIAL_CAPACITY];
+        _vertexRanges = new int[INITIAL_CAPACITY * 2];
+        _size = 0;
+
+        _vertices = new float[INITIAL_CAPACITY * 4 * 5];
+        _vertexAmount = 0;
+
+        // The size is replaced by the projection of the camera of the scene.
+        _CAMERA = new Camera2D(1, 1);
+    }
+
+
+    // -+- PARAMETERS -+- //
+
+    // FINALS //
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    // A copy of the camera of the scene, which the simulation may move at any time.
+    private final Camera2D _CAMERA;
+
+    // NON-FINALS //
+
+    private RenderEntry[] _entries;
+    private String[] _shaderPaths;
+    // Two values per mesh, NaN for meshes, which do not depend on a position.
+    private double[] _positions;
+    private double[] _previousPositions;
+    private int[] _versions;
+    // The offset and length of the vertices of every mesh inside the vertex array.
+    private int[] _vertexRanges;
+    private int _size;
+
+    private float[] _vertices;
+    private int _vertexAmount;
+
+
+    // -+- WRITING -+- //
+
+    /**
+     * Empties the snapshot, keeping its arrays, so it can be written again.
+     *
+     * @author Tim Kloepper
+     */
+    public void clear() {
+        Arrays.fill(_entries, 0, _size, null);
+        Arrays.fill(_shaderPaths, 0, _size, null);
+
+        _size = 0;
+        _vertexAmount = 0;
+    }
+    void add(RenderEntry entry, String shaderPath, int version, float[] vertices) {
+        add(entry, shaderPath, version, vertices, Double.NaN, Double.NaN, Double.NaN, Double.NaN);
+    }
+    void add(RenderEntry entry, String shaderPath, int version, float[] vertices, double previousX, double previousY, double x, double y) {
+        if (_size == _entries.length) {
+            _entries = Arrays.copyOf(_entries, _size * 2);
+            _shaderPaths = Arrays.copyOf(_shaderPaths, _size * 2);
+            _positions = Arrays.copyOf(_positions, _size * 4);
+            _previousPositions = Arrays.copyOf(_previousPositions, _size * 4);
+            _versions = Arrays.copyOf(_versions, _size * 2);
+            _vertexRanges = Arrays.copyOf(_vertexRanges, _size * 4);
+        }
+        if (_vertexAmount + vertices.length > _vertices.length) _vertices = Arrays.copyOf(_vertices, Math.max(_vertices.length * 2, _vertexAmount + vertices.length));
+
+        _entries[_size] = entry;
+        _shaderPaths[_size] = shaderPath;
+        _positions[_size * 2] = x;
+        _positions[_size * 2 + 1] = y;
+        _previousPositions[_size * 2] = previousX;
+        _previousPositions[_size * 2 + 1] = previousY;
+        _versions[_size] = version;
+        _vertexRanges[_size * 2] = _vertexAmount;
+        _vertexRanges[_size * 2 + 1] = vertices.length;
+
+        System.arraycopy(vertices, 0, _vertices, _vertexAmount, vertices.length);
+
+        _vertexAmount += vertices.length;
+        _size++;
+    }
+    public void setCamera(Camera2D camera) {
+        _CAMERA.set(camera);
+    }
+
+
+    // -+- READING -+- //
+
+    /**
+     * Copies the vertices of the mesh, as they were when the snapshot got written, into the target.
+     *
+     * @param index The index of the mesh inside the snapshot
+     * @param target The array the vertices are copied into, which needs to be at least as long as the vertices
+     *
+     * @author Tim Kloepper
+     */
+    public void copyVertices(int index, float[] target) {
+        System.arraycopy(_vertices, _vertexRanges[index * 2], target, 0, _vertexRanges[index * 2 + 1]);
+    }
+
+
+    // -+- GETTERS -+- //
+
+    public int getSize() {
+        return _size;
+    }
+    RenderEntry getEntry(int index) {
+        return _entries[index];
+    }
+    public String getShaderPath(int index) {
+        return _shaderPaths[index];
+    }
+    public int getVersion(int index) {
+        return _versions[index];
+    }
+    public int getVertexAmount(int index) {
+        return _vertexRanges[index * 2 + 1];
+    }
+    public double getX(int index) {
+        return _positions[index * 2];
+    }
+    public double getY(int index) {
+        return _positions[index * 2 + 1];
+    }
+    public double getPreviousX(int index) {
+        return _previousPositions[index * 2];
+    }
+    public double getPreviousY(int index) {
+        return _previousPositions[index * 2 + 1];
+    }
+    public Camera2D getCamera() {
+        return _CAMERA;
+    }
+
+
+    // -+- CHECKERS -+- //
+
+    public boolean isPositionDependent(int index) {
+        return !Double.isNaN(_positions[index * 2]);
+    }
+
+
+}
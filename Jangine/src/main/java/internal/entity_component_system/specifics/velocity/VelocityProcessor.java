@@ -18,11 +18,24 @@ import internal.rendering.container.A_Scene;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
+import java.util.function.Consumer;
 
 
 public class VelocityProcessor extends A_Processor<VelocityComponent> {
 
 
+    public VelocityProcessor() {
+        super();
+
+        // A velocity component is valid as long as its entity has a position.
+        p_setIncrementalValidation(true);
+
+        // Every component only moves the position of its own entity, so ranges can run on any thread.
+        p_setParallelIteration(true);
+
+        _INTEGRATE = this::h_integrate;
+    }
+
     @Override
     protected void p_init(System system, A_Scene scene) {
         _port = new ActiveEventPort(new EventFilter());
@@ -45,13 +58,20 @@ public class VelocityProcessor extends A_Processor<VelocityComponent> {
 
     @Override
     protected void p_internalUpdate(Collection<VelocityComponent> validComponents, System system, A_Scene scene) {
+        p_parallelFor(validComponents, _INTEGRATE);
+    }
+
+    private void h_integrate(VelocityComponent component) {
         PositionComponent positionComponent;
 
-        for (VelocityComponent component : validComponents) {
-            positionComponent = _positionProcessor.getComponent(component.owningEntity);
+        // Resting entities are not marked as changed, so their dependents can skip them.
+        if (component.mult == 0 || (component.VELOCITY.x == 0 && component.VELOCITY.y == 0)) return;
 
-            positionComponent.position.add(component.VELOCITY.x * component.mult, component.VELOCITY.y * component.mult);
-        }
+        positionComponent = _positionProcessor.getComponent(component.owningEntity);
+
+        positionComponent.position.add(component.VELOCITY.x * component.mult, component.VELOCITY.y * component.mult);
+
+        _positionProcessor.markChanged(component.owningEntity);
     }
 
 
@@ -81,6 +101,10 @@ public class VelocityProcessor extends A_Processor<VelocityComponent> {
 
     // -+- PARAMETERS -+- //
 
+    // FINALS //
+
+    private final Consumer<VelocityComponent> _INTEGRATE;
+
     // NON-FINALS //
 
     private PositionProcessor _positionProcessor;
@@ -123,5 +147,14 @@ public class VelocityProcessor extends A_Processor<VelocityComponent> {
         return List.of(PositionComponent.class);
     }
 
+    @Override
+    protected Collection<? extends Class<? extends A_Component>> p_getReadComponentClasses() {
+        return List.of(VelocityComponent.class);
+    }
+    @Override
+    protected Collection<? extends Class<? extends A_Component>> p_getWrittenComponentClasses() {
+        return List.of(PositionComponent.class);
+    }
+
 
 }
\ No newline at end of file
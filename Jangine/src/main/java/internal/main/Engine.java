@@ -11,6 +11,8 @@ import internal.util.DeltaTimer;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Set;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.locks.LockSupport;
 
 import static org.lwjgl.glfw.GLFW.*;
 
@@ -20,6 +22,15 @@ import static org.lwjgl.glfw.GLFW.*;
  * If this class gets destroyed, Jangine is no longer running and therefore
  * any game that uses it.
  * <p>
+ * The simulation runs at a fixed rate, independent of the rate at which the windows render.
+ * Every frame, the passed time is collected and spent in fixed steps, of which at most a configurable amount
+ * are taken per frame, so a slow frame can not drag the simulation into ever more catching up.
+ * The remaining fraction of a step is exposed as the interpolation alpha for rendering.
+ * <p>
+ * If pipelined, the simulation runs on its own thread, while the main thread, which owns the OpenGL contexts
+ * and has to poll the window events, only renders. A slow simulation step then no longer delays presenting a frame
+ * and waiting for v-sync no longer delays the simulation.
+ * <p>
  * This class stands on the top of all hierarchy of Jangine.
  *
  * @author Tim Kloepper
@@ -30,27 +41,46 @@ public class Engine {
 
     private static Engine _instance;
 
+    public static final double DEFAULT_SIMULATION_RATE = 60;
+    public static final int DEFAULT_MAX_CATCH_UP_STEPS = 5;
+
 
     private EventMaster _eventHandler;
 
     private Set<Window> _windows;
     private final HashMap<Window, ActiveEventPort> _WINDOW_PORTS;
 
-    private boolean _shouldClose;
+    // Read by both threads, while pipelined.
+    private volatile boolean _shouldClose;
+    private boolean _pipelined;
+    private boolean _running;
 
     private double _currentDeltaTime;
 
+    private double _fixedDeltaTime;
+    private int _maxCatchUpSteps;
+    private double _accumulator;
+    private volatile double _interpolationAlpha;
+
 
     private Engine() {
         _eventHandler = new EventMaster();
 
-        _windows = new HashSet<>();
+        // Iterated by the simulation thread, while the main thread may remove windows.
+        _windows = new CopyOnWriteArraySet<>();
         _WINDOW_PORTS = new HashMap<>();
 
         _shouldClose = false;
+        _pipelined = false;
+        _running = false;
 
         _currentDeltaTime = 0;
 
+        _fixedDeltaTime = 1 / DEFAULT_SIMULATION_RATE;
+        _maxCatchUpSteps = DEFAULT_MAX_CATCH_UP_STEPS;
+        _accumulator = 0;
+        _interpolationAlpha = 0;
+
         // Initialize GLFW. Most GLFW functions will not work before doing this.
         if ( !glfwInit() )
             throw new IllegalStateException("Unable to initialize GLFW");
@@ -61,6 +91,8 @@ public class Engine {
 
     /**
      * Starts the main loop.
+     * Every iteration takes as many fixed simulation steps as the passed time allows, up to the catch up limit,
+     * and then renders every window once.
      * If this function "ends", the engine closes.
      *
      * @author Tim Kloepper
@@ -68,18 +100,101 @@ public class Engine {
     public void run() {
         if (_windows.isEmpty()) return;
 
-        while (!_shouldClose) {
-            _currentDeltaTime = DeltaTimer.get().getDeltaTime();
+        _running = true;
+
+        if (_pipelined) {
+            _runPipelined();
+        } else {
+            while (!_shouldClose) {
+                _currentDeltaTime = DeltaTimer.get().getDeltaTime();
+
+                _simulate(_currentDeltaTime);
 
-            _shouldClose = _updateWindows();
+                _shouldClose = _updateWindows();
 
-            DeltaTimer.get().update(); // At the end, otherwise delta time is always 0.
+                DeltaTimer.get().update(); // At the end, otherwise delta time is always 0.
+            }
         }
 
+        _running = false;
+
         // Terminate GLFW and free the error callback
         glfwTerminate();
         glfwSetErrorCallback(null).free();
     }
+    /**
+     * Starts the simulation thread and renders on the calling thread, until any window closes.
+     *
+     * @author Tim Kloepper
+     */
+    private void _runPipelined() {
+        Thread simulation;
+
+        simulation = new Thread(this::_runSimulation, "Jangine Simulation");
+        simulation.start();
+
+        while (!_shouldClose) {
+            _currentDeltaTime = DeltaTimer.get().getDeltaTime();
+
+            if (_updateWindows()) _shouldClose = true;
+
+            DeltaTimer.get().update();
+        }
+
+        try {
+            simulation.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+    private void _runSimulation() {
+        long lastTime;
+
+        lastTime = System.nanoTime();
+
+        try {
+            while (!_shouldClose) {
+                long currentTime;
+
+                currentTime = System.nanoTime();
+
+                _simulate((currentTime - lastTime) / 1e9);
+
+                lastTime = currentTime;
+
+                // Sleep until the next step is due, instead of spinning.
+                LockSupport.parkNanos((long) ((_fixedDeltaTime - _accumulator) * 1e9));
+            }
+        } finally {
+            // A crashing simulation takes the rendering down with it.
+            _shouldClose = true;
+        }
+    }
+    /**
+     * Takes as many fixed steps, as the collected time allows, up to the catch up limit.
+     *
+     * @param deltaTime The time passed since the last call in seconds
+     *
+     * @author Tim Kloepper
+     */
+    private void _simulate(double deltaTime) {
+        int steps;
+
+        _accumulator += deltaTime;
+        steps = 0;
+
+        while (_accumulator >= _fixedDeltaTime && steps < _maxCatchUpSteps) {
+            _fixedUpdateWindows();
+
+            _accumulator -= _fixedDeltaTime;
+            steps++;
+        }
+
+        // The simulation could not keep up, so the time left behind is dropped instead of being caught up later.
+        if (_accumulator >= _fixedDeltaTime) _accumulator %= _fixedDeltaTime;
+
+        _interpolationAlpha = _accumulator / _fixedDeltaTime;
+    }
 
     /**
      * Returns the singleton instance of this engine.
@@ -103,6 +218,76 @@ public class Engine {
         return _eventHandler;
     }
 
+    public double getSimulationRate() {
+        return 1 / _fixedDeltaTime;
+    }
+    public double getFixedDeltaTime() {
+        return _fixedDeltaTime;
+    }
+    public int getMaxCatchUpSteps() {
+        return _maxCatchUpSteps;
+    }
+    public boolean isPipelined() {
+        return _pipelined;
+    }
+    /**
+     * Returns how far the time of the current frame lies between the last and the next simulation step,
+     * which is used to interpolate between the last two simulated states while rendering.
+     *
+     * @return The fraction of a step, from zero inclusive to one exclusive
+     *
+     * @author Tim Kloepper
+     */
+    public double getInterpolationAlpha() {
+        return _interpolationAlpha;
+    }
+
+
+    // -+- SETTERS -+- //
+
+    /**
+     * Sets how many simulation steps are taken per second, independent of the rendering rate.
+     *
+     * @param hertz The amount of steps per second, which needs to be positive
+     *
+     * @author Tim Kloepper
+     */
+    public void setSimulationRate(double hertz) {
+        if (hertz <= 0) throw new IllegalArgumentException("[ENGINE ERROR] : Simulation rate has to be positive!");
+
+        _fixedDeltaTime = 1 / hertz;
+        _accumulator = 0;
+    }
+    /**
+     * Sets the maximum amount of simulation steps taken during a single frame.
+     * Time beyond that is dropped, so the simulation slows down under load instead of stalling the engine.
+     *
+     * @param maxCatchUpSteps The amount of steps, which needs to be at least one
+     *
+     * @author Tim Kloepper
+     */
+    public void setMaxCatchUpSteps(int maxCatchUpSteps) {
+        if (maxCatchUpSteps < 1) throw new IllegalArgumentException("[ENGINE ERROR] : At least one catch up step is required!");
+
+        _maxCatchUpSteps = maxCatchUpSteps;
+    }
+    /**
+     * Sets whether the simulation runs on its own thread, see {@link Engine}. <br>
+     * Has to be set before any scene is created, as the render processors decide on creation,
+     * whether they publish snapshots or render directly.
+     * While pipelined, scenes are updated on the simulation thread and must not call OpenGL,
+     * while input callbacks still run on the main thread.
+     *
+     * @param value Whether the engine is pipelined
+     *
+     * @author Tim Kloepper
+     */
+    public void setPipelined(boolean value) {
+        if (_running) throw new IllegalStateException("[ENGINE ERROR] : Can not change the threading while running!");
+
+        _pipelined = value;
+    }
+
 
     // -+- WINDOW-MANAGEMENT -+- //
 
@@ -131,6 +316,14 @@ public class Engine {
         window.getEventHandler().deregister(_WINDOW_PORTS.get(window));
     }
 
+    /**
+     * Advances the simulation of all the windows by one fixed step.
+     *
+     * @author Tim Kloepper
+     */
+    private void _fixedUpdateWindows() {
+        for (Window window : _windows) window.fixedUpdate(_fixedDeltaTime);
+    }
     /**
      * Updates all the windows.
      *
@@ -53,6 +53,21 @@ public class Camera2D {
 
         return this;
     }
+    /**
+     * Copies the projection and the position of the camera into this one.
+     *
+     * @param camera The camera to copy
+     *
+     * @return this, for linked calls.
+     *
+     * @author Tim Kloepper
+     */
+    public Camera2D set(Camera2D camera) {
+        _projectionMatrix.set(camera._projectionMatrix);
+        _position.set(camera._position);
+
+        return this;
+    }
 
 
     // -+- GETTERS -+- //
@@ -101,10 +101,11 @@ public abstract class A_Scene extends A_Container {
 
 
         public Systems(A_Scene scene) {
-            ECS = new System(scene);
-
             EVENT_HANDLER = new EventMaster();
 
+            // The scene is still being created, so its event handler is passed in directly.
+            ECS = new System(scene, EVENT_HANDLER);
+
             ENGINE_PORT = new ActiveEventPort(new EventFilter());
             Engine.get().getEventHandler().register(ENGINE_PORT);
         }
@@ -160,7 +161,25 @@ public abstract class A_Scene extends A_Container {
 
     // -+- UPDATE LOOP -+- //
 
+    /**
+     * Is called once per rendered frame, after all fixed steps of that frame.
+     *
+     * @param deltaTime The time passed since the last frame in seconds
+     *
+     * @author Tim Kloepper
+     */
     public abstract void update(double deltaTime);
+    /**
+     * Is called at the fixed simulation rate of the {@link Engine}, which may be zero or multiple times per frame.
+     * Simulation, like updating the {@link System}, belongs here, so it does not depend on the frame rate.
+     *
+     * @param fixedDeltaTime The duration of a step in seconds
+     *
+     * @author Tim Kloepper
+     */
+    public void fixedUpdate(double fixedDeltaTime) {
+
+    }
 
 
     // -+- GETTERS -+- //
@@ -128,6 +128,23 @@ public class Window extends A_Container {
         return true;
     }
 
+    /**
+     * Advances the simulation of the active scene by one fixed step, without rendering.
+     * Is called by the {@link Engine} as often as its simulation rate requires, before the window gets updated.
+     * While the engine is pipelined, this happens on the simulation thread, which does not own the context.
+     *
+     * @param fixedDeltaTime The duration of a step in seconds
+     *
+     * @author Tim Kloepper
+     */
+    public void fixedUpdate(double fixedDeltaTime) {
+        if (_activeScene == null) {return;}
+
+        if (!Engine.get().isPipelined()) glfwMakeContextCurrent(_glfw_windowPointer);
+
+        _activeScene.fixedUpdate(fixedDeltaTime);
+    }
+
     private void _updateScene(double deltaTime) {
         if (_activeScene == null) {return;}
 
@@ -5,7 +5,7 @@ import java.util.Arrays;
 import java.util.InvalidPropertiesFormatException;
 
 
-public abstract class A_Mesh {
+public abstract class A_Mesh implements Cloneable {
 
 
     public A_Mesh(float[] vertices, int[] indices) {
@@ -34,6 +34,29 @@ public abstract class A_Mesh {
     public int[] indices;
 
 
+    /**
+     * Creates a copy of this mesh with its own vertices and indices, keeping the class and all further fields of this mesh.
+     *
+     * @return The copy
+     *
+     * @author Tim Kloepper
+     */
+    public A_Mesh copy() {
+        A_Mesh copy;
+
+        try {
+            copy = (A_Mesh) super.clone();
+        } catch (CloneNotSupportedException e) {
+            throw new IllegalStateException("[MESH ERROR] : Meshes are always cloneable!", e);
+        }
+
+        copy.vertices = vertices.clone();
+        copy.indices = indices.clone();
+
+        return copy;
+    }
+
+
     private boolean _areValidIndices(int[] indices) {
         return (indices.length % 3 == 0);
     }
@@ -67,8 +67,6 @@ public class DeltaTimer {
         currentTime = System.nanoTime();
         timeDifference = currentTime - _runtime;
 
-        _runtime += System.nanoTime(); // Just get it again, as we computed something, after the last call, meaning the nano time increased.
-
-        return timeDifference / 10e9; // Conversion from nanoseconds to seconds.
+        return timeDifference / 1e9; // Conversion from nanoseconds to seconds.
     }
 }
\ No newline at end of file
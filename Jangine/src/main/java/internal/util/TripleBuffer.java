@@ -0,0 +1,107 @@
+package internal.util;
+
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+
+/**
+ * Hands data from one producing thread to one consuming thread, without either of them ever waiting for the other. <br>
+ * Of the three buffers, the producer owns one it writes into and the consumer owns one it reads from.
+ * The third one holds the latest published data and is swapped with the buffer of either side,
+ * through a single atomic exchange.
+ * <p></p>
+ * The consumer always reads the latest published data. Data, that got published twice before the consumer
+ * looked, is skipped, so every buffer has to hold a complete state and not just the changes since the last one.
+ *
+ * @param <T> The type of the buffers
+ *
+ * @author Tim Kloepper
+ * @version 1.0
+ */
+public class TripleBuffer<T> {
+
+
+    // -+- CREATION -+- //
+
+    public TripleBuffer(Supplier<T> factory) {
+        if (factory == null) throw new IllegalArgumentException("[TRIPLE BUFFER ERROR] : Factory can not be null!");
+
+        _BUFFERS = new Object[] {factory.get(), factory.get(), factory.get()};
+
+        _STATE = new AtomicInteger(1);
+
+        _write = 0;
+        _read = 2;
+    }
+
+
+    // -+- PARAMETERS -+- //
+
+    // FINALS //
+
+    // Set, while the shared buffer holds data the consumer did not see yet.
+    private static final int FRESH = 4;
+    private static final int INDEX_MASK = 3;
+
+    private final Object[] _BUFFERS;
+    // The index of the shared buffer and the fresh bit.
+    private final AtomicInteger _STATE;
+
+    // NON-FINALS //
+
+    // Only touched by the producer.
+    private int _write;
+    // Only touched by the consumer.
+    private int _read;
+
+
+    // -+- PRODUCER -+- //
+
+    /**
+     * Returns the buffer the producer may write into, until it gets published.
+     *
+     * @return The buffer owned by the producer
+     *
+     * @author Tim Kloepper
+     */
+    @SuppressWarnings("unchecked")
+    public T getWriteBuffer() {
+        return (T) _BUFFERS[_write];
+    }
+    /**
+     * Publishes the written buffer as the latest data and hands the producer another buffer.
+     * The new write buffer still holds older data, which needs to be overwritten completely.
+     *
+     * @author Tim Kloepper
+     */
+    public void publish() {
+        _write = _STATE.getAndSet(_write | FRESH) & INDEX_MASK;
+    }
+
+
+    // -+- CONSUMER -+- //
+
+    /**
+     * Returns the latest published data, which stays untouched by the producer, until the next call.
+     *
+     * @return The latest published buffer, or the same buffer as the last call, if nothing got published since
+     *
+     * @author Tim Kloepper
+     */
+    @SuppressWarnings("unchecked")
+    public T acquire() {
+        if ((_STATE.get() & FRESH) != 0) _read = _STATE.getAndSet(_read) & INDEX_MASK;
+
+        return (T) _BUFFERS[_read];
+    }
+
+
+    // -+- CHECKERS -+- //
+
+    public boolean hasNewData() {
+        return (_STATE.get() & FRESH) != 0;
+    }
+
+
+}
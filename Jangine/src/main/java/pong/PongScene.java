@@ -26,15 +26,21 @@ public class PongScene extends A_Scene {
 
         boolean result;
 
-        RenderProcessor renderProcessor;
+        CollisionProcessor collisionProcessor;
 
+        // The system is updated at the fixed simulation rate, but drawn once per frame.
         renderProcessor = new RenderProcessor();
+        renderProcessor.setDeferredRendering(true);
+
+        // The ball catchers are thin enough for fast balls to pass them within a single update.
+        collisionProcessor = new CollisionProcessor(new QuadTree(new Vector2d(0, 0), 1920, 1080), new AABB_Calculator());
+        collisionProcessor.setContinuousDetection(true);
 
         SYSTEMS.ECS.addProcessor(new PositionProcessor());
         SYSTEMS.ECS.addProcessor(renderProcessor);
         renderProcessor.getBatchSystem().addProcessor(new TextureBatchProcessor(), false);
         SYSTEMS.ECS.addProcessor(new HitboxProcessor());
-        SYSTEMS.ECS.addProcessor(new CollisionProcessor(new QuadTree(new Vector2d(0, 0), 1920, 1080), new AABB_Calculator()));
+        SYSTEMS.ECS.addProcessor(collisionProcessor);
         SYSTEMS.ECS.addProcessor(new VelocityProcessor());
     }
 
@@ -48,6 +54,8 @@ public class PongScene extends A_Scene {
 
     // NON-FINALS //
 
+    RenderProcessor renderProcessor;
+
     Paddle paddle;
 
     Ball ball, secondBall, thirdBall, fourthBall;
@@ -89,14 +97,18 @@ public class PongScene extends A_Scene {
 
     @Override
     public void update(double deltaTime) {
+        renderProcessor.render();
+    }
+    @Override
+    public void fixedUpdate(double fixedDeltaTime) {
         SYSTEMS.ECS.update();
 
-        paddle.update(0.4);
+        paddle.update(fixedDeltaTime);
 
-        ball.update(0.4);
-        secondBall.update(0.4);
-        thirdBall.update(0.4);
-        fourthBall.update(0.4);
+        ball.update(fixedDeltaTime);
+        secondBall.update(fixedDeltaTime);
+        thirdBall.update(fixedDeltaTime);
+        fourthBall.update(fixedDeltaTime);
     }
 
 
@@ -0,0 +1,170 @@
+package internal.batch;
+
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+class DirtyRangeTrackerTest {
+
+
+    // -+- TESTS -+- //
+
+    @Test
+    void singleRangeStaysUnchanged() {
+        DirtyRangeTracker tracker;
+
+        tracker = new DirtyRangeTracker(DirtyRangeTracker.DEFAULT_MERGE_GAP);
+
+        assertTrue(tracker.isEmpty());
+        assertEquals(0, tracker.merge());
+
+        tracker.mark(10, 5);
+
+        assertEquals(1, tracker.merge());
+        h_assertRange(tracker, 0, 10, 15);
+        assertEquals(5, tracker.getCoveredAmount());
+    }
+    @Test
+    void overlappingRangesAreMerged() {
+        DirtyRangeTracker tracker;
+
+        tracker = new DirtyRangeTracker(0);
+
+        // Marked out of order, with one range inside another.
+        tracker.mark(20, 10);
+        tracker.mark(5, 20);
+        tracker.mark(8, 2);
+
+        assertEquals(1, tracker.merge());
+        h_assertRange(tracker, 0, 5, 30);
+        assertEquals(25, tracker.getCoveredAmount());
+    }
+    @Test
+    void touchingRangesAreMerged() {
+        DirtyRangeTracker tracker;
+
+        tracker = new DirtyRangeTracker(0);
+
+        tracker.mark(10, 10);
+        tracker.mark(0, 10);
+        tracker.mark(21, 4);
+
+        // The first two touch, while the last one leaves a single clean element.
+        assertEquals(2, tracker.merge());
+        h_assertRange(tracker, 0, 0, 20);
+        h_assertRange(tracker, 1, 21, 25);
+    }
+    @Test
+    void rangesAreMergedUpToTheGap() {
+        DirtyRangeTracker tracker;
+
+        tracker = new DirtyRangeTracker(4);
+
+        tracker.mark(0, 10);
+        tracker.mark(14, 6);
+        tracker.mark(25, 5);
+
+        // A gap of exactly four is merged, a gap of five is not.
+        assertEquals(2, tracker.merge());
+        h_assertRange(tracker, 0, 0, 20);
+        h_assertRange(tracker, 1, 25, 30);
+
+        // A larger gap merges what was already merged, without marking anything new.
+        tracker.setMergeGap(5);
+
+        assertEquals(1, tracker.merge());
+        h_assertRange(tracker, 0, 0, 30);
+    }
+    @Test
+    void mergeMatchesMarkedElements() {
+        Random random;
+
+        random = new Random(23);
+
+        for (int round = 0; round < 200; round++) {
+            DirtyRangeTracker tracker;
+            boolean[] marked;
+            int mergeGap, ranges;
+
+            mergeGap = random.nextInt(8);
+            tracker = new DirtyRangeTracker(mergeGap);
+            marked = new boolean[256];
+
+            for (int mark = random.nextInt(20); mark > 0; mark--) {
+                int start, length;
+
+                start = random.nextInt(240);
+                length = random.nextInt(16);
+
+                tracker.mark(start, length);
+                for (int element = start; element < start + length; element++) marked[element] = true;
+            }
+
+            ranges = tracker.merge();
+
+            for (int range = 0; range < ranges; range++) {
+                // Every range starts and ends on a marked element.
+                assertTrue(marked[tracker.getStart(range)]);
+                assertTrue(marked[tracker.getEnd(range) - 1]);
+
+                // Ranges are sorted and more than the merge gap apart.
+                if (range > 0) assertTrue(tracker.getStart(range) - tracker.getEnd(range - 1) > mergeGap, "Round " + round);
+
+                // Only gaps of at most the merge gap are covered inside a range.
+                for (int element = tracker.getStart(range), clean = 0; element < tracker.getEnd(range); element++) {
+                    clean = marked[element] ? 0 : clean + 1;
+
+                    assertTrue(clean <= mergeGap, "Round " + round);
+                }
+            }
+
+            // Every marked element is covered.
+            for (int element = 0; element < marked.length; element++) {
+                if (!marked[element]) continue;
+
+                assertTrue(h_covers(tracker, ranges, element), "Element " + element + " in round " + round);
+            }
+        }
+    }
+    @Test
+    void countersTrackSavedUploads() {
+        DirtyRangeTracker tracker;
+
+        tracker = new DirtyRangeTracker(0);
+
+        tracker.mark(0, 4);
+        tracker.mark(4, 4);
+        tracker.mark(20, 4);
+        tracker.mark(30, 0);
+
+        tracker.clear(tracker.merge());
+
+        assertTrue(tracker.isEmpty());
+        assertEquals(3, tracker.getMarkedAmount());
+        assertEquals(2, tracker.getUploadAmount());
+        assertEquals(1, tracker.getSavedUploadAmount());
+
+        assertThrows(IllegalArgumentException.class, () -> tracker.mark(-1, 4));
+        assertThrows(IllegalArgumentException.class, () -> tracker.mark(0, -1));
+    }
+
+    private static void h_assertRange(DirtyRangeTracker tracker, int range, int start, int end) {
+        assertEquals(start, tracker.getStart(range));
+        assertEquals(end, tracker.getEnd(range));
+    }
+    private static boolean h_covers(DirtyRangeTracker tracker, int ranges, int element) {
+        for (int range = 0; range < ranges; range++) {
+            if (element >= tracker.getStart(range) && element < tracker.getEnd(range)) return true;
+        }
+
+        return false;
+    }
+
+
+}
@@ -0,0 +1,214 @@
+package internal.batch;
+
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+class FragmentAllocatorTest {
+
+
+    // -+- PARAMETERS -+- //
+
+    // FINALS //
+
+    private static final int CAPACITY = 4096;
+
+
+    // -+- TESTS -+- //
+
+    @Test
+    void matchesReferenceModel() {
+        FragmentAllocator allocator;
+        ReferenceModel model;
+        ArrayList<int[]> ranges;
+        Random random;
+
+        allocator = new FragmentAllocator(CAPACITY);
+        model = new ReferenceModel(CAPACITY);
+        ranges = new ArrayList<>();
+        random = new Random(25);
+
+        for (int operation = 0; operation < 20_000; operation++) {
+            // Allocates a little more often than it frees, so the allocator keeps running full.
+            if (ranges.isEmpty() || random.nextInt(100) < 55) {
+                int amount, position;
+
+                amount = random.nextInt(10) == 0 ? 1 + random.nextInt(600) : 1 + random.nextInt(40);
+                position = allocator.allocate(amount);
+
+                if (position == -1) {
+                    // Only fails, if there really is no large enough fragment.
+                    assertTrue(model.getLargestRun() < amount, "Spurious failure in operation " + operation);
+                } else {
+                    assertTrue(model.isFree(position, amount), "Overlapping range in operation " + operation);
+
+                    model.set(position, amount, true);
+                    ranges.add(new int[] {position, amount});
+                }
+            } else {
+                int[] range;
+
+                range = ranges.remove(random.nextInt(ranges.size()));
+
+                allocator.free(range[0], range[1]);
+                model.set(range[0], range[1], false);
+            }
+
+            h_assertStatistics(allocator, model, operation);
+        }
+
+        for (int[] range : ranges) allocator.free(range[0], range[1]);
+
+        // Everything coalesced back into one fragment.
+        assertEquals(CAPACITY, allocator.getFreeAmount());
+        assertEquals(1, allocator.getFragmentAmount());
+        assertEquals(CAPACITY, allocator.getLargestFragment());
+    }
+    @Test
+    void freedNeighboursAreCoalesced() {
+        FragmentAllocator allocator;
+        int a, b, c;
+
+        allocator = new FragmentAllocator(30);
+
+        a = allocator.allocate(10);
+        b = allocator.allocate(10);
+        c = allocator.allocate(10);
+
+        assertEquals(0, allocator.getFragmentAmount());
+
+        allocator.free(a, 10);
+        allocator.free(c, 10);
+
+        assertEquals(2, allocator.getFragmentAmount());
+        assertEquals(10, allocator.getLargestFragment());
+        assertEquals(0.5, allocator.getFragmentation());
+        assertEquals(-1, allocator.allocate(20));
+
+        // Freeing the middle merges with both neighbours at once.
+        allocator.free(b, 10);
+
+        assertEquals(1, allocator.getFragmentAmount());
+        assertEquals(30, allocator.getLargestFragment());
+        assertEquals(0, allocator.getFragmentation());
+        assertEquals(0, allocator.allocate(30));
+    }
+    @Test
+    void invalidFreeLeavesAllocatorUnchanged() {
+        FragmentAllocator allocator;
+        int position;
+
+        allocator = new FragmentAllocator(CAPACITY);
+
+        position = allocator.allocate(16);
+        allocator.allocate(16);
+
+        assertThrows(IllegalArgumentException.class, () -> allocator.free(position, 15));
+        assertThrows(IllegalArgumentException.class, () -> allocator.free(position + 1, 16));
+        assertEquals(CAPACITY - 32, allocator.getFreeAmount());
+
+        // The range can still be freed with the right amount, but only once.
+        allocator.free(position, 16);
+
+        assertEquals(CAPACITY - 16, allocator.getFreeAmount());
+        assertThrows(IllegalArgumentException.class, () -> allocator.free(position, 16));
+    }
+    @Test
+    void clearFreesEverything() {
+        FragmentAllocator allocator;
+
+        allocator = new FragmentAllocator(CAPACITY);
+
+        while (allocator.allocate(100) != -1);
+
+        assertFalse(allocator.getFreeAmount() >= 100);
+
+        allocator.clear();
+
+        assertEquals(CAPACITY, allocator.getFreeAmount());
+        assertEquals(0, allocator.allocate(CAPACITY));
+    }
+
+    private static void h_assertStatistics(FragmentAllocator allocator, ReferenceModel model, int operation) {
+        assertEquals(model.getFreeAmount(), allocator.getFreeAmount(), "Free amount in operation " + operation);
+        assertEquals(model.getRunAmount(), allocator.getFragmentAmount(), "Fragment amount in operation " + operation);
+        assertEquals(model.getLargestRun(), allocator.getLargestFragment(), "Largest fragment in operation " + operation);
+    }
+
+
+    // -+- CLASSES -+- //
+
+    /**
+     * Tracks every element on its own, which is slow, but obviously right.
+     *
+     * @author Tim Kloepper
+     */
+    private static class ReferenceModel {
+
+
+        ReferenceModel(int capacity) {
+            _USED = new boolean[capacity];
+        }
+
+
+        private final boolean[] _USED;
+
+
+        void set(int position, int amount, boolean used) {
+            for (int element = position; element < position + amount; element++) _USED[element] = used;
+        }
+
+        boolean isFree(int position, int amount) {
+            if (position < 0 || position + amount > _USED.length) return false;
+
+            for (int element = position; element < position + amount; element++) {
+                if (_USED[element]) return false;
+            }
+
+            return true;
+        }
+        int getFreeAmount() {
+            int free;
+
+            free = 0;
+            for (boolean used : _USED) if (!used) free++;
+
+            return free;
+        }
+        int getRunAmount() {
+            int runs;
+
+            runs = 0;
+            for (int element = 0; element < _USED.length; element++) {
+                if (!_USED[element] && (element == 0 || _USED[element - 1])) runs++;
+            }
+
+            return runs;
+        }
+        int getLargestRun() {
+            int largest, run;
+
+            largest = 0;
+            run = 0;
+
+            for (boolean used : _USED) {
+                run = used ? 0 : run + 1;
+                largest = Math.max(largest, run);
+            }
+
+            return largest;
+        }
+
+
+    }
+
+
+}
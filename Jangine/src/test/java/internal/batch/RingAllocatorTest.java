@@ -0,0 +1,106 @@
+package internal.batch;
+
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+
+class RingAllocatorTest {
+
+
+    // -+- PARAMETERS -+- //
+
+    // FINALS //
+
+    private static final int REGION_SIZE = 100;
+    private static final int REGION_AMOUNT = 3;
+
+
+    // -+- TESTS -+- //
+
+    @Test
+    void regionsWrapAround() {
+        RingAllocator ring;
+
+        ring = new RingAllocator(REGION_SIZE, REGION_AMOUNT);
+
+        assertEquals(REGION_SIZE * REGION_AMOUNT, ring.getCapacity());
+
+        for (int frame = 0; frame < REGION_AMOUNT * 3; frame++) {
+            assertEquals(frame % REGION_AMOUNT, ring.nextRegion());
+            assertEquals(frame % REGION_AMOUNT, ring.getRegion());
+            assertEquals(frame % REGION_AMOUNT * REGION_SIZE, ring.getRegionOffset());
+            assertEquals(0, ring.getUsed());
+        }
+    }
+    @Test
+    void allocationsStayInsideTheCurrentRegion() {
+        RingAllocator ring;
+
+        ring = new RingAllocator(REGION_SIZE, REGION_AMOUNT);
+
+        // Nothing can be allocated before the first region is entered.
+        assertEquals(-1, ring.allocate(1));
+
+        ring.nextRegion();
+        ring.nextRegion();
+
+        assertEquals(REGION_SIZE, ring.allocate(60));
+        assertEquals(REGION_SIZE + 60, ring.allocate(40));
+        assertEquals(REGION_SIZE, ring.getUsed());
+
+        // A full region does not spill into the next one.
+        assertEquals(-1, ring.allocate(1));
+        assertEquals(REGION_SIZE, ring.getUsed());
+
+        ring.nextRegion();
+
+        assertEquals(-1, ring.allocate(REGION_SIZE + 1));
+        assertEquals(0, ring.getUsed());
+        assertEquals(2 * REGION_SIZE, ring.allocate(REGION_SIZE));
+
+        assertThrows(IllegalArgumentException.class, () -> ring.allocate(-1));
+    }
+    @Test
+    void fencesAreHandedBackToTheirRegion() {
+        RingAllocator ring;
+
+        ring = new RingAllocator(REGION_SIZE, REGION_AMOUNT);
+
+        // Every region is written and drawn from once, which sets its fence.
+        for (int region = 0; region < REGION_AMOUNT; region++) {
+            ring.nextRegion();
+
+            assertEquals(RingAllocator.NO_FENCE, ring.takeFence());
+            assertEquals(RingAllocator.NO_FENCE, ring.setFence(h_fence(region)));
+        }
+
+        // Coming back to a region hands out the fence of the draw frames ago, exactly once.
+        for (int region = 0; region < REGION_AMOUNT; region++) {
+            ring.nextRegion();
+
+            assertEquals(h_fence(region), ring.getFence());
+            assertEquals(h_fence(region), ring.takeFence());
+            assertEquals(RingAllocator.NO_FENCE, ring.getFence());
+            assertEquals(RingAllocator.NO_FENCE, ring.takeFence());
+        }
+
+        // Replacing a fence, that was not waited on, returns it, so it can still be deleted.
+        ring.setFence(h_fence(10));
+        assertEquals(h_fence(10), ring.setFence(h_fence(11)));
+        assertEquals(h_fence(11), ring.getFence());
+    }
+    @Test
+    void invalidSizesAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new RingAllocator(0, REGION_AMOUNT));
+        assertThrows(IllegalArgumentException.class, () -> new RingAllocator(REGION_SIZE, 0));
+    }
+
+    private static long h_fence(int index) {
+        return 1000 + index;
+    }
+
+
+}
@@ -0,0 +1,364 @@
+package internal.entity_component_system;
+
+
+import internal.entity_component_system.FakeProcessor.ComponentA;
+import internal.entity_component_system.FakeProcessor.ComponentB;
+import internal.events.EventMaster;
+import internal.rendering.container.A_Scene;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+
+class A_ProcessorTest {
+
+
+    // -+- PARAMETERS -+- //
+
+    // FINALS //
+
+    private static final int ENTITY_AMOUNT = 10_000;
+    private static final int WARM_UP_UPDATES = 2_000;
+    private static final int MEASURED_UPDATES = 200;
+
+
+    // -+- TESTS -+- //
+
+    @Test
+    void updateDoesNotAllocate() {
+        h_assertUpdateDoesNotAllocate(false);
+    }
+    @Test
+    void incrementalUpdateDoesNotAllocate() {
+        h_assertUpdateDoesNotAllocate(true);
+    }
+
+    @Test
+    void updatePassesOnlyActiveComponents() {
+        System system;
+        CountingProcessor processor;
+        CountingComponent[] components;
+
+        system = new System(null, new EventMaster());
+        processor = new CountingProcessor(true);
+        system.addProcessor(processor);
+
+        components = h_spawn(system, 10);
+        components[3].active = false;
+        components[7].active = false;
+
+        processor.p_update(system, null);
+
+        assertEquals(8, processor.visited);
+        assertEquals(2, processor.deactivated);
+
+        components[3].active = true;
+        processor.p_update(system, null);
+
+        assertEquals(9, processor.visited);
+        assertEquals(1, processor.activated);
+    }
+
+    @Test
+    void parallelForVisitsEveryComponentOnce() {
+        System system;
+        CountingProcessor processor;
+        CountingComponent[] components;
+
+        system = new System(null, new EventMaster());
+        processor = new CountingProcessor(true);
+        processor.parallel = true;
+        system.addProcessor(processor);
+
+        // Growing the amount of components between updates also grows the reused range tasks.
+        components = h_spawn(system, 1_000);
+        for (int update = 0; update < 3; update++) processor.p_update(system, null);
+
+        for (CountingComponent component : components) assertEquals(3, component.visits);
+
+        components = h_spawn(system, 4_000);
+        for (int update = 0; update < 3; update++) processor.p_update(system, null);
+
+        for (CountingComponent component : components) assertEquals(3, component.visits);
+    }
+
+    @Test
+    void changedComponentsRequireChangeTracking() {
+        FakeProcessor<ComponentA> processor;
+
+        processor = new FakeProcessor<>(ComponentA.class);
+
+        assertThrows(IllegalStateException.class, processor::getChangedComponents);
+    }
+
+    @Test
+    void addedAndMarkedComponentsAreReportedOnce() {
+        System system;
+        FakeProcessor<ComponentA> processor;
+        ComponentA first, second;
+        int firstEntity, secondEntity;
+
+        system = new System(null, new EventMaster());
+        processor = new FakeProcessor<>(ComponentA.class).tracking();
+        system.addProcessor(processor);
+
+        first = new ComponentA();
+        second = new ComponentA();
+        firstEntity = system.addEntity();
+        secondEntity = system.addEntity();
+        system.addComponentToEntity(firstEntity, first, false);
+        system.addComponentToEntity(secondEntity, second, false);
+
+        system.update();
+        assertEquals(List.of(first, second), processor.changed);
+
+        system.update();
+        assertEquals(List.of(), processor.changed);
+
+        processor.markChanged(secondEntity);
+        system.update();
+        assertEquals(List.of(second), processor.changed);
+
+        system.update();
+        assertEquals(List.of(), processor.changed);
+
+        // A change made by the processor during its own update shares the tick of that update, so it is reported once more.
+        processor.onUpdate = components -> processor.markChanged(firstEntity);
+        system.update();
+        processor.onUpdate = null;
+        assertEquals(List.of(), processor.changed);
+
+        system.update();
+        assertEquals(List.of(first), processor.changed);
+
+        system.update();
+        assertEquals(List.of(), processor.changed);
+    }
+
+    @Test
+    void changesOfEarlierStagesAreSeenInTheSameUpdate() {
+        System system;
+        FakeProcessor<ComponentA> writer;
+        FakeProcessor<ComponentB> reader;
+        ComponentB component;
+        int entity;
+
+        system = new System(null, new EventMaster());
+        writer = new FakeProcessor<>(ComponentA.class).writing(ComponentA.class, ComponentB.class);
+        reader = new FakeProcessor<>(ComponentB.class).tracking();
+        system.addProcessor(writer);
+        system.addProcessor(reader);
+
+        component = new ComponentB();
+        entity = system.addEntity();
+        system.addComponentToEntity(entity, new ComponentA(), false);
+        system.addComponentToEntity(entity, component, false);
+
+        system.update();
+        system.update();
+        assertEquals(List.of(), reader.changed);
+
+        writer.onUpdate = components -> reader.markChanged(entity);
+        system.update();
+        writer.onUpdate = null;
+        assertEquals(List.of(component), reader.changed);
+
+        system.update();
+        assertEquals(List.of(), reader.changed);
+    }
+
+    @Test
+    void changesOfLaterStagesAreSeenInTheNextUpdate() {
+        System system;
+        FakeProcessor<ComponentA> writer;
+        FakeProcessor<ComponentB> reader;
+        ComponentB component;
+        int entity;
+
+        system = new System(null, new EventMaster());
+        reader = new FakeProcessor<>(ComponentB.class).tracking();
+        writer = new FakeProcessor<>(ComponentA.class).writing(ComponentA.class, ComponentB.class);
+        system.addProcessor(reader);
+        system.addProcessor(writer);
+
+        component = new ComponentB();
+        entity = system.addEntity();
+        system.addComponentToEntity(entity, new ComponentA(), false);
+        system.addComponentToEntity(entity, component, false);
+
+        system.update();
+        system.update();
+
+        writer.onUpdate = components -> reader.markChanged(entity);
+        system.update();
+        writer.onUpdate = null;
+        assertEquals(List.of(), reader.changed);
+        // The previous run of the reader started at the first stage tick, one update of three ticks ago.
+        assertEquals(system.getStorage().getTick() - 5, reader.changedSince);
+
+        system.update();
+        assertEquals(List.of(component), reader.changed);
+
+        system.update();
+        assertEquals(List.of(), reader.changed);
+    }
+
+    private void h_assertUpdateDoesNotAllocate(boolean incremental) {
+        com.sun.management.ThreadMXBean threads;
+        System system;
+        CountingProcessor processor;
+        CountingComponent[] components;
+        long before, allocated;
+
+        threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+        system = new System(null, new EventMaster());
+        processor = new CountingProcessor(incremental);
+        system.addProcessor(processor);
+
+        components = h_spawn(system, ENTITY_AMOUNT);
+
+        // Every update flips a few components, so the activation callbacks are part of the measurement.
+        for (int update = 0; update < WARM_UP_UPDATES; update++) h_update(system, processor, components, update);
+
+        before = threads.getCurrentThreadAllocatedBytes();
+        for (int update = 0; update < MEASURED_UPDATES; update++) h_update(system, processor, components, update);
+        allocated = threads.getCurrentThreadAllocatedBytes() - before;
+
+        assertEquals(0, allocated, "Updating allocated " + allocated + " bytes");
+    }
+    private static void h_update(System system, CountingProcessor processor, CountingComponent[] components, int update) {
+        components[update % components.length].active = !components[update % components.length].active;
+
+        processor.p_update(system, null);
+    }
+
+    private static CountingComponent[] h_spawn(System system, int amount) {
+        CountingComponent[] components;
+
+        components = new CountingComponent[amount];
+
+        for (int index = 0; index < amount; index++) {
+            components[index] = new CountingComponent();
+
+            system.addComponentToEntity(system.addEntity(), components[index], false);
+        }
+
+        return components;
+    }
+
+
+    // -+- CLASSES -+- //
+
+    private static class CountingComponent extends A_Component {
+
+
+        // -+- PARAMETERS -+- //
+
+        // NON-FINALS //
+
+        public int visits;
+
+
+    }
+
+    private static class CountingProcessor extends A_Processor<CountingComponent> {
+
+
+        public CountingProcessor(boolean incremental) {
+            super();
+
+            p_setIncrementalValidation(incremental);
+            p_setParallelIteration(true);
+            p_setGrainSize(64);
+
+            _VISIT = this::h_visit;
+        }
+
+
+        // -+- PARAMETERS -+- //
+
+        // FINALS //
+
+        private final Consumer<CountingComponent> _VISIT;
+
+        // NON-FINALS //
+
+        public int visited, activated, deactivated;
+        // Whether the components are visited through p_parallelFor.
+        public boolean parallel;
+
+
+        @Override
+        protected void p_init(System system, A_Scene scene) {
+
+        }
+        @Override
+        protected void p_kill(System system, A_Scene scene) {
+
+        }
+
+        @Override
+        protected void p_receiveRequiredProcessors(HashMap<Class<? extends A_Component>, A_Processor<?>> requiredProcessors) {
+
+        }
+
+        @Override
+        protected void p_internalUpdate(Collection<CountingComponent> validComponents, System system, A_Scene scene) {
+            visited = 0;
+
+            if (parallel) {
+                p_parallelFor(validComponents, _VISIT);
+
+                return;
+            }
+
+            for (CountingComponent component : validComponents) visited++;
+        }
+        private void h_visit(CountingComponent component) {
+            component.visits++;
+        }
+
+        @Override
+        protected boolean p_isComponentValid(CountingComponent component) {
+            return true;
+        }
+
+        @Override
+        protected void p_onComponentAdded(CountingComponent component) {
+
+        }
+        @Override
+        protected void p_onComponentRemoved(CountingComponent component) {
+
+        }
+        @Override
+        protected void p_onComponentActivated(CountingComponent component) {
+            activated++;
+        }
+        @Override
+        protected void p_onComponentDeactivated(CountingComponent component) {
+            deactivated++;
+        }
+
+        @Override
+        protected Collection<Class<? extends CountingComponent>> p_getProcessedComponentClasses() {
+            return List.of(CountingComponent.class);
+        }
+        @Override
+        protected Collection<Class<? extends A_Component>> p_getRequiredComponentClasses() {
+            return List.of();
+        }
+
+
+    }
+
+
+}
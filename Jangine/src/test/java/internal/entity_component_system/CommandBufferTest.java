@@ -0,0 +1,173 @@
+package internal.entity_component_system;
+
+
+import internal.entity_component_system.FakeProcessor.ComponentA;
+import internal.entity_component_system.FakeProcessor.ComponentB;
+import internal.events.EventMaster;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+class CommandBufferTest {
+
+
+    // -+- TESTS -+- //
+
+    @Test
+    void commandsOnlyApplyAtTheSyncPoint() {
+        System system;
+        FakeProcessor<ComponentA> processor;
+        CommandBuffer commands;
+        ComponentA component;
+        int spawned, existing;
+
+        system = new System(null, new EventMaster());
+        processor = new FakeProcessor<>(ComponentA.class);
+        system.addProcessor(processor);
+        commands = system.getCommands();
+
+        existing = system.addEntity();
+        system.addComponentToEntity(existing, new ComponentA(), false);
+
+        component = new ComponentA();
+        spawned = commands.spawn();
+        commands.add(spawned, component);
+        commands.rmv(existing, ComponentA.class);
+
+        // The handle is reserved, but the entity is not part of the storage yet.
+        assertTrue(system.isAlive(spawned));
+        assertFalse(system.getStorage().hasEntity(spawned));
+        assertFalse(system.addComponentToEntity(spawned, new ComponentA(), false));
+        assertTrue(processor.hasEntity(existing));
+        assertEquals(3, commands.getSize());
+
+        system.update();
+
+        assertTrue(commands.isEmpty());
+        assertSame(component, processor.getComponent(spawned));
+        assertEquals(spawned, component.owningEntity);
+        assertFalse(processor.hasEntity(existing));
+        assertTrue(system.isAlive(existing));
+    }
+    @Test
+    void commandsForDespawnedEntitiesAreSkipped() {
+        System system;
+        FakeProcessor<ComponentA> processor;
+        CommandBuffer commands;
+        ComponentA component;
+        int entity;
+
+        system = new System(null, new EventMaster());
+        processor = new FakeProcessor<>(ComponentA.class);
+        system.addProcessor(processor);
+        commands = system.getCommands();
+
+        component = new ComponentA();
+        entity = commands.spawn();
+        commands.despawn(entity);
+        commands.add(entity, component);
+
+        commands.apply();
+
+        assertFalse(system.isAlive(entity));
+        assertFalse(system.getStorage().hasEntity(entity));
+        assertEquals(-1, component.owningEntity);
+        assertNull(processor.getComponent(entity));
+    }
+    @Test
+    void prototypeSpawnCreatesComponentsPerSpawnIndex() {
+        System system;
+        FakeProcessor<ComponentA> processorA;
+        FakeProcessor<ComponentB> processorB;
+        int[] entities;
+
+        system = new System(null, new EventMaster());
+        processorA = new FakeProcessor<>(ComponentA.class);
+        processorB = new FakeProcessor<>(ComponentB.class);
+        system.addProcessor(processorA);
+        system.addProcessor(processorB);
+
+        entities = system.getCommands().spawn(10, new I_EntityPrototype() {
+            @Override
+            public int getComponentAmount() {
+                return 2;
+            }
+            @Override
+            public void createComponents(int spawnIndex, A_Component[] components) {
+                components[0] = new ComponentA();
+                // Only every second entity gets the second component.
+                components[1] = spawnIndex % 2 == 0 ? new ComponentB() : null;
+            }
+        });
+
+        assertEquals(0, system.getStorage().getArchetypes().get(0).getSize());
+
+        system.getCommands().apply();
+
+        for (int index = 0; index < entities.length; index++) {
+            assertTrue(processorA.hasEntity(entities[index]));
+            assertEquals(index % 2 == 0, processorB.hasEntity(entities[index]));
+            assertEquals(entities[index], processorA.getComponent(entities[index]).owningEntity);
+        }
+    }
+    @Test
+    void handlesStayUniqueAcrossThreads() throws Exception {
+        System system;
+        ExecutorService executor;
+        HashSet<Integer> handles;
+        ArrayList<Future<int[]>> futures;
+
+        system = new System(null, new EventMaster());
+        executor = Executors.newFixedThreadPool(4);
+        handles = new HashSet<>();
+
+        futures = h_spawnConcurrently(executor, system.getCommands());
+
+        try {
+            // The system allocates on this thread, while the buffer reserves on the others.
+            for (int index = 0; index < 2_000; index++) assertTrue(handles.add(system.addEntity()));
+
+            for (Future<int[]> future : futures) {
+                for (int handle : future.get()) assertTrue(handles.add(handle));
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        system.getCommands().apply();
+
+        for (int handle : handles) assertTrue(system.getStorage().hasEntity(handle));
+    }
+
+    private static ArrayList<Future<int[]>> h_spawnConcurrently(ExecutorService executor, CommandBuffer commands) {
+        ArrayList<Future<int[]>> futures;
+
+        futures = new ArrayList<>();
+
+        for (int thread = 0; thread < 4; thread++) {
+            futures.add(executor.submit(() -> {
+                int[] spawned;
+
+                spawned = new int[2_000];
+                for (int index = 0; index < spawned.length; index++) spawned[index] = commands.spawn();
+
+                return spawned;
+            }));
+        }
+
+        return futures;
+    }
+
+
+}
@@ -0,0 +1,64 @@
+package internal.entity_component_system;
+
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+class EntityAllocatorTest {
+
+
+    // -+- TESTS -+- //
+
+    @Test
+    void freedHandleStaysStaleAfterReuse() {
+        EntityAllocator allocator;
+        int handle, reused;
+
+        allocator = new EntityAllocator();
+
+        handle = allocator.allocate();
+        assertTrue(allocator.free(handle));
+
+        reused = allocator.allocate();
+
+        assertEquals(EntityAllocator.indexOf(handle), EntityAllocator.indexOf(reused));
+        assertFalse(allocator.isAlive(handle));
+        assertTrue(allocator.isAlive(reused));
+        assertFalse(allocator.free(handle));
+    }
+
+    @Test
+    void generationsDoNotWrapAround() {
+        EntityAllocator allocator;
+        ArrayList<Integer> handles;
+        int handle;
+
+        allocator = new EntityAllocator();
+        handles = new ArrayList<>();
+
+        handle = allocator.allocate();
+
+        // Uses up every generation of the index.
+        for (int reuse = 0; reuse <= (1 << EntityAllocator.GENERATION_BITS); reuse++) {
+            handles.add(handle);
+            allocator.free(handle);
+
+            handle = allocator.allocate();
+
+            for (int old : handles) assertFalse(allocator.isAlive(old));
+        }
+
+        assertEquals(1, allocator.getRetiredAmount());
+        assertNotEquals(EntityAllocator.indexOf(handles.get(0)), EntityAllocator.indexOf(handle));
+        assertTrue(allocator.isAlive(handle));
+    }
+
+
+}
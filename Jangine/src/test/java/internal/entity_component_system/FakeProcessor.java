@@ -0,0 +1,179 @@
+package internal.entity_component_system;
+
+
+import internal.rendering.container.A_Scene;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.function.Consumer;
+
+
+/**
+ * A processor for tests, whose component access can be declared freely and which records what happens to it.
+ *
+ * @param <T> The class of the processed components
+ *
+ * @author Tim Kloepper
+ * @version 1.0
+ */
+class FakeProcessor<T extends A_Component> extends A_Processor<T> {
+
+
+    // -+- CREATION -+- //
+
+    FakeProcessor(Class<T> componentClass) {
+        super();
+
+        _COMPONENT_CLASS = componentClass;
+
+        reads = List.of();
+        writes = List.of(componentClass);
+
+        removed = new ArrayList<>();
+        changed = new ArrayList<>();
+    }
+
+
+    // -+- PARAMETERS -+- //
+
+    // FINALS //
+
+    private final Class<T> _COMPONENT_CLASS;
+
+    final ArrayList<T> removed;
+    // The changed components of the last update, if change tracking is enabled.
+    final ArrayList<T> changed;
+
+    // NON-FINALS //
+
+    List<Class<? extends A_Component>> reads, writes;
+    boolean mainThread;
+    boolean tracking;
+    // Is called at the start of every update.
+    Consumer<Collection<T>> onUpdate;
+
+    int updates;
+    Thread updateThread;
+    int changedSince;
+    int removedBeforeKill;
+    boolean killed;
+
+
+    // -+- ACCESS -+- //
+
+    /**
+     * Declares the component classes this processor reads, on top of writing its own.
+     *
+     * @author Tim Kloepper
+     */
+    @SafeVarargs
+    final FakeProcessor<T> reading(Class<? extends A_Component>... componentClasses) {
+        reads = List.of(componentClasses);
+
+        return this;
+    }
+    @SafeVarargs
+    final FakeProcessor<T> writing(Class<? extends A_Component>... componentClasses) {
+        writes = List.of(componentClasses);
+
+        return this;
+    }
+    FakeProcessor<T> tracking() {
+        p_setChangeTracking(true);
+        tracking = true;
+
+        return this;
+    }
+
+    Collection<T> getChangedComponents() {
+        return p_getChangedComponents();
+    }
+
+
+    // -+- PROCESSOR -+- //
+
+    @Override
+    protected void p_init(System system, A_Scene scene) {
+
+    }
+    @Override
+    protected void p_kill(System system, A_Scene scene) {
+        removedBeforeKill = removed.size();
+        killed = true;
+    }
+
+    @Override
+    protected void p_receiveRequiredProcessors(HashMap<Class<? extends A_Component>, A_Processor<?>> requiredProcessors) {
+
+    }
+
+    @Override
+    protected void p_internalUpdate(Collection<T> validComponents, System system, A_Scene scene) {
+        updates++;
+        updateThread = Thread.currentThread();
+        changedSince = p_getChangedSince();
+
+        changed.clear();
+        if (tracking) changed.addAll(p_getChangedComponents());
+
+        if (onUpdate != null) onUpdate.accept(validComponents);
+    }
+
+    @Override
+    protected boolean p_isComponentValid(T component) {
+        return true;
+    }
+
+    @Override
+    protected void p_onComponentAdded(T component) {
+
+    }
+    @Override
+    protected void p_onComponentRemoved(T component) {
+        removed.add(component);
+    }
+    @Override
+    protected void p_onComponentActivated(T component) {
+
+    }
+    @Override
+    protected void p_onComponentDeactivated(T component) {
+
+    }
+
+    @Override
+    protected Collection<Class<? extends T>> p_getProcessedComponentClasses() {
+        return List.of(_COMPONENT_CLASS);
+    }
+    @Override
+    protected Collection<Class<? extends A_Component>> p_getRequiredComponentClasses() {
+        return List.of();
+    }
+    @Override
+    protected Collection<? extends Class<? extends A_Component>> p_getReadComponentClasses() {
+        return reads;
+    }
+    @Override
+    protected Collection<? extends Class<? extends A_Component>> p_getWrittenComponentClasses() {
+        return writes;
+    }
+    @Override
+    protected boolean p_requiresMainThread() {
+        return mainThread;
+    }
+
+
+    // -+- CLASSES -+- //
+
+    static class ComponentA extends A_Component {}
+    static class ComponentB extends A_Component {}
+    static class ComponentC extends A_Component {}
+    static class ComponentD extends A_Component {}
+    static class ComponentE extends A_Component {}
+    static class ComponentF extends A_Component {}
+    static class ComponentG extends A_Component {}
+
+
+}
@@ -0,0 +1,160 @@
+package internal.entity_component_system;
+
+
+import internal.entity_component_system.FakeProcessor.ComponentA;
+import internal.entity_component_system.FakeProcessor.ComponentB;
+import internal.entity_component_system.FakeProcessor.ComponentC;
+import internal.entity_component_system.FakeProcessor.ComponentD;
+import internal.entity_component_system.FakeProcessor.ComponentE;
+import internal.entity_component_system.FakeProcessor.ComponentF;
+import internal.entity_component_system.FakeProcessor.ComponentG;
+import internal.events.EventMaster;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+class ProcessorSchedulerTest {
+
+
+    // -+- TESTS -+- //
+
+    @Test
+    void stagesFollowTheAccessMasks() {
+        System system;
+        FakeProcessor<ComponentA> writerA;
+        FakeProcessor<ComponentB> readerA;
+        FakeProcessor<ComponentC> writerC;
+        FakeProcessor<ComponentD> readerBC;
+        FakeProcessor<ComponentE> firstReaderC;
+        FakeProcessor<ComponentF> secondReaderC;
+        FakeProcessor<ComponentG> writerCG;
+        List<? extends List<A_Processor<?>>> stages;
+
+        system = new System(null, new EventMaster());
+
+        writerA = new FakeProcessor<>(ComponentA.class);
+        readerA = new FakeProcessor<>(ComponentB.class).reading(ComponentA.class);
+        writerC = new FakeProcessor<>(ComponentC.class);
+        readerBC = new FakeProcessor<>(ComponentD.class).reading(ComponentB.class, ComponentC.class);
+        firstReaderC = new FakeProcessor<>(ComponentE.class).reading(ComponentC.class);
+        secondReaderC = new FakeProcessor<>(ComponentF.class).reading(ComponentC.class);
+        writerCG = new FakeProcessor<>(ComponentG.class).writing(ComponentC.class, ComponentG.class);
+
+        for (A_Processor<?> processor : List.of(writerA, readerA, writerC, readerBC, firstReaderC, secondReaderC, writerCG)) {
+            assertTrue(system.addProcessor(processor));
+        }
+
+        stages = system.getScheduler().getStages(system);
+
+        assertEquals(4, stages.size());
+        assertEquals(List.of(writerA, writerC), stages.get(0));
+        // Reading the same component does not conflict.
+        assertEquals(List.of(readerA, firstReaderC, secondReaderC), stages.get(1));
+        assertEquals(List.of(readerBC), stages.get(2));
+        // Every processor reading C was added earlier, so the writer waits for all of them.
+        assertEquals(List.of(writerCG), stages.get(3));
+
+        // Removing a processor rebuilds the schedule.
+        system.rmvProcessor(writerA);
+
+        stages = system.getScheduler().getStages(system);
+
+        assertEquals(List.of(readerA, writerC), stages.get(0));
+    }
+    @Test
+    void sequentialRunFollowsTheStages() {
+        System system;
+        ArrayList<A_Processor<?>> order;
+        FakeProcessor<ComponentA> writerA;
+        FakeProcessor<ComponentB> readerA;
+        FakeProcessor<ComponentC> writerC;
+
+        system = new System(null, new EventMaster());
+        order = new ArrayList<>();
+
+        writerA = new FakeProcessor<>(ComponentA.class);
+        readerA = new FakeProcessor<>(ComponentB.class).reading(ComponentA.class);
+        writerC = new FakeProcessor<>(ComponentC.class);
+
+        writerA.onUpdate = components -> order.add(writerA);
+        readerA.onUpdate = components -> order.add(readerA);
+        writerC.onUpdate = components -> order.add(writerC);
+
+        system.addProcessor(writerA);
+        system.addProcessor(readerA);
+        system.addProcessor(writerC);
+
+        system.update();
+
+        // The independent processor runs with the first stage, before the one added earlier.
+        assertEquals(List.of(writerA, writerC, readerA), order);
+        assertSame(Thread.currentThread(), readerA.updateThread);
+    }
+    @Test
+    void mainThreadProcessorsRunOnTheCaller() throws InterruptedException {
+        ForkJoinPool pool;
+        System system;
+        CountDownLatch mainThreadRan;
+        FakeProcessor<ComponentA> pooled;
+        FakeProcessor<ComponentB> bound;
+        boolean[] sawRunningParallel;
+
+        pool = new ForkJoinPool(2);
+        system = new System(null, new EventMaster());
+        mainThreadRan = new CountDownLatch(1);
+        sawRunningParallel = new boolean[1];
+
+        pooled = new FakeProcessor<>(ComponentA.class);
+        bound = new FakeProcessor<>(ComponentB.class);
+        bound.mainThread = true;
+
+        // The pooled processor only finishes after the bound one ran, so both have to overlap.
+        pooled.onUpdate = components -> {
+            try {
+                assertTrue(mainThreadRan.await(10, TimeUnit.SECONDS));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+        bound.onUpdate = components -> {
+            sawRunningParallel[0] = system.getScheduler().isRunningParallel();
+
+            mainThreadRan.countDown();
+        };
+
+        system.addProcessor(pooled);
+        system.addProcessor(bound);
+        system.getScheduler().setPool(pool);
+        system.setParallel(true);
+
+        try {
+            system.update();
+        } finally {
+            pool.shutdown();
+        }
+
+        // Run returns only after the pool tasks got joined.
+        assertEquals(1, pooled.updates);
+        assertEquals(1, bound.updates);
+
+        assertSame(Thread.currentThread(), bound.updateThread);
+        assertNotSame(Thread.currentThread(), pooled.updateThread);
+        assertTrue(sawRunningParallel[0]);
+        assertFalse(system.getScheduler().isRunningParallel());
+
+        assertTrue(pool.awaitTermination(10, TimeUnit.SECONDS));
+    }
+
+
+}
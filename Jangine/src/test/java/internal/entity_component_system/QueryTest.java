@@ -0,0 +1,208 @@
+package internal.entity_component_system;
+
+
+import internal.entity_component_system.FakeProcessor.ComponentA;
+import internal.entity_component_system.FakeProcessor.ComponentB;
+import internal.entity_component_system.FakeProcessor.ComponentC;
+import internal.entity_component_system.FakeProcessor.ComponentD;
+import internal.entity_component_system.FakeProcessor.ComponentE;
+import internal.entity_component_system.FakeProcessor.ComponentF;
+import internal.entity_component_system.FakeProcessor.ComponentG;
+import internal.events.EventMaster;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+class QueryTest {
+
+
+    // -+- PARAMETERS -+- //
+
+    // FINALS //
+
+    private static final int ENTITY_AMOUNT = 300;
+    private static final int ROUND_AMOUNT = 40;
+
+    // Take the freed column of B, so B moves to another one, once every ten rounds.
+    private static final List<Class<? extends A_Component>> FILLER_CLASSES = List.of(ComponentD.class, ComponentE.class, ComponentF.class, ComponentG.class);
+
+
+    // -+- TESTS -+- //
+
+    @Test
+    void archetypesCreatedAfterIterationAreMatched() {
+        System system;
+        Query query;
+        int[] entities;
+
+        system = new System(null, new EventMaster());
+        system.addProcessor(new FakeProcessor<>(ComponentA.class));
+        system.addProcessor(new FakeProcessor<>(ComponentB.class));
+        system.addProcessor(new FakeProcessor<>(ComponentC.class));
+
+        query = system.createQuery(ComponentA.class, ComponentB.class);
+        assertEquals(0, query.getSize());
+
+        entities = new int[3];
+        for (int index = 0; index < entities.length; index++) {
+            entities[index] = system.addEntity();
+            system.addComponentToEntity(entities[index], new ComponentA(), false);
+        }
+
+        // Each of these archetypes is created after the query already cached its matches.
+        system.addComponentToEntity(entities[1], new ComponentB(), false);
+        assertEquals(1, query.getSize());
+
+        system.addComponentToEntity(entities[2], new ComponentC(), false);
+        system.addComponentToEntity(entities[2], new ComponentB(), false);
+        assertEquals(2, query.getSize());
+
+        system.rmvComponentFromEntity(entities[1], ComponentA.class);
+        assertEquals(1, query.getSize());
+    }
+
+    @Test
+    void queryResolvesOnceItsProcessorsExist() {
+        System system;
+        Query query;
+        int entity;
+
+        system = new System(null, new EventMaster());
+        system.addProcessor(new FakeProcessor<>(ComponentA.class));
+
+        query = system.createQuery(ComponentA.class, ComponentB.class);
+        assertEquals(0, query.getSize());
+
+        system.addProcessor(new FakeProcessor<>(ComponentB.class));
+
+        entity = system.addEntity();
+        system.addComponentToEntity(entity, new ComponentA(), false);
+        system.addComponentToEntity(entity, new ComponentB(), false);
+
+        assertEquals(1, query.getSize());
+    }
+
+    @Test
+    void queryMatchesLinearScanWhileArchetypesAndColumnsChange() {
+        System system;
+        FakeProcessor<ComponentB> processorB;
+        Query query;
+        HashMap<Integer, A_Component[]> expected;
+        ArrayList<Integer> entities;
+        Random random;
+
+        system = new System(null, new EventMaster());
+        system.addProcessor(new FakeProcessor<>(ComponentA.class));
+        processorB = new FakeProcessor<>(ComponentB.class);
+        system.addProcessor(processorB);
+        system.addProcessor(new FakeProcessor<>(ComponentC.class));
+
+        query = system.createQuery(ComponentA.class, ComponentB.class);
+        expected = new HashMap<>();
+        entities = new ArrayList<>();
+        random = new Random(8);
+
+        for (int round = 0; round < ROUND_AMOUNT; round++) {
+            for (int change = 0; change < ENTITY_AMOUNT; change++) {
+                int entity;
+                A_Component[] components;
+
+                if (entities.size() < ENTITY_AMOUNT / 2 || random.nextInt(10) == 0) {
+                    entity = system.addEntity();
+
+                    entities.add(entity);
+                    expected.put(entity, new A_Component[3]);
+
+                    continue;
+                }
+
+                entity = entities.get(random.nextInt(entities.size()));
+                components = expected.get(entity);
+
+                switch (random.nextInt(8)) {
+                    case 0, 1 -> components[0] = h_toggle(system, entity, components[0], new ComponentA(), ComponentA.class);
+                    case 2, 3 -> components[1] = h_toggle(system, entity, components[1], new ComponentB(), ComponentB.class);
+                    case 4, 5 -> components[2] = h_toggle(system, entity, components[2], new ComponentC(), ComponentC.class);
+                    default -> {
+                        assertTrue(system.rmvEntity(entity));
+
+                        entities.remove(Integer.valueOf(entity));
+                        expected.remove(entity);
+                    }
+                }
+            }
+
+            // Every few rounds, the column of B is freed and taken by another processor, so B ends up in a new column.
+            if (round % 10 == 9) {
+                int column;
+
+                column = processorB.getColumn();
+
+                assertTrue(system.rmvProcessor(processorB));
+                for (A_Component[] components : expected.values()) components[1] = null;
+
+                h_assertMatches(query, expected);
+
+                system.addProcessor(new FakeProcessor<>(FILLER_CLASSES.get(round / 10)));
+                processorB = new FakeProcessor<>(ComponentB.class);
+                system.addProcessor(processorB);
+
+                assertNotEquals(column, processorB.getColumn());
+            }
+
+            h_assertMatches(query, expected);
+        }
+    }
+
+
+    // -+- HELPERS -+- //
+
+    private static A_Component h_toggle(System system, int entity, A_Component current, A_Component added, Class<? extends A_Component> componentClass) {
+        if (current != null) {
+            assertTrue(system.rmvComponentFromEntity(entity, componentClass));
+
+            return null;
+        }
+
+        assertTrue(system.addComponentToEntity(entity, added, false));
+
+        return added;
+    }
+
+    private static void h_assertMatches(Query query, HashMap<Integer, A_Component[]> expected) {
+        HashMap<Integer, A_Component[]> visited;
+        int matching;
+
+        visited = new HashMap<>();
+        query.forEach((entity, components) -> assertSame(null, visited.put(entity, components.clone())));
+
+        matching = 0;
+
+        for (Integer entity : expected.keySet()) {
+            A_Component[] components;
+
+            components = expected.get(entity);
+            if (components[0] == null || components[1] == null) continue;
+
+            matching++;
+
+            assertTrue(visited.containsKey(entity));
+            assertSame(components[0], visited.get(entity)[0]);
+            assertSame(components[1], visited.get(entity)[1]);
+        }
+
+        assertEquals(matching, visited.size());
+        assertEquals(matching, query.getSize());
+    }
+
+
+}
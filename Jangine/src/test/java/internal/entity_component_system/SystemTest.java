@@ -0,0 +1,91 @@
+package internal.entity_component_system;
+
+
+import internal.entity_component_system.FakeProcessor.ComponentA;
+import internal.entity_component_system.FakeProcessor.ComponentB;
+import internal.entity_component_system.events.ProcessorRemovedEvent;
+import internal.events.EventFilter;
+import internal.events.EventMaster;
+import internal.events.implementations.PassiveEventPort;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+class SystemTest {
+
+
+    // -+- TESTS -+- //
+
+    @Test
+    void removedProcessorGetsEveryComponentBack() {
+        EventMaster eventHandler;
+        PassiveEventPort port;
+        System system;
+        FakeProcessor<ComponentA> processorA;
+        FakeProcessor<ComponentB> processorB;
+        ArrayList<ComponentA> componentsA;
+        ComponentB[] componentsB;
+        int[] entities;
+
+        eventHandler = new EventMaster();
+        port = new PassiveEventPort(new EventFilter(), 8);
+        eventHandler.register(port);
+
+        system = new System(null, eventHandler);
+        processorA = new FakeProcessor<>(ComponentA.class);
+        processorB = new FakeProcessor<>(ComponentB.class);
+        system.addProcessor(processorA);
+        system.addProcessor(processorB);
+        port.grab();
+
+        componentsA = new ArrayList<>();
+        componentsB = new ComponentB[600];
+        entities = new int[componentsB.length];
+
+        // More than a chunk of entities, spread over two archetypes.
+        for (int index = 0; index < entities.length; index++) {
+            entities[index] = system.addEntity();
+
+            componentsB[index] = new ComponentB();
+            system.addComponentToEntity(entities[index], componentsB[index], false);
+
+            if (index % 3 == 0) continue;
+
+            componentsA.add(new ComponentA());
+            system.addComponentToEntity(entities[index], componentsA.get(componentsA.size() - 1), false);
+        }
+
+        assertTrue(system.rmvProcessor(processorA));
+
+        // Every component went through the processor, before it got killed.
+        assertEquals(componentsA.size(), processorA.removed.size());
+        assertEquals(componentsA.size(), processorA.removedBeforeKill);
+        assertTrue(processorA.killed);
+        assertTrue(processorA.removed.containsAll(componentsA));
+
+        for (ComponentA component : componentsA) assertEquals(-1, component.owningEntity);
+        assertEquals(-1, processorA.getColumn());
+        assertInstanceOf(ProcessorRemovedEvent.class, port.grabSingle());
+
+        // The entities and the components of other processors stay untouched.
+        for (int index = 0; index < entities.length; index++) {
+            assertTrue(system.isAlive(entities[index]));
+            assertSame(componentsB[index], processorB.getComponent(entities[index]));
+            assertEquals(entities[index], componentsB[index].owningEntity);
+        }
+        assertTrue(processorB.removed.isEmpty());
+
+        assertFalse(system.rmvProcessor(processorA));
+        assertNull(system.getProcessorOf(ComponentA.class));
+    }
+
+
+}
@@ -0,0 +1,211 @@
+package internal.entity_component_system.archetype;
+
+
+import internal.entity_component_system.A_Component;
+import internal.entity_component_system.EntityAllocator;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+class ArchetypeStorageTest {
+
+
+    // -+- PARAMETERS -+- //
+
+    // FINALS //
+
+    private static final int COLUMN_AMOUNT = 3;
+
+
+    // -+- TESTS -+- //
+
+    @Test
+    void transitionsFollowTheSignature() {
+        ArchetypeStorage storage;
+        int columnA, columnB, first, second;
+        Archetype both;
+
+        storage = new ArchetypeStorage();
+        columnA = storage.addColumn();
+        columnB = storage.addColumn();
+
+        first = 1;
+        second = 2;
+        storage.addEntity(first);
+        storage.addEntity(second);
+
+        assertEquals(0, storage.getArchetypeOf(first).SIGNATURE);
+
+        // Both orders of adding end up in the same archetype.
+        storage.set(first, columnA, new TestComponent());
+        storage.set(first, columnB, new TestComponent());
+        storage.set(second, columnB, new TestComponent());
+        storage.set(second, columnA, new TestComponent());
+
+        both = storage.getArchetypeOf(first);
+
+        assertSame(both, storage.getArchetypeOf(second));
+        assertEquals((1L << columnA) | (1L << columnB), both.SIGNATURE);
+        assertEquals(2, both.getSize());
+
+        // Removing goes back along the cached edge.
+        storage.rmv(first, columnB);
+
+        assertEquals(1L << columnA, storage.getArchetypeOf(first).SIGNATURE);
+        assertTrue(storage.has(first, columnA));
+        assertFalse(storage.has(first, columnB));
+        assertEquals(1, both.getSize());
+        assertEquals(second, both.getEntity(storage.getRowOf(second)));
+
+        assertEquals(4, storage.getArchetypes().size());
+        assertTrue(storage.getArchetypesWith(columnA).contains(both));
+    }
+    @Test
+    void matchesReferenceModel() {
+        ArchetypeStorage storage;
+        EntityAllocator entities;
+        HashMap<Integer, A_Component[]> model;
+        ArrayList<Integer> alive;
+        int[] columns;
+        Random random;
+
+        storage = new ArchetypeStorage();
+        entities = new EntityAllocator();
+        model = new HashMap<>();
+        alive = new ArrayList<>();
+        random = new Random(1);
+
+        columns = new int[COLUMN_AMOUNT];
+        for (int index = 0; index < COLUMN_AMOUNT; index++) columns[index] = storage.addColumn();
+
+        // Enough entities for several chunks per archetype, so rows are swapped across chunks.
+        for (int operation = 0; operation < 30_000; operation++) {
+            int choice;
+
+            choice = random.nextInt(10);
+
+            if (alive.isEmpty() || (choice == 0 && alive.size() < 2000)) {
+                int entity;
+
+                entity = entities.allocate();
+                storage.addEntity(entity);
+
+                model.put(entity, new A_Component[COLUMN_AMOUNT]);
+                alive.add(entity);
+
+                continue;
+            }
+
+            int entity, column;
+
+            entity = alive.get(random.nextInt(alive.size()));
+            column = random.nextInt(COLUMN_AMOUNT);
+
+            if (choice == 1) {
+                assertTrue(storage.rmvEntity(entity));
+                entities.free(entity);
+
+                model.remove(entity);
+                alive.remove(Integer.valueOf(entity));
+            } else if (choice < 6) {
+                TestComponent component;
+
+                component = new TestComponent();
+
+                assertSame(model.get(entity)[column], storage.set(entity, columns[column], component));
+                model.get(entity)[column] = component;
+            } else {
+                assertSame(model.get(entity)[column], storage.rmv(entity, columns[column]));
+                model.get(entity)[column] = null;
+            }
+
+            if (operation % 1000 == 0) h_assertMatches(storage, model, columns);
+        }
+
+        h_assertMatches(storage, model, columns);
+    }
+    @Test
+    void rmvColumnStripsItsComponents() {
+        ArchetypeStorage storage;
+        int columnA, columnB;
+        TestComponent[] componentsA, componentsB;
+
+        storage = new ArchetypeStorage();
+        columnA = storage.addColumn();
+        columnB = storage.addColumn();
+
+        componentsA = new TestComponent[300];
+        componentsB = new TestComponent[300];
+
+        for (int entity = 0; entity < componentsA.length; entity++) {
+            storage.addEntity(entity);
+
+            componentsA[entity] = new TestComponent();
+            componentsA[entity].owningEntity = entity;
+            storage.set(entity, columnA, componentsA[entity]);
+
+            if (entity % 2 == 0) continue;
+
+            componentsB[entity] = new TestComponent();
+            storage.set(entity, columnB, componentsB[entity]);
+        }
+
+        storage.rmvColumn(columnA);
+
+        for (int entity = 0; entity < componentsA.length; entity++) {
+            assertEquals(-1, componentsA[entity].owningEntity);
+
+            assertTrue(storage.hasEntity(entity));
+            assertFalse(storage.has(entity, columnA));
+            assertSame(componentsB[entity], storage.get(entity, columnB));
+            assertEquals(entity, storage.getArchetypeOf(entity).getEntity(storage.getRowOf(entity)));
+        }
+
+        for (Archetype archetype : storage.getArchetypesWith(columnA)) assertEquals(0, archetype.getSize());
+
+        // The freed column is handed out again.
+        assertEquals(columnA, storage.addColumn());
+        assertNull(storage.get(0, columnA));
+    }
+
+    private static void h_assertMatches(ArchetypeStorage storage, HashMap<Integer, A_Component[]> model, int[] columns) {
+        int size;
+
+        for (int entity : model.keySet()) {
+            Archetype archetype;
+            int row;
+
+            archetype = storage.getArchetypeOf(entity);
+            row = storage.getRowOf(entity);
+
+            // The row bookkeeping survived every swap remove.
+            assertEquals(entity, archetype.getEntity(row));
+
+            for (int column = 0; column < columns.length; column++) {
+                assertEquals(model.get(entity)[column] != null, storage.has(entity, columns[column]));
+                if (model.get(entity)[column] != null) assertSame(model.get(entity)[column], archetype.get(row, columns[column]));
+            }
+        }
+
+        size = 0;
+        for (Archetype archetype : storage.getArchetypes()) size += archetype.getSize();
+
+        assertEquals(model.size(), size);
+    }
+
+
+    // -+- CLASSES -+- //
+
+    private static class TestComponent extends A_Component {}
+
+
+}
@@ -0,0 +1,98 @@
+package internal.entity_component_system.specifics.collision;
+
+
+import internal.entity_component_system.specifics.collision.data.ObjectData;
+import internal.entity_component_system.specifics.collision.dependencies.calculator.AABB_Calculator;
+import internal.entity_component_system.specifics.hitbox.A_HitboxComponent;
+import internal.entity_component_system.specifics.hitbox.CircleHitboxComponent;
+import internal.entity_component_system.specifics.hitbox.RectangleHitboxComponent;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+class BatchedNarrowphaseTest {
+
+
+    // -+- TESTS -+- //
+
+    @Test
+    void exactPairsMatchCalculator() {
+        BatchedNarrowphase batch;
+        AABB_Calculator calculator;
+        ObjectData[] objects;
+        Random random;
+
+        batch = new BatchedNarrowphase();
+        calculator = new AABB_Calculator();
+        objects = new ObjectData[100];
+        random = new Random(18);
+
+        for (int index = 0; index < objects.length; index++) {
+            A_HitboxComponent hitbox;
+
+            if (random.nextBoolean()) hitbox = new RectangleHitboxComponent(1 + random.nextInt(10), 1 + random.nextInt(10));
+            else hitbox = new CircleHitboxComponent(1 + random.nextInt(5));
+
+            objects[index] = CollisionObjects.create(hitbox, index, random.nextInt(30), random.nextInt(30));
+        }
+
+        // Runs several batches, so objects are unpacked and packed again in between.
+        for (int run = 0; run < 10; run++) {
+            for (int pair = 0; pair < 500; pair++) {
+                ObjectData a, b;
+
+                a = objects[random.nextInt(objects.length)];
+                b = objects[random.nextInt(objects.length)];
+                if (a == b) continue;
+
+                batch.accept(a, b);
+            }
+
+            batch.run();
+
+            for (int pair = 0; pair < batch.getPairAmount(); pair++) {
+                ObjectData a, b;
+
+                a = batch.getObjectA(pair);
+                b = batch.getObjectB(pair);
+
+                if (!batch.isExact(pair)) continue;
+
+                assertEquals(calculator.isCollidingWith(a, b), batch.isOverlapping(pair));
+                if (batch.isOverlapping(pair)) assertEquals(calculator.getCollisionAxis(a, b), batch.getCollisionAxis(pair));
+            }
+
+            batch.clear();
+
+            for (ObjectData object : objects) object.positionComponent.position.set(random.nextInt(30), random.nextInt(30));
+        }
+    }
+    @Test
+    void onlyPairedObjectsArePacked() {
+        BatchedNarrowphase batch;
+        ObjectData a, b, lonely;
+
+        batch = new BatchedNarrowphase();
+        a = CollisionObjects.create(new RectangleHitboxComponent(10, 10), 0, 0, 0);
+        b = CollisionObjects.create(new RectangleHitboxComponent(10, 10), 1, 5, 0);
+        lonely = CollisionObjects.create(new RectangleHitboxComponent(10, 10), 2, 100, 100);
+
+        batch.accept(a, b);
+        batch.accept(b, a);
+
+        assertEquals(2, batch.getObjectAmount());
+        assertEquals(ObjectData.NOT_BATCHED, lonely.batchIndex);
+
+        batch.clear();
+
+        assertEquals(0, batch.getObjectAmount());
+        assertEquals(ObjectData.NOT_BATCHED, a.batchIndex);
+        assertEquals(ObjectData.NOT_BATCHED, b.batchIndex);
+    }
+
+
+}
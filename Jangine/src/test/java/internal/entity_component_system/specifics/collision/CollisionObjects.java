@@ -0,0 +1,60 @@
+package internal.entity_component_system.specifics.collision;
+
+
+import internal.entity_component_system.specifics.collision.data.ObjectData;
+import internal.entity_component_system.specifics.hitbox.A_HitboxComponent;
+import internal.entity_component_system.specifics.position.PositionComponent;
+import org.joml.Vector2d;
+
+
+/**
+ * Builds the objects the collision tests work with, without a system or processors behind them.
+ *
+ * @author Tim Kloepper
+ * @version 1.0
+ */
+public class CollisionObjects {
+
+
+    // -+- CREATION -+- //
+
+    /**
+     * Creates an object, whose hitbox belongs to the specified entity and whose position is a new component.
+     *
+     * @param hitbox The hitbox of the object
+     * @param entity The entity the hitbox is assigned to
+     * @param x The x coordinate of the position
+     * @param y The y coordinate of the position
+     *
+     * @return The new object
+     *
+     * @author Tim Kloepper
+     */
+    public static ObjectData create(A_HitboxComponent hitbox, int entity, double x, double y) {
+        hitbox.owningEntity = entity;
+
+        return new ObjectData(hitbox, new PositionComponent(new Vector2d(x, y)));
+    }
+
+
+    // -+- MOVEMENT -+- //
+
+    /**
+     * Moves the object, keeping its current position as the previous one,
+     * just like the collision processor does with continuous collision detection.
+     *
+     * @param obj The object that is to be moved
+     * @param x The new x coordinate
+     * @param y The new y coordinate
+     * @param swept Whether the bounds of the object should cover the way it moved
+     *
+     * @author Tim Kloepper
+     */
+    public static void move(ObjectData obj, double x, double y, boolean swept) {
+        obj.previousPosition.set(obj.positionComponent.position);
+        obj.positionComponent.position.set(x, y);
+        obj.swept = swept;
+    }
+
+
+}
@@ -0,0 +1,174 @@
+package internal.entity_component_system.specifics.collision;
+
+
+import internal.entity_component_system.specifics.collision.data.A_CollisionData;
+import internal.entity_component_system.specifics.collision.data.ObjectData;
+import internal.entity_component_system.specifics.collision.events.CollisionEndedEvent;
+import internal.entity_component_system.specifics.collision.events.CollisionStayEvent;
+import internal.entity_component_system.specifics.collision.events.ObjectCollisionEvent;
+import internal.entity_component_system.specifics.hitbox.RectangleHitboxComponent;
+import internal.events.EventFilter;
+import internal.events.EventMaster;
+import internal.events.I_Event;
+import internal.events.implementations.ActiveEventPort;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+
+class ContactManagerTest {
+
+
+    // -+- PARAMETERS -+- //
+
+    // FINALS //
+
+    private static final int OBJECT_AMOUNT = 60;
+
+
+    // -+- TESTS -+- //
+
+    @Test
+    void contactsMatchTouchedPairs() {
+        ContactManager manager;
+        EventMaster eventHandler;
+        ObjectData[] objects;
+        Random random;
+
+        manager = new ContactManager();
+        eventHandler = new EventMaster();
+        objects = h_createObjects();
+        random = new Random(14);
+
+        // Many short contacts, so contacts end in almost every update and the table keeps removing keys.
+        for (int update = 0; update < 500; update++) {
+            HashSet<Long> touched;
+
+            touched = new HashSet<>();
+
+            manager.beginUpdate();
+
+            for (int touch = random.nextInt(200); touch > 0; touch--) {
+                int a, b;
+
+                a = random.nextInt(OBJECT_AMOUNT);
+                b = random.nextInt(OBJECT_AMOUNT);
+                if (a == b) continue;
+
+                manager.touch(objects[a], objects[b], A_CollisionData.COLLISION_AXIS.X, 0, eventHandler);
+                touched.add(h_key(a, b));
+            }
+
+            manager.finishUpdate(eventHandler);
+
+            assertEquals(touched.size(), manager.getContactAmount());
+
+            for (int a = 0; a < OBJECT_AMOUNT; a++) {
+                for (int b = a + 1; b < OBJECT_AMOUNT; b++) {
+                    assertEquals(touched.contains(h_key(a, b)), manager.isInContact(a, b), "Contact " + a + " / " + b + " in update " + update);
+                }
+            }
+        }
+    }
+    @Test
+    void eventsArePushedPerPhaseOfTheContact() {
+        ContactManager manager;
+        EventMaster eventHandler;
+        ActiveEventPort collisionPort, allPort;
+        ArrayList<I_Event> collisions, all;
+        ObjectData[] objects;
+
+        manager = new ContactManager();
+        eventHandler = new EventMaster();
+        objects = h_createObjects();
+
+        // Filters match the exact class, so this port must still receive every new collision.
+        collisionPort = new ActiveEventPort(new EventFilter());
+        collisionPort.filter.addInterest(ObjectCollisionEvent.class);
+        collisions = new ArrayList<>();
+        collisionPort.addCallback(collisions::add);
+        eventHandler.register(collisionPort);
+
+        allPort = new ActiveEventPort(new EventFilter());
+        all = new ArrayList<>();
+        allPort.addCallback(all::add);
+        eventHandler.register(allPort);
+
+        manager.setStayInterval(2);
+
+        h_touch(manager, objects[0], objects[1], eventHandler);
+        assertEquals(2, collisions.size());
+        h_assertPushed(all, ObjectCollisionEvent.class, objects[0], objects[1]);
+
+        h_touch(manager, objects[1], objects[0], eventHandler);
+        assertEquals(0, all.size());
+
+        h_touch(manager, objects[0], objects[1], eventHandler);
+        h_assertPushed(all, CollisionStayEvent.class, objects[0], objects[1]);
+
+        manager.beginUpdate();
+        manager.finishUpdate(eventHandler);
+        h_assertPushed(all, CollisionEndedEvent.class, objects[0], objects[1]);
+
+        // Neither persisting nor ending contacts count as new collisions.
+        assertEquals(2, collisions.size());
+    }
+
+
+    // -+- HELPERS -+- //
+
+    private static void h_touch(ContactManager manager, ObjectData objA, ObjectData objB, EventMaster eventHandler) {
+        manager.beginUpdate();
+        manager.touch(objA, objB, A_CollisionData.COLLISION_AXIS.X, 0.5, eventHandler);
+        manager.finishUpdate(eventHandler);
+    }
+    /**
+     * Checks, that exactly one event of the class got pushed for both orders of the objects, then forgets the pushed events.
+     *
+     * @author Tim Kloepper
+     */
+    private static void h_assertPushed(List<I_Event> events, Class<? extends I_Event> type, ObjectData objA, ObjectData objB) {
+        assertEquals(2, events.size());
+
+        for (I_Event event : events) {
+            assertSame(type, event.getClass());
+            // Only new collisions are object collision events, so instanceof checks do not react to the other phases.
+            assertEquals(type == ObjectCollisionEvent.class, event instanceof ObjectCollisionEvent);
+        }
+
+        assertSame(objA, h_getObjects(events.get(0))[0]);
+        assertSame(objB, h_getObjects(events.get(0))[1]);
+        assertSame(objB, h_getObjects(events.get(1))[0]);
+        assertSame(objA, h_getObjects(events.get(1))[1]);
+
+        events.clear();
+    }
+    private static ObjectData[] h_getObjects(I_Event event) {
+        if (event instanceof ObjectCollisionEvent collision) return new ObjectData[] {collision.object, collision.collidingObject};
+        if (event instanceof CollisionStayEvent stay) return new ObjectData[] {stay.object, stay.collidingObject};
+
+        return new ObjectData[] {((CollisionEndedEvent) event).object, ((CollisionEndedEvent) event).collidingObject};
+    }
+    private static ObjectData[] h_createObjects() {
+        ObjectData[] objects;
+
+        objects = new ObjectData[OBJECT_AMOUNT];
+
+        for (int entity = 0; entity < OBJECT_AMOUNT; entity++) {
+            objects[entity] = CollisionObjects.create(new RectangleHitboxComponent(1, 1), entity, 0, 0);
+        }
+
+        return objects;
+    }
+    private static long h_key(int a, int b) {
+        return ((long) Math.min(a, b) << 32) | Math.max(a, b);
+    }
+
+
+}
@@ -0,0 +1,158 @@
+package internal.entity_component_system.specifics.collision.dependencies.spatial_partitioner;
+
+
+import internal.entity_component_system.specifics.collision.CollisionObjects;
+import internal.entity_component_system.specifics.collision.data.ObjectData;
+import internal.entity_component_system.specifics.hitbox.RectangleHitboxComponent;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+class DynamicAABBTreeTest {
+
+
+    // -+- PARAMETERS -+- //
+
+    // FINALS //
+
+    private static final double MARGIN = 8;
+
+    private static final int OBJECT_AMOUNT = 300;
+    private static final int ROUND_AMOUNT = 30;
+
+
+    // -+- TESTS -+- //
+
+    @Test
+    void randomChurnMatchesBruteForce() {
+        DynamicAABBTree tree;
+        ArrayList<ObjectData> live, removed;
+        Random random;
+        int entity;
+
+        tree = new DynamicAABBTree(MARGIN);
+        live = new ArrayList<>();
+        removed = new ArrayList<>();
+        random = new Random(10);
+
+        for (entity = 0; entity < OBJECT_AMOUNT; entity++) {
+            live.add(PartitionerChecks.createRandom(random, entity, 0, 1000));
+            tree.addObject(live.get(entity));
+        }
+
+        tree.update(null);
+        PartitionerChecks.assertCandidatePairs(tree, live, 2 * MARGIN);
+
+        for (int round = 0; round < ROUND_AMOUNT; round++) {
+            // Most objects stay inside of their fat box, some leave it and a few jump across the whole area.
+            for (ObjectData obj : live) {
+                double x, y;
+
+                x = obj.positionComponent.position.x;
+                y = obj.positionComponent.position.y;
+
+                switch (random.nextInt(10)) {
+                    case 0 -> CollisionObjects.move(obj, random.nextDouble() * 1000, random.nextDouble() * 1000, false);
+                    case 1, 2 -> CollisionObjects.move(obj, x + (random.nextDouble() - 0.5) * 6 * MARGIN, y + (random.nextDouble() - 0.5) * 6 * MARGIN, false);
+                    default -> CollisionObjects.move(obj, x + (random.nextDouble() - 0.5) * MARGIN, y + (random.nextDouble() - 0.5) * MARGIN, false);
+                }
+            }
+
+            for (int change = 0; change < 15; change++) {
+                ObjectData obj;
+
+                obj = live.remove(random.nextInt(live.size()));
+                tree.rmvObject(obj);
+                removed.add(obj);
+            }
+            for (int change = 0; change < 15; change++) {
+                ObjectData obj;
+
+                // Removed objects come back, next to new ones.
+                if (random.nextBoolean()) obj = removed.remove(random.nextInt(removed.size()));
+                else obj = PartitionerChecks.createRandom(random, entity++, 0, 1000);
+
+                tree.addObject(obj);
+                live.add(obj);
+            }
+
+            tree.update(null);
+
+            assertEquals(live.size(), tree.getObjectAmount());
+            PartitionerChecks.assertCandidatePairs(tree, live, 2 * MARGIN);
+
+            for (int query = 0; query < 5; query++) {
+                double x, y;
+
+                x = random.nextDouble() * 1000;
+                y = random.nextDouble() * 1000;
+
+                PartitionerChecks.assertQueryRect(tree, live, x, y, x + random.nextDouble() * 200, y + random.nextDouble() * 200);
+            }
+
+            PartitionerChecks.assertQueries(tree, live, random, 0, 1000);
+        }
+    }
+
+    @Test
+    void sortedInsertionsStayBalanced() {
+        DynamicAABBTree tree;
+        ArrayList<ObjectData> objects;
+
+        tree = new DynamicAABBTree(MARGIN);
+        objects = new ArrayList<>();
+
+        // Without rotations, inserting along a line degenerates into a list.
+        for (int entity = 0; entity < 1024; entity++) {
+            objects.add(CollisionObjects.create(new RectangleHitboxComponent(1, 1), entity, entity * 100, 0));
+            tree.addObject(objects.get(entity));
+        }
+
+        assertTrue(tree.getHeight() <= 20, "Height " + tree.getHeight() + " is not logarithmic.");
+
+        // Removing every other object refits the tree from the bottom up.
+        for (int entity = 0; entity < 1024; entity += 2) tree.rmvObject(objects.get(entity));
+
+        assertEquals(512, tree.getObjectAmount());
+        assertTrue(tree.getHeight() <= 18, "Height " + tree.getHeight() + " is not logarithmic.");
+    }
+
+    @Test
+    void objectsLeavingTheirFatBoxAreFoundAtTheirNewPosition() {
+        DynamicAABBTree tree;
+        ObjectData mover, target;
+        ArrayList<ObjectData> result;
+
+        tree = new DynamicAABBTree(MARGIN);
+        mover = CollisionObjects.create(new RectangleHitboxComponent(10, 10), 0, 0, 0);
+        target = CollisionObjects.create(new RectangleHitboxComponent(10, 10), 1, 500, 500);
+        tree.addObject(mover);
+        tree.addObject(target);
+        tree.update(null);
+
+        PartitionerChecks.assertCandidatePairs(tree, List.of(mover, target), 2 * MARGIN);
+
+        CollisionObjects.move(mover, 495, 495, false);
+        tree.update(null);
+
+        PartitionerChecks.assertCandidatePairs(tree, List.of(mover, target), 2 * MARGIN);
+
+        result = new ArrayList<>();
+        assertEquals(0, tree.queryPoint(5, 5, result));
+        assertEquals(2, tree.queryPoint(502, 502, result));
+
+        tree.rmvObject(mover);
+        tree.rmvObject(target);
+
+        assertEquals(-1, tree.getHeight());
+        assertEquals(0, tree.queryPoint(502, 502, result));
+    }
+
+
+}
@@ -0,0 +1,303 @@
+package internal.entity_component_system.specifics.collision.dependencies.spatial_partitioner;
+
+
+import internal.entity_component_system.specifics.collision.CollisionObjects;
+import internal.entity_component_system.specifics.collision.data.ObjectData;
+import internal.entity_component_system.specifics.hitbox.CircleHitboxComponent;
+import internal.entity_component_system.specifics.hitbox.RectangleHitboxComponent;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+/**
+ * Compares the results of spatial partitioners against a linear scan over the bounding boxes of all objects.
+ *
+ * @author Tim Kloepper
+ * @version 1.0
+ */
+class PartitionerChecks {
+
+
+    // -+- CREATION -+- //
+
+    /**
+     * Creates a rectangle or a circle of random size at a random position inside of the area,
+     * which is part of one of three categories and collides with a random selection of them.
+     *
+     * @author Tim Kloepper
+     */
+    static ObjectData createRandom(Random random, int entity, double minCoordinate, double maxCoordinate) {
+        ObjectData obj;
+        double x, y;
+
+        x = minCoordinate + random.nextDouble() * (maxCoordinate - minCoordinate);
+        y = minCoordinate + random.nextDouble() * (maxCoordinate - minCoordinate);
+
+        if (random.nextBoolean()) obj = CollisionObjects.create(new RectangleHitboxComponent(1 + random.nextInt(40), 1 + random.nextInt(40)), entity, x, y);
+        else obj = CollisionObjects.create(new CircleHitboxComponent(1 + random.nextInt(20)), entity, x, y);
+
+        obj.category = 1 << random.nextInt(3);
+        obj.mask = random.nextInt(8) | obj.category;
+
+        return obj;
+    }
+
+
+    // -+- BOUNDS -+- //
+
+    static double[] getBounds(ObjectData obj) {
+        double[] bounds;
+
+        bounds = new double[BoundsCalculator.SIZE];
+        BoundsCalculator.calculate(obj, bounds, 0);
+
+        return bounds;
+    }
+    static boolean overlaps(double[] a, double[] b, double slack) {
+        return a[BoundsCalculator.MIN_X] - slack <= b[BoundsCalculator.MAX_X] && a[BoundsCalculator.MAX_X] + slack >= b[BoundsCalculator.MIN_X]
+                && a[BoundsCalculator.MIN_Y] - slack <= b[BoundsCalculator.MAX_Y] && a[BoundsCalculator.MAX_Y] + slack >= b[BoundsCalculator.MIN_Y];
+    }
+
+
+    // -+- CHECKS -+- //
+
+    /**
+     * Checks, that every pair of objects with overlapping bounding boxes, which can collide with each other,
+     * is reported exactly once and that every reported pair lies at most {@code slack} apart.
+     *
+     * @param partitioner The partitioner, which already got updated
+     * @param objects All objects of the partitioner
+     * @param slack How far apart the bounding boxes of a reported pair may be, for example because of fat boxes or cells
+     *
+     * @author Tim Kloepper
+     */
+    static void assertCandidatePairs(I_SpatialPartitioner partitioner, List<ObjectData> objects, double slack) {
+        IdentityHashMap<ObjectData, Integer> indices;
+        HashSet<Long> reported;
+        ArrayList<double[]> bounds;
+
+        indices = new IdentityHashMap<>();
+        bounds = new ArrayList<>();
+
+        for (int index = 0; index < objects.size(); index++) {
+            indices.put(objects.get(index), index);
+            bounds.add(getBounds(objects.get(index)));
+        }
+
+        reported = new HashSet<>();
+
+        partitioner.forEachCandidatePair((a, b) -> {
+            int indexA, indexB;
+
+            assertNotSame(a, b, "An object was paired with itself.");
+            assertTrue(indices.containsKey(a) && indices.containsKey(b), "A removed object was paired.");
+            assertTrue(a.canCollideWith(b), "Objects, that can not collide, were paired.");
+
+            indexA = indices.get(a);
+            indexB = indices.get(b);
+
+            assertTrue(reported.add(h_key(indexA, indexB)), "Pair " + indexA + " / " + indexB + " was reported twice.");
+            assertTrue(overlaps(bounds.get(indexA), bounds.get(indexB), slack), "Pair " + indexA + " / " + indexB + " lies too far apart.");
+        });
+
+        for (int a = 0; a < objects.size(); a++) {
+            for (int b = a + 1; b < objects.size(); b++) {
+                if (!objects.get(a).canCollideWith(objects.get(b)) || !overlaps(bounds.get(a), bounds.get(b), 0)) continue;
+
+                assertTrue(reported.contains(h_key(a, b)), "Overlapping pair " + a + " / " + b + " was not reported.");
+            }
+        }
+    }
+    /**
+     * Checks, that the rectangle query returns exactly the objects, whose bounding box overlaps the rectangle, each once.
+     *
+     * @author Tim Kloepper
+     */
+    static void assertQueryRect(I_SpatialPartitioner partitioner, List<ObjectData> objects, double minX, double minY, double maxX, double maxY) {
+        ArrayList<ObjectData> result;
+        HashSet<ObjectData> expected;
+        double[] rect;
+
+        result = new ArrayList<>();
+        expected = new HashSet<>();
+        rect = new double[] { minX, minY, maxX, maxY };
+
+        for (ObjectData obj : objects) {
+            if (overlaps(getBounds(obj), rect, 0)) expected.add(obj);
+        }
+
+        assertEquals(partitioner.queryRect(minX, minY, maxX, maxY, result), result.size());
+        assertEquals(expected.size(), result.size(), "Objects were missed or reported twice.");
+        assertEquals(expected, new HashSet<>(result));
+    }
+    /**
+     * Checks, that the point query returns exactly the objects, whose bounding box contains the point, each once.
+     *
+     * @author Tim Kloepper
+     */
+    static void assertQueryPoint(I_SpatialPartitioner partitioner, List<ObjectData> objects, double x, double y) {
+        ArrayList<ObjectData> result;
+        HashSet<ObjectData> expected;
+
+        result = new ArrayList<>();
+        expected = new HashSet<>();
+
+        for (ObjectData obj : objects) {
+            double[] bounds;
+
+            bounds = getBounds(obj);
+
+            if (SpatialQueries.containsPoint(x, y, bounds[BoundsCalculator.MIN_X], bounds[BoundsCalculator.MIN_Y], bounds[BoundsCalculator.MAX_X], bounds[BoundsCalculator.MAX_Y])) expected.add(obj);
+        }
+
+        assertEquals(partitioner.queryPoint(x, y, result), result.size());
+        assertEquals(expected.size(), result.size(), "Objects were missed or reported twice.");
+        assertEquals(expected, new HashSet<>(result));
+    }
+    /**
+     * Checks, that the ray returns exactly the objects, whose bounding box it hits, each once, ordered by the distance of the hit.
+     *
+     * @author Tim Kloepper
+     */
+    static void assertRaycast(I_SpatialPartitioner partitioner, List<ObjectData> objects,
+                              double originX, double originY, double directionX, double directionY, double maxDistance) {
+        ArrayList<ObjectData> result;
+        HashSet<ObjectData> expected;
+        double length, previous;
+
+        result = new ArrayList<>();
+        expected = new HashSet<>();
+
+        // Normalized the same way as by the partitioners, so the distances match exactly.
+        length = Math.sqrt(directionX * directionX + directionY * directionY);
+
+        for (ObjectData obj : objects) {
+            if (h_intersectRay(obj, originX, originY, directionX / length, directionY / length, maxDistance) != SpatialQueries.NO_HIT) expected.add(obj);
+        }
+
+        assertEquals(partitioner.raycast(originX, originY, directionX, directionY, maxDistance, result), result.size());
+        assertEquals(expected.size(), result.size(), "Objects were missed or reported twice.");
+        assertEquals(expected, new HashSet<>(result));
+
+        previous = 0;
+
+        for (ObjectData obj : result) {
+            double distance;
+
+            distance = h_intersectRay(obj, originX, originY, directionX / length, directionY / length, maxDistance);
+
+            assertTrue(distance >= previous, "Hits are not ordered by their distance.");
+            previous = distance;
+        }
+    }
+    /**
+     * Checks, that the nearest objects are returned each once and ordered, with the same distances as the closest objects of a linear scan.
+     * Objects at the same distance may be exchanged.
+     *
+     * @author Tim Kloepper
+     */
+    static void assertQueryNearest(I_SpatialPartitioner partitioner, List<ObjectData> objects, double x, double y, int amount) {
+        ArrayList<ObjectData> result;
+        double[] expected, distances;
+
+        result = new ArrayList<>();
+        expected = new double[objects.size()];
+
+        for (int index = 0; index < objects.size(); index++) expected[index] = h_getDistanceSquared(objects.get(index), x, y);
+
+        Arrays.sort(expected);
+        expected = Arrays.copyOf(expected, Math.min(amount, expected.length));
+
+        assertEquals(partitioner.queryNearest(x, y, amount, result), result.size());
+        assertEquals(expected.length, new HashSet<>(result).size(), "Objects were missed or reported twice.");
+
+        distances = new double[result.size()];
+        for (int index = 0; index < result.size(); index++) distances[index] = h_getDistanceSquared(result.get(index), x, y);
+
+        assertArrayEquals(expected, distances);
+    }
+    /**
+     * Runs random queries of every kind, which stay inside the area.
+     *
+     * @author Tim Kloepper
+     */
+    static void assertQueries(I_SpatialPartitioner partitioner, List<ObjectData> objects, Random random, double minCoordinate, double maxCoordinate) {
+        double size;
+
+        size = maxCoordinate - minCoordinate;
+
+        for (int query = 0; query < 5; query++) {
+            double x, y, width, height;
+            double angle, directionX, directionY;
+            double[] bounds;
+
+            x = minCoordinate + random.nextDouble() * size;
+            y = minCoordinate + random.nextDouble() * size;
+            width = random.nextDouble() * (maxCoordinate - x);
+            height = random.nextDouble() * (maxCoordinate - y);
+
+            // Points inside of an object hit something, unless the object reaches beyond the area.
+            bounds = getBounds(objects.get(random.nextInt(objects.size())));
+
+            assertQueryPoint(partitioner, objects, x, y);
+            assertQueryPoint(partitioner, objects,
+                    h_clamp((bounds[BoundsCalculator.MIN_X] + bounds[BoundsCalculator.MAX_X]) / 2, minCoordinate, maxCoordinate),
+                    h_clamp((bounds[BoundsCalculator.MIN_Y] + bounds[BoundsCalculator.MAX_Y]) / 2, minCoordinate, maxCoordinate));
+            assertQueryRect(partitioner, objects, x, y, x + width * 0.1, y + height * 0.1);
+            assertQueryRect(partitioner, objects, x, y, x + width, y + height);
+
+            // Every fourth ray runs along an axis.
+            angle = random.nextInt(4) == 0 ? random.nextInt(4) * Math.PI / 2 : random.nextDouble() * Math.PI * 2;
+            directionX = Math.abs(Math.cos(angle)) < 1e-9 ? 0 : Math.cos(angle);
+            directionY = Math.abs(Math.sin(angle)) < 1e-9 ? 0 : Math.sin(angle);
+
+            assertRaycast(partitioner, objects, x, y, directionX, directionY, random.nextDouble() * h_getExitDistance(x, y, directionX, directionY, minCoordinate, maxCoordinate));
+
+            assertQueryNearest(partitioner, objects, x, y, 1);
+            assertQueryNearest(partitioner, objects, x, y, 1 + random.nextInt(20));
+        }
+    }
+
+    private static double h_intersectRay(ObjectData obj, double originX, double originY, double directionX, double directionY, double maxDistance) {
+        double[] bounds;
+
+        bounds = getBounds(obj);
+
+        return SpatialQueries.intersectRay(originX, originY, directionX, directionY, maxDistance,
+                bounds[BoundsCalculator.MIN_X], bounds[BoundsCalculator.MIN_Y], bounds[BoundsCalculator.MAX_X], bounds[BoundsCalculator.MAX_Y]);
+    }
+    private static double h_getDistanceSquared(ObjectData obj, double x, double y) {
+        double[] bounds;
+
+        bounds = getBounds(obj);
+
+        return SpatialQueries.getDistanceSquared(x, y, bounds[BoundsCalculator.MIN_X], bounds[BoundsCalculator.MIN_Y], bounds[BoundsCalculator.MAX_X], bounds[BoundsCalculator.MAX_Y]);
+    }
+    private static double h_clamp(double coordinate, double minCoordinate, double maxCoordinate) {
+        return Math.max(minCoordinate, Math.min(maxCoordinate, coordinate));
+    }
+    private static double h_getExitDistance(double x, double y, double directionX, double directionY, double minCoordinate, double maxCoordinate) {
+        double exitX, exitY;
+
+        exitX = directionX == 0 ? Double.POSITIVE_INFINITY : ((directionX > 0 ? maxCoordinate : minCoordinate) - x) / directionX;
+        exitY = directionY == 0 ? Double.POSITIVE_INFINITY : ((directionY > 0 ? maxCoordinate : minCoordinate) - y) / directionY;
+
+        return Math.min(exitX, exitY);
+    }
+
+    private static long h_key(int a, int b) {
+        return ((long) Math.min(a, b) << 32) | Math.max(a, b);
+    }
+
+
+}
@@ -0,0 +1,184 @@
+package internal.entity_component_system.specifics.collision.dependencies.spatial_partitioner;
+
+
+import internal.entity_component_system.specifics.collision.CollisionObjects;
+import internal.entity_component_system.specifics.collision.SweptCollision;
+import internal.entity_component_system.specifics.collision.data.ObjectData;
+import internal.entity_component_system.specifics.hitbox.CircleHitboxComponent;
+import internal.entity_component_system.specifics.hitbox.RectangleHitboxComponent;
+import org.joml.Vector2d;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+class QuadTreeTest {
+
+
+    // -+- PARAMETERS -+- //
+
+    // FINALS //
+
+    private static final double SIZE = 1000;
+
+    private static final int OBJECT_AMOUNT = 300;
+    private static final int ROUND_AMOUNT = 20;
+
+    // NON-FINALS //
+
+    private QuadTree _tree;
+    private ObjectData _ball, _catcher;
+
+
+    // -+- SETUP -+- //
+
+    // The catcher is as thin as the one of the pong demo and only lies inside the upper right leaf,
+    // while the fillers make the root split into four leaves on the first update.
+    @BeforeEach
+    void setup() {
+        _tree = new QuadTree(new Vector2d(), SIZE, SIZE);
+
+        _ball = CollisionObjects.create(new CircleHitboxComponent(5), 0, 700, 100);
+        _catcher = CollisionObjects.create(new RectangleHitboxComponent(200, 1), 1, 600, 300);
+
+        _tree.addObject(_ball);
+        _tree.addObject(_catcher);
+        _tree.addObject(CollisionObjects.create(new RectangleHitboxComponent(10, 10), 2, 100, 100));
+        _tree.addObject(CollisionObjects.create(new RectangleHitboxComponent(10, 10), 3, 100, 900));
+        _tree.addObject(CollisionObjects.create(new RectangleHitboxComponent(10, 10), 4, 900, 900));
+
+        _tree.update(null);
+    }
+
+
+    // -+- TESTS -+- //
+
+    @Test
+    void sweptObjectsArePairedWithTunnelledObjects() {
+        SweptCollision swept;
+
+        swept = new SweptCollision();
+
+        CollisionObjects.move(_ball, 700, 800, true);
+        _tree.update(null);
+
+        assertTrue(h_isPaired(_ball, _catcher));
+
+        assertTrue(swept.test(_ball, _catcher));
+        assertTrue(swept.getTimeOfImpact() > 0 && swept.getTimeOfImpact() < 1);
+    }
+    @Test
+    void unsweptObjectsAreOnlyPairedAtTheirPosition() {
+        CollisionObjects.move(_ball, 700, 800, false);
+        _tree.update(null);
+
+        assertFalse(h_isPaired(_ball, _catcher));
+    }
+    @Test
+    void objectsReturnIntoLeavesTheyLeft() {
+        CollisionObjects.move(_ball, 700, 800, false);
+        _tree.update(null);
+
+        CollisionObjects.move(_ball, 700, 295, false);
+        _tree.update(null);
+
+        assertTrue(h_isPaired(_ball, _catcher));
+    }
+    @Test
+    void objectsSpanningLeavesAreQueriedOnce() {
+        ObjectData wall;
+        ArrayList<ObjectData> result;
+
+        // Crosses all four leaves of the split root.
+        wall = CollisionObjects.create(new RectangleHitboxComponent(800, 800), 5, 100, 100);
+        _tree.addObject(wall);
+        _tree.update(null);
+
+        result = new ArrayList<>();
+
+        assertEquals(1, _tree.queryRect(400, 400, 600, 600, result));
+        assertEquals(List.of(wall), result);
+
+        result.clear();
+        assertEquals(2, _tree.raycast(50, 300.5, 1, 0, 900, result));
+        assertEquals(List.of(wall, _catcher), result);
+
+        result.clear();
+        assertEquals(2, _tree.queryNearest(500, 950, 2, result));
+        assertEquals(wall, result.get(0));
+    }
+    @Test
+    void randomChurnMatchesBruteForce() {
+        QuadTree tree;
+        ArrayList<ObjectData> live;
+        Random random;
+        int entity;
+
+        tree = new QuadTree(new Vector2d(), SIZE, SIZE);
+        live = new ArrayList<>();
+        random = new Random(13);
+
+        // Circles along the edges reach beyond the tree, so their overlap may start outside of it,
+        // while every object still reaches into the tree, as rectangles extend from their position on.
+        for (entity = 0; entity < OBJECT_AMOUNT; entity++) {
+            live.add(PartitionerChecks.createRandom(random, entity, 0, SIZE - 1));
+            tree.addObject(live.get(entity));
+        }
+
+        tree.update(null);
+
+        for (int round = 0; round < ROUND_AMOUNT; round++) {
+            for (ObjectData obj : live) {
+                CollisionObjects.move(obj,
+                        h_clamp(obj.positionComponent.position.x + random.nextDouble() * 40 - 20),
+                        h_clamp(obj.positionComponent.position.y + random.nextDouble() * 40 - 20),
+                        random.nextInt(4) == 0);
+            }
+
+            tree.update(null);
+            PartitionerChecks.assertCandidatePairs(tree, live, 0);
+            // Queries only search the area of the tree.
+            PartitionerChecks.assertQueries(tree, live, random, 0, SIZE);
+
+            // Removed objects stay inside of their leaves until the next update.
+            for (int change = 0; change < 10; change++) tree.rmvObject(live.remove(random.nextInt(live.size())));
+
+            PartitionerChecks.assertCandidatePairs(tree, live, 0);
+
+            for (int change = 0; change < 10; change++) {
+                live.add(PartitionerChecks.createRandom(random, entity++, 0, SIZE - 1));
+                tree.addObject(live.get(live.size() - 1));
+            }
+
+            tree.update(null);
+        }
+    }
+
+
+    // -+- HELPERS -+- //
+
+    private double h_clamp(double coordinate) {
+        return Math.max(0, Math.min(SIZE - 1, coordinate));
+    }
+    private boolean h_isPaired(ObjectData objA, ObjectData objB) {
+        int[] amount;
+
+        amount = new int[1];
+
+        _tree.forEachCandidatePair((a, b) -> {
+            if ((a == objA && b == objB) || (a == objB && b == objA)) amount[0]++;
+        });
+
+        assertTrue(amount[0] <= 1, "Pairs must only be reported once.");
+
+        return amount[0] == 1;
+    }
+
+}
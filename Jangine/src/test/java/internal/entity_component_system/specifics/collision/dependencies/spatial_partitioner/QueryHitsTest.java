@@ -0,0 +1,107 @@
+package internal.entity_component_system.specifics.collision.dependencies.spatial_partitioner;
+
+
+import internal.entity_component_system.specifics.collision.CollisionObjects;
+import internal.entity_component_system.specifics.collision.data.ObjectData;
+import internal.entity_component_system.specifics.hitbox.RectangleHitboxComponent;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+
+class QueryHitsTest {
+
+
+    // -+- TESTS -+- //
+
+    @Test
+    void closestHitsAreKeptUpToTheLimit() {
+        QueryHits hits;
+        ObjectData[] objects;
+        ArrayList<ObjectData> result;
+
+        hits = new QueryHits();
+        objects = h_createObjects(6);
+        result = new ArrayList<>();
+
+        hits.reset(3);
+
+        hits.add(objects[5], 5);
+        hits.add(objects[1], 1);
+        assertEquals(Double.POSITIVE_INFINITY, hits.getMaxDistance());
+
+        hits.add(objects[4], 4);
+        assertEquals(5, hits.getMaxDistance());
+
+        // Closer hits evict the farthest one, while hits as far as the farthest one are dropped.
+        hits.add(objects[2], 2);
+        hits.add(objects[3], 4);
+        assertEquals(4, hits.getMaxDistance());
+
+        assertEquals(3, hits.drainInto(result));
+        assertEquals(List.of(objects[1], objects[2], objects[4]), result);
+
+        // Draining empties the hits, so they can be reused.
+        assertEquals(0, hits.drainInto(result));
+        assertEquals(3, result.size());
+
+        result.clear();
+        hits.reset(1);
+        hits.add(objects[3], 3);
+        hits.add(objects[0], 0);
+
+        assertEquals(1, hits.drainInto(result));
+        assertEquals(List.of(objects[0]), result);
+    }
+    @Test
+    void randomHitsMatchSortedHits() {
+        QueryHits hits;
+        ObjectData[] objects;
+        double[] distances;
+        Random random;
+
+        hits = new QueryHits();
+        objects = h_createObjects(100);
+        distances = new double[objects.length];
+        random = new Random(19);
+
+        for (int index = 0; index < objects.length; index++) distances[index] = random.nextDouble();
+
+        // More hits than the initial capacity, with and without a limit.
+        for (int limit : new int[] { 1, 7, 16, 40, Integer.MAX_VALUE }) {
+            ArrayList<ObjectData> expected, result;
+
+            expected = new ArrayList<>(List.of(objects));
+            expected.sort(Comparator.comparingDouble(obj -> distances[obj.hitboxComponent.owningEntity]));
+            expected = new ArrayList<>(expected.subList(0, Math.min(limit, expected.size())));
+
+            result = new ArrayList<>();
+
+            hits.reset(limit);
+            for (int index = 0; index < objects.length; index++) hits.add(objects[index], distances[index]);
+
+            assertEquals(expected.size(), hits.drainInto(result));
+            assertEquals(expected, result);
+        }
+    }
+
+
+    // -+- HELPERS -+- //
+
+    private static ObjectData[] h_createObjects(int amount) {
+        ObjectData[] objects;
+
+        objects = new ObjectData[amount];
+
+        for (int entity = 0; entity < amount; entity++) objects[entity] = CollisionObjects.create(new RectangleHitboxComponent(1, 1), entity, 0, 0);
+
+        return objects;
+    }
+
+
+}
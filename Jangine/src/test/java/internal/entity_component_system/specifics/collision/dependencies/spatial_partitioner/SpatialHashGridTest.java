@@ -0,0 +1,193 @@
+package internal.entity_component_system.specifics.collision.dependencies.spatial_partitioner;
+
+
+import internal.entity_component_system.specifics.collision.CollisionObjects;
+import internal.entity_component_system.specifics.collision.data.ObjectData;
+import internal.entity_component_system.specifics.hitbox.RectangleHitboxComponent;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+class SpatialHashGridTest {
+
+
+    // -+- PARAMETERS -+- //
+
+    // FINALS //
+
+    private static final double CELL_SIZE = 16;
+
+    private static final int OBJECT_AMOUNT = 300;
+    private static final int ROUND_AMOUNT = 20;
+
+
+    // -+- TESTS -+- //
+
+    @Test
+    void randomChurnMatchesBruteForce() {
+        SpatialHashGrid grid;
+        ArrayList<ObjectData> live;
+        Random random;
+        int entity;
+
+        grid = new SpatialHashGrid(CELL_SIZE);
+        live = new ArrayList<>();
+        random = new Random(12);
+
+        // Objects up to two and a half cells wide, around the origin, so cell coordinates are negative as well.
+        for (entity = 0; entity < OBJECT_AMOUNT; entity++) {
+            live.add(PartitionerChecks.createRandom(random, entity, -500, 500));
+            grid.addObject(live.get(entity));
+        }
+
+        grid.update(null);
+
+        // Far more cells than the initial table holds, so the table grew while keeping every cell.
+        assertTrue(grid.getCellAmount() > 128, "Only " + grid.getCellAmount() + " cells.");
+
+        for (int round = 0; round < ROUND_AMOUNT; round++) {
+            for (ObjectData obj : live) {
+                CollisionObjects.move(obj, obj.positionComponent.position.x + random.nextDouble() * 20 - 10, obj.positionComponent.position.y + random.nextDouble() * 20 - 10, false);
+            }
+
+            grid.update(null);
+
+            assertEquals(live.size(), grid.getObjectAmount());
+            PartitionerChecks.assertCandidatePairs(grid, live, 0);
+            h_assertQueries(grid, live, random);
+
+            // Removing leaves the cells with outdated indices, so the next look up rebuilds them.
+            for (int change = 0; change < 10; change++) grid.rmvObject(live.remove(random.nextInt(live.size())));
+
+            PartitionerChecks.assertCandidatePairs(grid, live, 0);
+            h_assertQueries(grid, live, random);
+
+            for (int change = 0; change < 10; change++) {
+                live.add(PartitionerChecks.createRandom(random, entity++, -500, 500));
+                grid.addObject(live.get(live.size() - 1));
+            }
+        }
+    }
+
+    @Test
+    void pairsSharingManyCellsAreReportedOnce() {
+        SpatialHashGrid grid;
+        ArrayList<ObjectData> objects;
+
+        grid = new SpatialHashGrid(CELL_SIZE);
+        objects = new ArrayList<>();
+
+        // Every pair of these overlaps in several cells, including cells on both sides of zero.
+        objects.add(CollisionObjects.create(new RectangleHitboxComponent(100, 100), 0, -50, -50));
+        objects.add(CollisionObjects.create(new RectangleHitboxComponent(100, 20), 1, -40, -10));
+        objects.add(CollisionObjects.create(new RectangleHitboxComponent(20, 100), 2, -10, -40));
+        objects.add(CollisionObjects.create(new RectangleHitboxComponent(CELL_SIZE, CELL_SIZE), 3, 0, 0));
+
+        for (ObjectData obj : objects) grid.addObject(obj);
+        grid.update(null);
+
+        PartitionerChecks.assertCandidatePairs(grid, objects, 0);
+    }
+
+    @Test
+    void queriesFromOutsideTheCellsMatchBruteForce() {
+        SpatialHashGrid grid;
+        ArrayList<ObjectData> objects;
+        Random random;
+
+        grid = new SpatialHashGrid(CELL_SIZE);
+        objects = new ArrayList<>();
+        random = new Random(19);
+
+        for (int entity = 0; entity < OBJECT_AMOUNT; entity++) {
+            objects.add(PartitionerChecks.createRandom(random, entity, -500, 500));
+            grid.addObject(objects.get(entity));
+        }
+
+        grid.update(null);
+
+        for (int query = 0; query < 200; query++) {
+            double x, y, angle;
+
+            // Far outside the occupied cells, so rays first have to enter them and the nearest objects lie many rings away.
+            x = random.nextDouble() * 3000 - 1500;
+            y = random.nextDouble() * 3000 - 1500;
+            angle = random.nextDouble() * Math.PI * 2;
+
+            PartitionerChecks.assertRaycast(grid, objects, x, y, Math.cos(angle), Math.sin(angle), random.nextDouble() * 4000);
+            // Rays along cell borders, in both directions of both axes.
+            PartitionerChecks.assertRaycast(grid, objects, Math.round(x / CELL_SIZE) * CELL_SIZE, y, 0, y > 0 ? -1 : 1, 4000);
+            PartitionerChecks.assertRaycast(grid, objects, x, Math.round(y / CELL_SIZE) * CELL_SIZE, x > 0 ? -1 : 1, 0, 4000);
+
+            PartitionerChecks.assertQueryNearest(grid, objects, x, y, 1 + random.nextInt(20));
+        }
+    }
+
+    @Test
+    void farAwayCoordinatesAreHandled() {
+        SpatialHashGrid grid;
+        ArrayList<ObjectData> objects;
+        double[] coordinates;
+
+        grid = new SpatialHashGrid(CELL_SIZE);
+        objects = new ArrayList<>();
+        coordinates = new double[] { -1e15, -1e9, -5, 0, 1e9, 1e15 };
+
+        // Cell coordinates beyond the range of an int.
+        for (double x : coordinates) {
+            for (double y : coordinates) {
+                objects.add(CollisionObjects.create(new RectangleHitboxComponent(20, 20), objects.size(), x, y));
+                objects.add(CollisionObjects.create(new RectangleHitboxComponent(20, 20), objects.size(), x + 10, y + 10));
+            }
+        }
+
+        for (ObjectData obj : objects) grid.addObject(obj);
+
+        assertTimeoutPreemptively(Duration.ofSeconds(10), () -> {
+            ArrayList<ObjectData> result;
+
+            grid.update(null);
+
+            PartitionerChecks.assertCandidatePairs(grid, objects, 0);
+            PartitionerChecks.assertQueryRect(grid, objects, -1e15, -1e15, -1e15 + 5, -1e15 + 5);
+            PartitionerChecks.assertQueryRect(grid, objects, 1e9, 1e9, 1e9 + 15, 1e9 + 15);
+
+            result = new ArrayList<>();
+            assertEquals(2, grid.queryNearest(1e15 + 50, 1e15 + 50, 2, result));
+            assertEquals(List.of(objects.get(objects.size() - 1), objects.get(objects.size() - 2)), result);
+
+            // The origin lies beyond the outermost cells.
+            result.clear();
+            assertEquals(2, grid.raycast(1e15 + 100, 1e15 + 15, -1, 0, 1000, result));
+            assertEquals(List.of(objects.get(objects.size() - 1), objects.get(objects.size() - 2)), result);
+        });
+    }
+
+
+    // -+- HELPERS -+- //
+
+    private static void h_assertQueries(SpatialHashGrid grid, List<ObjectData> objects, Random random) {
+        for (int query = 0; query < 5; query++) {
+            double x, y;
+
+            x = random.nextDouble() * 1000 - 500;
+            y = random.nextDouble() * 1000 - 500;
+
+            // Small rectangles walk the cells, large ones test all objects directly.
+            PartitionerChecks.assertQueryRect(grid, objects, x, y, x + random.nextDouble() * 50, y + random.nextDouble() * 50);
+            PartitionerChecks.assertQueryRect(grid, objects, x, y, x + 1000, y + 1000);
+        }
+
+        PartitionerChecks.assertQueries(grid, objects, random, -500, 500);
+    }
+
+
+}
@@ -0,0 +1,179 @@
+package internal.entity_component_system.specifics.collision.dependencies.spatial_partitioner;
+
+
+import internal.entity_component_system.specifics.collision.CollisionObjects;
+import internal.entity_component_system.specifics.collision.data.ObjectData;
+import internal.entity_component_system.specifics.hitbox.RectangleHitboxComponent;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+class SweepAndPruneTest {
+
+
+    // -+- PARAMETERS -+- //
+
+    // FINALS //
+
+    private static final int OBJECT_AMOUNT = 200;
+    private static final int ROUND_AMOUNT = 30;
+
+
+    // -+- TESTS -+- //
+
+    @Test
+    void randomChurnMatchesBruteForce() {
+        SweepAndPrune sweep;
+        ArrayList<ObjectData> live;
+        Random random;
+        int entity;
+
+        sweep = new SweepAndPrune();
+        live = new ArrayList<>();
+        random = new Random(11);
+
+        // More objects than the initial capacity, so the arrays grow.
+        for (entity = 0; entity < OBJECT_AMOUNT; entity++) {
+            live.add(PartitionerChecks.createRandom(random, entity, 0, 1000));
+            sweep.addObject(live.get(entity));
+        }
+
+        for (int round = 0; round < ROUND_AMOUNT; round++) {
+            // Small moves keep the order almost sorted, while jumps make the insertion sort move objects far.
+            for (ObjectData obj : live) {
+                double x, y;
+
+                x = obj.positionComponent.position.x;
+                y = obj.positionComponent.position.y;
+
+                if (random.nextInt(10) == 0) CollisionObjects.move(obj, random.nextDouble() * 1000, random.nextDouble() * 1000, false);
+                else CollisionObjects.move(obj, x + random.nextDouble() * 10 - 5, y + random.nextDouble() * 10 - 5, false);
+            }
+
+            sweep.update(null);
+
+            assertEquals(live.size(), sweep.getObjectAmount());
+            PartitionerChecks.assertCandidatePairs(sweep, live, 0);
+            h_assertQueries(sweep, live, random);
+
+            // Removing fixes up the order in place, which the following queries rely on without another update.
+            for (int change = 0; change < 10; change++) {
+                ObjectData obj;
+
+                obj = live.remove(random.nextInt(live.size()));
+                sweep.rmvObject(obj);
+            }
+
+            PartitionerChecks.assertCandidatePairs(sweep, live, 0);
+            h_assertQueries(sweep, live, random);
+
+            // Added objects are appended unsorted, until the next update.
+            for (int change = 0; change < 10; change++) {
+                live.add(PartitionerChecks.createRandom(random, entity++, 0, 1000));
+                sweep.addObject(live.get(live.size() - 1));
+            }
+
+            h_assertQueries(sweep, live, random);
+        }
+    }
+
+    @Test
+    void removingFirstAndLastIndicesKeepsTheOrder() {
+        SweepAndPrune sweep;
+        ArrayList<ObjectData> objects;
+
+        sweep = new SweepAndPrune();
+        objects = new ArrayList<>();
+
+        // Dense indices follow the addition order, while the sort order is the reverse of it.
+        for (int entity = 0; entity < 10; entity++) {
+            objects.add(CollisionObjects.create(new RectangleHitboxComponent(15, 15), entity, 900 - entity * 100, 0));
+            sweep.addObject(objects.get(entity));
+        }
+
+        sweep.update(null);
+
+        // The last index moves into the freed one, the first and the last index are the edge cases.
+        sweep.rmvObject(objects.remove(0));
+        sweep.rmvObject(objects.remove(objects.size() - 1));
+        sweep.rmvObject(objects.remove(3));
+
+        for (int x = 0; x < 1000; x += 50) PartitionerChecks.assertQueryRect(sweep, objects, x, 0, x + 60, 10);
+    }
+
+    @Test
+    void removedObjectsLeaveThePairsOfTheLastUpdate() {
+        SweepAndPrune sweep;
+        ObjectData a, b, c;
+        ArrayList<ObjectData> pairs;
+
+        sweep = new SweepAndPrune();
+        a = CollisionObjects.create(new RectangleHitboxComponent(10, 10), 0, 0, 0);
+        b = CollisionObjects.create(new RectangleHitboxComponent(10, 10), 1, 5, 5);
+        c = CollisionObjects.create(new RectangleHitboxComponent(10, 10), 2, 8, 0);
+        sweep.addObject(a);
+        sweep.addObject(b);
+        sweep.addObject(c);
+        sweep.update(null);
+
+        PartitionerChecks.assertCandidatePairs(sweep, List.of(a, b, c), 0);
+
+        sweep.rmvObject(b);
+
+        pairs = new ArrayList<>();
+        sweep.forEachCandidatePair((objA, objB) -> {
+            pairs.add(objA);
+            pairs.add(objB);
+        });
+
+        assertEquals(2, pairs.size());
+        assertFalse(pairs.contains(b));
+        assertEquals(List.of(c), new ArrayList<>(sweep.getCollidingObjects(a)));
+        assertTrue(sweep.getCollidingObjects(b).isEmpty());
+    }
+
+    @Test
+    void objectsAddedSinceTheUpdateAreQueriedBeforeTheEarlyExit() {
+        SweepAndPrune sweep;
+        ObjectData added;
+        ArrayList<ObjectData> result;
+
+        sweep = new SweepAndPrune();
+        for (int entity = 0; entity < 5; entity++) sweep.addObject(CollisionObjects.create(new RectangleHitboxComponent(10, 10), entity, 100 + entity * 100, 0));
+        sweep.update(null);
+
+        // Sorted, it would come first, but it is appended behind all objects starting right of the query.
+        added = CollisionObjects.create(new RectangleHitboxComponent(10, 10), 5, 0, 0);
+        sweep.addObject(added);
+
+        result = new ArrayList<>();
+
+        assertEquals(1, sweep.queryRect(0, 0, 20, 20, result));
+        assertEquals(List.of(added), result);
+    }
+
+
+    // -+- HELPERS -+- //
+
+    private static void h_assertQueries(SweepAndPrune sweep, List<ObjectData> objects, Random random) {
+        for (int query = 0; query < 5; query++) {
+            double x, y;
+
+            x = random.nextDouble() * 1000;
+            y = random.nextDouble() * 1000;
+
+            PartitionerChecks.assertQueryRect(sweep, objects, x, y, x + random.nextDouble() * 200, y + random.nextDouble() * 200);
+        }
+
+        PartitionerChecks.assertQueries(sweep, objects, random, 0, 1000);
+    }
+
+
+}
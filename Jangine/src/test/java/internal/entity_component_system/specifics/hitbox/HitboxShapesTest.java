@@ -0,0 +1,172 @@
+package internal.entity_component_system.specifics.hitbox;
+
+
+import internal.entity_component_system.specifics.collision.CollisionObjects;
+import internal.entity_component_system.specifics.collision.data.A_CollisionData;
+import internal.entity_component_system.specifics.collision.data.ObjectData;
+import internal.entity_component_system.specifics.collision.dependencies.calculator.AABB_Calculator;
+import internal.entity_component_system.specifics.collision.dependencies.calculator.I_ShapePairHandler;
+import internal.entity_component_system.specifics.collision.dependencies.spatial_partitioner.BoundsCalculator;
+import internal.entity_component_system.specifics.collision.dependencies.spatial_partitioner.QuadTree;
+import org.joml.Vector2d;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+class HitboxShapesTest {
+
+
+    // -+- PARAMETERS -+- //
+
+    // FINALS //
+
+    // Shapes are registered globally, so the square is registered once for all tests.
+    private static final int SQUARE = HitboxShapes.register(SquareHitboxComponent.class, (square, x, y, target, offset) -> {
+        target[offset + BoundsCalculator.MIN_X] = x - square.halfSide;
+        target[offset + BoundsCalculator.MIN_Y] = y - square.halfSide;
+        target[offset + BoundsCalculator.MAX_X] = x + square.halfSide;
+        target[offset + BoundsCalculator.MAX_Y] = y + square.halfSide;
+    });
+
+
+    // -+- TESTS -+- //
+
+    @Test
+    void shapeIsDerivedFromClass() {
+        assertEquals(HitboxShapes.RECTANGLE, new RectangleHitboxComponent(1, 1).SHAPE);
+        assertEquals(HitboxShapes.CIRCLE, new CircleHitboxComponent(1).SHAPE);
+        assertEquals(SQUARE, new SquareHitboxComponent(1).SHAPE);
+
+        assertEquals(HitboxShapes.RECTANGLE, new BorderHitboxComponent().SHAPE);
+        assertEquals(HitboxShapes.UNKNOWN, new UnregisteredHitboxComponent().SHAPE);
+    }
+    @Test
+    void registrationNeedsBoundsAndNewClass() {
+        assertThrows(IllegalArgumentException.class, () -> HitboxShapes.register(UnregisteredHitboxComponent.class, null));
+        assertThrows(IllegalArgumentException.class, () -> HitboxShapes.register(SquareHitboxComponent.class, (square, x, y, target, offset) -> {}));
+    }
+    @Test
+    void registeredBoundsAreUsed() {
+        double[] bounds;
+
+        bounds = new double[BoundsCalculator.SIZE];
+
+        assertTrue(BoundsCalculator.calculateAt(CollisionObjects.create(new SquareHitboxComponent(2), 0, 1, 1), 10, 20, bounds, 0));
+        assertArrayEquals(new double[] {8, 18, 12, 22}, bounds);
+
+        assertFalse(BoundsCalculator.calculateAt(CollisionObjects.create(new UnregisteredHitboxComponent(), 0, 1, 1), 10, 20, bounds, 0));
+        assertArrayEquals(new double[] {10, 20, 10, 20}, bounds);
+    }
+    @Test
+    void quadTreePairsRegisteredShapes() {
+        QuadTree tree;
+        ArrayList<ObjectData> pairs;
+
+        tree = new QuadTree(new Vector2d(), 100, 100);
+        pairs = new ArrayList<>();
+
+        tree.addObject(CollisionObjects.create(new SquareHitboxComponent(2), 0, 1, 1));
+        tree.addObject(CollisionObjects.create(new SquareHitboxComponent(2), 1, 1, 1));
+        tree.update(null);
+
+        tree.forEachCandidatePair((a, b) -> {
+            pairs.add(a);
+            pairs.add(b);
+        });
+
+        assertEquals(2, pairs.size());
+    }
+    @Test
+    void registeredPairsAreDispatched() {
+        AABB_Calculator calculator;
+        ObjectData square, rectangle;
+
+        calculator = new AABB_Calculator();
+        calculator.getDispatchTable().register(HitboxShapes.RECTANGLE, SQUARE, new OverlapHandler());
+
+        square = CollisionObjects.create(new SquareHitboxComponent(1), 0, 1, 1);
+        rectangle = CollisionObjects.create(new RectangleHitboxComponent(1, 1), 1, 1, 1);
+        rectangle.positionComponent.position.set(0.5, 0.5);
+
+        assertTrue(calculator.isCollidingWith(rectangle, square));
+        assertTrue(calculator.isCollidingWith(square, rectangle));
+
+        rectangle.positionComponent.position.set(5, 5);
+
+        assertFalse(calculator.isCollidingWith(square, rectangle));
+        assertFalse(calculator.isCollidingWith(square, CollisionObjects.create(new UnregisteredHitboxComponent(), 2, 1, 1)));
+    }
+    @Test
+    void builtInShapesAreFixed() {
+        AABB_Calculator calculator;
+
+        calculator = new AABB_Calculator();
+
+        assertThrows(IllegalArgumentException.class, () -> calculator.getDispatchTable().register(HitboxShapes.RECTANGLE, HitboxShapes.CIRCLE, new OverlapHandler()));
+        assertThrows(IllegalArgumentException.class, () -> calculator.getDispatchTable().register(HitboxShapes.CIRCLE, HitboxShapes.CIRCLE, new OverlapHandler()));
+        assertTrue(calculator.getDispatchTable().isFixed(HitboxShapes.RECTANGLE));
+        assertFalse(calculator.getDispatchTable().isFixed(SQUARE));
+
+        // Pairs with a further shape are looked up inside the table, so they can still be registered.
+        calculator.getDispatchTable().register(HitboxShapes.CIRCLE, SQUARE, new OverlapHandler());
+    }
+
+
+    // -+- CLASSES -+- //
+
+    private static class SquareHitboxComponent extends A_HitboxComponent {
+
+
+        SquareHitboxComponent(double halfSide) {
+            this.halfSide = halfSide;
+        }
+
+
+        double halfSide;
+
+
+    }
+    private static class BorderHitboxComponent extends RectangleHitboxComponent {
+
+
+        BorderHitboxComponent() {
+            super(1, 1);
+        }
+
+
+    }
+    private static class UnregisteredHitboxComponent extends A_HitboxComponent {}
+
+    private static class OverlapHandler implements I_ShapePairHandler {
+
+
+        private final double[] _BOUNDS_A = new double[BoundsCalculator.SIZE];
+        private final double[] _BOUNDS_B = new double[BoundsCalculator.SIZE];
+
+
+        @Override
+        public A_CollisionData.COLLISION_AXIS getCollisionAxis(ObjectData objA, ObjectData objB) {
+            return A_CollisionData.COLLISION_AXIS.X;
+        }
+
+        @Override
+        public boolean isCollidingWith(ObjectData objA, ObjectData objB) {
+            BoundsCalculator.calculate(objA, _BOUNDS_A, 0);
+            BoundsCalculator.calculate(objB, _BOUNDS_B, 0);
+
+            return _BOUNDS_A[BoundsCalculator.MIN_X] < _BOUNDS_B[BoundsCalculator.MAX_X] && _BOUNDS_B[BoundsCalculator.MIN_X] < _BOUNDS_A[BoundsCalculator.MAX_X]
+                    && _BOUNDS_A[BoundsCalculator.MIN_Y] < _BOUNDS_B[BoundsCalculator.MAX_Y] && _BOUNDS_B[BoundsCalculator.MIN_Y] < _BOUNDS_A[BoundsCalculator.MAX_Y];
+        }
+
+
+    }
+
+
+}
@@ -0,0 +1,222 @@
+package internal.entity_component_system.specifics.motion;
+
+
+import internal.entity_component_system.System;
+import internal.events.EventMaster;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+class MotionProcessorTest {
+
+
+    // -+- PARAMETERS -+- //
+
+    // FINALS //
+
+    private static final int ENTITY_AMOUNT = 1000;
+
+
+    // -+- TESTS -+- //
+
+    @Test
+    void updateMovesActiveComponentsOnly() {
+        System system;
+        MotionProcessor processor;
+        MotionComponent moving, resting;
+
+        system = new System(null, new EventMaster());
+        processor = new MotionProcessor();
+        system.addProcessor(processor);
+
+        moving = new MotionComponent(1, 2, 0.5, -1);
+        resting = new MotionComponent(3, 4, 1, 1);
+        resting.active = false;
+
+        system.addComponentToEntity(system.addEntity(), moving, false);
+        system.addComponentToEntity(system.addEntity(), resting, false);
+
+        system.update();
+        system.update();
+
+        assertEquals(2, moving.getX());
+        assertEquals(0, moving.getY());
+        assertEquals(3, resting.getX());
+        assertEquals(4, resting.getY());
+
+        resting.active = true;
+        moving.active = false;
+        system.update();
+
+        assertEquals(2, moving.getX());
+        assertEquals(4, resting.getX());
+        assertEquals(5, resting.getY());
+    }
+
+    @Test
+    void storageStaysDenseUnderChurn() {
+        System system;
+        MotionProcessor processor;
+        MotionComponent[] components;
+        double[][] expected;
+        int[] entities;
+        Random random;
+
+        system = new System(null, new EventMaster());
+        processor = new MotionProcessor();
+        system.addProcessor(processor);
+
+        random = new Random(7);
+        components = new MotionComponent[ENTITY_AMOUNT];
+        entities = new int[ENTITY_AMOUNT];
+        expected = new double[ENTITY_AMOUNT][4];
+
+        // More components than the initial capacity, so the arrays grow.
+        for (int index = 0; index < ENTITY_AMOUNT; index++) {
+            expected[index] = new double[] { random.nextInt(100), random.nextInt(100), random.nextInt(5) - 2, random.nextInt(5) - 2 };
+
+            components[index] = new MotionComponent(expected[index][0], expected[index][1], expected[index][2], expected[index][3]);
+            entities[index] = system.addEntity();
+            system.addComponentToEntity(entities[index], components[index], false);
+        }
+
+        for (int update = 0; update < 20; update++) {
+            for (int change = 0; change < 50; change++) {
+                int index;
+
+                index = random.nextInt(ENTITY_AMOUNT);
+
+                switch (random.nextInt(3)) {
+                    case 0 -> components[index].active = !components[index].active;
+                    case 1 -> {
+                        if (components[index].owningEntity == -1) system.addComponentToEntity(entities[index], components[index], false);
+                        else system.rmvComponentFromEntity(entities[index], MotionComponent.class);
+                    }
+                    default -> {
+                        expected[index][2] = random.nextInt(5) - 2;
+                        components[index].setVelocity(expected[index][2], expected[index][3]);
+                    }
+                }
+            }
+
+            system.update();
+
+            for (int index = 0; index < ENTITY_AMOUNT; index++) {
+                if (components[index].owningEntity == -1 || !components[index].active) continue;
+
+                expected[index][0] += expected[index][2];
+                expected[index][1] += expected[index][3];
+            }
+
+            h_assertMatches(processor, components, expected);
+        }
+    }
+
+    @Test
+    void removedComponentKeepsItsValues() {
+        System system;
+        MotionProcessor processor;
+        MotionComponent component;
+        int entity;
+
+        system = new System(null, new EventMaster());
+        processor = new MotionProcessor();
+        system.addProcessor(processor);
+
+        component = new MotionComponent(0, 0, 2, 3);
+        entity = system.addEntity();
+        system.addComponentToEntity(entity, component, false);
+        system.update();
+
+        system.rmvComponentFromEntity(entity, MotionComponent.class);
+        component.setPosition(10, 20);
+
+        assertEquals(10, component.getX());
+        assertEquals(20, component.getY());
+        assertEquals(2, component.getVelocityX());
+        assertEquals(0, processor.getStorage().getSize());
+    }
+
+    @Test
+    void vectorizedIntegrationMatchesScalarLoop() {
+        MotionStorage scalar, vectorized;
+        Random random;
+
+        scalar = new MotionStorage(4);
+        vectorized = new MotionStorage(4);
+        random = new Random(3);
+
+        // An amount that is not a multiple of any vector length, so the tail loop runs too.
+        for (int index = 0; index < 1003; index++) {
+            double x, y, velocityX, velocityY;
+            MotionComponent scalarComponent, vectorizedComponent;
+
+            x = random.nextDouble();
+            y = random.nextDouble();
+            velocityX = random.nextDouble();
+            velocityY = random.nextDouble();
+
+            scalarComponent = new MotionComponent(x, y, velocityX, velocityY);
+            vectorizedComponent = new MotionComponent(x, y, velocityX, velocityY);
+
+            scalar.add(scalarComponent);
+            vectorized.add(vectorizedComponent);
+
+            if (index % 5 == 0) continue;
+
+            scalar.activate(scalarComponent);
+            vectorized.activate(vectorizedComponent);
+        }
+
+        assertTrue(MotionProcessor.VECTOR_API_AVAILABLE);
+
+        for (int update = 0; update < 10; update++) {
+            scalar.integrate(false);
+            vectorized.integrate(true);
+        }
+
+        for (int slot = 0; slot < scalar.getSize(); slot++) {
+            assertEquals(scalar.getX(slot), vectorized.getX(slot));
+            assertEquals(scalar.getY(slot), vectorized.getY(slot));
+        }
+    }
+
+
+    // -+- HELPERS -+- //
+
+    private static void h_assertMatches(MotionProcessor processor, MotionComponent[] components, double[][] expected) {
+        MotionStorage storage;
+        int added, active;
+
+        storage = processor.getStorage();
+        added = 0;
+        active = 0;
+
+        for (int index = 0; index < components.length; index++) {
+            assertEquals(expected[index][0], components[index].getX());
+            assertEquals(expected[index][1], components[index].getY());
+            assertEquals(expected[index][2], components[index].getVelocityX());
+
+            if (components[index].owningEntity == -1) continue;
+
+            added++;
+            if (components[index].active) active++;
+
+            assertSame(components[index], storage.getComponent(components[index].getSlot()));
+        }
+
+        assertEquals(added, storage.getSize());
+        assertEquals(active, storage.getActiveAmount());
+
+        for (int slot = 0; slot < storage.getSize(); slot++) {
+            assertEquals(slot < storage.getActiveAmount(), storage.getComponent(slot).active);
+        }
+    }
+
+
+}
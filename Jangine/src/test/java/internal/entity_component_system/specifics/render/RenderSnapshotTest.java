@@ -0,0 +1,124 @@
+package internal.entity_component_system.specifics.render;
+
+
+import internal.rendering.camera.Camera2D;
+import internal.rendering.mesh.TexturedAMesh;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+class RenderSnapshotTest {
+
+
+    // -+- TESTS -+- //
+
+    @Test
+    void entriesDrawIndependentCopies() {
+        TexturedAMesh mesh;
+        RenderEntry entry;
+
+        mesh = h_createMesh(0);
+        entry = new RenderEntry(mesh);
+
+        assertNotSame(mesh, entry.mesh);
+        assertSame(TexturedAMesh.class, entry.mesh.getClass());
+        assertEquals(mesh.texturePath, ((TexturedAMesh) entry.mesh).texturePath);
+
+        entry.mesh.vertices[0] = 100;
+
+        assertEquals(0, mesh.vertices[0]);
+    }
+    @Test
+    void verticesAreCopiedWhenWritten() {
+        RenderSnapshot snapshot;
+        TexturedAMesh first, second;
+        float[] expected, target;
+
+        snapshot = new RenderSnapshot();
+        first = h_createMesh(1);
+        second = h_createMesh(2);
+        expected = second.vertices.clone();
+        target = new float[second.vertices.length];
+
+        snapshot.add(new RenderEntry(first), "shader", 3, first.vertices);
+        snapshot.add(new RenderEntry(second), "shader", 7, second.vertices, 5, 15, 10, 20);
+
+        // The simulation keeps changing its meshes, after the snapshot got published.
+        second.vertices[0] = -1;
+
+        snapshot.copyVertices(1, target);
+
+        assertArrayEquals(expected, target);
+        assertEquals(7, snapshot.getVersion(1));
+        assertEquals(second.vertices.length, snapshot.getVertexAmount(1));
+        assertFalse(snapshot.isPositionDependent(0));
+        assertTrue(snapshot.isPositionDependent(1));
+        assertEquals(20, snapshot.getY(1));
+        assertEquals(5, snapshot.getPreviousX(1));
+    }
+    @Test
+    void cameraIsCopiedWhenWritten() {
+        RenderSnapshot snapshot;
+        Camera2D camera, expected;
+
+        snapshot = new RenderSnapshot();
+        camera = new Camera2D(640, 360);
+        camera.getPosition().set(30, 40);
+
+        snapshot.setCamera(camera);
+
+        expected = new Camera2D(640, 360);
+        expected.getPosition().set(30, 40);
+
+        // The simulation keeps moving and resizing its camera, after the snapshot got published.
+        camera.adjustProjection(100, 100);
+        camera.getPosition().set(-1, -1);
+
+        assertNotSame(camera, snapshot.getCamera());
+        assertEquals(expected.getPosition(), snapshot.getCamera().getPosition());
+        assertEquals(expected.getProjectionMatrix(), snapshot.getCamera().getProjectionMatrix());
+        assertEquals(expected.getViewMatrix(), snapshot.getCamera().getViewMatrix());
+    }
+    @Test
+    void snapshotGrowsAndClears() {
+        RenderSnapshot snapshot;
+        float[] target;
+
+        snapshot = new RenderSnapshot();
+        target = new float[20];
+
+        for (int index = 0; index < 500; index++) {
+            TexturedAMesh mesh;
+
+            mesh = h_createMesh(index);
+
+            snapshot.add(new RenderEntry(mesh), "shader", index, mesh.vertices);
+        }
+
+        assertEquals(500, snapshot.getSize());
+
+        snapshot.copyVertices(499, target);
+        assertEquals(499, target[0]);
+
+        snapshot.clear();
+
+        assertEquals(0, snapshot.getSize());
+    }
+
+    private static TexturedAMesh h_createMesh(float x) {
+        return new TexturedAMesh(new float[] {
+                x, 0, 0, 0, 0,
+                x + 1, 0, 1, 0, 0,
+                x + 1, 1, 1, 1, 0,
+                x, 1, 0, 1, 0
+        }, new int[] {0, 1, 2, 2, 3, 0}, "texture.png");
+    }
+
+
+}